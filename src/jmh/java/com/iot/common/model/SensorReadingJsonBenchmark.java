@@ -0,0 +1,71 @@
+package com.iot.common.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/** Reading values through the Kafka JSON serializer and deserializer, type headers included */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorReadingJsonBenchmark {
+
+  private static final String TOPIC = "iot-readings";
+
+  private JsonSerializer<SensorReading> serializer;
+  private JsonDeserializer<Object> deserializer;
+  private SensorReading reading;
+  private RecordHeaders headers;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() {
+    serializer = new JsonSerializer<>();
+    deserializer = new JsonDeserializer<>();
+    deserializer.configure(
+        Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.iot.common.model"), false);
+    reading =
+        new SensorReading(
+            "THERMO-0000042",
+            "THERMOSTAT",
+            "kitchen",
+            21.587,
+            LocalDateTime.of(2024, 1, 1, 12, 30, 15, 250_000_000));
+    headers = new RecordHeaders();
+    payload = serializer.serialize(TOPIC, headers, reading);
+  }
+
+  @TearDown
+  public void tearDown() {
+    serializer.close();
+    deserializer.close();
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.serialize(TOPIC, new RecordHeaders(), reading);
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    // The deserializer removes the type headers it reads, so each record gets its own copy
+    return deserializer.deserialize(TOPIC, new RecordHeaders(headers.toArray()), payload);
+  }
+}
@@ -0,0 +1,46 @@
+package com.iot.simulator.device;
+
+import com.iot.common.model.SensorReading;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** {@code generateReading} of each simulator type */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerateReadingBenchmark {
+
+  @Param({"THERMOSTAT", "HEART_RATE", "FUEL_SENSOR"})
+  private String deviceType;
+
+  private DeviceSimulator simulator;
+
+  @Setup
+  public void setUp() {
+    simulator =
+        switch (deviceType) {
+          case "THERMOSTAT" -> new ThermostatSimulator("THERMO-0000042", "kitchen");
+          case "HEART_RATE" -> new HeartRateSimulator("HR-0000042", "gym");
+          case "FUEL_SENSOR" -> new FuelSensorSimulator("FUEL-0000042", "garage");
+          default -> throw new IllegalArgumentException("Unknown device type: " + deviceType);
+        };
+  }
+
+  @Benchmark
+  public SensorReading generateReading() {
+    return simulator.generateReading();
+  }
+}
@@ -0,0 +1,67 @@
+package com.iot.system.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The repository's {@code Object[][]} to {@link SensorAggregateResult} mapping, through its default
+ * methods on a repository whose native queries return a fixed row
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregateMappingBenchmark {
+
+  private SensorReadingRepository repository;
+  private LocalDateTime start;
+  private LocalDateTime end;
+
+  @Setup
+  public void setUp() {
+    Object[][] rows = {{17.25, 26.5, new BigDecimal("21.5381"), 21.4, 20.1, 22.9, 24.6, 86_400L}};
+    InvocationHandler handler =
+        (proxy, method, args) -> {
+          if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+          }
+          if (method.getName().startsWith("findComplete")) {
+            return rows;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        };
+    repository =
+        (SensorReadingRepository)
+            Proxy.newProxyInstance(
+                SensorReadingRepository.class.getClassLoader(),
+                new Class<?>[] {SensorReadingRepository.class},
+                handler);
+    start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    end = start.plusDays(7);
+  }
+
+  @Benchmark
+  public SensorAggregateResult deviceAggregates() {
+    return repository.findAggregatesByDeviceIdAndTimestampBetween("THERMO-0000042", start, end);
+  }
+
+  @Benchmark
+  public SensorAggregateResult zoneAggregates() {
+    return repository.findAggregatesByZoneAndTimestampBetween("kitchen", start, end);
+  }
+}
@@ -0,0 +1,52 @@
+package com.iot.system.security;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Token validation done by {@link JwtAuthenticationFilter} on every authenticated request */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+  private JwtTokenProvider tokenProvider;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    tokenProvider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(
+        tokenProvider,
+        "jwtSecret",
+        "aVerySecureSecretKeyThatIsAtLeast256BitsLongForJWTTokenGenerationAndValidation1234567890");
+    ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86400);
+    token =
+        tokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken("iotuser", null, List.of()));
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return tokenProvider.validateToken(token);
+  }
+
+  @Benchmark
+  public String getUsernameFromToken() {
+    return tokenProvider.getUsernameFromToken(token);
+  }
+}
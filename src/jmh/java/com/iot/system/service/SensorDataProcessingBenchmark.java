@@ -0,0 +1,153 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.AlertProperties;
+import com.iot.system.repository.SensorReadingRepository;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Batch validation of the ingest path: {@code processSensorReadingBatch} with a repository that
+ * only hands the valid readings to the blackhole, so the cost measured is filtering them. With
+ * {@code alertStage} set, the readings also go through {@link AlertingService} with the default
+ * rules, publishing to a stub template, to compare ingest capacity with and without the stage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorDataProcessingBenchmark {
+
+  @Param({"500"})
+  private int batchSize;
+
+  /** Every n-th reading lacks a field and is filtered out */
+  @Param({"10"})
+  private int invalidEvery;
+
+  @Param({"false", "true"})
+  private boolean alertStage;
+
+  private SensorDataProcessingService service;
+  private List<SensorReading> batch;
+  private Blackhole saved;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    saved = blackhole;
+    SensorReadingRepository repository =
+        (SensorReadingRepository)
+            Proxy.newProxyInstance(
+                SensorReadingRepository.class.getClassLoader(),
+                new Class<?>[] {SensorReadingRepository.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("saveAll")) {
+                    saved.consume(args[0]);
+                    return args[0];
+                  }
+                  throw new UnsupportedOperationException(method.getName());
+                });
+    service = new SensorDataProcessingService();
+    ReflectionTestUtils.setField(service, "sensorReadingRepository", repository);
+    if (alertStage) {
+      ReflectionTestUtils.setField(service, "readingStages", List.of(alertingService(blackhole)));
+    }
+
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    batch = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      batch.add(reading(i, start.plusSeconds(i)));
+    }
+  }
+
+  @Benchmark
+  public void processBatch() {
+    service.processSensorReadingBatch(batch);
+  }
+
+  /** The configured default rules, with alerts handed to the blackhole instead of Kafka */
+  private static AlertingService alertingService(Blackhole published) {
+    AlertProperties properties = new AlertProperties();
+    properties.setRules(
+        List.of(
+            rule("heart-rate-high", "HEART_RATE", "ABOVE", 160, 30),
+            rule("fuel-low", "FUEL_SENSOR", "BELOW", 15, 0),
+            rule("thermostat-stuck-high", "THERMOSTAT", "AT_OR_ABOVE", 30.0, 300),
+            rule("thermostat-stuck-low", "THERMOSTAT", "AT_OR_BELOW", 18.0, 300)));
+    KafkaTemplate<String, Object> kafkaTemplate =
+        new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())) {
+          @Override
+          public CompletableFuture<SendResult<String, Object>> send(
+              String topic, String key, Object data) {
+            published.consume(data);
+            return CompletableFuture.completedFuture(null);
+          }
+        };
+    AlertingService alertingService = new AlertingService();
+    ReflectionTestUtils.setField(alertingService, "alertProperties", properties);
+    ReflectionTestUtils.setField(alertingService, "kafkaTemplate", kafkaTemplate);
+    alertingService.compileRules();
+    return alertingService;
+  }
+
+  private static AlertProperties.Rule rule(
+      String id, String deviceType, String operator, double threshold, long durationSeconds) {
+    AlertProperties.Rule rule = new AlertProperties.Rule();
+    rule.setId(id);
+    rule.setDeviceType(deviceType);
+    rule.setOperator(operator);
+    rule.setThreshold(threshold);
+    rule.setDurationSeconds(durationSeconds);
+    return rule;
+  }
+
+  /** A mix of the three device types; one reading in 50 crosses its type's threshold */
+  private SensorReading reading(int i, LocalDateTime timestamp) {
+    boolean breach = i % 50 == 7;
+    String deviceType;
+    double value;
+    switch (i % 3) {
+      case 0 -> {
+        deviceType = "THERMOSTAT";
+        value = breach ? 31.0 : 20.0 + i % 7;
+      }
+      case 1 -> {
+        deviceType = "HEART_RATE";
+        value = breach ? 170.0 : 60.0 + i % 80;
+      }
+      default -> {
+        deviceType = "FUEL_SENSOR";
+        value = breach ? 10.0 : 20.0 + i % 70;
+      }
+    }
+    return new SensorReading(
+        deviceType + "-" + i % 100,
+        i % invalidEvery == 0 ? null : deviceType,
+        "kitchen",
+        value,
+        timestamp);
+  }
+}
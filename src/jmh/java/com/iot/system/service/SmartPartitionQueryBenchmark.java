@@ -0,0 +1,82 @@
+package com.iot.system.service;
+
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.dto.SensorAggregateData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Partition query path without the database: building the query, formatting its parameters, {@code
+ * mapResultToSensorAggregateData} over a row shaped like the one PostgreSQL returns, and recording
+ * the query's latency
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmartPartitionQueryBenchmark {
+
+  private SmartPartitionQueryService service;
+  private QueryTimingService timing;
+  private LocalDateTime start;
+  private LocalDateTime end;
+
+  @Setup
+  public void setUp() {
+    Map<String, Object> row = new HashMap<>();
+    row.put("median", 21.4);
+    row.put("q1", 20.1);
+    row.put("q3", 22.9);
+    row.put("p95", 24.6);
+    row.put("min_value", 17.25);
+    row.put("max_value", 26.5);
+    row.put("avg_value", new BigDecimal("21.5381"));
+    row.put("count_value", 86_400L);
+    JdbcTemplate jdbcTemplate =
+        new JdbcTemplate() {
+          @Override
+          public Map<String, Object> queryForMap(String sql, Object... args) {
+            return row;
+          }
+        };
+    timing = new QueryTimingService();
+    ReflectionTestUtils.setField(timing, "properties", new QueryTimingProperties());
+    ReflectionTestUtils.setField(timing, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(timing, "jdbcTemplate", jdbcTemplate);
+    timing.initialize();
+    service = new SmartPartitionQueryService();
+    ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+    ReflectionTestUtils.setField(service, "queryTimingService", timing);
+    start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    end = start.plusDays(7);
+  }
+
+  @TearDown
+  public void tearDown() {
+    timing.shutdown();
+  }
+
+  @Benchmark
+  public SensorAggregateData deviceAggregates() {
+    return service.getPartitionedDeviceAggregates("THERMO-0000042", start, end);
+  }
+}
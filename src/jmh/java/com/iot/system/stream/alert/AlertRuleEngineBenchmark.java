@@ -0,0 +1,131 @@
+package com.iot.system.stream.alert;
+
+import com.iot.common.model.SensorReading;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-reading cost of {@link AlertRuleEngine#evaluate} on a rule table shaped like a deployment:
+ * the default rule per device type plus zone-specific overrides, evaluated for a fleet of devices
+ * spread over the zones, with event time advancing so duration conditions raise and resolve
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertRuleEngineBenchmark {
+
+  private static final String[] DEVICE_TYPES = {"THERMOSTAT", "HEART_RATE", "FUEL_SENSOR"};
+
+  /** Milliseconds of event time between consecutive readings */
+  private static final long READING_INTERVAL_MILLIS = 10;
+
+  @Param({"10000"})
+  private int devices;
+
+  @Param({"20"})
+  private int zones;
+
+  /** Percentage of readings that cross their type's threshold */
+  @Param({"2"})
+  private int breachPercent;
+
+  private AlertRuleEngine engine;
+  private SensorReading[] readings;
+  private int cursor;
+  private long timestampMillis;
+
+  @Setup
+  public void setUp() {
+    List<AlertRule> rules = new ArrayList<>();
+    rules.add(rule(rules, "heart-rate-high", "HEART_RATE", null, AlertOperator.ABOVE, 160, 30));
+    rules.add(rule(rules, "fuel-low", "FUEL_SENSOR", null, AlertOperator.BELOW, 15, 0));
+    rules.add(
+        rule(rules, "thermostat-high", "THERMOSTAT", null, AlertOperator.AT_OR_ABOVE, 30.0, 300));
+    rules.add(
+        rule(rules, "thermostat-low", "THERMOSTAT", null, AlertOperator.AT_OR_BELOW, 18.0, 300));
+    for (int z = 0; z < zones; z++) {
+      String zone = zone(z);
+      rules.add(
+          rule(
+              rules,
+              "thermostat-high-" + zone,
+              "THERMOSTAT",
+              zone,
+              AlertOperator.ABOVE,
+              26.0 + z % 4,
+              60));
+      if (z % 2 == 0) {
+        rules.add(
+            rule(rules, "fuel-warn-" + zone, "FUEL_SENSOR", zone, AlertOperator.BELOW, 25, 0));
+      }
+    }
+    engine = new AlertRuleEngine(rules);
+
+    Random random = new Random(42);
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+    readings = new SensorReading[devices * 4];
+    for (int i = 0; i < readings.length; i++) {
+      int device = i % devices;
+      String deviceType = DEVICE_TYPES[device % DEVICE_TYPES.length];
+      boolean breach = random.nextInt(100) < breachPercent;
+      double value =
+          switch (deviceType) {
+            case "THERMOSTAT" -> breach ? 31.0 : 19.0 + random.nextDouble() * 6.0;
+            case "HEART_RATE" -> breach ? 175.0 : 60.0 + random.nextDouble() * 90.0;
+            default -> breach ? 10.0 : 30.0 + random.nextDouble() * 60.0;
+          };
+      readings[i] =
+          new SensorReading(
+              deviceType + "-" + device, deviceType, zone(device % zones), value, timestamp);
+    }
+  }
+
+  @Benchmark
+  public void evaluate(Blackhole alerts) {
+    SensorReading reading = readings[cursor];
+    cursor = cursor + 1 == readings.length ? 0 : cursor + 1;
+    timestampMillis += READING_INTERVAL_MILLIS;
+    engine.evaluate(reading, timestampMillis, alerts::consume);
+  }
+
+  private static AlertRule rule(
+      List<AlertRule> rules,
+      String id,
+      String deviceType,
+      String zone,
+      AlertOperator operator,
+      double threshold,
+      long durationSeconds) {
+    return new AlertRule(
+        rules.size(),
+        id,
+        deviceType,
+        zone,
+        operator,
+        threshold,
+        durationSeconds * 1000L,
+        "WARNING");
+  }
+
+  private static String zone(int index) {
+    return "zone-" + index;
+  }
+}
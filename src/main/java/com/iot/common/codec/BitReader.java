@@ -0,0 +1,54 @@
+package com.iot.common.codec;
+
+/** Reads a {@link BitWriter} stream, failing on reads past its end */
+final class BitReader {
+
+  private final byte[] data;
+  private final long limitBits;
+  private long position;
+
+  BitReader(byte[] data, int offset) {
+    this.data = data;
+    this.limitBits = (long) data.length * 8;
+    this.position = (long) offset * 8;
+  }
+
+  /** Bits left before the end of the data */
+  long remainingBits() {
+    return limitBits - position;
+  }
+
+  boolean readBit() {
+    return readBits(1) != 0;
+  }
+
+  /** Read {@code bits} bits, 0 to 64, as the low bits of the result */
+  long readBits(int bits) {
+    if (position + bits > limitBits) {
+      throw new IllegalArgumentException("Truncated batch: read past the end of the envelope");
+    }
+    long value = 0;
+    while (bits > 0) {
+      int index = (int) (position >>> 3);
+      int used = (int) (position & 7);
+      int n = Math.min(8 - used, bits);
+      int chunk = ((data[index] & 0xFF) >>> (8 - used - n)) & ((1 << n) - 1);
+      value = (value << n) | chunk;
+      position += n;
+      bits -= n;
+    }
+    return value;
+  }
+
+  long readVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      long b = readBits(8);
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed batch: variable length number too long");
+  }
+}
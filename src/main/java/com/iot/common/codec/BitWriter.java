@@ -0,0 +1,63 @@
+package com.iot.common.codec;
+
+import java.util.Arrays;
+
+/** Growable bit stream, most significant bit first */
+final class BitWriter {
+
+  private byte[] buffer = new byte[256];
+  private int size;
+  private int current;
+  private int currentBits;
+
+  void reset() {
+    size = 0;
+    current = 0;
+    currentBits = 0;
+  }
+
+  void writeBit(boolean bit) {
+    writeBits(bit ? 1 : 0, 1);
+  }
+
+  /** Write the low {@code bits} bits of {@code value}, 0 to 64 */
+  void writeBits(long value, int bits) {
+    while (bits > 0) {
+      int n = Math.min(8 - currentBits, bits);
+      int chunk = (int) ((value >>> (bits - n)) & ((1 << n) - 1));
+      current = (current << n) | chunk;
+      currentBits += n;
+      bits -= n;
+      if (currentBits == 8) {
+        appendByte(current);
+        current = 0;
+        currentBits = 0;
+      }
+    }
+  }
+
+  /** Unsigned LEB128-style variable length number, in 8-bit groups */
+  void writeVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      writeBits((value & 0x7F) | 0x80, 8);
+      value >>>= 7;
+    }
+    writeBits(value, 8);
+  }
+
+  /** The stream so far, the last byte padded with zero bits */
+  byte[] toByteArray() {
+    byte[] bytes = Arrays.copyOf(buffer, size + (currentBits > 0 ? 1 : 0));
+    if (currentBits > 0) {
+      bytes[size] = (byte) (current << (8 - currentBits));
+    }
+    return bytes;
+  }
+
+  private void appendByte(int b) {
+    if (size == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    buffer[size++] = (byte) b;
+  }
+}
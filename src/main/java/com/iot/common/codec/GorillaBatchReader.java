@@ -0,0 +1,117 @@
+package com.iot.common.codec;
+
+import com.iot.common.model.ReadingBatch;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes envelopes written by {@link GorillaBatchWriter}. The bit stream is read once, front to
+ * back, and every series is decoded straight into {@code long[]} and {@code double[]} columns sized
+ * by its reading count, with no per-reading objects. Truncated or malformed input fails with an
+ * {@link IllegalArgumentException}.
+ */
+public final class GorillaBatchReader {
+
+  /** Upper bound on the readings of one series, against corrupt counts allocating huge arrays */
+  static final int MAX_SERIES_READINGS = 1 << 24;
+
+  /** The first reading of a series is stored raw: a 64-bit timestamp and a 64-bit value */
+  private static final int FIRST_READING_BITS = 128;
+
+  /** Every later reading takes at least a zero delta-of-delta bit and an unchanged-value bit */
+  private static final int MIN_READING_BITS = 2;
+
+  private GorillaBatchReader() {}
+
+  public static ReadingBatch decode(byte[] envelope) {
+    if (envelope.length == 0 || envelope[0] != GorillaBatchWriter.VERSION) {
+      throw new IllegalArgumentException("Not a version " + GorillaBatchWriter.VERSION + " batch");
+    }
+    BitReader bits = new BitReader(envelope, 1);
+    List<ReadingBatch.Series> series = new ArrayList<>();
+    while (bits.readBit()) {
+      series.add(readSeries(bits));
+    }
+    return new ReadingBatch(series);
+  }
+
+  private static ReadingBatch.Series readSeries(BitReader bits) {
+    String deviceId = readString(bits);
+    String deviceType = readString(bits);
+    String zone = readString(bits);
+    long count = bits.readVarint();
+    // Checked before allocating, so a few bytes cannot claim millions of readings
+    if (count < 0
+        || count > MAX_SERIES_READINGS
+        || (count > 0
+            && FIRST_READING_BITS + (count - 1) * MIN_READING_BITS > bits.remainingBits())) {
+      throw new IllegalArgumentException(
+          "Series of " + deviceId + " claims " + count + " readings");
+    }
+    long[] timestamps = new long[(int) count];
+    double[] values = new double[(int) count];
+    if (count > 0) {
+      long timestamp = bits.readBits(64);
+      long valueBits = bits.readBits(64);
+      timestamps[0] = timestamp;
+      values[0] = Double.longBitsToDouble(valueBits);
+      long delta = 0;
+      int leading = 0;
+      int trailing = 0;
+      for (int i = 1; i < count; i++) {
+        delta += readDeltaOfDelta(bits);
+        timestamp += delta;
+        timestamps[i] = timestamp;
+
+        if (bits.readBit()) {
+          if (bits.readBit()) {
+            leading = (int) bits.readBits(5);
+            int significant = (int) bits.readBits(6);
+            if (significant == 0) {
+              significant = 64;
+            }
+            trailing = 64 - leading - significant;
+            if (trailing < 0) {
+              throw new IllegalArgumentException("Malformed value in series of " + deviceId);
+            }
+          }
+          valueBits ^= bits.readBits(64 - leading - trailing) << trailing;
+        }
+        values[i] = Double.longBitsToDouble(valueBits);
+      }
+    }
+    return new ReadingBatch.Series(deviceId, deviceType, zone, timestamps, values);
+  }
+
+  private static long readDeltaOfDelta(BitReader bits) {
+    if (!bits.readBit()) {
+      return 0;
+    }
+    if (!bits.readBit()) {
+      return bits.readBits(7) - 63;
+    }
+    if (!bits.readBit()) {
+      return bits.readBits(9) - 255;
+    }
+    if (!bits.readBit()) {
+      return bits.readBits(12) - 2047;
+    }
+    return bits.readBits(64);
+  }
+
+  private static String readString(BitReader bits) {
+    long length = bits.readVarint();
+    if (length == 0) {
+      return null;
+    }
+    if (length - 1 > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Malformed batch: string of " + (length - 1) + " bytes");
+    }
+    byte[] utf8 = new byte[(int) length - 1];
+    for (int i = 0; i < utf8.length; i++) {
+      utf8[i] = (byte) bits.readBits(8);
+    }
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+}
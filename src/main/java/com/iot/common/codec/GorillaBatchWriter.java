@@ -0,0 +1,152 @@
+package com.iot.common.codec;
+
+import com.iot.common.model.ReadingBatch;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a {@link ReadingBatch} in the Gorilla-style columnar encoding, the {@link
+ * ReadingBatch#GORILLA_ENCODING} of the batch topic. Each series carries its device ID, type and
+ * zone once, then its readings as a bit stream: the first timestamp and value in full, every later
+ * timestamp as the change in its delta from the previous one (a single bit for a device reporting
+ * at a steady interval) and every later value as its XOR with the previous one, of which only the
+ * meaningful bits are stored (a single bit for an unchanged value).
+ *
+ * <p>Layout: a version byte, then per series a {@code 1} bit, the three strings, the reading count
+ * and the readings, and a final {@code 0} bit. Read back with {@link GorillaBatchReader}.
+ *
+ * <p>Not thread-safe; an instance can be reused for any number of batches.
+ */
+public final class GorillaBatchWriter {
+
+  static final int VERSION = 1;
+
+  private final BitWriter bits = new BitWriter();
+  private int readings;
+
+  public GorillaBatchWriter() {
+    begin();
+  }
+
+  /** Encode {@code batch} in one go */
+  public static byte[] encode(ReadingBatch batch) {
+    GorillaBatchWriter writer = new GorillaBatchWriter();
+    for (ReadingBatch.Series series : batch.getSeries()) {
+      writer.addSeries(
+          series.getDeviceId(),
+          series.getDeviceType(),
+          series.getZone(),
+          series.getTimestamps(),
+          series.getValues(),
+          0,
+          series.size());
+    }
+    return writer.finish();
+  }
+
+  /** Start a new batch, discarding anything written since the last {@link #finish()} */
+  public void begin() {
+    bits.reset();
+    bits.writeBits(VERSION, 8);
+    readings = 0;
+  }
+
+  /** Add a series: {@code count} readings from {@code offset} of the columns */
+  public void addSeries(
+      String deviceId,
+      String deviceType,
+      String zone,
+      long[] timestamps,
+      double[] values,
+      int offset,
+      int count) {
+    bits.writeBit(true);
+    writeString(deviceId);
+    writeString(deviceType);
+    writeString(zone);
+    bits.writeVarint(count);
+    if (count == 0) {
+      return;
+    }
+
+    long timestamp = timestamps[offset];
+    long valueBits = Double.doubleToRawLongBits(values[offset]);
+    bits.writeBits(timestamp, 64);
+    bits.writeBits(valueBits, 64);
+    long delta = 0;
+    int leading = -1;
+    int trailing = 0;
+    for (int i = offset + 1; i < offset + count; i++) {
+      long nextDelta = timestamps[i] - timestamp;
+      writeDeltaOfDelta(nextDelta - delta);
+      delta = nextDelta;
+      timestamp = timestamps[i];
+
+      long nextBits = Double.doubleToRawLongBits(values[i]);
+      long xor = nextBits ^ valueBits;
+      valueBits = nextBits;
+      if (xor == 0) {
+        bits.writeBit(false);
+        continue;
+      }
+      bits.writeBit(true);
+      int xorLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+      int xorTrailing = Long.numberOfTrailingZeros(xor);
+      if (leading >= 0 && xorLeading >= leading && xorTrailing >= trailing) {
+        // Meaningful bits fit the previous window
+        bits.writeBit(false);
+        bits.writeBits(xor >>> trailing, 64 - leading - trailing);
+      } else {
+        int significant = 64 - xorLeading - xorTrailing;
+        bits.writeBit(true);
+        bits.writeBits(xorLeading, 5);
+        bits.writeBits(significant & 63, 6);
+        bits.writeBits(xor >>> xorTrailing, significant);
+        leading = xorLeading;
+        trailing = xorTrailing;
+      }
+    }
+    readings += count;
+  }
+
+  /** Readings added since {@link #begin()} */
+  public int readings() {
+    return readings;
+  }
+
+  /** End the batch and return its bytes */
+  public byte[] finish() {
+    bits.writeBit(false);
+    return bits.toByteArray();
+  }
+
+  private void writeDeltaOfDelta(long dod) {
+    if (dod == 0) {
+      bits.writeBit(false);
+    } else if (dod >= -63 && dod <= 64) {
+      bits.writeBits(0b10, 2);
+      bits.writeBits(dod + 63, 7);
+    } else if (dod >= -255 && dod <= 256) {
+      bits.writeBits(0b110, 3);
+      bits.writeBits(dod + 255, 9);
+    } else if (dod >= -2047 && dod <= 2048) {
+      bits.writeBits(0b1110, 4);
+      bits.writeBits(dod + 2047, 12);
+    } else {
+      bits.writeBits(0b1111, 4);
+      bits.writeBits(dod, 64);
+    }
+  }
+
+  /** Null as 0, otherwise the UTF-8 length plus one and the bytes */
+  private void writeString(String text) {
+    if (text == null) {
+      bits.writeVarint(0);
+      return;
+    }
+    byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+    bits.writeVarint(utf8.length + 1L);
+    for (byte b : utf8) {
+      bits.writeBits(b, 8);
+    }
+  }
+}
@@ -4,9 +4,13 @@ import com.iot.simulator.device.DeviceSimulator;
 import com.iot.simulator.device.FuelSensorSimulator;
 import com.iot.simulator.device.HeartRateSimulator;
 import com.iot.simulator.device.ThermostatSimulator;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,4 +51,41 @@ public class DeviceSimulatorFactory {
     logger.debug("Created {} standard device simulators", simulators.size());
     return simulators;
   }
+
+  /**
+   * Create a compact fleet from group specifications, for simulating large device counts
+   *
+   * @param groups Device groups making up the fleet
+   * @param seed Global seed for reproducible per-device streams, or null for unseeded
+   * @return Fleet holding one value per device
+   */
+  public static DeviceFleet createFleet(List<FleetGroup> groups, Long seed) {
+    DeviceFleet fleet = new DeviceFleet(groups, seed);
+    logger.debug("Created fleet of {} devices in {} groups", fleet.size(), groups.size());
+    return fleet;
+  }
+
+  /**
+   * Create a fleet with the same device IDs, types and zones as the standard device set, whose IDs
+   * are the 0-based index followed by 1 (THERMO-01, THERMO-11)
+   *
+   * @param seed Global seed for reproducible per-device streams, or null for unseeded
+   * @return Fleet of five devices reporting every second
+   */
+  public static DeviceFleet createStandardFleet(Long seed) {
+    return createFleet(
+        List.of(
+            new FleetGroup("THERMOSTAT", 2, 1000, "THERMO-%d1", 0, zones("living-room", "bedroom")),
+            new FleetGroup("HEART_RATE", 2, 1000, "HR-%d1", 0, zones("gym", "home")),
+            new FleetGroup("FUEL_SENSOR", 1, 1000, "FUEL-%d1", 0, zones("garage"))),
+        seed);
+  }
+
+  private static Map<String, Integer> zones(String... names) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String name : names) {
+      weights.put(name, 1);
+    }
+    return weights;
+  }
 }
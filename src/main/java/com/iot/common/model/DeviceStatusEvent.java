@@ -0,0 +1,91 @@
+package com.iot.common.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/** Online/offline transition of a device, published by the system service's liveness tracker */
+public class DeviceStatusEvent {
+
+  public enum Status {
+    ONLINE,
+    OFFLINE
+  }
+
+  private String deviceId;
+  private Status status;
+  private Long expectedIntervalMs;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime lastSeen;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime timestamp;
+
+  public DeviceStatusEvent() {}
+
+  public DeviceStatusEvent(
+      String deviceId,
+      Status status,
+      Long expectedIntervalMs,
+      LocalDateTime lastSeen,
+      LocalDateTime timestamp) {
+    this.deviceId = deviceId;
+    this.status = status;
+    this.expectedIntervalMs = expectedIntervalMs;
+    this.lastSeen = lastSeen;
+    this.timestamp = timestamp;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  public Long getExpectedIntervalMs() {
+    return expectedIntervalMs;
+  }
+
+  public void setExpectedIntervalMs(Long expectedIntervalMs) {
+    this.expectedIntervalMs = expectedIntervalMs;
+  }
+
+  public LocalDateTime getLastSeen() {
+    return lastSeen;
+  }
+
+  public void setLastSeen(LocalDateTime lastSeen) {
+    this.lastSeen = lastSeen;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(LocalDateTime timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "DeviceStatusEvent{"
+        + "deviceId='"
+        + deviceId
+        + '\''
+        + ", status="
+        + status
+        + ", lastSeen="
+        + lastSeen
+        + '}';
+  }
+}
@@ -0,0 +1,149 @@
+package com.iot.common.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Many readings in one Kafka record: one or more device series, each with the device's identity
+ * once and its readings as parallel columns of epoch-millisecond UTC timestamps and values. A
+ * device sends one series covering a short window; a gateway sends one series per device it covers.
+ * Published on the batch topic, with the encoding in the {@link ReadingHeaders#BATCH_ENCODING}
+ * header.
+ */
+public class ReadingBatch {
+
+  /** Value of the {@link ReadingHeaders#BATCH_ENCODING} header for this class as JSON */
+  public static final String JSON_ENCODING = "json";
+
+  /**
+   * Value of the {@link ReadingHeaders#BATCH_ENCODING} header for the columnar encoding of {@code
+   * com.iot.common.codec.GorillaBatchWriter}
+   */
+  public static final String GORILLA_ENCODING = "gorilla";
+
+  private List<Series> series = new ArrayList<>();
+
+  public ReadingBatch() {}
+
+  public ReadingBatch(List<Series> series) {
+    this.series = series;
+  }
+
+  public List<Series> getSeries() {
+    return series;
+  }
+
+  public void setSeries(List<Series> series) {
+    this.series = series;
+  }
+
+  /** Total number of readings over all series */
+  public int size() {
+    int size = 0;
+    for (Series deviceSeries : series) {
+      size += deviceSeries.size();
+    }
+    return size;
+  }
+
+  /** Unpack every series into individual readings, in series order */
+  public List<SensorReading> toReadings() {
+    List<SensorReading> readings = new ArrayList<>(size());
+    for (Series deviceSeries : series) {
+      deviceSeries.addReadings(readings);
+    }
+    return readings;
+  }
+
+  /** Readings of one device, as columns */
+  public static class Series {
+
+    private String deviceId;
+    private String deviceType;
+    private String zone;
+    private long[] timestamps = new long[0];
+    private double[] values = new double[0];
+
+    public Series() {}
+
+    public Series(
+        String deviceId, String deviceType, String zone, long[] timestamps, double[] values) {
+      this.deviceId = deviceId;
+      this.deviceType = deviceType;
+      this.zone = zone;
+      this.timestamps = timestamps;
+      this.values = values;
+    }
+
+    public int size() {
+      if (timestamps.length != values.length) {
+        throw new IllegalArgumentException(
+            "Series of "
+                + deviceId
+                + " has "
+                + timestamps.length
+                + " timestamps but "
+                + values.length
+                + " values");
+      }
+      return timestamps.length;
+    }
+
+    void addReadings(List<SensorReading> readings) {
+      for (int i = 0; i < size(); i++) {
+        readings.add(
+            new SensorReading(
+                deviceId,
+                deviceType,
+                zone,
+                values[i],
+                LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(timestamps[i], 1000),
+                    (int) Math.floorMod(timestamps[i], 1000) * 1_000_000,
+                    ZoneOffset.UTC)));
+      }
+    }
+
+    public String getDeviceId() {
+      return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+      this.deviceId = deviceId;
+    }
+
+    public String getDeviceType() {
+      return deviceType;
+    }
+
+    public void setDeviceType(String deviceType) {
+      this.deviceType = deviceType;
+    }
+
+    public String getZone() {
+      return zone;
+    }
+
+    public void setZone(String zone) {
+      this.zone = zone;
+    }
+
+    public long[] getTimestamps() {
+      return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+      this.timestamps = timestamps;
+    }
+
+    public double[] getValues() {
+      return values;
+    }
+
+    public void setValues(double[] values) {
+      this.values = values;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.iot.common.model;
+
+/** Kafka record headers shared by the simulator and the system service */
+public final class ReadingHeaders {
+
+  /**
+   * Epoch microseconds at which the load generator's open-loop schedule intended to send the
+   * reading, as an ASCII decimal. Latency measured from here is free of coordinated omission.
+   */
+  public static final String INTENDED_SEND_TIME = "iot-intended-send-time-us";
+
+  /** Encoding of a {@link ReadingBatch} record on the batch topic, as an ASCII name */
+  public static final String BATCH_ENCODING = "iot-batch-encoding";
+
+  private ReadingHeaders() {}
+}
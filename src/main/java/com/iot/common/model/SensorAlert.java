@@ -0,0 +1,157 @@
+package com.iot.common.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/** Alert state change published by the system service when a threshold rule fires or clears */
+public class SensorAlert {
+
+  public enum State {
+    RAISED,
+    RESOLVED
+  }
+
+  private String ruleId;
+  private String severity;
+  private State state;
+  private String deviceId;
+  private String deviceType;
+  private String zone;
+  private Double value;
+  private String condition;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime conditionSince;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime timestamp;
+
+  public SensorAlert() {}
+
+  public SensorAlert(
+      String ruleId,
+      String severity,
+      State state,
+      String deviceId,
+      String deviceType,
+      String zone,
+      Double value,
+      String condition,
+      LocalDateTime conditionSince,
+      LocalDateTime timestamp) {
+    this.ruleId = ruleId;
+    this.severity = severity;
+    this.state = state;
+    this.deviceId = deviceId;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.value = value;
+    this.condition = condition;
+    this.conditionSince = conditionSince;
+    this.timestamp = timestamp;
+  }
+
+  public String getRuleId() {
+    return ruleId;
+  }
+
+  public void setRuleId(String ruleId) {
+    this.ruleId = ruleId;
+  }
+
+  public String getSeverity() {
+    return severity;
+  }
+
+  public void setSeverity(String severity) {
+    this.severity = severity;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public void setState(State state) {
+    this.state = state;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public void setDeviceType(String deviceType) {
+    this.deviceType = deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public void setZone(String zone) {
+    this.zone = zone;
+  }
+
+  public Double getValue() {
+    return value;
+  }
+
+  public void setValue(Double value) {
+    this.value = value;
+  }
+
+  public String getCondition() {
+    return condition;
+  }
+
+  public void setCondition(String condition) {
+    this.condition = condition;
+  }
+
+  public LocalDateTime getConditionSince() {
+    return conditionSince;
+  }
+
+  public void setConditionSince(LocalDateTime conditionSince) {
+    this.conditionSince = conditionSince;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(LocalDateTime timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "SensorAlert{"
+        + "ruleId='"
+        + ruleId
+        + '\''
+        + ", state="
+        + state
+        + ", deviceId='"
+        + deviceId
+        + '\''
+        + ", zone='"
+        + zone
+        + '\''
+        + ", value="
+        + value
+        + ", condition='"
+        + condition
+        + '\''
+        + ", timestamp="
+        + timestamp
+        + '}';
+  }
+}
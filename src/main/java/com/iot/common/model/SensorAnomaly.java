@@ -0,0 +1,149 @@
+package com.iot.common.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+/** Statistical anomaly flagged by the system service's EWMA baseline for a device */
+public class SensorAnomaly {
+
+  private String deviceId;
+  private String deviceType;
+  private String zone;
+  private Double value;
+
+  /** VALUE when the raw reading is scored, DELTA when the change since the last reading is */
+  private String signal;
+
+  private Double observed;
+  private Double expected;
+  private Double stdDev;
+  private Double score;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime timestamp;
+
+  public SensorAnomaly() {}
+
+  public SensorAnomaly(
+      String deviceId,
+      String deviceType,
+      String zone,
+      Double value,
+      String signal,
+      Double observed,
+      Double expected,
+      Double stdDev,
+      Double score,
+      LocalDateTime timestamp) {
+    this.deviceId = deviceId;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.value = value;
+    this.signal = signal;
+    this.observed = observed;
+    this.expected = expected;
+    this.stdDev = stdDev;
+    this.score = score;
+    this.timestamp = timestamp;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public void setDeviceType(String deviceType) {
+    this.deviceType = deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public void setZone(String zone) {
+    this.zone = zone;
+  }
+
+  public Double getValue() {
+    return value;
+  }
+
+  public void setValue(Double value) {
+    this.value = value;
+  }
+
+  public String getSignal() {
+    return signal;
+  }
+
+  public void setSignal(String signal) {
+    this.signal = signal;
+  }
+
+  public Double getObserved() {
+    return observed;
+  }
+
+  public void setObserved(Double observed) {
+    this.observed = observed;
+  }
+
+  public Double getExpected() {
+    return expected;
+  }
+
+  public void setExpected(Double expected) {
+    this.expected = expected;
+  }
+
+  public Double getStdDev() {
+    return stdDev;
+  }
+
+  public void setStdDev(Double stdDev) {
+    this.stdDev = stdDev;
+  }
+
+  public Double getScore() {
+    return score;
+  }
+
+  public void setScore(Double score) {
+    this.score = score;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(LocalDateTime timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "SensorAnomaly{"
+        + "deviceId='"
+        + deviceId
+        + '\''
+        + ", signal='"
+        + signal
+        + '\''
+        + ", observed="
+        + observed
+        + ", expected="
+        + expected
+        + ", score="
+        + score
+        + ", timestamp="
+        + timestamp
+        + '}';
+  }
+}
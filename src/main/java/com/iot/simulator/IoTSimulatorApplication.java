@@ -9,7 +9,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
       org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration.class,
       org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class,
       org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration.class,
-      org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class
+      org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+      org.springframework.boot.actuate.autoconfigure.security.servlet
+          .ManagementWebSecurityAutoConfiguration.class
     })
 @EnableScheduling
 public class IoTSimulatorApplication {
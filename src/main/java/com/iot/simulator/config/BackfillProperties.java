@@ -0,0 +1,45 @@
+package com.iot.simulator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Historical backfill settings, bound from {@code iot.simulator.backfill} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.backfill")
+public class BackfillProperties {
+
+  /** Generator threads; 0 uses one per core */
+  private int parallelism = 0;
+
+  /** Readings handed to the producer but not yet acknowledged before generation blocks */
+  private int maxInFlight = 20000;
+
+  /** Kafka producer overrides applied on top of spring.kafka.producer for backfill only */
+  private Map<String, String> producer = new HashMap<>();
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public Map<String, String> getProducer() {
+    return producer;
+  }
+
+  public void setProducer(Map<String, String> producer) {
+    this.producer = producer;
+  }
+}
@@ -0,0 +1,54 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Batch envelope settings for live simulation, bound from {@code iot.simulator.batch} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.batch")
+public class BatchProperties {
+
+  /** Send each device's readings in batch envelopes on the batch topic instead of one by one */
+  private boolean enabled = false;
+
+  /** Envelope encoding: {@code gorilla} (columnar, compressed) or {@code json} */
+  private String encoding = "gorilla";
+
+  /** Readings per device after which its envelope is sent */
+  private int maxReadings = 10;
+
+  /** Span of readings after which a device's envelope is sent even if not full */
+  private long windowMs = 10000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getEncoding() {
+    return encoding;
+  }
+
+  public void setEncoding(String encoding) {
+    this.encoding = encoding;
+  }
+
+  public int getMaxReadings() {
+    return maxReadings;
+  }
+
+  public void setMaxReadings(int maxReadings) {
+    this.maxReadings = maxReadings;
+  }
+
+  public long getWindowMs() {
+    return windowMs;
+  }
+
+  public void setWindowMs(long windowMs) {
+    this.windowMs = windowMs;
+  }
+}
@@ -0,0 +1,86 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Direct-to-database backfill, bound from {@code iot.simulator.bulk-load}. The simulator has no
+ * datasource of its own, so the connection to the system's database is configured here.
+ */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.bulk-load")
+public class BulkLoadProperties {
+
+  private String url = "jdbc:postgresql://localhost:5432/iot_system";
+
+  private String username = "iot_user";
+
+  private String password = "iot_password";
+
+  /** Concurrent COPY streams; 0 uses one per available processor */
+  private int parallelism = 0;
+
+  /** Rows per COPY when importing a recording */
+  private int importBatchRows = 100_000;
+
+  private int maxDays = 366;
+
+  /** Refresh the hourly continuous aggregates over the loaded range afterwards */
+  private boolean refreshAggregates = true;
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public String getPassword() {
+    return password;
+  }
+
+  public void setPassword(String password) {
+    this.password = password;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getImportBatchRows() {
+    return importBatchRows;
+  }
+
+  public void setImportBatchRows(int importBatchRows) {
+    this.importBatchRows = importBatchRows;
+  }
+
+  public int getMaxDays() {
+    return maxDays;
+  }
+
+  public void setMaxDays(int maxDays) {
+    this.maxDays = maxDays;
+  }
+
+  public boolean isRefreshAggregates() {
+    return refreshAggregates;
+  }
+
+  public void setRefreshAggregates(boolean refreshAggregates) {
+    this.refreshAggregates = refreshAggregates;
+  }
+}
@@ -0,0 +1,63 @@
+package com.iot.simulator.config;
+
+import java.time.LocalDateTime;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reproducible simulation, bound from {@code iot.simulator.deterministic}. When enabled every
+ * device draws from its own stream seeded from {@code seed} and its ID, and with the virtual clock
+ * timestamps count from {@code start-time} instead of the wall clock, so the same configuration
+ * produces the same readings on every run.
+ */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.deterministic")
+public class DeterminismProperties {
+
+  private boolean enabled = false;
+
+  private long seed = 42;
+
+  /** Stamp readings with simulated time starting at {@code startTime} */
+  private boolean virtualClock = true;
+
+  /** Simulated time at which live simulation starts; backfills end here */
+  private LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  public boolean isVirtualClock() {
+    return virtualClock;
+  }
+
+  public void setVirtualClock(boolean virtualClock) {
+    this.virtualClock = virtualClock;
+  }
+
+  public LocalDateTime getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(LocalDateTime startTime) {
+    this.startTime = startTime;
+  }
+
+  /** Whether readings are stamped with simulated rather than wall-clock time */
+  public boolean usesVirtualClock() {
+    return enabled && virtualClock;
+  }
+}
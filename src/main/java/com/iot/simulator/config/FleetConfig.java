@@ -0,0 +1,78 @@
+package com.iot.simulator.config;
+
+import com.iot.common.factory.DeviceSimulatorFactory;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FleetConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(FleetConfig.class);
+
+  @Bean
+  public DeviceFleet deviceFleet(
+      FleetProperties fleetProperties,
+      DeterminismProperties determinismProperties,
+      ShardProperties shardProperties) {
+    DeviceFleet fleet = createFleet(fleetProperties, determinismProperties);
+    if (!shardProperties.isSharded()) {
+      return fleet;
+    }
+    DeviceFleet shard = fleet.shard(shardProperties.getIndex(), shardProperties.getCount());
+    logger.info(
+        "Simulating shard {} of {}: {} of {} devices",
+        shardProperties.getIndex(),
+        shardProperties.getCount(),
+        shard.size(),
+        fleet.size());
+    return shard;
+  }
+
+  private DeviceFleet createFleet(
+      FleetProperties fleetProperties, DeterminismProperties determinismProperties) {
+    Long seed = determinismProperties.isEnabled() ? determinismProperties.getSeed() : null;
+    if (seed != null) {
+      logger.info(
+          "Deterministic simulation with seed {}, virtual clock from {}",
+          seed,
+          determinismProperties.usesVirtualClock() ? determinismProperties.getStartTime() : "off");
+    }
+    if (fleetProperties.getGroups().isEmpty()) {
+      logger.info("No fleet configured, using the standard device set");
+      return DeviceSimulatorFactory.createStandardFleet(seed);
+    }
+
+    List<FleetGroup> groups =
+        fleetProperties.getGroups().stream()
+            .map(
+                group -> {
+                  String deviceType = group.getDeviceType().toUpperCase(Locale.ROOT);
+                  String idPattern =
+                      group.getIdPattern() != null ? group.getIdPattern() : deviceType + "-%d";
+                  return new FleetGroup(
+                      deviceType,
+                      group.getCount(),
+                      group.getIntervalMs(),
+                      idPattern,
+                      group.getIdStart(),
+                      group.getZones());
+                })
+            .toList();
+    DeviceFleet fleet = DeviceSimulatorFactory.createFleet(groups, seed);
+    for (FleetGroup group : groups) {
+      logger.info(
+          "Fleet group {}: {} devices every {} ms across zones {}",
+          group.getDeviceType(),
+          group.getCount(),
+          group.getIntervalMillis(),
+          List.of(group.getZones()));
+    }
+    return fleet;
+  }
+}
@@ -0,0 +1,94 @@
+package com.iot.simulator.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Simulated fleet, bound from {@code iot.simulator.fleet}. Without groups the simulator falls back
+ * to the standard five-device set.
+ */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.fleet")
+public class FleetProperties {
+
+  private List<Group> groups = new ArrayList<>();
+
+  public List<Group> getGroups() {
+    return groups;
+  }
+
+  public void setGroups(List<Group> groups) {
+    this.groups = groups;
+  }
+
+  public static class Group {
+
+    /** THERMOSTAT, HEART_RATE or FUEL_SENSOR */
+    private String deviceType;
+
+    private int count;
+
+    private long intervalMs = 1000;
+
+    /** Device ID with one {@code %d} or {@code %0Nd} conversion for the device number */
+    private String idPattern;
+
+    /** Number of the group's first device in its ID */
+    private int idStart = 1;
+
+    /** Zone name to relative weight; devices are spread over zones proportionally */
+    private Map<String, Integer> zones = new LinkedHashMap<>();
+
+    public String getDeviceType() {
+      return deviceType;
+    }
+
+    public void setDeviceType(String deviceType) {
+      this.deviceType = deviceType;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public long getIntervalMs() {
+      return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+      this.intervalMs = intervalMs;
+    }
+
+    public String getIdPattern() {
+      return idPattern;
+    }
+
+    public void setIdPattern(String idPattern) {
+      this.idPattern = idPattern;
+    }
+
+    public int getIdStart() {
+      return idStart;
+    }
+
+    public void setIdStart(int idStart) {
+      this.idStart = idStart;
+    }
+
+    public Map<String, Integer> getZones() {
+      return zones;
+    }
+
+    public void setZones(Map<String, Integer> zones) {
+      this.zones = zones;
+    }
+  }
+}
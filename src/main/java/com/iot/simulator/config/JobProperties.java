@@ -0,0 +1,75 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Generation and backfill job management, bound from {@code iot.simulator.jobs} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.jobs")
+public class JobProperties {
+
+  /** Jobs run at once; further jobs queue */
+  private int maxConcurrent = 1;
+
+  /** Time slice completed and checkpointed as a unit */
+  private int sliceMinutes = 60;
+
+  private String checkpointDirectory = "jobs";
+
+  /** Resume interrupted jobs found in the checkpoint directory at startup */
+  private boolean resumeOnStartup = false;
+
+  /** Rate limit of new jobs in rows per second; 0 for none */
+  private double defaultRowsPerSecond = 0;
+
+  /** Finished jobs kept for the status endpoint */
+  private int history = 50;
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public void setMaxConcurrent(int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  public int getSliceMinutes() {
+    return sliceMinutes;
+  }
+
+  public void setSliceMinutes(int sliceMinutes) {
+    this.sliceMinutes = sliceMinutes;
+  }
+
+  public String getCheckpointDirectory() {
+    return checkpointDirectory;
+  }
+
+  public void setCheckpointDirectory(String checkpointDirectory) {
+    this.checkpointDirectory = checkpointDirectory;
+  }
+
+  public boolean isResumeOnStartup() {
+    return resumeOnStartup;
+  }
+
+  public void setResumeOnStartup(boolean resumeOnStartup) {
+    this.resumeOnStartup = resumeOnStartup;
+  }
+
+  public double getDefaultRowsPerSecond() {
+    return defaultRowsPerSecond;
+  }
+
+  public void setDefaultRowsPerSecond(double defaultRowsPerSecond) {
+    this.defaultRowsPerSecond = defaultRowsPerSecond;
+  }
+
+  public int getHistory() {
+    return history;
+  }
+
+  public void setHistory(int history) {
+    this.history = history;
+  }
+}
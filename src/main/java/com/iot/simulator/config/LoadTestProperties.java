@@ -0,0 +1,115 @@
+package com.iot.simulator.config;
+
+import com.iot.simulator.load.LoadProfile;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Default open-loop load profile, bound from {@code iot.simulator.load} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.load")
+public class LoadTestProperties {
+
+  /** CONSTANT, RAMP, STEP or SPIKE */
+  private String shape = "CONSTANT";
+
+  private double startRate = 0;
+
+  private double targetRate = 1000;
+
+  private double rampSeconds = 60;
+
+  private double stepRate = 1000;
+
+  private double stepSeconds = 30;
+
+  private double spikeAtSeconds = 60;
+
+  private double spikeSeconds = 10;
+
+  private double durationSeconds = 300;
+
+  public LoadProfile toProfile() {
+    return new LoadProfile(
+        LoadProfile.parseShape(shape),
+        startRate,
+        targetRate,
+        rampSeconds,
+        stepRate,
+        stepSeconds,
+        spikeAtSeconds,
+        spikeSeconds,
+        durationSeconds);
+  }
+
+  public String getShape() {
+    return shape;
+  }
+
+  public void setShape(String shape) {
+    this.shape = shape;
+  }
+
+  public double getStartRate() {
+    return startRate;
+  }
+
+  public void setStartRate(double startRate) {
+    this.startRate = startRate;
+  }
+
+  public double getTargetRate() {
+    return targetRate;
+  }
+
+  public void setTargetRate(double targetRate) {
+    this.targetRate = targetRate;
+  }
+
+  public double getRampSeconds() {
+    return rampSeconds;
+  }
+
+  public void setRampSeconds(double rampSeconds) {
+    this.rampSeconds = rampSeconds;
+  }
+
+  public double getStepRate() {
+    return stepRate;
+  }
+
+  public void setStepRate(double stepRate) {
+    this.stepRate = stepRate;
+  }
+
+  public double getStepSeconds() {
+    return stepSeconds;
+  }
+
+  public void setStepSeconds(double stepSeconds) {
+    this.stepSeconds = stepSeconds;
+  }
+
+  public double getSpikeAtSeconds() {
+    return spikeAtSeconds;
+  }
+
+  public void setSpikeAtSeconds(double spikeAtSeconds) {
+    this.spikeAtSeconds = spikeAtSeconds;
+  }
+
+  public double getSpikeSeconds() {
+    return spikeSeconds;
+  }
+
+  public void setSpikeSeconds(double spikeSeconds) {
+    this.spikeSeconds = spikeSeconds;
+  }
+
+  public double getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public void setDurationSeconds(double durationSeconds) {
+    this.durationSeconds = durationSeconds;
+  }
+}
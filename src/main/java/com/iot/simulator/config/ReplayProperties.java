@@ -0,0 +1,32 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Recording and replay of reading streams, bound from {@code iot.simulator.replay} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.replay")
+public class ReplayProperties {
+
+  /** Directory that recordings are written to and replayed from */
+  private String directory = "recordings";
+
+  /** Replay sends awaiting acknowledgement before the replay thread waits */
+  private int maxInFlight = 50_000;
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+}
@@ -0,0 +1,24 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traffic scenario applied to live simulation, bound from {@code iot.simulator.scenario}. See
+ * {@link com.iot.simulator.scenario.TrafficScenario} for the definition syntax; an empty definition
+ * sends readings exactly as generated.
+ */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.scenario")
+public class ScenarioProperties {
+
+  private String definition = "";
+
+  public String getDefinition() {
+    return definition;
+  }
+
+  public void setDefinition(String definition) {
+    this.definition = definition;
+  }
+}
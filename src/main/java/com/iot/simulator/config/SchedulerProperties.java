@@ -0,0 +1,54 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Live simulation scheduler settings, bound from {@code iot.simulator.scheduler} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.scheduler")
+public class SchedulerProperties {
+
+  /** Resolution of the timing wheel; device intervals are rounded up to whole ticks */
+  private long tickMs = 100;
+
+  /** Number of wheel buckets, a power of two */
+  private int wheelSize = 1024;
+
+  /** Threads generating and sending a tick's readings; 0 uses one per core */
+  private int workerThreads = 0;
+
+  /** Devices handed to one worker at a time; smaller ticks are generated on the tick thread */
+  private int chunkSize = 2000;
+
+  public long getTickMs() {
+    return tickMs;
+  }
+
+  public void setTickMs(long tickMs) {
+    this.tickMs = tickMs;
+  }
+
+  public int getWheelSize() {
+    return wheelSize;
+  }
+
+  public void setWheelSize(int wheelSize) {
+    this.wheelSize = wheelSize;
+  }
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
+  public void setWorkerThreads(int workerThreads) {
+    this.workerThreads = workerThreads;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+}
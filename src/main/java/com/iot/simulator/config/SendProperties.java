@@ -0,0 +1,54 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Live send pipeline settings, bound from {@code iot.simulator.send} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.send")
+public class SendProperties {
+
+  /** Readings handed to the producer but not yet acknowledged before generation blocks */
+  private int maxInFlight = 20000;
+
+  /** Floor the adaptive limit never shrinks below */
+  private int minInFlight = 100;
+
+  /** Shrink the in-flight limit on failures and on acknowledgements slower than the target */
+  private boolean adaptive = true;
+
+  /** Acknowledgement latency above which the adaptive limit shrinks */
+  private long ackLatencyTargetMs = 1000;
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public int getMinInFlight() {
+    return minInFlight;
+  }
+
+  public void setMinInFlight(int minInFlight) {
+    this.minInFlight = minInFlight;
+  }
+
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  public void setAdaptive(boolean adaptive) {
+    this.adaptive = adaptive;
+  }
+
+  public long getAckLatencyTargetMs() {
+    return ackLatencyTargetMs;
+  }
+
+  public void setAckLatencyTargetMs(long ackLatencyTargetMs) {
+    this.ackLatencyTargetMs = ackLatencyTargetMs;
+  }
+}
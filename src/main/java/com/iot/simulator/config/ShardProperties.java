@@ -0,0 +1,90 @@
+package com.iot.simulator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Multi-process simulation settings, bound from {@code iot.simulator.shard} */
+@Component
+@ConfigurationProperties(prefix = "iot.simulator.shard")
+public class ShardProperties {
+
+  /** This process's shard, from 0 to count - 1 */
+  private int index = 0;
+
+  /** Number of simulator processes sharing the fleet; 1 simulates every device here */
+  private int count = 1;
+
+  /** Agree on a common start time with the other shards through the control topic */
+  private boolean coordinateStart = false;
+
+  private String controlTopic = "iot-simulator-control";
+
+  /** Identifies one sharded run; announcements of other runs on the control topic are ignored */
+  private String runId = "default";
+
+  /** Time between the last shard announcing itself and the common start */
+  private long startDelayMs = 5000;
+
+  /** How long to wait for every shard before starting without the missing ones */
+  private long coordinationTimeoutMs = 120_000;
+
+  public boolean isSharded() {
+    return count > 1;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public void setCount(int count) {
+    this.count = count;
+  }
+
+  public boolean isCoordinateStart() {
+    return coordinateStart;
+  }
+
+  public void setCoordinateStart(boolean coordinateStart) {
+    this.coordinateStart = coordinateStart;
+  }
+
+  public String getControlTopic() {
+    return controlTopic;
+  }
+
+  public void setControlTopic(String controlTopic) {
+    this.controlTopic = controlTopic;
+  }
+
+  public String getRunId() {
+    return runId;
+  }
+
+  public void setRunId(String runId) {
+    this.runId = runId;
+  }
+
+  public long getStartDelayMs() {
+    return startDelayMs;
+  }
+
+  public void setStartDelayMs(long startDelayMs) {
+    this.startDelayMs = startDelayMs;
+  }
+
+  public long getCoordinationTimeoutMs() {
+    return coordinationTimeoutMs;
+  }
+
+  public void setCoordinationTimeoutMs(long coordinationTimeoutMs) {
+    this.coordinationTimeoutMs = coordinationTimeoutMs;
+  }
+}
@@ -0,0 +1,103 @@
+package com.iot.simulator.controller;
+
+import com.iot.simulator.job.BackfillJob;
+import com.iot.simulator.service.BackfillJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Backfill Jobs",
+    description = "Progress, cancellation, rate limits and resumption of generation jobs")
+@RestController
+@RequestMapping("/api/simulator/jobs")
+public class BackfillJobController {
+
+  @Autowired private BackfillJobService backfillJobService;
+
+  @Operation(
+      summary = "List jobs",
+      description = "Queued, running and recently finished jobs with rows, rate and ETA")
+  @GetMapping
+  public ResponseEntity<List<Map<String, Object>>> getJobs() {
+    return ResponseEntity.ok(
+        backfillJobService.getJobs().stream().map(BackfillJob::toStatus).toList());
+  }
+
+  @Operation(summary = "Get a job")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Job found"),
+        @ApiResponse(responseCode = "404", description = "Unknown job")
+      })
+  @GetMapping("/{id}")
+  public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+    return handle(() -> backfillJobService.getJob(id));
+  }
+
+  @Operation(
+      summary = "Cancel a job",
+      description = "Stops a queued or running job and discards its checkpoint")
+  @PostMapping("/{id}/cancel")
+  public ResponseEntity<Map<String, Object>> cancel(@PathVariable String id) {
+    return handle(() -> backfillJobService.cancel(id));
+  }
+
+  @Operation(
+      summary = "Resume a job",
+      description =
+          "Continues an interrupted or failed generation job after its last completed time slice")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Job queued again"),
+        @ApiResponse(responseCode = "404", description = "Unknown job"),
+        @ApiResponse(responseCode = "409", description = "Job cannot be resumed")
+      })
+  @PostMapping("/{id}/resume")
+  public ResponseEntity<Map<String, Object>> resume(@PathVariable String id) {
+    return handle(() -> backfillJobService.resume(id));
+  }
+
+  @Operation(
+      summary = "Change a job's rate limit",
+      description = "Takes effect immediately, also for a running job")
+  @PutMapping("/{id}/rate-limit")
+  public ResponseEntity<Map<String, Object>> setRateLimit(
+      @PathVariable String id,
+      @Parameter(description = "Rows per second, 0 for no limit", example = "50000") @RequestParam
+          double rowsPerSecond) {
+    if (rowsPerSecond < 0) {
+      return ResponseEntity.badRequest()
+          .body(Map.of("status", "error", "message", "Rate limit must be 0 or positive"));
+    }
+    return handle(() -> backfillJobService.setRateLimit(id, rowsPerSecond));
+  }
+
+  private interface JobAction {
+    BackfillJob run() throws IOException;
+  }
+
+  private ResponseEntity<Map<String, Object>> handle(JobAction action) {
+    try {
+      return ResponseEntity.ok(action.run().toStatus());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IOException e) {
+      return ResponseEntity.internalServerError()
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    }
+  }
+}
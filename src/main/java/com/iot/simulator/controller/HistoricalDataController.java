@@ -1,13 +1,16 @@
 package com.iot.simulator.controller;
 
+import com.iot.simulator.job.BackfillJob;
+import com.iot.simulator.service.BackfillJobService;
 import com.iot.simulator.service.HistoricalDataGenerator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,8 @@ public class HistoricalDataController {
 
   @Autowired private HistoricalDataGenerator historicalDataGenerator;
 
+  @Autowired private BackfillJobService backfillJobService;
+
   /** Generate historical data for the last N days with default 1-minute intervals */
   @Operation(
       summary = "Generate last N days of historical data",
@@ -37,7 +42,10 @@ public class HistoricalDataController {
       })
   @GetMapping("/generate-last-days/{days}")
   public ResponseEntity<Map<String, Object>> generateLastDaysData(
-      @Parameter(description = "Number of days (1-30)", example = "5") @PathVariable int days) {
+      @Parameter(description = "Number of days (1-30)", example = "5") @PathVariable int days,
+      @Parameter(description = "Rate limit in readings per second, 0 for none")
+          @RequestParam(required = false)
+          Double rowsPerSecond) {
 
     logger.info("Received request to generate historical data for last {} days", days);
 
@@ -50,18 +58,11 @@ public class HistoricalDataController {
     }
 
     try {
-      CompletableFuture<Void> future = historicalDataGenerator.generateLastDaysData(days);
+      BackfillJob job =
+          backfillJobService.submitGenerated(
+              BackfillJob.Kind.KAFKA, days, Duration.ofMinutes(1), rowsPerSecond);
 
-      future.whenComplete(
-          (result, throwable) -> {
-            if (throwable != null) {
-              logger.error("Historical data generation failed: {}", throwable.getMessage());
-            } else {
-              logger.info("Historical data generation completed successfully");
-            }
-          });
-
-      int estimatedReadings = 1440 * days * 5; // 1440 minutes per day * days * 5 devices
+      long estimatedReadings = historicalDataGenerator.estimateReadings(days, 1);
 
       return ResponseEntity.ok(
           Map.of(
@@ -71,6 +72,8 @@ public class HistoricalDataController {
               String.format(
                   "Historical data generation started for last %d days with 1-minute intervals",
                   days),
+              "job_id",
+              job.getId(),
               "estimated_readings",
               estimatedReadings,
               "interval_minutes",
@@ -105,7 +108,10 @@ public class HistoricalDataController {
   public ResponseEntity<Map<String, Object>> generateLastDaysDataWithInterval(
       @Parameter(description = "Number of days (1-30)", example = "5") @PathVariable int days,
       @Parameter(description = "Interval in minutes (1-60)", example = "5") @PathVariable
-          int intervalMinutes) {
+          int intervalMinutes,
+      @Parameter(description = "Rate limit in readings per second, 0 for none")
+          @RequestParam(required = false)
+          Double rowsPerSecond) {
 
     logger.info(
         "Received request to generate historical data for last {} days with {} minute intervals",
@@ -129,20 +135,11 @@ public class HistoricalDataController {
     }
 
     try {
-      CompletableFuture<Void> future =
-          historicalDataGenerator.generateLastDaysData(days, intervalMinutes);
-
-      future.whenComplete(
-          (result, throwable) -> {
-            if (throwable != null) {
-              logger.error("Historical data generation failed: {}", throwable.getMessage());
-            } else {
-              logger.info("Historical data generation completed successfully");
-            }
-          });
+      BackfillJob job =
+          backfillJobService.submitGenerated(
+              BackfillJob.Kind.KAFKA, days, Duration.ofMinutes(intervalMinutes), rowsPerSecond);
 
-      int estimatedReadings =
-          (1440 * days / intervalMinutes) * 5; // Total minutes / interval * 5 devices
+      long estimatedReadings = historicalDataGenerator.estimateReadings(days, intervalMinutes);
 
       return ResponseEntity.ok(
           Map.of(
@@ -151,6 +148,7 @@ public class HistoricalDataController {
                   String.format(
                       "Historical data generation started for last %d days with %d-minute intervals",
                       days, intervalMinutes),
+              "job_id", job.getId(),
               "estimated_readings", estimatedReadings,
               "interval_minutes", intervalMinutes,
               "days", days));
@@ -166,4 +164,78 @@ public class HistoricalDataController {
                   "Failed to start historical data generation: " + e.getMessage()));
     }
   }
+
+  /** Load generated history straight into the database */
+  @Operation(
+      summary = "Bulk load generated history into the database",
+      description =
+          "Generates N days for the whole fleet and loads them into sensor_readings with parallel"
+              + " binary COPY, bypassing Kafka, then refreshes the hourly aggregates for that"
+              + " range. Runs as a job, see /api/simulator/jobs")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Bulk load queued"),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+      })
+  @PostMapping("/bulk-load")
+  public ResponseEntity<Map<String, Object>> bulkLoad(
+      @Parameter(description = "Number of days (1-366)", example = "365") @RequestParam int days,
+      @Parameter(description = "Interval in seconds (1-3600)", example = "60")
+          @RequestParam(defaultValue = "60")
+          int intervalSeconds,
+      @Parameter(description = "Rate limit in rows per second, 0 for none")
+          @RequestParam(required = false)
+          Double rowsPerSecond) {
+    logger.info(
+        "Received request to bulk load {} days with {} second intervals", days, intervalSeconds);
+    if (intervalSeconds < 1 || intervalSeconds > 3600) {
+      return ResponseEntity.badRequest()
+          .body(
+              Map.of("status", "error", "message", "Interval must be between 1 and 3600 seconds"));
+    }
+    return submitJob(
+        () ->
+            backfillJobService.submitGenerated(
+                BackfillJob.Kind.DATABASE,
+                days,
+                Duration.ofSeconds(intervalSeconds),
+                rowsPerSecond));
+  }
+
+  /** Load a recording straight into the database */
+  @Operation(
+      summary = "Bulk load a recording into the database",
+      description =
+          "Loads every reading of a recording made with /api/simulator/replay into sensor_readings"
+              + " with parallel binary COPY, then refreshes the hourly aggregates for its range."
+              + " Runs as a job, see /api/simulator/jobs")
+  @PostMapping("/bulk-load/import")
+  public ResponseEntity<Map<String, Object>> bulkImport(
+      @Parameter(description = "Recording name", example = "baseline.rlog") @RequestParam
+          String name,
+      @Parameter(description = "Rate limit in rows per second, 0 for none")
+          @RequestParam(required = false)
+          Double rowsPerSecond) {
+    logger.info("Received request to bulk load recording {}", name);
+    return submitJob(() -> backfillJobService.submitImport(name, rowsPerSecond));
+  }
+
+  private interface JobSubmission {
+    BackfillJob submit() throws IOException;
+  }
+
+  private ResponseEntity<Map<String, Object>> submitJob(JobSubmission submission) {
+    BackfillJob job;
+    try {
+      job = submission.submit();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IOException | IllegalStateException e) {
+      logger.error("Error starting bulk load: {}", e.getMessage(), e);
+      return ResponseEntity.internalServerError()
+          .body(
+              Map.of("status", "error", "message", "Failed to start bulk load: " + e.getMessage()));
+    }
+    return ResponseEntity.ok(Map.of("status", "queued", "job", job.toStatus()));
+  }
 }
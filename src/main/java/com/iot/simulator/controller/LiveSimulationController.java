@@ -0,0 +1,70 @@
+package com.iot.simulator.controller;
+
+import com.iot.simulator.scenario.TrafficScenario;
+import com.iot.simulator.service.ShardCoordinator;
+import com.iot.simulator.service.SimulatorOrchestrator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Live Simulation", description = "Health of the live device simulation")
+@RestController
+@RequestMapping("/api/simulator/live")
+public class LiveSimulationController {
+
+  @Autowired private SimulatorOrchestrator simulatorOrchestrator;
+
+  @Autowired private ShardCoordinator shardCoordinator;
+
+  @Operation(
+      summary = "Get scheduler statistics",
+      description =
+          "Readings per tick and how long after its scheduled time each tick finished. A lag"
+              + " above the tick duration means the simulator itself is the bottleneck")
+  @GetMapping("/stats")
+  public ResponseEntity<Map<String, Object>> getStats() {
+    return ResponseEntity.ok(simulatorOrchestrator.getTickStats());
+  }
+
+  @Operation(
+      summary = "Get shard status",
+      description =
+          "This process's shard and achieved send rate; with coordinated starts also the latest"
+              + " rate reported by every shard of the run and their total")
+  @GetMapping("/shards")
+  public ResponseEntity<Map<String, Object>> getShards() {
+    return ResponseEntity.ok(shardCoordinator.getStatus());
+  }
+
+  @Operation(
+      summary = "Get the traffic scenario",
+      description = "Current scenario definition and how many readings each effect has affected")
+  @GetMapping("/scenario")
+  public ResponseEntity<Map<String, Object>> getScenario() {
+    TrafficScenario scenario = simulatorOrchestrator.getScenario();
+    return ResponseEntity.ok(
+        Map.of("definition", scenario.getDefinition(), "effects", scenario.getStats()));
+  }
+
+  @Operation(
+      summary = "Replace the traffic scenario",
+      description =
+          "Statements such as 'duplicate rate=0.01; shuffle rate=0.1 max=5s', one per line or"
+              + " separated by ';'. An empty body turns the scenario off")
+  @PutMapping(value = "/scenario", consumes = "text/plain")
+  public ResponseEntity<Map<String, Object>> setScenario(
+      @RequestBody(required = false) String definition) {
+    TrafficScenario scenario;
+    try {
+      scenario = TrafficScenario.parse(definition);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+    }
+    simulatorOrchestrator.setScenario(scenario);
+    return ResponseEntity.ok(
+        Map.of("definition", scenario.getDefinition(), "effects", scenario.getStats()));
+  }
+}
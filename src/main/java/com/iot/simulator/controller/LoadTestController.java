@@ -0,0 +1,94 @@
+package com.iot.simulator.controller;
+
+import com.iot.simulator.config.LoadTestProperties;
+import com.iot.simulator.load.LoadProfile;
+import com.iot.simulator.service.LoadGenerator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Load Test",
+    description = "Open-loop, rate-controlled load generation with intended send time headers")
+@RestController
+@RequestMapping("/api/simulator/load")
+public class LoadTestController {
+
+  @Autowired private LoadGenerator loadGenerator;
+
+  @Autowired private LoadTestProperties loadTestProperties;
+
+  @Operation(
+      summary = "Start a load test",
+      description =
+          "Sends readings at an exact aggregate rate following a CONSTANT, RAMP, STEP or SPIKE"
+              + " profile. Omitted parameters come from iot.simulator.load")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Load test started"),
+        @ApiResponse(responseCode = "400", description = "Invalid profile"),
+        @ApiResponse(responseCode = "409", description = "A load test is already running")
+      })
+  @PostMapping("/start")
+  public ResponseEntity<Map<String, Object>> start(
+      @Parameter(description = "CONSTANT, RAMP, STEP or SPIKE", example = "RAMP")
+          @RequestParam(required = false)
+          String shape,
+      @Parameter(description = "Rate at the start of the run (msg/s)", example = "1000")
+          @RequestParam(required = false)
+          Double startRate,
+      @Parameter(description = "Peak rate (msg/s)", example = "50000")
+          @RequestParam(required = false)
+          Double targetRate,
+      @Parameter(description = "Length of the run in seconds", example = "300")
+          @RequestParam(required = false)
+          Double durationSeconds) {
+    LoadProfile profile;
+    try {
+      LoadProfile defaults = loadTestProperties.toProfile();
+      profile =
+          new LoadProfile(
+              shape != null ? LoadProfile.parseShape(shape) : defaults.getShape(),
+              startRate != null ? startRate : loadTestProperties.getStartRate(),
+              targetRate != null ? targetRate : loadTestProperties.getTargetRate(),
+              loadTestProperties.getRampSeconds(),
+              loadTestProperties.getStepRate(),
+              loadTestProperties.getStepSeconds(),
+              loadTestProperties.getSpikeAtSeconds(),
+              loadTestProperties.getSpikeSeconds(),
+              durationSeconds != null ? durationSeconds : defaults.getDurationSeconds());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+    }
+
+    try {
+      loadGenerator.start(profile);
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    }
+    return ResponseEntity.ok(Map.of("status", "started", "profile", profile.toString()));
+  }
+
+  @Operation(summary = "Stop the running load test")
+  @PostMapping("/stop")
+  public ResponseEntity<Map<String, Object>> stop() {
+    loadGenerator.stop();
+    return ResponseEntity.ok(Map.of("status", "stopping"));
+  }
+
+  @Operation(
+      summary = "Get load test status",
+      description = "Target and achieved rate, and how far sends fell behind the schedule")
+  @GetMapping("/status")
+  public ResponseEntity<Map<String, Object>> status() {
+    return ResponseEntity.ok(loadGenerator.getStatus());
+  }
+}
@@ -0,0 +1,109 @@
+package com.iot.simulator.controller;
+
+import com.iot.simulator.service.ReadingReplayService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Record and Replay",
+    description = "Record reading streams to binary logs and replay them byte-for-byte")
+@RestController
+@RequestMapping("/api/simulator/replay")
+public class ReplayController {
+
+  @Autowired private ReadingReplayService replayService;
+
+  @Operation(
+      summary = "Start recording live simulation",
+      description = "Appends every reading the live simulation sends to the named recording")
+  @PostMapping("/record/start")
+  public ResponseEntity<Map<String, Object>> startRecording(
+      @Parameter(description = "Recording name", example = "baseline.rlog") @RequestParam
+          String name) {
+    return run(() -> replayService.startRecording(name), "recording");
+  }
+
+  @Operation(summary = "Stop recording live simulation")
+  @PostMapping("/record/stop")
+  public ResponseEntity<Map<String, Object>> stopRecording() throws IOException {
+    return ResponseEntity.ok(
+        Map.of("status", "stopped", "readings", replayService.stopRecording()));
+  }
+
+  @Operation(
+      summary = "Capture a Kafka topic",
+      description =
+          "Copies the topic from its beginning up to its current end into the named recording,"
+              + " keeping each record's timestamp as its send time")
+  @PostMapping("/capture")
+  public ResponseEntity<Map<String, Object>> capture(
+      @Parameter(description = "Recording name", example = "captured.rlog") @RequestParam
+          String name,
+      @Parameter(description = "Topic to capture, defaults to the readings topic")
+          @RequestParam(required = false)
+          String topic) {
+    return run(() -> replayService.capture(topic, name), "capturing");
+  }
+
+  @Operation(
+      summary = "Replay a recording",
+      description =
+          "Publishes the recorded readings with their original timestamps, paced like the"
+              + " recording or, with speed=0, as fast as possible")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Replay started"),
+        @ApiResponse(responseCode = "400", description = "Unknown recording or invalid speed"),
+        @ApiResponse(responseCode = "409", description = "A capture or replay is already running")
+      })
+  @PostMapping("/start")
+  public ResponseEntity<Map<String, Object>> replay(
+      @Parameter(description = "Recording name", example = "baseline.rlog") @RequestParam
+          String name,
+      @Parameter(description = "Multiple of the recorded pace, 0 for unthrottled", example = "1")
+          @RequestParam(defaultValue = "1")
+          double speed) {
+    return run(() -> replayService.replay(name, speed), "replaying");
+  }
+
+  @Operation(summary = "Stop the running capture or replay and any live recording")
+  @PostMapping("/stop")
+  public ResponseEntity<Map<String, Object>> stop() throws IOException {
+    replayService.stop();
+    return ResponseEntity.ok(Map.of("status", "stopping"));
+  }
+
+  @Operation(summary = "Get recording, capture and replay progress")
+  @GetMapping("/status")
+  public ResponseEntity<Map<String, Object>> status() {
+    return ResponseEntity.ok(replayService.getStatus());
+  }
+
+  private interface Action {
+    void run() throws IOException;
+  }
+
+  private ResponseEntity<Map<String, Object>> run(Action action, String status) {
+    try {
+      action.run();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IOException e) {
+      return ResponseEntity.internalServerError()
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    }
+    return ResponseEntity.ok(Map.of("status", status));
+  }
+}
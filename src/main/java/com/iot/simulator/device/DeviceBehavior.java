@@ -0,0 +1,63 @@
+package com.iot.simulator.device;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Random walk of each simulated device type. Shared by the per-device simulators and the compact
+ * {@link com.iot.simulator.fleet.DeviceFleet}, which keeps only the current value per device.
+ */
+public enum DeviceBehavior {
+  THERMOSTAT(22.0) {
+    private static final double MIN_TEMPERATURE = 18.0;
+    private static final double MAX_TEMPERATURE = 30.0;
+    private static final double TEMPERATURE_VARIATION = 0.5;
+
+    @Override
+    public double next(double current, RandomGenerator random) {
+      double magnitude = random.nextDouble(TEMPERATURE_VARIATION);
+      double direction = random.nextBoolean() ? 1 : -1;
+      return Math.max(MIN_TEMPERATURE, Math.min(MAX_TEMPERATURE, current + magnitude * direction));
+    }
+  },
+
+  HEART_RATE(70) {
+    private static final int MIN_HEART_RATE = 60;
+    private static final int MAX_HEART_RATE = 180;
+    private static final int MAX_CHANGE = 2;
+
+    @Override
+    public double next(double current, RandomGenerator random) {
+      int magnitude = random.nextInt(MAX_CHANGE + 1); // [0, MAX_CHANGE]
+      int direction = random.nextBoolean() ? 1 : -1;
+      return Math.max(MIN_HEART_RATE, Math.min(MAX_HEART_RATE, current + magnitude * direction));
+    }
+  },
+
+  FUEL_SENSOR(85.0) {
+    private static final double REFUEL_THRESHOLD = 10.0;
+    private static final double FULL_TANK = 100.0;
+    private static final double MAX_CONSUMPTION_RATE = 0.1;
+
+    @Override
+    public double next(double current, RandomGenerator random) {
+      double level = current - random.nextDouble() * MAX_CONSUMPTION_RATE;
+      if (level < REFUEL_THRESHOLD) {
+        level = FULL_TANK;
+      }
+      return Math.max(0.0, Math.min(FULL_TANK, level));
+    }
+  };
+
+  private final double initialValue;
+
+  DeviceBehavior(double initialValue) {
+    this.initialValue = initialValue;
+  }
+
+  public double getInitialValue() {
+    return initialValue;
+  }
+
+  /** Next value of a device currently reporting {@code current} */
+  public abstract double next(double current, RandomGenerator random);
+}
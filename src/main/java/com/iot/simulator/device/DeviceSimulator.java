@@ -1,8 +1,7 @@
 package com.iot.simulator.device;
 
 import com.iot.common.model.SensorReading;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import com.iot.simulator.schedule.CoarseClock;
 import java.util.Random;
 
 public abstract class DeviceSimulator {
@@ -24,7 +23,7 @@ public abstract class DeviceSimulator {
   public abstract SensorReading generateReading();
 
   protected SensorReading createReading(double value) {
-    return new SensorReading(deviceId, deviceType, zone, value, LocalDateTime.now(ZoneOffset.UTC));
+    return new SensorReading(deviceId, deviceType, zone, value, CoarseClock.nowUtc());
   }
 
   public String getDeviceId() {
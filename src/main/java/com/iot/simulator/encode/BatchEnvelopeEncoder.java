@@ -0,0 +1,41 @@
+package com.iot.simulator.encode;
+
+import com.iot.common.model.ReadingBatch;
+import com.iot.simulator.fleet.DeviceFleet;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * Encodes series of fleet readings into one batch envelope record. A batch is built with {@link
+ * #begin()}, one {@link #addSeries} per device and {@link #finish()}; the record key is the ID of
+ * the last device added, so a single-device batch lands on the same partition as that device's
+ * individual readings.
+ *
+ * <p>Implementations are not thread-safe: every generating thread keeps its own encoder.
+ */
+public interface BatchEnvelopeEncoder {
+
+  /** Encoder of {@code fleet} for the named batch encoding */
+  static BatchEnvelopeEncoder forEncoding(String encoding, DeviceFleet fleet) {
+    if (ReadingBatch.JSON_ENCODING.equals(encoding)) {
+      return new ReadingBatchEncoder(fleet);
+    }
+    if (ReadingBatch.GORILLA_ENCODING.equals(encoding)) {
+      return new GorillaBatchEncoder(fleet);
+    }
+    throw new IllegalArgumentException("Unknown batch encoding: " + encoding);
+  }
+
+  /** Start a new batch, replacing the previously encoded one */
+  void begin();
+
+  /** Add the series of {@code device}: {@code count} readings from {@code offset} of the columns */
+  void addSeries(int device, long[] timestamps, double[] values, int offset, int count);
+
+  void finish();
+
+  /** Readings in the current batch */
+  int readings();
+
+  /** Producer record of the last finished batch, carrying the encoding header */
+  ProducerRecord<byte[], byte[]> toRecord(String topic);
+}
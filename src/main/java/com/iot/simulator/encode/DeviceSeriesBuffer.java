@@ -0,0 +1,60 @@
+package com.iot.simulator.encode;
+
+/**
+ * Readings of every fleet device held back for a batch envelope, as per-device columns of
+ * timestamps and values. A device's series is due once it holds the maximum number of readings or
+ * spans the batch window, and is then encoded and cleared.
+ *
+ * <p>Not synchronized: callers must ensure that a device is only touched by one thread at a time,
+ * as the live scheduler does by advancing each device from a single worker per tick.
+ */
+public final class DeviceSeriesBuffer {
+
+  private final int capacity;
+  private final long windowMillis;
+  private final long[] timestamps;
+  private final double[] values;
+  private final int[] counts;
+
+  public DeviceSeriesBuffer(int devices, int capacity, long windowMillis) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Batch capacity must be at least 1: " + capacity);
+    }
+    this.capacity = capacity;
+    this.windowMillis = windowMillis;
+    this.timestamps = new long[Math.multiplyExact(devices, capacity)];
+    this.values = new double[devices * capacity];
+    this.counts = new int[devices];
+  }
+
+  /** Add a reading of {@code device}; true if its series is now due */
+  public boolean add(int device, long timestampMillis, double value) {
+    int count = counts[device];
+    int slot = device * capacity + count;
+    timestamps[slot] = timestampMillis;
+    values[slot] = value;
+    counts[device] = ++count;
+    return count == capacity || timestampMillis - timestamps[device * capacity] >= windowMillis;
+  }
+
+  public int count(int device) {
+    return counts[device];
+  }
+
+  /** Index of the first reading of {@code device} in {@link #timestamps()} and {@link #values()} */
+  public int offset(int device) {
+    return device * capacity;
+  }
+
+  public long[] timestamps() {
+    return timestamps;
+  }
+
+  public double[] values() {
+    return values;
+  }
+
+  public void clear(int device) {
+    counts[device] = 0;
+  }
+}
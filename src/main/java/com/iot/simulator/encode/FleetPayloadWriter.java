@@ -0,0 +1,185 @@
+package com.iot.simulator.encode;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.NumberOutput;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reusable byte buffer for JSON payloads about fleet devices. The per-group text of every payload
+ * (ID prefix and suffix, device type, zones) is escaped once up front, and the record key is the
+ * device ID of the last payload, as {@code StringSerializer} would write it.
+ */
+abstract class FleetPayloadWriter {
+
+  private final FleetGroup[] groups;
+  private final int[] groupEnds;
+  private final byte[][] rawPrefixes;
+  private final byte[][] rawSuffixes;
+  private final byte[][] quotedPrefixes;
+  private final byte[][] quotedSuffixes;
+  private final byte[][] quotedTypes;
+  private final byte[][][] quotedZones;
+
+  private byte[] buffer = new byte[256];
+  private int size;
+  private int group;
+  private int index;
+  private int digitsStart;
+  private int digitsEnd;
+
+  FleetPayloadWriter(DeviceFleet fleet) {
+    this.groups = fleet.getGroups().toArray(new FleetGroup[0]);
+    this.groupEnds = new int[groups.length];
+    this.rawPrefixes = new byte[groups.length][];
+    this.rawSuffixes = new byte[groups.length][];
+    this.quotedPrefixes = new byte[groups.length][];
+    this.quotedSuffixes = new byte[groups.length][];
+    this.quotedTypes = new byte[groups.length][];
+    this.quotedZones = new byte[groups.length][][];
+
+    JsonStringEncoder json = JsonStringEncoder.getInstance();
+    int end = 0;
+    for (int i = 0; i < groups.length; i++) {
+      FleetGroup spec = groups[i];
+      end += spec.getCount();
+      groupEnds[i] = end;
+      rawPrefixes[i] = spec.getIdPrefix().getBytes(StandardCharsets.UTF_8);
+      rawSuffixes[i] = spec.getIdSuffix().getBytes(StandardCharsets.UTF_8);
+      quotedPrefixes[i] = json.quoteAsUTF8(spec.getIdPrefix());
+      quotedSuffixes[i] = json.quoteAsUTF8(spec.getIdSuffix());
+      quotedTypes[i] = json.quoteAsUTF8(spec.getDeviceType());
+      String[] zones = spec.getZones();
+      quotedZones[i] = new byte[zones.length][];
+      for (int zone = 0; zone < zones.length; zone++) {
+        quotedZones[i][zone] = json.quoteAsUTF8(zones[zone]);
+      }
+    }
+  }
+
+  /** Record key of the last payload: the device ID as {@code StringSerializer} writes it */
+  public byte[] key() {
+    byte[] prefix = rawPrefixes[group];
+    byte[] suffix = rawSuffixes[group];
+    int digits = digitsEnd - digitsStart;
+    byte[] key = new byte[prefix.length + digits + suffix.length];
+    System.arraycopy(prefix, 0, key, 0, prefix.length);
+    System.arraycopy(buffer, digitsStart, key, prefix.length, digits);
+    System.arraycopy(suffix, 0, key, prefix.length + digits, suffix.length);
+    return key;
+  }
+
+  /** The last payload */
+  public byte[] payload() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  /** Start a new payload about {@code device} */
+  void reset(int device) {
+    restart();
+    select(device);
+  }
+
+  /** Start a new payload */
+  void restart() {
+    size = 0;
+  }
+
+  /** Make {@code device} the one the device fields and the key refer to */
+  void select(int device) {
+    if (device < 0 || device >= (groupEnds.length == 0 ? 0 : groupEnds[groupEnds.length - 1])) {
+      throw new IndexOutOfBoundsException("Device " + device + " outside the encoded fleet");
+    }
+    int current = 0;
+    while (groupEnds[current] <= device) {
+      current++;
+    }
+    group = current;
+    index = device - (current == 0 ? 0 : groupEnds[current - 1]);
+  }
+
+  /** Escaped device ID of the current device, without quotes */
+  void writeDeviceId() {
+    write(quotedPrefixes[group]);
+    digitsStart = size;
+    writeNumber(groups[group].number(index), groups[group].getIdWidth());
+    digitsEnd = size;
+    write(quotedSuffixes[group]);
+  }
+
+  void writeDeviceType() {
+    write(quotedTypes[group]);
+  }
+
+  void writeZone() {
+    write(quotedZones[group][groups[group].zoneIndex(index)]);
+  }
+
+  void writeNumber(long number, int width) {
+    int digits = 1;
+    for (long bound = 10; digits < 19 && number >= bound; bound *= 10) {
+      digits++;
+    }
+    for (int pad = digits; pad < width; pad++) {
+      writeByte('0');
+    }
+    ensureCapacity(digits);
+    for (int i = size + digits - 1; i >= size; i--) {
+      buffer[i] = (byte) ('0' + number % 10);
+      number /= 10;
+    }
+    size += digits;
+  }
+
+  /** Signed decimal, e.g. an epoch-millisecond timestamp */
+  void writeLong(long number) {
+    if (number < 0) {
+      writeByte('-');
+      if (number == Long.MIN_VALUE) {
+        write(ascii("9223372036854775808"));
+        return;
+      }
+      number = -number;
+    }
+    writeNumber(number, 0);
+  }
+
+  void writeValue(double value) {
+    // Same shortest round-trip digits as Jackson's fast double writer, NaN and infinities quoted
+    String text = NumberOutput.toString(value, true);
+    boolean quoted = !Double.isFinite(value);
+    ensureCapacity(text.length() + 2);
+    if (quoted) {
+      buffer[size++] = '"';
+    }
+    for (int i = 0; i < text.length(); i++) {
+      buffer[size++] = (byte) text.charAt(i);
+    }
+    if (quoted) {
+      buffer[size++] = '"';
+    }
+  }
+
+  void write(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  void writeByte(char c) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) c;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+  }
+
+  static byte[] ascii(String text) {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+}
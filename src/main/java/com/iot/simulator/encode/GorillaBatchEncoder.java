@@ -0,0 +1,68 @@
+package com.iot.simulator.encode;
+
+import com.iot.common.codec.GorillaBatchWriter;
+import com.iot.common.model.ReadingBatch;
+import com.iot.common.model.ReadingHeaders;
+import com.iot.simulator.fleet.DeviceFleet;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+/** Encodes series of fleet readings into columnar {@link GorillaBatchWriter} envelopes */
+public final class GorillaBatchEncoder implements BatchEnvelopeEncoder {
+
+  /** Encoding header of every envelope this encoder produces */
+  public static final Header ENCODING_HEADER =
+      new RecordHeader(
+          ReadingHeaders.BATCH_ENCODING,
+          ReadingBatch.GORILLA_ENCODING.getBytes(StandardCharsets.UTF_8));
+
+  private static final List<Header> HEADERS = List.of(ENCODING_HEADER);
+
+  private final DeviceFleet fleet;
+  private final GorillaBatchWriter writer = new GorillaBatchWriter();
+  private String lastDeviceId;
+  private byte[] payload;
+
+  public GorillaBatchEncoder(DeviceFleet fleet) {
+    this.fleet = fleet;
+  }
+
+  @Override
+  public void begin() {
+    writer.begin();
+    lastDeviceId = null;
+    payload = null;
+  }
+
+  @Override
+  public void addSeries(int device, long[] timestamps, double[] values, int offset, int count) {
+    lastDeviceId = fleet.deviceId(device);
+    writer.addSeries(
+        lastDeviceId,
+        fleet.deviceType(device),
+        fleet.zone(device),
+        timestamps,
+        values,
+        offset,
+        count);
+  }
+
+  @Override
+  public void finish() {
+    payload = writer.finish();
+  }
+
+  @Override
+  public int readings() {
+    return writer.readings();
+  }
+
+  @Override
+  public ProducerRecord<byte[], byte[]> toRecord(String topic) {
+    byte[] key = lastDeviceId == null ? null : lastDeviceId.getBytes(StandardCharsets.UTF_8);
+    return new ProducerRecord<>(topic, null, key, payload, HEADERS);
+  }
+}
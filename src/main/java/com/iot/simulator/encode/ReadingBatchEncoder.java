@@ -0,0 +1,92 @@
+package com.iot.simulator.encode;
+
+import com.iot.common.model.ReadingBatch;
+import com.iot.common.model.ReadingHeaders;
+import com.iot.simulator.fleet.DeviceFleet;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+/** Encodes series of fleet readings straight into the JSON of a {@link ReadingBatch} envelope */
+public final class ReadingBatchEncoder extends FleetPayloadWriter implements BatchEnvelopeEncoder {
+
+  /** Encoding header of every envelope this encoder produces */
+  public static final Header ENCODING_HEADER =
+      new RecordHeader(
+          ReadingHeaders.BATCH_ENCODING,
+          ReadingBatch.JSON_ENCODING.getBytes(StandardCharsets.UTF_8));
+
+  private static final List<Header> HEADERS = List.of(ENCODING_HEADER);
+
+  private static final byte[] START = ascii("{\"series\":[");
+  private static final byte[] ID_FIELD = ascii("{\"deviceId\":\"");
+  private static final byte[] DEVICE_TYPE_FIELD = ascii("\",\"deviceType\":\"");
+  private static final byte[] ZONE_FIELD = ascii("\",\"zone\":\"");
+  private static final byte[] TIMESTAMPS_FIELD = ascii("\",\"timestamps\":[");
+  private static final byte[] VALUES_FIELD = ascii("],\"values\":[");
+  private static final byte[] SERIES_END = ascii("]}");
+  private static final byte[] END = ascii("]}");
+
+  private int series;
+  private int readings;
+
+  /** Encoder for batches of {@code fleet}, or of any fleet forked from it */
+  public ReadingBatchEncoder(DeviceFleet fleet) {
+    super(fleet);
+  }
+
+  @Override
+  public void begin() {
+    restart();
+    write(START);
+    series = 0;
+    readings = 0;
+  }
+
+  @Override
+  public void addSeries(int device, long[] timestamps, double[] values, int offset, int count) {
+    if (series++ > 0) {
+      writeByte(',');
+    }
+    select(device);
+    write(ID_FIELD);
+    writeDeviceId();
+    write(DEVICE_TYPE_FIELD);
+    writeDeviceType();
+    write(ZONE_FIELD);
+    writeZone();
+    write(TIMESTAMPS_FIELD);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        writeByte(',');
+      }
+      writeLong(timestamps[offset + i]);
+    }
+    write(VALUES_FIELD);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        writeByte(',');
+      }
+      writeValue(values[offset + i]);
+    }
+    write(SERIES_END);
+    readings += count;
+  }
+
+  @Override
+  public void finish() {
+    write(END);
+  }
+
+  @Override
+  public int readings() {
+    return readings;
+  }
+
+  @Override
+  public ProducerRecord<byte[], byte[]> toRecord(String topic) {
+    return new ProducerRecord<>(topic, null, key(), payload(), HEADERS);
+  }
+}
@@ -0,0 +1,105 @@
+package com.iot.simulator.encode;
+
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.fleet.DeviceFleet;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+/**
+ * Encodes fleet readings straight into the Kafka key and JSON value that {@code JsonSerializer}
+ * would produce for the equivalent {@link SensorReading}, without building the entity or going
+ * through Jackson's object mapper. The per-group parts of every payload (ID prefix and suffix,
+ * device type, zones) are escaped once up front, the date-time prefix is cached per minute, and the
+ * work buffer is reused, so a reading costs little more than the two byte arrays handed to the
+ * producer.
+ *
+ * <p>Not thread-safe: every generating thread keeps its own encoder.
+ */
+public final class ReadingPayloadEncoder extends FleetPayloadWriter {
+
+  /** Type header {@code JsonSerializer} adds, which the system's deserializer maps values by */
+  public static final Header TYPE_HEADER =
+      new RecordHeader(
+          AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+          SensorReading.class.getName().getBytes(StandardCharsets.UTF_8));
+
+  private static final List<Header> HEADERS = List.of(TYPE_HEADER);
+
+  private static final byte[] ID_FIELD = ascii("{\"id\":null,\"deviceId\":\"");
+  private static final byte[] DEVICE_TYPE_FIELD = ascii("\",\"deviceType\":\"");
+  private static final byte[] ZONE_FIELD = ascii("\",\"zone\":\"");
+  private static final byte[] VALUE_FIELD = ascii("\",\"value\":");
+  private static final byte[] TIMESTAMP_FIELD = ascii(",\"timestamp\":");
+  private static final byte[] END = ascii("]}");
+
+  private long cachedMinute = Long.MIN_VALUE;
+  private byte[] cachedDateTime;
+
+  /** Encoder for readings of {@code fleet}, or of any fleet forked from it */
+  public ReadingPayloadEncoder(DeviceFleet fleet) {
+    super(fleet);
+  }
+
+  /** Encode a reading of {@code device}, replacing the previously encoded one */
+  public void encode(int device, double value, long timestampMillis) {
+    reset(device);
+    write(ID_FIELD);
+    writeDeviceId();
+    write(DEVICE_TYPE_FIELD);
+    writeDeviceType();
+    write(ZONE_FIELD);
+    writeZone();
+    write(VALUE_FIELD);
+    writeValue(value);
+    write(TIMESTAMP_FIELD);
+    writeTimestamp(timestampMillis);
+    write(END);
+  }
+
+  /** Producer record of the last encoded reading, carrying the type header */
+  public ProducerRecord<byte[], byte[]> toRecord(String topic) {
+    return new ProducerRecord<>(topic, null, key(), payload(), HEADERS);
+  }
+
+  /**
+   * Date-time array as {@code JsonSerializer}'s mapper writes {@link LocalDateTime}: year to
+   * minute, then the second only if it or the fraction is non-zero, then the fraction in
+   * nanoseconds
+   */
+  private void writeTimestamp(long timestampMillis) {
+    long minute = Math.floorDiv(timestampMillis, 60_000);
+    int millisOfMinute = (int) Math.floorMod(timestampMillis, 60_000);
+    if (minute != cachedMinute) {
+      LocalDateTime time = LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+      cachedDateTime =
+          ascii(
+              "["
+                  + time.getYear()
+                  + ","
+                  + time.getMonthValue()
+                  + ","
+                  + time.getDayOfMonth()
+                  + ","
+                  + time.getHour()
+                  + ","
+                  + time.getMinute());
+      cachedMinute = minute;
+    }
+    write(cachedDateTime);
+    if (millisOfMinute != 0) {
+      writeByte(',');
+      writeNumber(millisOfMinute / 1000, 0);
+      int millis = millisOfMinute % 1000;
+      if (millis != 0) {
+        writeByte(',');
+        writeNumber(millis * 1_000_000L, 0);
+      }
+    }
+  }
+}
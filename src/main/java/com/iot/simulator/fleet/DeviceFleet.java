@@ -0,0 +1,206 @@
+package com.iot.simulator.fleet;
+
+import com.iot.common.model.SensorReading;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compact state of a simulated fleet. Devices are addressed by a global index; the only per-device
+ * state is the current value in a primitive array, everything else is derived from the owning
+ * {@link FleetGroup}. There is no {@code Random} per device: an unseeded fleet draws from the
+ * calling thread's generator, while a seeded fleet keeps one {@link DeviceRandom} state per device,
+ * derived from the global seed and the device ID, so each device's stream is reproducible
+ * regardless of which thread generates it.
+ *
+ * <p>Generating readings for different devices is thread-safe; callers must not advance the same
+ * device from two threads at once.
+ */
+public class DeviceFleet {
+
+  private static final ThreadLocal<DeviceRandom> DEVICE_RANDOM =
+      ThreadLocal.withInitial(() -> new DeviceRandom(0));
+
+  private final FleetGroup[] groups;
+  private final int[] groupEnds;
+  private final double[] values;
+  private final Long seed;
+  private final long[] randomStates;
+
+  /** Fleet drawing randomness from the calling thread */
+  public DeviceFleet(List<FleetGroup> groups) {
+    this(groups, null);
+  }
+
+  /** Fleet with a reproducible random stream per device, or unseeded if {@code seed} is null */
+  public DeviceFleet(List<FleetGroup> groups, Long seed) {
+    this.groups = groups.toArray(new FleetGroup[0]);
+    this.groupEnds = new int[this.groups.length];
+    long total = 0;
+    for (int i = 0; i < this.groups.length; i++) {
+      total += this.groups[i].getCount();
+      if (total > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("Fleet too large: " + total + " devices");
+      }
+      groupEnds[i] = (int) total;
+    }
+
+    this.values = new double[(int) total];
+    for (int i = 0; i < this.groups.length; i++) {
+      double initialValue = this.groups[i].getBehavior().getInitialValue();
+      Arrays.fill(values, groupStart(i), groupEnds[i], initialValue);
+    }
+
+    this.seed = seed;
+    this.randomStates = seed != null ? new long[(int) total] : null;
+    if (seed != null) {
+      for (int device = 0; device < randomStates.length; device++) {
+        randomStates[device] = DeviceRandom.seedFor(seed, deviceId(device));
+      }
+    }
+  }
+
+  /**
+   * Fresh fleet with the same devices in their initial state. A seeded fleet's copy gets streams
+   * derived from {@code salt}, so e.g. backfill and live simulation do not replay the same values.
+   */
+  public DeviceFleet fork(long salt) {
+    return new DeviceFleet(List.of(groups), seed != null ? DeviceRandom.mix(seed + salt) : null);
+  }
+
+  /**
+   * Fresh fleet of this fleet's {@link FleetGroup#shard shard} {@code index} of {@code count}. Each
+   * device keeps its ID and therefore its seeded stream, so a sharded run generates the same values
+   * as a single process.
+   */
+  public DeviceFleet shard(int index, int count) {
+    return new DeviceFleet(
+        Arrays.stream(groups).map(group -> group.shard(index, count)).toList(), seed);
+  }
+
+  public boolean isSeeded() {
+    return seed != null;
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public List<FleetGroup> getGroups() {
+    return List.of(groups);
+  }
+
+  public String deviceId(int device) {
+    int group = groupOf(device);
+    return groups[group].deviceId(device - groupStart(group));
+  }
+
+  public String deviceType(int device) {
+    return groups[groupOf(device)].getDeviceType();
+  }
+
+  public String zone(int device) {
+    int group = groupOf(device);
+    return groups[group].zone(device - groupStart(group));
+  }
+
+  public long intervalMillis(int device) {
+    return groups[groupOf(device)].getIntervalMillis();
+  }
+
+  /** Advance a device's random walk and return its reading stamped {@code timestamp} */
+  public SensorReading nextReading(int device, LocalDateTime timestamp) {
+    int group = groupOf(device);
+    FleetGroup spec = groups[group];
+    int index = device - groupStart(group);
+    double value = advance(device, spec);
+    return new SensorReading(
+        spec.deviceId(index), spec.getDeviceType(), spec.zone(index), value, timestamp);
+  }
+
+  /**
+   * Advance a device's random walk exactly like {@link #nextReading} but return only the new value,
+   * for generators that encode readings without materialising them
+   */
+  public double nextValue(int device) {
+    return advance(device, groups[groupOf(device)]);
+  }
+
+  /** Next uniform double in [0, 1) from the device's stream, for noise added by generators */
+  public double nextNoise(int device) {
+    if (randomStates == null) {
+      return ThreadLocalRandom.current().nextDouble();
+    }
+    DeviceRandom random = load(device);
+    double noise = random.nextDouble();
+    randomStates[device] = random.getState();
+    return noise;
+  }
+
+  /** Write every device's value and random stream position, e.g. for a job checkpoint */
+  public void writeState(DataOutput out) throws IOException {
+    out.writeInt(values.length);
+    out.writeBoolean(randomStates != null);
+    for (int device = 0; device < values.length; device++) {
+      out.writeDouble(values[device]);
+      if (randomStates != null) {
+        out.writeLong(randomStates[device]);
+      }
+    }
+  }
+
+  /** Restore state written by {@link #writeState} from a fleet of the same layout */
+  public void readState(DataInput in) throws IOException {
+    int size = in.readInt();
+    boolean seeded = in.readBoolean();
+    if (size != values.length || seeded != (randomStates != null)) {
+      throw new IOException(
+          "Saved state of " + size + " devices does not match this fleet of " + values.length);
+    }
+    for (int device = 0; device < values.length; device++) {
+      values[device] = in.readDouble();
+      if (randomStates != null) {
+        randomStates[device] = in.readLong();
+      }
+    }
+  }
+
+  private double advance(int device, FleetGroup spec) {
+    double value;
+    if (randomStates != null) {
+      DeviceRandom random = load(device);
+      value = spec.getBehavior().next(values[device], random);
+      randomStates[device] = random.getState();
+    } else {
+      value = spec.getBehavior().next(values[device], ThreadLocalRandom.current());
+    }
+    values[device] = value;
+    return value;
+  }
+
+  private DeviceRandom load(int device) {
+    DeviceRandom random = DEVICE_RANDOM.get();
+    random.setState(randomStates[device]);
+    return random;
+  }
+
+  private int groupOf(int device) {
+    if (device < 0 || device >= values.length) {
+      throw new IndexOutOfBoundsException("Device " + device + " outside fleet of " + size());
+    }
+    // Few groups: a linear scan beats a binary search
+    int group = 0;
+    while (groupEnds[group] <= device) {
+      group++;
+    }
+    return group;
+  }
+
+  private int groupStart(int group) {
+    return group == 0 ? 0 : groupEnds[group - 1];
+  }
+}
@@ -0,0 +1,48 @@
+package com.iot.simulator.fleet;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix64 generator whose whole state is one {@code long}, so a fleet can keep an independent
+ * random stream per device in a primitive array and load it into a reusable instance on demand.
+ */
+public final class DeviceRandom implements RandomGenerator {
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private long state;
+
+  public DeviceRandom(long state) {
+    this.state = state;
+  }
+
+  public long getState() {
+    return state;
+  }
+
+  public void setState(long state) {
+    this.state = state;
+  }
+
+  @Override
+  public long nextLong() {
+    state += GOLDEN_GAMMA;
+    return mix(state);
+  }
+
+  /** Seed of a device's stream, derived from the global seed and the device ID */
+  public static long seedFor(long globalSeed, String deviceId) {
+    // 64-bit FNV-1a of the ID, so distinct IDs rarely share a stream
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < deviceId.length(); i++) {
+      hash = (hash ^ deviceId.charAt(i)) * 0x100000001B3L;
+    }
+    return mix(globalSeed ^ mix(hash));
+  }
+
+  public static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
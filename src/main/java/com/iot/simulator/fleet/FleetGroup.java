@@ -0,0 +1,200 @@
+package com.iot.simulator.fleet;
+
+import com.iot.simulator.device.DeviceBehavior;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable specification of one group of identical devices: type, count, reporting interval,
+ * device-ID pattern and weighted zone distribution.
+ *
+ * <p>Device IDs are produced from a pattern with a single {@code %d} or zero-padded {@code %0Nd}
+ * conversion, filled with the number of the device within its group, counting from 1 unless another
+ * first number is given. Zones are assigned in contiguous ranges proportional to their weights, so
+ * neither IDs nor zones are stored per device.
+ *
+ * <p>A group can be cut into {@link #shard shards} for simulators running in several processes:
+ * each shard is a contiguous slice of the devices that keeps their IDs and zones.
+ */
+public final class FleetGroup {
+
+  private final DeviceBehavior behavior;
+  private final int count;
+  private final int offset;
+  private final int firstNumber;
+  private final long intervalMillis;
+  private final String idPrefix;
+  private final String idSuffix;
+  private final int idWidth;
+  private final String[] zones;
+  private final int[] zoneEnds;
+
+  public FleetGroup(
+      String deviceType,
+      int count,
+      long intervalMillis,
+      String idPattern,
+      Map<String, Integer> zoneWeights) {
+    this(deviceType, count, intervalMillis, idPattern, 1, zoneWeights);
+  }
+
+  public FleetGroup(
+      String deviceType,
+      int count,
+      long intervalMillis,
+      String idPattern,
+      int firstNumber,
+      Map<String, Integer> zoneWeights) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Device count must not be negative: " + count);
+    }
+    if (intervalMillis <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+    }
+    if (firstNumber < 0) {
+      throw new IllegalArgumentException(
+          "First device number must not be negative: " + firstNumber);
+    }
+    if (zoneWeights == null || zoneWeights.isEmpty()) {
+      throw new IllegalArgumentException("At least one zone is required for " + deviceType);
+    }
+    this.behavior = DeviceBehavior.valueOf(deviceType);
+    this.count = count;
+    this.offset = 0;
+    this.firstNumber = firstNumber;
+    this.intervalMillis = intervalMillis;
+
+    int conversion = idPattern.indexOf('%');
+    int end = idPattern.indexOf('d', conversion + 1);
+    String width = conversion >= 0 && end > 0 ? idPattern.substring(conversion + 1, end) : "x";
+    if (!width.isEmpty() && !width.matches("0\\d+")) {
+      throw new IllegalArgumentException(
+          "ID pattern needs one %d or %0Nd conversion: " + idPattern);
+    }
+    this.idPrefix = idPattern.substring(0, conversion);
+    this.idSuffix = idPattern.substring(end + 1);
+    this.idWidth = width.isEmpty() ? 0 : Integer.parseInt(width);
+
+    Map<String, Integer> weights = new LinkedHashMap<>(zoneWeights);
+    long totalWeight = 0;
+    for (int weight : weights.values()) {
+      if (weight < 0) {
+        throw new IllegalArgumentException("Zone weights must not be negative: " + weights);
+      }
+      totalWeight += weight;
+    }
+    if (totalWeight == 0) {
+      throw new IllegalArgumentException("Zone weights must not all be zero: " + weights);
+    }
+    this.zones = weights.keySet().toArray(new String[0]);
+    this.zoneEnds = new int[zones.length];
+    long cumulativeWeight = 0;
+    int zone = 0;
+    for (int weight : weights.values()) {
+      cumulativeWeight += weight;
+      zoneEnds[zone++] = (int) (count * cumulativeWeight / totalWeight);
+    }
+  }
+
+  private FleetGroup(FleetGroup group, int offset, int count) {
+    this.behavior = group.behavior;
+    this.count = count;
+    this.offset = group.offset + offset;
+    this.firstNumber = group.firstNumber;
+    this.intervalMillis = group.intervalMillis;
+    this.idPrefix = group.idPrefix;
+    this.idSuffix = group.idSuffix;
+    this.idWidth = group.idWidth;
+    this.zones = group.zones;
+    this.zoneEnds = group.zoneEnds;
+  }
+
+  /**
+   * Slice {@code index} of {@code count} near-equal contiguous slices of this group's devices. The
+   * slice's devices keep their IDs and zones, so shards together simulate exactly this group.
+   */
+  public FleetGroup shard(int index, int count) {
+    if (count < 1 || index < 0 || index >= count) {
+      throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+    }
+    int from = (int) ((long) this.count * index / count);
+    int to = (int) ((long) this.count * (index + 1) / count);
+    return new FleetGroup(this, from, to - from);
+  }
+
+  public String getDeviceType() {
+    return behavior.name();
+  }
+
+  public DeviceBehavior getBehavior() {
+    return behavior;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public long getIntervalMillis() {
+    return intervalMillis;
+  }
+
+  public String[] getZones() {
+    return zones.clone();
+  }
+
+  /** Text of device IDs before the number */
+  public String getIdPrefix() {
+    return idPrefix;
+  }
+
+  /** Text of device IDs after the number */
+  public String getIdSuffix() {
+    return idSuffix;
+  }
+
+  /** Position of this slice's first device in the unsharded group, 0 unless a shard */
+  public int getOffset() {
+    return offset;
+  }
+
+  /** Minimum number of digits in device IDs, zero-padded; 0 for no padding */
+  public int getIdWidth() {
+    return idWidth;
+  }
+
+  /** Number in the ID of the device at {@code index} (0-based) within this group */
+  public int number(int index) {
+    return firstNumber + offset + index;
+  }
+
+  /** ID of the device at {@code index} (0-based) within this group */
+  public String deviceId(int index) {
+    String number = Integer.toString(number(index));
+    StringBuilder id =
+        new StringBuilder(
+            idPrefix.length() + Math.max(idWidth, number.length()) + idSuffix.length());
+    id.append(idPrefix);
+    for (int pad = number.length(); pad < idWidth; pad++) {
+      id.append('0');
+    }
+    return id.append(number).append(idSuffix).toString();
+  }
+
+  /** Zone of the device at {@code index} (0-based) within this group */
+  public String zone(int index) {
+    return zones[zoneIndex(index)];
+  }
+
+  /** Position in {@link #getZones()} of the zone of the device at {@code index} */
+  public int zoneIndex(int index) {
+    index += offset;
+    int position = Arrays.binarySearch(zoneEnds, index);
+    // An exact hit is the first device past that zone's range; skip zones with no devices
+    int zone = position >= 0 ? position + 1 : -position - 1;
+    while (zoneEnds[zone] == index) {
+      zone++;
+    }
+    return zone;
+  }
+}
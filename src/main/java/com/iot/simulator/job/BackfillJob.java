@@ -0,0 +1,265 @@
+package com.iot.simulator.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A generation or backfill job. Generated jobs cover {@code [startTime, endTime)} in {@code
+ * totalSteps} steps of {@code intervalMillis} and advance {@link #getNextStep() nextStep} one time
+ * slice at a time; {@code nextStep} is what a checkpoint records and where a resumed job continues.
+ */
+public class BackfillJob {
+
+  public enum Kind {
+    /** Generated readings sent through Kafka */
+    KAFKA,
+    /** Generated readings copied straight into the database */
+    DATABASE,
+    /** A recording copied straight into the database; not resumable */
+    IMPORT
+  }
+
+  public enum Status {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED,
+    /** Stopped by a shutdown or crash; can be resumed from its checkpoint */
+    INTERRUPTED;
+
+    public boolean isFinished() {
+      return this != QUEUED && this != RUNNING;
+    }
+  }
+
+  private final String id;
+  private final Kind kind;
+  private final LocalDateTime startTime;
+  private final LocalDateTime endTime;
+  private final long intervalMillis;
+  private final String recording;
+  private final long totalSteps;
+  private final long plannedRows;
+  private final LocalDateTime createdAt;
+  private final JobRateLimiter rateLimiter;
+  private final AtomicLong rows = new AtomicLong();
+  private final AtomicLong failedRows = new AtomicLong();
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+  private volatile Status status = Status.QUEUED;
+  private volatile long nextStep;
+  private volatile boolean cancelRequested;
+  private volatile String error;
+  private volatile Thread runner;
+  private volatile long runStartedAtNanos;
+  private volatile long runStartRows;
+  private volatile long finishedAtNanos;
+
+  public BackfillJob(
+      String id,
+      Kind kind,
+      LocalDateTime startTime,
+      LocalDateTime endTime,
+      long intervalMillis,
+      String recording,
+      long plannedRows,
+      double rowsPerSecond,
+      LocalDateTime createdAt) {
+    this.id = id;
+    this.kind = kind;
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.intervalMillis = intervalMillis;
+    this.recording = recording;
+    this.totalSteps =
+        kind == Kind.IMPORT
+            ? 0
+            : (Duration.between(startTime, endTime).toMillis() + intervalMillis - 1)
+                / intervalMillis;
+    this.plannedRows = plannedRows;
+    this.rateLimiter = new JobRateLimiter(rowsPerSecond);
+    this.createdAt = createdAt;
+  }
+
+  /** Recreate a job from its checkpoint, positioned at the first slice not yet completed */
+  public static BackfillJob fromCheckpoint(JobCheckpoint checkpoint) {
+    BackfillJob job =
+        new BackfillJob(
+            checkpoint.getId(),
+            checkpoint.getKind(),
+            checkpoint.getStartTime(),
+            checkpoint.getEndTime(),
+            checkpoint.getIntervalMillis(),
+            checkpoint.getRecording(),
+            checkpoint.getPlannedRows(),
+            checkpoint.getRowsPerSecond(),
+            checkpoint.getCreatedAt());
+    job.nextStep = checkpoint.getNextStep();
+    job.rows.set(checkpoint.getRows());
+    job.status = Status.INTERRUPTED;
+    return job;
+  }
+
+  public JobCheckpoint toCheckpoint() {
+    JobCheckpoint checkpoint = new JobCheckpoint();
+    checkpoint.setId(id);
+    checkpoint.setKind(kind);
+    checkpoint.setStartTime(startTime);
+    checkpoint.setEndTime(endTime);
+    checkpoint.setIntervalMillis(intervalMillis);
+    checkpoint.setRecording(recording);
+    checkpoint.setPlannedRows(plannedRows);
+    checkpoint.setRowsPerSecond(rateLimiter.getRowsPerSecond());
+    checkpoint.setCreatedAt(createdAt);
+    checkpoint.setNextStep(nextStep);
+    checkpoint.setRows(rows.get());
+    return checkpoint;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public LocalDateTime getStartTime() {
+    return startTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public Duration getInterval() {
+    return Duration.ofMillis(intervalMillis);
+  }
+
+  public String getRecording() {
+    return recording;
+  }
+
+  public long getTotalSteps() {
+    return totalSteps;
+  }
+
+  public long getNextStep() {
+    return nextStep;
+  }
+
+  /** Record that every step before {@code nextStep} is complete */
+  public void completeStepsBefore(long nextStep) {
+    this.nextStep = nextStep;
+  }
+
+  public JobRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  public AtomicLong getRows() {
+    return rows;
+  }
+
+  public AtomicLong getFailedRows() {
+    return failedRows;
+  }
+
+  /** Completes when the job reaches a final status, exceptionally unless it succeeded */
+  public CompletableFuture<Void> getCompletion() {
+    return completion;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+
+  /** Ask the job to stop; a running job is interrupted and ends CANCELLED */
+  public void requestCancel() {
+    cancelRequested = true;
+    Thread thread = runner;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /** Interrupt a running job without cancelling it, leaving it resumable */
+  public void interrupt() {
+    Thread thread = runner;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /** Make a job restored from its checkpoint eligible to run again */
+  public void markQueued() {
+    status = Status.QUEUED;
+  }
+
+  public void markRunning(Thread thread) {
+    runner = thread;
+    runStartedAtNanos = System.nanoTime();
+    runStartRows = rows.get();
+    status = Status.RUNNING;
+  }
+
+  public void markFinished(Status result, String message) {
+    runner = null;
+    finishedAtNanos = System.nanoTime();
+    error = message;
+    status = result;
+    if (result == Status.SUCCEEDED) {
+      completion.complete(null);
+    } else {
+      completion.completeExceptionally(
+          new IllegalStateException(
+              "Job " + id + " " + result + (message != null ? ": " + message : "")));
+    }
+  }
+
+  public Map<String, Object> toStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("id", id);
+    status.put("kind", kind);
+    status.put("status", this.status);
+    status.put("startTime", startTime);
+    status.put("endTime", endTime);
+    if (recording != null) {
+      status.put("recording", recording);
+    }
+    status.put("createdAt", createdAt);
+    long done = rows.get();
+    status.put("rows", done);
+    status.put("failedRows", failedRows.get());
+    status.put("plannedRows", plannedRows);
+    status.put("progress", plannedRows > 0 ? Math.min(1.0, (double) done / plannedRows) : 0.0);
+
+    double rate = 0;
+    if (runStartedAtNanos > 0) {
+      long endNanos = this.status == Status.RUNNING ? System.nanoTime() : finishedAtNanos;
+      double elapsedSeconds = (endNanos - runStartedAtNanos) / 1e9;
+      rate = elapsedSeconds > 0 ? (done - runStartRows) / elapsedSeconds : 0;
+    }
+    status.put("rowsPerSecond", rate);
+    status.put(
+        "etaSeconds",
+        this.status == Status.RUNNING && plannedRows > 0 && rate > 0
+            ? Math.max(0, plannedRows - done) / rate
+            : null);
+    status.put("rateLimit", rateLimiter.getRowsPerSecond());
+    if (kind != Kind.IMPORT) {
+      status.put("checkpoint", startTime.plus(getInterval().multipliedBy(nextStep)));
+    }
+    status.put("error", error);
+    return status;
+  }
+}
@@ -0,0 +1,107 @@
+package com.iot.simulator.job;
+
+import java.time.LocalDateTime;
+
+/** Persisted form of a {@link BackfillJob}, written after every completed time slice */
+public class JobCheckpoint {
+
+  private String id;
+  private BackfillJob.Kind kind;
+  private LocalDateTime startTime;
+  private LocalDateTime endTime;
+  private long intervalMillis;
+  private String recording;
+  private long plannedRows;
+  private double rowsPerSecond;
+  private LocalDateTime createdAt;
+  private long nextStep;
+  private long rows;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public BackfillJob.Kind getKind() {
+    return kind;
+  }
+
+  public void setKind(BackfillJob.Kind kind) {
+    this.kind = kind;
+  }
+
+  public LocalDateTime getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(LocalDateTime startTime) {
+    this.startTime = startTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(LocalDateTime endTime) {
+    this.endTime = endTime;
+  }
+
+  public long getIntervalMillis() {
+    return intervalMillis;
+  }
+
+  public void setIntervalMillis(long intervalMillis) {
+    this.intervalMillis = intervalMillis;
+  }
+
+  public String getRecording() {
+    return recording;
+  }
+
+  public void setRecording(String recording) {
+    this.recording = recording;
+  }
+
+  public long getPlannedRows() {
+    return plannedRows;
+  }
+
+  public void setPlannedRows(long plannedRows) {
+    this.plannedRows = plannedRows;
+  }
+
+  public double getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  public void setRowsPerSecond(double rowsPerSecond) {
+    this.rowsPerSecond = rowsPerSecond;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public long getNextStep() {
+    return nextStep;
+  }
+
+  public void setNextStep(long nextStep) {
+    this.nextStep = nextStep;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public void setRows(long rows) {
+    this.rows = rows;
+  }
+}
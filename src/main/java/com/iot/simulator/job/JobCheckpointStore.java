@@ -0,0 +1,116 @@
+package com.iot.simulator.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.simulator.fleet.DeviceFleet;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Job checkpoints on disk: {@code <id>.json} holds the {@link JobCheckpoint} and {@code
+ * <id>.<nextStep>.fleet} the forked fleet's device state at that step, the end of the last
+ * completed slice, so a resumed job continues every device's random walk exactly where it stopped.
+ *
+ * <p>Each slice's state goes to a new file named after its step, and the checkpoint is then
+ * replaced atomically; only after that are older state files removed. A crash at any point leaves
+ * the checkpoint paired with the state of the same step, never with a newer one.
+ */
+public class JobCheckpointStore {
+
+  private static final String CHECKPOINT_SUFFIX = ".json";
+  private static final String FLEET_SUFFIX = ".fleet";
+
+  private final Path directory;
+  private final ObjectMapper objectMapper;
+
+  public JobCheckpointStore(Path directory, ObjectMapper objectMapper) {
+    this.directory = directory;
+    this.objectMapper = objectMapper;
+  }
+
+  public void save(JobCheckpoint checkpoint, DeviceFleet state) throws IOException {
+    Files.createDirectories(directory);
+    if (state != null) {
+      Path fleetFile = fleetFile(checkpoint.getId(), checkpoint.getNextStep());
+      Path fleetTemp = fleetFile.resolveSibling(fleetFile.getFileName() + ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fleetTemp)))) {
+        state.writeState(out);
+      }
+      replace(fleetTemp, fleetFile);
+    }
+    Path temp = directory.resolve(checkpoint.getId() + CHECKPOINT_SUFFIX + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      objectMapper.writeValue(out, checkpoint);
+    }
+    replace(temp, directory.resolve(checkpoint.getId() + CHECKPOINT_SUFFIX));
+    deleteFleetFiles(checkpoint.getId(), checkpoint.getNextStep());
+  }
+
+  /** Restore the device state job {@code id} saved with its checkpoint at {@code nextStep} */
+  public void restoreFleet(String id, long nextStep, DeviceFleet state) throws IOException {
+    Path file = fleetFile(id, nextStep);
+    if (!Files.exists(file)) {
+      throw new IOException("No device state for job " + id + " at step " + nextStep);
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      state.readState(in);
+    }
+  }
+
+  public List<JobCheckpoint> loadAll() throws IOException {
+    List<JobCheckpoint> checkpoints = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return checkpoints;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(f -> f.toString().endsWith(CHECKPOINT_SUFFIX)).toList()) {
+        try (InputStream in = Files.newInputStream(file)) {
+          checkpoints.add(objectMapper.readValue(in, JobCheckpoint.class));
+        }
+      }
+    }
+    return checkpoints;
+  }
+
+  public void delete(String id) throws IOException {
+    Files.deleteIfExists(directory.resolve(id + CHECKPOINT_SUFFIX));
+    deleteFleetFiles(id, -1);
+  }
+
+  private Path fleetFile(String id, long step) {
+    return directory.resolve(id + "." + step + FLEET_SUFFIX);
+  }
+
+  /** Delete the state files of job {@code id}, unfinished ones included, but {@code keepStep} */
+  private void deleteFleetFiles(String id, long keepStep) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    Path keep = fleetFile(id, keepStep);
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(directory, id + ".*" + FLEET_SUFFIX + "*")) {
+      for (Path file : files) {
+        if (!file.equals(keep)) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private static void replace(Path source, Path target) throws IOException {
+    Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+}
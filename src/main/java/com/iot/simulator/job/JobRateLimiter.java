@@ -0,0 +1,59 @@
+package com.iot.simulator.job;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Row rate limit shared by all threads of one job. Each acquisition reserves the next free slot on
+ * a virtual timeline and waits for it, so the long-run rate is exact while up to {@link
+ * #BURST_NANOS} of unused capacity may be spent at once. The rate can be changed while the job
+ * runs.
+ */
+public class JobRateLimiter {
+
+  private static final long BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private volatile double rowsPerSecond;
+  private long nextFreeNanos = System.nanoTime();
+
+  /**
+   * @param rowsPerSecond rows per second, or 0 for no limit
+   */
+  public JobRateLimiter(double rowsPerSecond) {
+    setRowsPerSecond(rowsPerSecond);
+  }
+
+  public double getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  public void setRowsPerSecond(double rowsPerSecond) {
+    if (rowsPerSecond < 0 || Double.isNaN(rowsPerSecond)) {
+      throw new IllegalArgumentException("Rate limit must be 0 (unlimited) or positive");
+    }
+    this.rowsPerSecond = rowsPerSecond;
+  }
+
+  /** Wait until {@code rows} more rows may be produced */
+  public void acquire(int rows) throws InterruptedException {
+    double rate = rowsPerSecond;
+    if (rate <= 0) {
+      return;
+    }
+    long waitNanos;
+    synchronized (this) {
+      long now = System.nanoTime();
+      nextFreeNanos = Math.max(nextFreeNanos, now - BURST_NANOS);
+      waitNanos = nextFreeNanos - now;
+      nextFreeNanos += (long) (rows * 1e9 / rate);
+    }
+    long deadline = System.nanoTime() + waitNanos;
+    while (waitNanos > 0) {
+      LockSupport.parkNanos(waitNanos);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      waitNanos = deadline - System.nanoTime();
+    }
+  }
+}
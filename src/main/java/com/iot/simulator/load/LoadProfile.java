@@ -0,0 +1,105 @@
+package com.iot.simulator.load;
+
+import java.util.Locale;
+
+/**
+ * Aggregate message rate over time for the open-loop load generator.
+ *
+ * <ul>
+ *   <li>CONSTANT: {@code targetRate} throughout
+ *   <li>RAMP: linear from {@code startRate} to {@code targetRate} over {@code rampSeconds}, then
+ *       held
+ *   <li>STEP: {@code startRate}, raised by {@code stepRate} every {@code stepSeconds} up to {@code
+ *       targetRate}
+ *   <li>SPIKE: {@code startRate}, with {@code targetRate} between {@code spikeAtSeconds} and {@code
+ *       spikeAtSeconds + spikeSeconds}
+ * </ul>
+ */
+public final class LoadProfile {
+
+  public enum Shape {
+    CONSTANT,
+    RAMP,
+    STEP,
+    SPIKE
+  }
+
+  private final Shape shape;
+  private final double startRate;
+  private final double targetRate;
+  private final double rampSeconds;
+  private final double stepRate;
+  private final double stepSeconds;
+  private final double spikeAtSeconds;
+  private final double spikeSeconds;
+  private final double durationSeconds;
+
+  public LoadProfile(
+      Shape shape,
+      double startRate,
+      double targetRate,
+      double rampSeconds,
+      double stepRate,
+      double stepSeconds,
+      double spikeAtSeconds,
+      double spikeSeconds,
+      double durationSeconds) {
+    if (startRate < 0 || targetRate <= 0) {
+      throw new IllegalArgumentException(
+          "Rates must be positive: " + startRate + ", " + targetRate);
+    }
+    if (durationSeconds <= 0) {
+      throw new IllegalArgumentException("Duration must be positive: " + durationSeconds);
+    }
+    if ((shape == Shape.STEP && (stepRate <= 0 || stepSeconds <= 0))
+        || (shape == Shape.RAMP && rampSeconds < 0)) {
+      throw new IllegalArgumentException("Incomplete " + shape + " profile");
+    }
+    this.shape = shape;
+    this.startRate = startRate;
+    this.targetRate = targetRate;
+    this.rampSeconds = rampSeconds;
+    this.stepRate = stepRate;
+    this.stepSeconds = stepSeconds;
+    this.spikeAtSeconds = spikeAtSeconds;
+    this.spikeSeconds = spikeSeconds;
+    this.durationSeconds = durationSeconds;
+  }
+
+  public static Shape parseShape(String shape) {
+    return Shape.valueOf(shape.toUpperCase(Locale.ROOT));
+  }
+
+  /** Messages per second the schedule targets {@code elapsedSeconds} into the run */
+  public double rateAt(double elapsedSeconds) {
+    switch (shape) {
+      case RAMP:
+        if (elapsedSeconds >= rampSeconds) {
+          return targetRate;
+        }
+        return startRate + (targetRate - startRate) * elapsedSeconds / rampSeconds;
+      case STEP:
+        return Math.min(
+            targetRate, startRate + stepRate * Math.floor(elapsedSeconds / stepSeconds));
+      case SPIKE:
+        boolean spiking =
+            elapsedSeconds >= spikeAtSeconds && elapsedSeconds < spikeAtSeconds + spikeSeconds;
+        return spiking ? targetRate : startRate;
+      default:
+        return targetRate;
+    }
+  }
+
+  public Shape getShape() {
+    return shape;
+  }
+
+  public double getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return shape + " " + startRate + "->" + targetRate + " msg/s for " + durationSeconds + " s";
+  }
+}
@@ -0,0 +1,28 @@
+package com.iot.simulator.replay;
+
+/**
+ * Layout of the binary reading log shared by {@link ReadingLogWriter} and {@link ReadingLogReader}.
+ *
+ * <p>A log is a header ({@code MAGIC}, {@code VERSION}) followed by tagged records. Strings are
+ * written once as {@link #TAG_STRING} entries and referenced by index afterwards, index 0 standing
+ * for null. A {@link #TAG_READING} record holds the varint references of device ID, device type and
+ * zone, the zig-zag varint deltas of the reading timestamp and of the recording time against the
+ * previous reading, and the value as an 8-byte double (NaN for null). A typical reading takes 13 to
+ * 16 bytes.
+ */
+final class ReadingLog {
+
+  static final long MAGIC = 0x494F54524C4F4731L; // "IOTRLOG1"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+  static final byte TAG_STRING = 1;
+  static final byte TAG_READING = 2;
+
+  static final int MAX_STRING_BYTES = 1024;
+
+  /** Upper bound of one reading with all three strings newly defined */
+  static final int MAX_RECORD_BYTES = 3 * (1 + 5 + MAX_STRING_BYTES) + 1 + 3 * 5 + 2 * 10 + 8;
+
+  private ReadingLog() {}
+}
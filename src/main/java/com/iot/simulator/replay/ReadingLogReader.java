@@ -0,0 +1,177 @@
+package com.iot.simulator.replay;
+
+import com.iot.common.model.SensorReading;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cursor over a {@link ReadingLog} file read through memory-mapped windows, so logs larger than
+ * memory (or than one 2 GB mapping) stream without copying. {@link #next()} decodes one reading
+ * into the cursor's fields without allocating; strings come from the log's dictionary and are
+ * shared between readings. Not thread-safe.
+ */
+public class ReadingLogReader implements Closeable {
+
+  private static final long DEFAULT_WINDOW_BYTES = 1L << 30;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long windowBytes;
+  private final List<String> strings = new ArrayList<>();
+  private MappedByteBuffer window;
+  private long windowStart;
+
+  private String deviceId;
+  private String deviceType;
+  private String zone;
+  private double value;
+  private long timestampMillis;
+  private long recordedAtMillis;
+  private long count;
+
+  public ReadingLogReader(Path path) throws IOException {
+    this(path, DEFAULT_WINDOW_BYTES);
+  }
+
+  ReadingLogReader(Path path, long windowBytes) throws IOException {
+    this.windowBytes = Math.max(windowBytes, ReadingLog.MAX_RECORD_BYTES * 2L);
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    size = channel.size();
+    strings.add(null);
+    map(0);
+    if (size < ReadingLog.HEADER_BYTES
+        || window.getLong() != ReadingLog.MAGIC
+        || window.getInt() != ReadingLog.VERSION) {
+      channel.close();
+      throw new IOException("Not a version " + ReadingLog.VERSION + " reading log: " + path);
+    }
+  }
+
+  /**
+   * Advance to the next reading.
+   *
+   * @return false at the end of the log, including a final record cut short by a crash
+   */
+  public boolean next() throws IOException {
+    try {
+      while (true) {
+        if (window.remaining() < ReadingLog.MAX_RECORD_BYTES && windowEnd() < size) {
+          map(position());
+        }
+        if (!window.hasRemaining()) {
+          return false;
+        }
+        byte tag = window.get();
+        if (tag == ReadingLog.TAG_STRING) {
+          byte[] bytes = new byte[(int) getVarint()];
+          window.get(bytes);
+          strings.add(new String(bytes, StandardCharsets.UTF_8));
+        } else if (tag == ReadingLog.TAG_READING) {
+          deviceId = strings.get((int) getVarint());
+          deviceType = strings.get((int) getVarint());
+          zone = strings.get((int) getVarint());
+          timestampMillis += unZigZag(getVarint());
+          recordedAtMillis += unZigZag(getVarint());
+          value = window.getDouble();
+          count++;
+          return true;
+        } else {
+          throw new IOException(
+              "Corrupt reading log: unknown record tag " + tag + " at " + position());
+        }
+      }
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      return false;
+    }
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  /** Value of the current reading, NaN where the recorded value was null */
+  public double getValue() {
+    return value;
+  }
+
+  public long getTimestampMillis() {
+    return timestampMillis;
+  }
+
+  /** When the current reading was originally sent */
+  public long getRecordedAtMillis() {
+    return recordedAtMillis;
+  }
+
+  /** Readings read so far */
+  public long getCount() {
+    return count;
+  }
+
+  /** Byte offset of the cursor in the file */
+  public long position() {
+    return windowStart + window.position();
+  }
+
+  public long size() {
+    return size;
+  }
+
+  /** Materialize the current reading */
+  public SensorReading toReading() {
+    return new SensorReading(
+        deviceId,
+        deviceType,
+        zone,
+        Double.isNaN(value) ? null : value,
+        LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneOffset.UTC));
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void map(long start) throws IOException {
+    windowStart = start;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, size - start));
+  }
+
+  private long windowEnd() {
+    return windowStart + window.limit();
+  }
+
+  private long getVarint() {
+    long result = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = window.get();
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,122 @@
+package com.iot.simulator.replay;
+
+import com.iot.common.model.SensorReading;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends readings to a {@link ReadingLog} file. Records are encoded into a heap buffer and written
+ * in 64 KB blocks, always whole records, so a log cut short by a crash only loses its tail. Safe
+ * for concurrent appenders.
+ */
+public class ReadingLogWriter implements Closeable {
+
+  private static final int BUFFER_BYTES = 64 * 1024;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+  private final Map<String, Integer> strings = new HashMap<>();
+  private long lastTimestampMillis;
+  private long lastRecordedAtMillis;
+  private long count;
+
+  /** Create the log, replacing any existing file at {@code path} */
+  public ReadingLogWriter(Path path) throws IOException {
+    channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    buffer.putLong(ReadingLog.MAGIC).putInt(ReadingLog.VERSION);
+  }
+
+  /** Append a reading that was sent at {@code recordedAtMillis} */
+  public synchronized void append(SensorReading reading, long recordedAtMillis) throws IOException {
+    if (buffer.remaining() < ReadingLog.MAX_RECORD_BYTES) {
+      flushBuffer();
+    }
+    int deviceId = reference(reading.getDeviceId());
+    int deviceType = reference(reading.getDeviceType());
+    int zone = reference(reading.getZone());
+    long timestampMillis = reading.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    buffer.put(ReadingLog.TAG_READING);
+    putVarint(deviceId);
+    putVarint(deviceType);
+    putVarint(zone);
+    putVarint(zigZag(timestampMillis - lastTimestampMillis));
+    putVarint(zigZag(recordedAtMillis - lastRecordedAtMillis));
+    buffer.putDouble(reading.getValue() != null ? reading.getValue() : Double.NaN);
+
+    lastTimestampMillis = timestampMillis;
+    lastRecordedAtMillis = recordedAtMillis;
+    count++;
+  }
+
+  public synchronized long getCount() {
+    return count;
+  }
+
+  /** Bytes written so far, including the buffered tail */
+  public synchronized long getSize() throws IOException {
+    return channel.position() + buffer.position();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      flushBuffer();
+    } finally {
+      channel.close();
+    }
+  }
+
+  private int reference(String value) {
+    if (value == null) {
+      return 0;
+    }
+    Integer index = strings.get(value);
+    if (index == null) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > ReadingLog.MAX_STRING_BYTES) {
+        throw new IllegalArgumentException(
+            "String of " + bytes.length + " bytes exceeds the reading log limit");
+      }
+      index = strings.size() + 1;
+      strings.put(value, index);
+      buffer.put(ReadingLog.TAG_STRING);
+      putVarint(bytes.length);
+      buffer.put(bytes);
+    }
+    return index;
+  }
+
+  private void flushBuffer() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private void putVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+}
@@ -0,0 +1,53 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconnect bursts: a triggered device goes quiet for its next {@code size} readings and then sends
+ * them back to back.
+ */
+public class BurstEffect extends TrafficEffect {
+
+  private final double rate;
+  private final int size;
+  private final Map<String, List<SensorReading>> holding = new HashMap<>();
+
+  public BurstEffect(double rate, int size, long salt) {
+    super("burst", salt);
+    this.rate = rate;
+    this.size = size;
+  }
+
+  @Override
+  public void accept(SensorReading reading, long nowMillis) {
+    List<SensorReading> held = holding.get(reading.getDeviceId());
+    if (held == null) {
+      if (chance(reading, 0) >= rate) {
+        emit(reading);
+        return;
+      }
+      held = new ArrayList<>(size);
+      holding.put(reading.getDeviceId(), held);
+    }
+    held.add(reading);
+    if (held.size() >= size) {
+      holding.remove(reading.getDeviceId());
+      release(held);
+    }
+  }
+
+  @Override
+  public void drain() {
+    holding.values().forEach(this::release);
+    holding.clear();
+  }
+
+  private void release(List<SensorReading> held) {
+    countAffected(held.size());
+    held.forEach(this::emit);
+  }
+}
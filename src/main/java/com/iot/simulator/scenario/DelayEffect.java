@@ -0,0 +1,79 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delayed batches: a triggered device buffers everything it generates for {@code holdMillis}, then
+ * flushes the whole backlog with its original, by then old, timestamps. At most {@code maxHeld}
+ * readings are buffered in total; beyond that the longest-held device is flushed early.
+ */
+public class DelayEffect extends TrafficEffect {
+
+  private static final class Backlog {
+    final long releaseAt;
+    final List<SensorReading> readings = new ArrayList<>();
+
+    Backlog(long releaseAt) {
+      this.releaseAt = releaseAt;
+    }
+  }
+
+  private final double rate;
+  private final long holdMillis;
+  private final int maxHeld;
+  // Insertion order is release order, as every backlog is held for the same time
+  private final LinkedHashMap<String, Backlog> backlogs = new LinkedHashMap<>();
+  private int held;
+
+  public DelayEffect(double rate, long holdMillis, int maxHeld, long salt) {
+    super("delay", salt);
+    this.rate = rate;
+    this.holdMillis = holdMillis;
+    this.maxHeld = maxHeld;
+  }
+
+  @Override
+  public void accept(SensorReading reading, long nowMillis) {
+    Backlog backlog = backlogs.get(reading.getDeviceId());
+    if (backlog == null) {
+      if (chance(reading, 0) >= rate) {
+        emit(reading);
+        return;
+      }
+      backlog = new Backlog(nowMillis + holdMillis);
+      backlogs.put(reading.getDeviceId(), backlog);
+    }
+    backlog.readings.add(reading);
+    held++;
+
+    if (held > maxHeld) {
+      Iterator<Backlog> oldest = backlogs.values().iterator();
+      release(oldest.next());
+      oldest.remove();
+    }
+  }
+
+  @Override
+  public void flush(long nowMillis) {
+    Iterator<Map.Entry<String, Backlog>> entries = backlogs.entrySet().iterator();
+    while (entries.hasNext()) {
+      Backlog backlog = entries.next().getValue();
+      if (backlog.releaseAt > nowMillis) {
+        break;
+      }
+      release(backlog);
+      entries.remove();
+    }
+  }
+
+  private void release(Backlog backlog) {
+    held -= backlog.readings.size();
+    countAffected(backlog.readings.size());
+    backlog.readings.forEach(this::emit);
+  }
+}
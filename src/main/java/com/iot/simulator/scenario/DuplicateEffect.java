@@ -0,0 +1,30 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+
+/** Sends a fraction of readings twice, like a device retrying after a lost acknowledgement */
+public class DuplicateEffect extends TrafficEffect {
+
+  private final double rate;
+
+  public DuplicateEffect(double rate, long salt) {
+    super("duplicate", salt);
+    this.rate = rate;
+  }
+
+  @Override
+  public void accept(SensorReading reading, long nowMillis) {
+    boolean duplicate = chance(reading, 0) < rate;
+    emit(reading);
+    if (duplicate) {
+      countAffected(1);
+      emit(
+          new SensorReading(
+              reading.getDeviceId(),
+              reading.getDeviceType(),
+              reading.getZone(),
+              reading.getValue(),
+              reading.getTimestamp()));
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Out-of-order delivery: a fraction of readings is held back for a random time up to {@code
+ * maxMillis}, so readings generated after them, including the same device's, overtake them.
+ */
+public class ShuffleEffect extends TrafficEffect {
+
+  private record Delayed(long releaseAt, long sequence, SensorReading reading) {}
+
+  private final double rate;
+  private final long maxMillis;
+  private final PriorityQueue<Delayed> delayed =
+      new PriorityQueue<>(
+          Comparator.comparingLong(Delayed::releaseAt).thenComparingLong(Delayed::sequence));
+  private long sequence;
+
+  public ShuffleEffect(double rate, long maxMillis, long salt) {
+    super("shuffle", salt);
+    this.rate = rate;
+    this.maxMillis = maxMillis;
+  }
+
+  @Override
+  public void accept(SensorReading reading, long nowMillis) {
+    if (chance(reading, 0) >= rate) {
+      emit(reading);
+      return;
+    }
+    long delayMillis = 1 + (long) (chance(reading, 1) * maxMillis);
+    delayed.add(new Delayed(nowMillis + delayMillis, sequence++, reading));
+    countAffected(1);
+  }
+
+  @Override
+  public void flush(long nowMillis) {
+    while (!delayed.isEmpty() && delayed.peek().releaseAt() <= nowMillis) {
+      emit(delayed.poll().reading());
+    }
+  }
+}
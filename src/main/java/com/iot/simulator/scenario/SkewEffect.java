@@ -0,0 +1,31 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Clock skew: a fixed fraction of devices stamps every reading with a constant per-device offset of
+ * up to {@code maxMillis} in either direction.
+ */
+public class SkewEffect extends TrafficEffect {
+
+  private final double rate;
+  private final long maxMillis;
+
+  public SkewEffect(double rate, long maxMillis, long salt) {
+    super("skew", salt);
+    this.rate = rate;
+    this.maxMillis = maxMillis;
+  }
+
+  @Override
+  public void accept(SensorReading reading, long nowMillis) {
+    // Keyed on the device only, so a skewed device keeps the same offset
+    if (chance(reading.getDeviceId(), 0) < rate) {
+      long offsetMillis = (long) ((chance(reading.getDeviceId(), 1) * 2 - 1) * maxMillis);
+      reading.setTimestamp(reading.getTimestamp().plus(offsetMillis, ChronoUnit.MILLIS));
+      countAffected(1);
+    }
+    emit(reading);
+  }
+}
@@ -0,0 +1,75 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.fleet.DeviceRandom;
+import java.time.ZoneOffset;
+
+/**
+ * One stage of a {@link TrafficScenario}. An effect receives readings in generation order and
+ * passes zero or more readings on to the next stage, possibly later from {@link #flush(long)}.
+ *
+ * <p>Random decisions are a hash of the device ID, the reading's timestamp and the effect's salt
+ * rather than draws from a shared generator, so a scenario disturbs the same readings on every run
+ * regardless of thread scheduling.
+ */
+public abstract class TrafficEffect {
+
+  /** Receiver of the readings an effect lets through */
+  public interface Downstream {
+    void emit(SensorReading reading);
+  }
+
+  private final String name;
+  private final long salt;
+  private Downstream downstream;
+  private long affected;
+
+  protected TrafficEffect(String name, long salt) {
+    this.name = name;
+    this.salt = salt;
+  }
+
+  /** Process a reading generated at {@code nowMillis} */
+  public abstract void accept(SensorReading reading, long nowMillis);
+
+  /** Release held readings that are due at {@code nowMillis} */
+  public void flush(long nowMillis) {}
+
+  /** Release everything still held, e.g. when the scenario is replaced */
+  public void drain() {
+    flush(Long.MAX_VALUE);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Readings this effect has duplicated, held, delayed or skewed */
+  public long getAffected() {
+    return affected;
+  }
+
+  void setDownstream(Downstream downstream) {
+    this.downstream = downstream;
+  }
+
+  protected void emit(SensorReading reading) {
+    downstream.emit(reading);
+  }
+
+  protected void countAffected(long readings) {
+    affected += readings;
+  }
+
+  /** Uniform value in [0, 1) fixed by device, reading timestamp, {@code key} and this effect */
+  protected double chance(SensorReading reading, long key) {
+    long timestampMillis = reading.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+    return chance(reading.getDeviceId(), timestampMillis * 31 + key);
+  }
+
+  /** Uniform value in [0, 1) fixed by device, {@code key} and this effect */
+  protected double chance(String deviceId, long key) {
+    long hash = DeviceRandom.mix(deviceId.hashCode() * 0x9E3779B97F4A7C15L ^ key ^ salt);
+    return (DeviceRandom.mix(hash) >>> 11) * 0x1.0p-53;
+  }
+}
@@ -0,0 +1,228 @@
+package com.iot.simulator.scenario;
+
+import com.iot.common.model.SensorReading;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A pipeline of {@link TrafficEffect}s that disturbs the live reading stream the way real device
+ * traffic does. Scenarios are written as one statement per line or {@code ;}-separated, each an
+ * effect name followed by {@code key=value} parameters:
+ *
+ * <pre>
+ * duplicate rate=0.01
+ * burst     rate=0.001  size=20
+ * delay     rate=0.0001 hold=2h max-held=100000
+ * shuffle   rate=0.1    max=5s
+ * skew      rate=0.05   max=30s
+ * </pre>
+ *
+ * Rates are per reading, except for {@code skew} where it is the fraction of devices. Durations
+ * take an {@code ms}, {@code s}, {@code m} or {@code h} suffix. Effects apply in the order written.
+ * A scenario is not thread-safe on its own; callers share one through its synchronized methods.
+ */
+public class TrafficScenario {
+
+  private static final long SALT_STEP = 0x9E3779B97F4A7C15L;
+  private static final int DEFAULT_MAX_HELD = 100_000;
+
+  private final String definition;
+  private final List<TrafficEffect> effects;
+  private Consumer<SensorReading> sink;
+  private long currentTime;
+
+  private TrafficScenario(String definition, List<TrafficEffect> effects) {
+    this.definition = definition;
+    this.effects = effects;
+    for (int i = 0; i < effects.size(); i++) {
+      TrafficEffect effect = effects.get(i);
+      if (i + 1 < effects.size()) {
+        TrafficEffect next = effects.get(i + 1);
+        effect.setDownstream(reading -> next.accept(reading, currentTime));
+      } else {
+        effect.setDownstream(reading -> sink.accept(reading));
+      }
+    }
+  }
+
+  /** Parse a scenario definition; an empty or blank definition disturbs nothing */
+  public static TrafficScenario parse(String definition) {
+    String text = definition == null ? "" : definition.trim();
+    List<TrafficEffect> effects = new ArrayList<>();
+    for (String statement : text.split("[;\\n]")) {
+      String trimmed = statement.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      effects.add(parseEffect(trimmed, (effects.size() + 1) * SALT_STEP));
+    }
+    return new TrafficScenario(text, effects);
+  }
+
+  public String getDefinition() {
+    return definition;
+  }
+
+  public boolean isEmpty() {
+    return effects.isEmpty();
+  }
+
+  /** Pass a reading generated at {@code nowMillis} through the effects into {@code sink} */
+  public synchronized void offer(
+      SensorReading reading, long nowMillis, Consumer<SensorReading> sink) {
+    if (effects.isEmpty()) {
+      sink.accept(reading);
+      return;
+    }
+    this.sink = sink;
+    this.currentTime = nowMillis;
+    effects.get(0).accept(reading, nowMillis);
+  }
+
+  /** Release readings whose delay has run out by {@code nowMillis} */
+  public synchronized void flush(long nowMillis, Consumer<SensorReading> sink) {
+    this.sink = sink;
+    this.currentTime = nowMillis;
+    for (TrafficEffect effect : effects) {
+      effect.flush(nowMillis);
+    }
+  }
+
+  /** Release everything still held, in effect order */
+  public synchronized void drain(Consumer<SensorReading> sink) {
+    this.sink = sink;
+    for (TrafficEffect effect : effects) {
+      effect.drain();
+    }
+  }
+
+  /** Readings affected so far by each effect, keyed {@code <position>-<name>} */
+  public synchronized Map<String, Long> getStats() {
+    Map<String, Long> stats = new LinkedHashMap<>();
+    for (int i = 0; i < effects.size(); i++) {
+      stats.put((i + 1) + "-" + effects.get(i).getName(), effects.get(i).getAffected());
+    }
+    return stats;
+  }
+
+  private static TrafficEffect parseEffect(String statement, long salt) {
+    String[] tokens = statement.split("\\s+");
+    String name = tokens[0].toLowerCase();
+    Map<String, String> params = new HashMap<>();
+    for (int i = 1; i < tokens.length; i++) {
+      int equals = tokens[i].indexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException(
+            "Expected key=value but got '" + tokens[i] + "' in: " + statement);
+      }
+      params.put(tokens[i].substring(0, equals).toLowerCase(), tokens[i].substring(equals + 1));
+    }
+
+    TrafficEffect effect =
+        switch (name) {
+          case "duplicate" -> {
+            allow(statement, params, Set.of("rate"));
+            yield new DuplicateEffect(rate(statement, params), salt);
+          }
+          case "burst" -> {
+            allow(statement, params, Set.of("rate", "size"));
+            int size =
+                (int)
+                    positive(
+                        statement, "size", Long.parseLong(required(params, "size", statement)));
+            yield new BurstEffect(rate(statement, params), size, salt);
+          }
+          case "delay" -> {
+            allow(statement, params, Set.of("rate", "hold", "max-held"));
+            long hold = duration(statement, "hold", required(params, "hold", statement));
+            int maxHeld =
+                params.containsKey("max-held")
+                    ? (int) positive(statement, "max-held", Long.parseLong(params.get("max-held")))
+                    : DEFAULT_MAX_HELD;
+            yield new DelayEffect(rate(statement, params), hold, maxHeld, salt);
+          }
+          case "shuffle" -> {
+            allow(statement, params, Set.of("rate", "max"));
+            long max = duration(statement, "max", required(params, "max", statement));
+            yield new ShuffleEffect(rate(statement, params), max, salt);
+          }
+          case "skew" -> {
+            allow(statement, params, Set.of("rate", "max"));
+            long max = duration(statement, "max", required(params, "max", statement));
+            yield new SkewEffect(rate(statement, params), max, salt);
+          }
+          default -> throw new IllegalArgumentException(
+              "Unknown effect '"
+                  + tokens[0]
+                  + "', expected duplicate, burst, delay, shuffle"
+                  + " or skew");
+        };
+    return effect;
+  }
+
+  private static void allow(String statement, Map<String, String> params, Set<String> allowed) {
+    for (String key : params.keySet()) {
+      if (!allowed.contains(key)) {
+        throw new IllegalArgumentException(
+            "Unknown parameter '" + key + "' in: " + statement + ", expected " + allowed);
+      }
+    }
+  }
+
+  private static String required(Map<String, String> params, String key, String statement) {
+    String value = params.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing parameter '" + key + "' in: " + statement);
+    }
+    return value;
+  }
+
+  private static double rate(String statement, Map<String, String> params) {
+    double rate = Double.parseDouble(required(params, "rate", statement));
+    if (rate < 0 || rate > 1) {
+      throw new IllegalArgumentException("rate must be between 0 and 1 in: " + statement);
+    }
+    return rate;
+  }
+
+  private static long positive(String statement, String key, long value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException(key + " must be positive in: " + statement);
+    }
+    return value;
+  }
+
+  /** Parse {@code 250ms}, {@code 5s}, {@code 10m} or {@code 2h}; a bare number is milliseconds */
+  static long duration(String statement, String key, String value) {
+    String lower = value.toLowerCase();
+    long unit;
+    String number;
+    if (lower.endsWith("ms")) {
+      unit = 1;
+      number = lower.substring(0, lower.length() - 2);
+    } else if (lower.endsWith("s")) {
+      unit = 1000;
+      number = lower.substring(0, lower.length() - 1);
+    } else if (lower.endsWith("m")) {
+      unit = 60_000;
+      number = lower.substring(0, lower.length() - 1);
+    } else if (lower.endsWith("h")) {
+      unit = 3_600_000;
+      number = lower.substring(0, lower.length() - 1);
+    } else {
+      unit = 1;
+      number = lower;
+    }
+    try {
+      return positive(statement, key, Long.parseLong(number) * unit);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid duration '" + value + "' for " + key + " in: " + statement);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.iot.simulator.schedule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wall clock with millisecond resolution that is cheap to read from hot generation loops. A daemon
+ * thread refreshes the time once per millisecond; readers only load a volatile field, and {@link
+ * #nowUtc()} hands out one shared {@link LocalDateTime} per millisecond instead of building a new
+ * one for every reading.
+ */
+public final class CoarseClock {
+
+  private static final long RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static volatile long millis = System.currentTimeMillis();
+  private static volatile Snapshot snapshot = new Snapshot(millis);
+
+  static {
+    Thread ticker = new Thread(CoarseClock::run, "coarse-clock");
+    ticker.setDaemon(true);
+    ticker.start();
+  }
+
+  private CoarseClock() {}
+
+  /** Current epoch milliseconds, at most about a millisecond stale */
+  public static long currentTimeMillis() {
+    return millis;
+  }
+
+  /** Current UTC time, shared between all callers within the same millisecond */
+  public static LocalDateTime nowUtc() {
+    Snapshot current = snapshot;
+    long now = millis;
+    if (current.millis != now) {
+      current = new Snapshot(now);
+      snapshot = current;
+    }
+    return current.time;
+  }
+
+  private static void run() {
+    while (true) {
+      LockSupport.parkNanos(RESOLUTION_NANOS);
+      millis = System.currentTimeMillis();
+    }
+  }
+
+  private static final class Snapshot {
+
+    private final long millis;
+    private final LocalDateTime time;
+
+    private Snapshot(long millis) {
+      this.millis = millis;
+      this.time =
+          LocalDateTime.ofEpochSecond(
+              Math.floorDiv(millis, 1000),
+              (int) Math.floorMod(millis, 1000) * 1_000_000,
+              ZoneOffset.UTC);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.iot.simulator.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel over device indices. Each device is linked, through an intrusive {@code next}
+ * array, into the bucket of the tick at which it is next due; draining a tick returns every device
+ * due in it as one batch. Devices due more than one rotation ahead stay in their bucket until their
+ * tick comes round. Memory is two primitive slots per device regardless of how many distinct
+ * intervals the fleet uses.
+ *
+ * <p>Not thread-safe: the wheel is owned by the scheduler's tick thread.
+ */
+public class DeviceTimingWheel {
+
+  private static final int NONE = -1;
+
+  private final int mask;
+  private final int[] heads;
+  private final int[] next;
+  private final long[] dueTicks;
+  private int[] due = new int[1024];
+  private int scheduled;
+
+  public DeviceTimingWheel(int deviceCount, int wheelSize) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+    }
+    this.mask = wheelSize - 1;
+    this.heads = new int[wheelSize];
+    this.next = new int[deviceCount];
+    this.dueTicks = new long[deviceCount];
+    Arrays.fill(heads, NONE);
+  }
+
+  /** Schedule a device that is not currently scheduled to fire at {@code dueTick} */
+  public void schedule(int device, long dueTick) {
+    int bucket = (int) (dueTick & mask);
+    dueTicks[device] = dueTick;
+    next[device] = heads[bucket];
+    heads[bucket] = device;
+    scheduled++;
+  }
+
+  /**
+   * Remove every device due at or before {@code tick} from that tick's bucket. The devices are
+   * available from {@link #due()} until the next drain and must be rescheduled by the caller.
+   *
+   * @return Number of due devices
+   */
+  public int drain(long tick) {
+    int bucket = (int) (tick & mask);
+    int device = heads[bucket];
+    heads[bucket] = NONE;
+    int count = 0;
+
+    while (device != NONE) {
+      int following = next[device];
+      if (dueTicks[device] <= tick) {
+        if (count == due.length) {
+          due = Arrays.copyOf(due, count * 2);
+        }
+        due[count++] = device;
+        scheduled--;
+      } else {
+        next[device] = heads[bucket];
+        heads[bucket] = device;
+      }
+      device = following;
+    }
+    return count;
+  }
+
+  /** Devices returned by the last {@link #drain(long)}, valid up to its count */
+  public int[] due() {
+    return due;
+  }
+
+  public int getScheduledCount() {
+    return scheduled;
+  }
+}
@@ -0,0 +1,50 @@
+package com.iot.simulator.schedule;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-tick health of the simulator's scheduler. Lag is how long after its scheduled time a tick's
+ * batch finished; a lag above the tick duration means the simulator, not the system under test, is
+ * the bottleneck.
+ */
+public class TickStats {
+
+  private final long tickMillis;
+  private long ticks;
+  private long readings;
+  private long lastBatchSize;
+  private long lastLagMillis;
+  private long maxLagMillis;
+  private long totalLagMillis;
+  private long laggingTicks;
+
+  public TickStats(long tickMillis) {
+    this.tickMillis = tickMillis;
+  }
+
+  public synchronized void record(int batchSize, long lagMillis) {
+    ticks++;
+    readings += batchSize;
+    lastBatchSize = batchSize;
+    lastLagMillis = lagMillis;
+    maxLagMillis = Math.max(maxLagMillis, lagMillis);
+    totalLagMillis += lagMillis;
+    if (lagMillis > tickMillis) {
+      laggingTicks++;
+    }
+  }
+
+  public synchronized Map<String, Object> snapshot() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("tickMs", tickMillis);
+    stats.put("ticks", ticks);
+    stats.put("readings", readings);
+    stats.put("lastBatchSize", lastBatchSize);
+    stats.put("lastLagMs", lastLagMillis);
+    stats.put("maxLagMs", maxLagMillis);
+    stats.put("averageLagMs", ticks > 0 ? (double) totalLagMillis / ticks : 0.0);
+    stats.put("laggingTicks", laggingTicks);
+    return stats;
+  }
+}
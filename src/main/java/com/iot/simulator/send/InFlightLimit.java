@@ -0,0 +1,154 @@
+package com.iot.simulator.send;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bound on records handed to a producer but not yet acknowledged. Senders block in {@link
+ * #acquire()} once the limit is reached, so a slow broker slows generation down instead of filling
+ * the producer buffer until sends block or time out.
+ *
+ * <p>An adaptive limit behaves like TCP congestion control: it starts at the maximum, shrinks
+ * multiplicatively when a send fails or its acknowledgement takes longer than the latency target
+ * (at most once per target interval, so one slow batch counts once) and grows back by one record
+ * per full window of fast acknowledgements.
+ */
+public class InFlightLimit {
+
+  /** Factor the limit shrinks by on a failed or slow acknowledgement */
+  static final double DECREASE_FACTOR = 0.75;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyTargetNanos;
+  private final boolean adaptive;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  private final Condition idle = lock.newCondition();
+  private int limit;
+  private int inFlight;
+  private int increaseCredit;
+  private long lastDecreaseNanos;
+  private long decreases;
+  private long blockedNanos;
+
+  /** Fixed limit of {@code maxLimit} records */
+  public InFlightLimit(int maxLimit) {
+    this(maxLimit, maxLimit, 0, false);
+  }
+
+  /**
+   * @param latencyTargetNanos acknowledgement latency above which an adaptive limit shrinks
+   */
+  public InFlightLimit(int minLimit, int maxLimit, long latencyTargetNanos, boolean adaptive) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException(
+          "In-flight limits must satisfy 1 <= min <= max: " + minLimit + ", " + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyTargetNanos = latencyTargetNanos;
+    this.adaptive = adaptive;
+    this.limit = maxLimit;
+    this.lastDecreaseNanos = System.nanoTime() - latencyTargetNanos;
+  }
+
+  /** Wait for room for one more record */
+  public void acquire() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (inFlight >= limit) {
+        long start = System.nanoTime();
+        try {
+          while (inFlight >= limit) {
+            released.await();
+          }
+        } finally {
+          blockedNanos += System.nanoTime() - start;
+        }
+      }
+      inFlight++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Account for an acknowledged or failed record {@code latencyNanos} after it was sent */
+  public void release(boolean success, long latencyNanos) {
+    lock.lock();
+    try {
+      inFlight--;
+      if (adaptive) {
+        if (!success || latencyNanos > latencyTargetNanos) {
+          long now = System.nanoTime();
+          if (now - lastDecreaseNanos >= latencyTargetNanos && limit > minLimit) {
+            limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+            increaseCredit = 0;
+            lastDecreaseNanos = now;
+            decreases++;
+          }
+        } else if (limit < maxLimit && ++increaseCredit >= limit) {
+          increaseCredit = 0;
+          limit++;
+          released.signal();
+        }
+      }
+      released.signal();
+      if (inFlight == 0) {
+        idle.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Wait until every record sent so far has been acknowledged or has failed */
+  public void awaitIdle() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (inFlight > 0) {
+        idle.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Map<String, Object> snapshot() {
+    lock.lock();
+    try {
+      Map<String, Object> stats = new LinkedHashMap<>();
+      stats.put("inFlight", inFlight);
+      stats.put("limit", limit);
+      stats.put("maxLimit", maxLimit);
+      stats.put("adaptive", adaptive);
+      stats.put("decreases", decreases);
+      stats.put("blockedMs", TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+      return stats;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
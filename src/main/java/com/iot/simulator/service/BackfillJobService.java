@@ -0,0 +1,330 @@
+package com.iot.simulator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.simulator.config.BulkLoadProperties;
+import com.iot.simulator.config.JobProperties;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.job.BackfillJob;
+import com.iot.simulator.job.BackfillJob.Kind;
+import com.iot.simulator.job.BackfillJob.Status;
+import com.iot.simulator.job.JobCheckpoint;
+import com.iot.simulator.job.JobCheckpointStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs generation and backfill as managed jobs. Jobs run on a bounded pool of {@code
+ * max-concurrent} threads and queue beyond that, each with its own rate limit. Generated jobs
+ * advance in time slices of {@code slice-minutes}; after every slice the job's position and the
+ * forked fleet's device state are checkpointed, so a job stopped by a shutdown or crash resumes
+ * after its last completed slice with every device's random walk intact. Readings of the slice that
+ * was in progress may be written twice. A Kafka slice with any failed send fails the job at its
+ * last completed slice, so a resume generates it again. Imports of recordings are not checkpointed.
+ */
+@Service
+public class BackfillJobService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BackfillJobService.class);
+
+  @Autowired private JobProperties jobProperties;
+
+  @Autowired private BulkLoadProperties bulkLoadProperties;
+
+  @Autowired private DeviceFleet fleet;
+
+  @Autowired private HistoricalDataGenerator historicalDataGenerator;
+
+  @Autowired private BulkBackfillService bulkBackfillService;
+
+  @Autowired private ReadingReplayService replayService;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  private final Map<String, BackfillJob> jobs = new LinkedHashMap<>();
+  private ExecutorService jobExecutor;
+  private JobCheckpointStore checkpointStore;
+
+  @PostConstruct
+  public void initializeJobs() throws IOException {
+    AtomicInteger threads = new AtomicInteger();
+    jobExecutor =
+        Executors.newFixedThreadPool(
+            jobProperties.getMaxConcurrent(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "backfill-job-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    checkpointStore =
+        new JobCheckpointStore(Paths.get(jobProperties.getCheckpointDirectory()), objectMapper);
+
+    for (JobCheckpoint checkpoint : checkpointStore.loadAll()) {
+      BackfillJob job = BackfillJob.fromCheckpoint(checkpoint);
+      synchronized (this) {
+        jobs.put(job.getId(), job);
+      }
+      logger.info(
+          "Found interrupted job {} ({}), {} of {} steps done",
+          job.getId(),
+          job.getKind(),
+          job.getNextStep(),
+          job.getTotalSteps());
+      if (jobProperties.isResumeOnStartup()) {
+        resume(job.getId());
+      }
+    }
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    // Interrupted rather than cancelled, so checkpoints stay for a resume
+    for (BackfillJob job : jobs.values()) {
+      job.interrupt();
+    }
+    jobExecutor.shutdownNow();
+  }
+
+  /**
+   * Queue a job generating {@code days} of readings for the whole fleet, ending where backfills
+   * end.
+   *
+   * @param rowsPerSecond rate limit, or null for {@code default-rows-per-second}
+   */
+  public BackfillJob submitGenerated(Kind kind, int days, Duration interval, Double rowsPerSecond) {
+    if (kind == Kind.IMPORT) {
+      throw new IllegalArgumentException("Imports are submitted with submitImport");
+    }
+    if (days < 1 || days > bulkLoadProperties.getMaxDays()) {
+      throw new IllegalArgumentException(
+          "Number of days must be between 1 and " + bulkLoadProperties.getMaxDays());
+    }
+    LocalDateTime endTime = historicalDataGenerator.backfillEndTime();
+    LocalDateTime startTime = endTime.minusDays(days);
+    long steps =
+        (Duration.between(startTime, endTime).toMillis() + interval.toMillis() - 1)
+            / interval.toMillis();
+    BackfillJob job =
+        new BackfillJob(
+            newJobId(),
+            kind,
+            startTime,
+            endTime,
+            interval.toMillis(),
+            null,
+            steps * fleet.size(),
+            rate(rowsPerSecond),
+            LocalDateTime.now(ZoneOffset.UTC));
+    try {
+      checkpointStore.save(job.toCheckpoint(), null);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot write job checkpoint: " + e.getMessage(), e);
+    }
+    return enqueue(job);
+  }
+
+  /** Queue a job copying recording {@code name} straight into the database */
+  public BackfillJob submitImport(String name, Double rowsPerSecond) throws IOException {
+    Path path = replayService.resolve(name);
+    if (!Files.isRegularFile(path)) {
+      throw new IllegalArgumentException("No recording named " + name);
+    }
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    return enqueue(
+        new BackfillJob(newJobId(), Kind.IMPORT, now, now, 1, name, 0, rate(rowsPerSecond), now));
+  }
+
+  public synchronized List<BackfillJob> getJobs() {
+    return new ArrayList<>(jobs.values());
+  }
+
+  public synchronized BackfillJob getJob(String id) {
+    BackfillJob job = jobs.get(id);
+    if (job == null) {
+      throw new IllegalArgumentException("No job " + id);
+    }
+    return job;
+  }
+
+  /** Cancel a queued or running job; its checkpoint is discarded */
+  public BackfillJob cancel(String id) throws IOException {
+    BackfillJob job = getJob(id);
+    synchronized (job) {
+      if (job.getStatus() == Status.QUEUED || job.getStatus() == Status.INTERRUPTED) {
+        job.markFinished(Status.CANCELLED, null);
+        checkpointStore.delete(id);
+        return job;
+      }
+    }
+    job.requestCancel();
+    return job;
+  }
+
+  /** Resume an interrupted or failed generated job after its last completed slice */
+  public synchronized BackfillJob resume(String id) {
+    BackfillJob job = getJob(id);
+    if (job.getKind() == Kind.IMPORT) {
+      throw new IllegalStateException("Imports are not checkpointed; start a new import instead");
+    }
+    if (job.getStatus() != Status.INTERRUPTED && job.getStatus() != Status.FAILED) {
+      throw new IllegalStateException("Job " + id + " is " + job.getStatus());
+    }
+    BackfillJob resumed = BackfillJob.fromCheckpoint(job.toCheckpoint());
+    resumed.markQueued();
+    logger.info(
+        "Resuming job {} at step {} of {}", id, resumed.getNextStep(), resumed.getTotalSteps());
+    return enqueue(resumed);
+  }
+
+  public BackfillJob setRateLimit(String id, double rowsPerSecond) {
+    BackfillJob job = getJob(id);
+    job.getRateLimiter().setRowsPerSecond(rowsPerSecond);
+    return job;
+  }
+
+  private synchronized BackfillJob enqueue(BackfillJob job) {
+    jobs.put(job.getId(), job);
+    trimHistory();
+    jobExecutor.submit(() -> run(job));
+    logger.info("Queued job {}: {}", job.getId(), job.toStatus());
+    return job;
+  }
+
+  private void run(BackfillJob job) {
+    synchronized (job) {
+      if (job.getStatus() != Status.QUEUED) {
+        return;
+      }
+      job.markRunning(Thread.currentThread());
+    }
+    long startedNanos = System.nanoTime();
+    logger.info("Started job {} ({})", job.getId(), job.getKind());
+    try {
+      if (job.getKind() == Kind.IMPORT) {
+        runImport(job);
+      } else {
+        runGenerated(job);
+      }
+      checkpointStore.delete(job.getId());
+      job.markFinished(Status.SUCCEEDED, null);
+    } catch (InterruptedException e) {
+      if (job.isCancelRequested()) {
+        deleteCheckpoint(job);
+        job.markFinished(Status.CANCELLED, null);
+      } else {
+        job.markFinished(Status.INTERRUPTED, null);
+      }
+    } catch (Exception e) {
+      logger.error("Job {} failed: {}", job.getId(), e.getMessage(), e);
+      job.markFinished(Status.FAILED, e.getMessage());
+    } finally {
+      // Do not leave the pool thread interrupted for the next job
+      Thread.interrupted();
+    }
+    logger.info(
+        "Job {} {} after {} s: {} rows",
+        job.getId(),
+        job.getStatus(),
+        Duration.ofNanos(System.nanoTime() - startedNanos).toSeconds(),
+        job.getRows().get());
+  }
+
+  private void runGenerated(BackfillJob job) throws Exception {
+    // Same salt for both targets, so Kafka and database backfills produce the same readings
+    DeviceFleet state = fleet.fork(job.getStartTime().toEpochSecond(ZoneOffset.UTC));
+    if (job.getNextStep() > 0) {
+      checkpointStore.restoreFleet(job.getId(), job.getNextStep(), state);
+    }
+    long sliceSteps =
+        Math.max(
+            1,
+            Duration.ofMinutes(jobProperties.getSliceMinutes()).toMillis()
+                / job.getInterval().toMillis());
+
+    long startedNanos = System.nanoTime();
+    boolean kafka = job.getKind() == Kind.KAFKA;
+    if (kafka) {
+      historicalDataGenerator.backfillStarted(
+          (job.getTotalSteps() - job.getNextStep()) * fleet.size());
+    }
+    try {
+      for (long fromStep = job.getNextStep(); fromStep < job.getTotalSteps(); ) {
+        long toStep = Math.min(job.getTotalSteps(), fromStep + sliceSteps);
+        if (kafka) {
+          historicalDataGenerator.sendSlice(state, job, fromStep, toStep);
+        } else {
+          bulkBackfillService.copySlice(state, job, fromStep, toStep);
+        }
+        JobCheckpoint checkpoint = job.toCheckpoint();
+        checkpoint.setNextStep(toStep);
+        checkpointStore.save(checkpoint, state);
+        job.completeStepsBefore(toStep);
+        fromStep = toStep;
+      }
+    } finally {
+      if (kafka) {
+        historicalDataGenerator.backfillFinished(System.nanoTime() - startedNanos);
+      }
+    }
+    if (!kafka) {
+      bulkBackfillService.refreshAggregates(job.getStartTime(), job.getEndTime());
+    }
+  }
+
+  private void runImport(BackfillJob job) throws Exception {
+    LocalDateTime[] range =
+        bulkBackfillService.importRecording(replayService.resolve(job.getRecording()), job);
+    if (range != null) {
+      bulkBackfillService.refreshAggregates(range[0], range[1]);
+    }
+  }
+
+  private void deleteCheckpoint(BackfillJob job) {
+    try {
+      checkpointStore.delete(job.getId());
+    } catch (IOException e) {
+      logger.warn("Could not delete checkpoint of job {}: {}", job.getId(), e.getMessage());
+    }
+  }
+
+  /** Drop the oldest finished jobs beyond {@code history} */
+  private void trimHistory() {
+    long finished = jobs.values().stream().filter(j -> j.getStatus().isFinished()).count();
+    Iterator<BackfillJob> oldest = jobs.values().iterator();
+    while (finished > jobProperties.getHistory() && oldest.hasNext()) {
+      BackfillJob job = oldest.next();
+      // Interrupted jobs stay until resumed or cancelled
+      if (job.getStatus().isFinished() && job.getStatus() != Status.INTERRUPTED) {
+        oldest.remove();
+        finished--;
+      }
+    }
+  }
+
+  private double rate(Double rowsPerSecond) {
+    return rowsPerSecond != null ? rowsPerSecond : jobProperties.getDefaultRowsPerSecond();
+  }
+
+  private static String newJobId() {
+    return UUID.randomUUID().toString().substring(0, 8);
+  }
+}
@@ -0,0 +1,299 @@
+package com.iot.simulator.service;
+
+import com.iot.simulator.bulk.PgBinaryCopyEncoder;
+import com.iot.simulator.config.BulkLoadProperties;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.job.BackfillJob;
+import com.iot.simulator.replay.ReadingLogReader;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads historical readings straight into {@code sensor_readings} with parallel binary COPY,
+ * bypassing Kafka, the retry-topic listener and JPA. Generated backfills are loaded one job time
+ * slice at a time: every slice is split across the COPY streams by device range and finished before
+ * the next begins, so inserts stay in time order and land in the same hypertable chunks. Afterwards
+ * only the loaded range of the hourly continuous aggregates is refreshed. Jobs are scheduled by
+ * {@link BackfillJobService}.
+ *
+ * <p>Generated values match a Kafka backfill of the same range, as both fork the fleet with the
+ * same salt. Readings loaded this way skip the ingest stages, so minute rollups, latest values,
+ * anomalies and alerts are not updated.
+ */
+@Service
+public class BulkBackfillService {
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkBackfillService.class);
+
+  private static final String[] CONTINUOUS_AGGREGATES = {
+    "device_hourly_aggregates", "zone_hourly_aggregates"
+  };
+
+  private static final String REFRESH_SQL =
+      "CALL refresh_continuous_aggregate(?::regclass, ?::timestamp, ?::timestamp)";
+
+  /** Encoded bytes handed to the server per CopyIn write */
+  private static final int COPY_WRITE_BYTES = 1 << 20;
+
+  @Autowired private DeviceFleet fleet;
+
+  @Autowired private BulkLoadProperties bulkLoadProperties;
+
+  private int parallelism;
+  private ExecutorService streams;
+  private HikariDataSource dataSource;
+
+  @PostConstruct
+  public void initializeStreams() {
+    parallelism =
+        bulkLoadProperties.getParallelism() > 0
+            ? bulkLoadProperties.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+    streams = Executors.newFixedThreadPool(parallelism);
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    streams.shutdownNow();
+    if (dataSource != null) {
+      dataSource.close();
+    }
+  }
+
+  /** Copy the job's steps {@code [fromStep, toStep)} for every device, committed per stream */
+  public void copySlice(DeviceFleet state, BackfillJob job, long fromStep, long toStep)
+      throws InterruptedException, ExecutionException {
+    int streamCount = Math.max(1, Math.min(parallelism, fleet.size()));
+    List<Future<?>> copies = new ArrayList<>();
+    for (int stream = 0; stream < streamCount; stream++) {
+      int fromDevice = (int) ((long) fleet.size() * stream / streamCount);
+      int toDevice = (int) ((long) fleet.size() * (stream + 1) / streamCount);
+      copies.add(
+          streams.submit(
+              () -> {
+                copyGenerated(state, job, fromDevice, toDevice, fromStep, toStep);
+                return null;
+              }));
+    }
+    awaitAll(copies);
+  }
+
+  /**
+   * Copy every reading of a recording, in batches of {@code import-batch-rows} spread over the COPY
+   * streams.
+   *
+   * @return the loaded time range, or null if the recording held no loadable readings
+   */
+  public LocalDateTime[] importRecording(Path path, BackfillJob job)
+      throws IOException, InterruptedException, ExecutionException {
+    int batchRows = bulkLoadProperties.getImportBatchRows();
+    // One batch encoding while every stream copies, bounding memory to parallelism + 1 batches
+    Semaphore batches = new Semaphore(parallelism + 1);
+    List<Future<?>> copies = new ArrayList<>();
+    long minTimestamp = Long.MAX_VALUE;
+    long maxTimestamp = Long.MIN_VALUE;
+
+    try (ReadingLogReader reader = new ReadingLogReader(path)) {
+      PgBinaryCopyEncoder encoder = null;
+      int rows = 0;
+      while (reader.next()) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new InterruptedException();
+        }
+        // sensor_readings requires every column; one bad row must not fail the whole import
+        if (reader.getDeviceId() == null
+            || reader.getDeviceType() == null
+            || reader.getZone() == null
+            || Double.isNaN(reader.getValue())) {
+          job.getFailedRows().incrementAndGet();
+          continue;
+        }
+        if (encoder == null) {
+          batches.acquire();
+          encoder = new PgBinaryCopyEncoder(batchRows * 48);
+          encoder.header();
+        }
+        encoder.row(
+            reader.getDeviceId(),
+            reader.getDeviceType(),
+            reader.getZone(),
+            reader.getValue(),
+            reader.getTimestampMillis());
+        minTimestamp = Math.min(minTimestamp, reader.getTimestampMillis());
+        maxTimestamp = Math.max(maxTimestamp, reader.getTimestampMillis());
+        if (++rows == batchRows) {
+          job.getRateLimiter().acquire(rows);
+          copies.add(submitBatch(encoder, rows, job, batches));
+          encoder = null;
+          rows = 0;
+        }
+      }
+      if (encoder != null) {
+        job.getRateLimiter().acquire(rows);
+        copies.add(submitBatch(encoder, rows, job, batches));
+      }
+      awaitAll(copies);
+    }
+    return minTimestamp <= maxTimestamp
+        ? new LocalDateTime[] {toDateTime(minTimestamp), toDateTime(maxTimestamp + 1)}
+        : null;
+  }
+
+  /** Refresh the hourly aggregates over {@code [from, to)}, widened to whole buckets */
+  public void refreshAggregates(LocalDateTime from, LocalDateTime to) throws SQLException {
+    if (!bulkLoadProperties.isRefreshAggregates()) {
+      return;
+    }
+    LocalDateTime windowStart = from.truncatedTo(ChronoUnit.HOURS);
+    LocalDateTime windowEnd = to.truncatedTo(ChronoUnit.HOURS);
+    if (windowEnd.isBefore(to)) {
+      windowEnd = windowEnd.plusHours(1);
+    }
+    // refresh_continuous_aggregate cannot run inside a transaction block
+    try (Connection connection = dataSource().getConnection();
+        PreparedStatement refresh = connection.prepareStatement(REFRESH_SQL)) {
+      connection.setAutoCommit(true);
+      for (String view : CONTINUOUS_AGGREGATES) {
+        long started = System.currentTimeMillis();
+        refresh.setString(1, view);
+        refresh.setObject(2, windowStart);
+        refresh.setObject(3, windowEnd);
+        refresh.execute();
+        logger.info(
+            "Refreshed {} from {} to {} in {} ms",
+            view,
+            windowStart,
+            windowEnd,
+            System.currentTimeMillis() - started);
+      }
+    }
+  }
+
+  private void copyGenerated(
+      DeviceFleet state, BackfillJob job, int fromDevice, int toDevice, long fromStep, long toStep)
+      throws SQLException, InterruptedException {
+    LocalDateTime startTime = job.getStartTime();
+    Duration interval = job.getInterval();
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(COPY_WRITE_BYTES + 4096);
+    long rows = 0;
+    try (Connection connection = dataSource().getConnection()) {
+      CopyIn copy = copyIn(connection);
+      encoder.header();
+      try {
+        for (long step = fromStep; step < toStep; step++) {
+          if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+          }
+          LocalDateTime timestamp = startTime.plus(interval.multipliedBy(step));
+          long timestampMillis = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+          for (int device = fromDevice; device < toDevice; device++) {
+            if ((device - fromDevice) % HistoricalDataGenerator.RATE_LIMIT_BLOCK == 0) {
+              job.getRateLimiter()
+                  .acquire(Math.min(HistoricalDataGenerator.RATE_LIMIT_BLOCK, toDevice - device));
+              if (encoder.size() >= COPY_WRITE_BYTES) {
+                copy.writeToCopy(encoder.array(), 0, encoder.size());
+                encoder.reset();
+              }
+            }
+            // Same order of draws as the Kafka backfill, so both produce the same values
+            double value = state.nextValue(device);
+            double noise = state.nextNoise(device);
+            encoder.row(
+                fleet.deviceId(device),
+                fleet.deviceType(device),
+                fleet.zone(device),
+                HistoricalDataGenerator.addTimeBasedVariation(value, timestamp, noise),
+                timestampMillis);
+          }
+          rows += toDevice - fromDevice;
+        }
+        encoder.trailer();
+        copy.writeToCopy(encoder.array(), 0, encoder.size());
+        copy.endCopy();
+        job.getRows().addAndGet(rows);
+      } finally {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+      }
+    }
+  }
+
+  private Future<?> submitBatch(
+      PgBinaryCopyEncoder encoder, int rows, BackfillJob job, Semaphore batches) {
+    return streams.submit(
+        () -> {
+          try (Connection connection = dataSource().getConnection()) {
+            CopyIn copy = copyIn(connection);
+            encoder.trailer();
+            copy.writeToCopy(encoder.array(), 0, encoder.size());
+            copy.endCopy();
+            job.getRows().addAndGet(rows);
+          } finally {
+            batches.release();
+          }
+          return null;
+        });
+  }
+
+  /** Wait for every copy, cancelling the rest if one fails or the caller is interrupted */
+  private static void awaitAll(List<Future<?>> copies)
+      throws InterruptedException, ExecutionException {
+    try {
+      for (Future<?> copy : copies) {
+        copy.get();
+      }
+    } finally {
+      for (Future<?> copy : copies) {
+        copy.cancel(true);
+      }
+    }
+  }
+
+  private static CopyIn copyIn(Connection connection) throws SQLException {
+    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(PgBinaryCopyEncoder.COPY_SQL);
+  }
+
+  private synchronized HikariDataSource dataSource() {
+    if (dataSource == null) {
+      HikariConfig config = new HikariConfig();
+      config.setPoolName("bulk-backfill");
+      config.setJdbcUrl(bulkLoadProperties.getUrl());
+      config.setUsername(bulkLoadProperties.getUsername());
+      config.setPassword(bulkLoadProperties.getPassword());
+      config.setMaximumPoolSize(parallelism + 1);
+      config.setMinimumIdle(0);
+      dataSource = new HikariDataSource(config);
+    }
+    return dataSource;
+  }
+
+  private static LocalDateTime toDateTime(long epochMillis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+  }
+}
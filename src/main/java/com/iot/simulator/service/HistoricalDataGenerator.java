@@ -1,132 +1,270 @@
 package com.iot.simulator.service;
 
-import com.iot.common.factory.DeviceSimulatorFactory;
-import com.iot.common.model.SensorReading;
-import com.iot.simulator.device.DeviceSimulator;
+import com.iot.simulator.config.BackfillProperties;
+import com.iot.simulator.config.DeterminismProperties;
+import com.iot.simulator.config.SendProperties;
+import com.iot.simulator.encode.ReadingPayloadEncoder;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.job.BackfillJob;
+import com.iot.simulator.send.InFlightLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Backfills historical readings for the whole fleet through Kafka, one job time slice at a time.
+ * The fleet is split into device shards generated in parallel, each walking the slice in order so
+ * every device's readings stay ordered for the system's in-stream stages. Readings are encoded
+ * straight into payloads and sent through a dedicated bulk producer, bounded by an in-flight limit
+ * that shrinks while acknowledgements are slow or failing; progress and throughput are reported as
+ * Micrometer metrics. Jobs are scheduled by {@link BackfillJobService}.
+ */
 @Service
 public class HistoricalDataGenerator {
 
   private static final Logger logger = LoggerFactory.getLogger(HistoricalDataGenerator.class);
 
+  /** Rows acquired from a job's rate limiter at a time */
+  static final int RATE_LIMIT_BLOCK = 1024;
+
   @Value("${iot.kafka.topic-name}")
   private String kafkaTopic;
 
-  @Autowired private KafkaTemplate<String, SensorReading> kafkaTemplate;
+  @Autowired private KafkaProperties kafkaProperties;
 
-  /**
-   * Generate historical data for the last N days
-   *
-   * @param days Number of days to generate data for
-   * @param intervalMinutes Interval between readings in minutes (default: 1 minute)
-   * @return CompletableFuture that completes when all data is generated
-   */
-  public CompletableFuture<Void> generateLastDaysData(int days, int intervalMinutes) {
-    logger.info(
-        "Starting historical data generation for last {} days with {} minute intervals",
-        days,
-        intervalMinutes);
-
-    return CompletableFuture.runAsync(
-        () -> {
-          try {
-            List<DeviceSimulator> simulators = DeviceSimulatorFactory.createStandardDeviceSet();
-            LocalDateTime endTime = LocalDateTime.now(ZoneOffset.UTC);
-            LocalDateTime startTime = endTime.minusDays(days);
-
-            int totalReadings = 0;
-            LocalDateTime currentTime = startTime;
-
-            while (currentTime.isBefore(endTime)) {
-              for (DeviceSimulator simulator : simulators) {
-                SensorReading reading = generateHistoricalReading(simulator, currentTime);
-                sendToKafka(reading);
-                totalReadings++;
-
-                // Log progress every 100 readings
-                if (totalReadings % 100 == 0) {
-                  logger.info(
-                      "Generated {} historical readings, current time: {}",
-                      totalReadings,
-                      currentTime);
-                }
-              }
-              currentTime = currentTime.plusMinutes(intervalMinutes);
-            }
-
-            logger.info(
-                "Successfully generated {} historical readings for {} devices over {} days",
-                totalReadings,
-                simulators.size(),
-                days);
-
-          } catch (Exception e) {
-            logger.error(
-                "Error generating historical data for {} days: {}", days, e.getMessage(), e);
-            throw new RuntimeException("Failed to generate historical data", e);
-          }
-        });
+  @Autowired private BackfillProperties backfillProperties;
+
+  @Autowired private DeterminismProperties determinismProperties;
+
+  @Autowired private SendProperties sendProperties;
+
+  @Autowired private DeviceFleet fleet;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private DefaultKafkaProducerFactory<byte[], byte[]> bulkProducerFactory;
+  private KafkaTemplate<byte[], byte[]> bulkKafkaTemplate;
+  private final ThreadLocal<ReadingPayloadEncoder> encoders =
+      ThreadLocal.withInitial(() -> new ReadingPayloadEncoder(fleet));
+  private InFlightLimit inFlightLimit;
+  private int parallelism;
+  private ExecutorService workers;
+
+  private Counter sentCounter;
+  private Counter failedCounter;
+  private Timer backfillTimer;
+  private final AtomicLong plannedReadings = new AtomicLong();
+  private final AtomicLong generatedReadings = new AtomicLong();
+  private final AtomicLong activeBackfills = new AtomicLong();
+
+  @PostConstruct
+  public void initializeBulkProducer() {
+    Map<String, Object> producerConfig = kafkaProperties.buildProducerProperties(null);
+    producerConfig.putAll(backfillProperties.getProducer());
+    bulkProducerFactory =
+        new DefaultKafkaProducerFactory<>(
+            producerConfig, new ByteArraySerializer(), new ByteArraySerializer());
+    bulkKafkaTemplate = new KafkaTemplate<>(bulkProducerFactory);
+    inFlightLimit =
+        new InFlightLimit(
+            Math.min(sendProperties.getMinInFlight(), backfillProperties.getMaxInFlight()),
+            backfillProperties.getMaxInFlight(),
+            TimeUnit.MILLISECONDS.toNanos(sendProperties.getAckLatencyTargetMs()),
+            sendProperties.isAdaptive());
+    parallelism =
+        backfillProperties.getParallelism() > 0
+            ? backfillProperties.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+    workers = Executors.newFixedThreadPool(parallelism);
+
+    sentCounter =
+        Counter.builder("iot.simulator.backfill.readings")
+            .tag("result", "sent")
+            .register(meterRegistry);
+    failedCounter =
+        Counter.builder("iot.simulator.backfill.readings")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    backfillTimer = Timer.builder("iot.simulator.backfill.duration").register(meterRegistry);
+    Gauge.builder("iot.simulator.backfill.progress", this, HistoricalDataGenerator::getProgress)
+        .description("Fraction of planned backfill readings generated")
+        .register(meterRegistry);
+    Gauge.builder("iot.simulator.backfill.in.flight", inFlightLimit, InFlightLimit::getInFlight)
+        .register(meterRegistry);
+    Gauge.builder("iot.simulator.backfill.in.flight.limit", inFlightLimit, InFlightLimit::getLimit)
+        .register(meterRegistry);
+    Gauge.builder("iot.simulator.backfill.active", activeBackfills, AtomicLong::get)
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void closeBulkProducer() {
+    workers.shutdownNow();
+    bulkProducerFactory.destroy();
+  }
+
+  /** End of a backfill; with the virtual clock backfills end where live simulation starts */
+  public LocalDateTime backfillEndTime() {
+    return determinismProperties.usesVirtualClock()
+        ? determinismProperties.getStartTime()
+        : LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+  }
+
+  /** Number of readings a backfill of {@code days} at {@code intervalMinutes} produces */
+  public long estimateReadings(int days, int intervalMinutes) {
+    return (long) fleet.size() * ((days * 1440L + intervalMinutes - 1) / intervalMinutes);
+  }
+
+  /** Fraction of the readings planned by running backfills that have been generated */
+  public double getProgress() {
+    long planned = plannedReadings.get();
+    return planned > 0 ? Math.min(1.0, (double) generatedReadings.get() / planned) : 0.0;
+  }
+
+  /** Account for a backfill of {@code readings} starting, for the progress gauge */
+  public void backfillStarted(long readings) {
+    if (activeBackfills.getAndIncrement() == 0) {
+      plannedReadings.set(0);
+      generatedReadings.set(0);
+    }
+    plannedReadings.addAndGet(readings);
+  }
+
+  public void backfillFinished(long elapsedNanos) {
+    activeBackfills.decrementAndGet();
+    backfillTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
   }
 
   /**
-   * Generate historical data for the last N days with default 1-minute intervals
+   * Send the job's steps {@code [fromStep, toStep)} for every device and wait until Kafka has
+   * acknowledged all of them, so the slice can be checkpointed. Interrupting the caller stops the
+   * shards.
    *
-   * @param days Number of days to generate data for
-   * @return CompletableFuture that completes when all data is generated
+   * @throws IllegalStateException if any send of the slice failed, so the slice is not checkpointed
+   *     and a resumed job generates it again
    */
-  public CompletableFuture<Void> generateLastDaysData(int days) {
-    return generateLastDaysData(days, 1);
+  public void sendSlice(DeviceFleet state, BackfillJob job, long fromStep, long toStep)
+      throws InterruptedException, ExecutionException {
+    long failedBefore = job.getFailedRows().get();
+    int shards = Math.max(1, Math.min(parallelism, fleet.size()));
+    List<Future<?>> shardFutures = new ArrayList<>();
+    for (int shard = 0; shard < shards; shard++) {
+      int fromDevice = (int) ((long) fleet.size() * shard / shards);
+      int toDevice = (int) ((long) fleet.size() * (shard + 1) / shards);
+      shardFutures.add(
+          workers.submit(
+              () -> {
+                generateShard(state, job, fromDevice, toDevice, fromStep, toStep);
+                return null;
+              }));
+    }
+    try {
+      for (Future<?> shard : shardFutures) {
+        shard.get();
+      }
+    } finally {
+      for (Future<?> shard : shardFutures) {
+        shard.cancel(true);
+      }
+    }
+
+    // Wait for every outstanding send of this slice to be acknowledged
+    bulkKafkaTemplate.flush();
+    inFlightLimit.awaitIdle();
+
+    long failed = job.getFailedRows().get() - failedBefore;
+    if (failed > 0) {
+      throw new IllegalStateException(
+          failed + " readings of steps [" + fromStep + ", " + toStep + ") were not sent to Kafka");
+    }
   }
 
-  private SensorReading generateHistoricalReading(
-      DeviceSimulator simulator, LocalDateTime timestamp) {
-    // Generate reading with historical timestamp
-    SensorReading reading = simulator.generateReading();
-
-    // Create new reading with historical timestamp
-    return new SensorReading(
-        reading.getDeviceId(),
-        reading.getDeviceType(),
-        reading.getZone(),
-        addTimeBasedVariation(reading.getValue(), timestamp),
-        timestamp);
+  private void generateShard(
+      DeviceFleet state, BackfillJob job, int fromDevice, int toDevice, long fromStep, long toStep)
+      throws InterruptedException {
+    LocalDateTime startTime = job.getStartTime();
+    Duration interval = job.getInterval();
+    ReadingPayloadEncoder encoder = encoders.get();
+    for (long step = fromStep; step < toStep; step++) {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+      LocalDateTime timestamp = startTime.plus(interval.multipliedBy(step));
+      long timestampMillis = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+      for (int device = fromDevice; device < toDevice; device++) {
+        if ((device - fromDevice) % RATE_LIMIT_BLOCK == 0) {
+          job.getRateLimiter().acquire(Math.min(RATE_LIMIT_BLOCK, toDevice - device));
+        }
+        double value = state.nextValue(device);
+        double noise = state.nextNoise(device);
+        encoder.encode(device, addTimeBasedVariation(value, timestamp, noise), timestampMillis);
+        sendToKafka(encoder, job);
+      }
+      generatedReadings.addAndGet(toDevice - fromDevice);
+    }
   }
 
   /** Add time-based variation to make historical data more realistic */
-  private double addTimeBasedVariation(double baseValue, LocalDateTime timestamp) {
+  static double addTimeBasedVariation(double baseValue, LocalDateTime timestamp, double noise) {
     // Add daily and hourly patterns to make data more realistic
     int hour = timestamp.getHour();
     double hourlyVariation = Math.sin(Math.toRadians(hour * 15)) * 0.1; // 15 degrees per hour
     double dailyVariation =
         Math.sin(Math.toRadians(timestamp.getDayOfYear() * 0.986)) * 0.05; // ~365 days
-    double randomVariation = (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.1;
+    double randomVariation = (noise - 0.5) * 0.1;
 
     return baseValue * (1 + hourlyVariation + dailyVariation + randomVariation);
   }
 
-  private void sendToKafka(SensorReading reading) {
+  private void sendToKafka(ReadingPayloadEncoder encoder, BackfillJob job)
+      throws InterruptedException {
+    inFlightLimit.acquire();
+    long startNanos = System.nanoTime();
     try {
-      kafkaTemplate
-          .send(kafkaTopic, reading.getDeviceId(), reading)
+      bulkKafkaTemplate
+          .send(encoder.toRecord(kafkaTopic))
           .whenComplete(
               (result, failure) -> {
+                inFlightLimit.release(failure == null, System.nanoTime() - startNanos);
                 if (failure != null) {
+                  failedCounter.increment();
+                  job.getFailedRows().incrementAndGet();
                   logger.error(
                       "Failed to send historical reading to Kafka: {}", failure.getMessage());
+                } else {
+                  sentCounter.increment();
+                  job.getRows().incrementAndGet();
                 }
               });
     } catch (Exception e) {
+      inFlightLimit.release(false, System.nanoTime() - startNanos);
+      failedCounter.increment();
+      job.getFailedRows().incrementAndGet();
       logger.error("Error sending historical reading to Kafka: {}", e.getMessage());
     }
   }
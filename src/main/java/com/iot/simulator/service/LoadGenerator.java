@@ -0,0 +1,182 @@
+package com.iot.simulator.service;
+
+import com.iot.common.model.ReadingHeaders;
+import com.iot.simulator.encode.ReadingPayloadEncoder;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.load.LoadProfile;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Open-loop load generator. Send times are fixed in advance by integrating the profile's rate, and
+ * each reading carries its intended send time in a header. A slow send never delays the schedule:
+ * later messages simply go out behind their intended time, and the system measures latency from the
+ * intended time, so stalls show up in the tail instead of being omitted.
+ *
+ * <p>Readings are encoded straight into producer payloads, so the generator's own CPU and garbage
+ * stay small next to the rates it is asked to drive. Sends share the live {@link
+ * ReadingSendPipeline}'s in-flight limit; while it blocks, the schedule keeps running and the
+ * readings that follow go out late, which shows as time behind schedule.
+ */
+@Service
+public class LoadGenerator {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+  /** Salt of the load test's device streams, distinct from live simulation and backfill */
+  private static final long STREAM_SALT = 0x4C4F4144L;
+
+  /** Timeline step while the profile's rate is zero */
+  private static final double IDLE_STEP_SECONDS = 0.001;
+
+  @Value("${iot.kafka.topic-name}")
+  private String kafkaTopic;
+
+  @Autowired private ReadingSendPipeline sendPipeline;
+
+  @Autowired private DeviceFleet fleet;
+
+  private volatile Thread generatorThread;
+  private volatile LoadProfile activeProfile;
+  private volatile double currentRate;
+  private volatile long startedAtMillis;
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong maxBehindMicros = new AtomicLong();
+
+  /** Start a run; fails if one is already in progress */
+  public synchronized void start(LoadProfile profile) {
+    if (isRunning()) {
+      throw new IllegalStateException("A load test is already running: " + activeProfile);
+    }
+    activeProfile = profile;
+    sent.set(0);
+    failed.set(0);
+    maxBehindMicros.set(0);
+    startedAtMillis = System.currentTimeMillis();
+
+    Thread thread = new Thread(() -> run(profile), "load-generator");
+    thread.setDaemon(true);
+    generatorThread = thread;
+    thread.start();
+    logger.info("Started load test: {}", profile);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    Thread thread = generatorThread;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  public boolean isRunning() {
+    Thread thread = generatorThread;
+    return thread != null && thread.isAlive();
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("running", isRunning());
+    status.put("profile", activeProfile != null ? activeProfile.toString() : null);
+    status.put("currentRate", currentRate);
+    status.put("sent", sent.get());
+    status.put("failed", failed.get());
+    long elapsedMillis = System.currentTimeMillis() - startedAtMillis;
+    status.put(
+        "achievedRate",
+        activeProfile != null && elapsedMillis > 0 ? sent.get() * 1000.0 / elapsedMillis : 0.0);
+    // How far sends fell behind the schedule: large values mean the generator is the bottleneck
+    status.put("maxBehindScheduleMs", maxBehindMicros.get() / 1000.0);
+    return status;
+  }
+
+  private void run(LoadProfile profile) {
+    // Own random-walk state, so the load test does not disturb the live simulation's devices
+    DeviceFleet state = fleet.fork(STREAM_SALT);
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(state);
+    long startNanos = System.nanoTime();
+    long startMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    double elapsed = 0;
+    long sequence = 0;
+
+    try {
+      while (elapsed < profile.getDurationSeconds() && !Thread.currentThread().isInterrupted()) {
+        double rate = profile.rateAt(elapsed);
+        currentRate = rate;
+        if (rate <= 0) {
+          elapsed += IDLE_STEP_SECONDS;
+          continue;
+        }
+
+        long intendedNanos = startNanos + (long) (elapsed * 1e9);
+        long aheadNanos = intendedNanos - System.nanoTime();
+        while (aheadNanos > 0) {
+          LockSupport.parkNanos(aheadNanos);
+          if (Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          aheadNanos = intendedNanos - System.nanoTime();
+        }
+        maxBehindMicros.accumulateAndGet(-aheadNanos / 1000, Math::max);
+
+        long intendedMicros = startMicros + (long) (elapsed * 1e6);
+        send(state, encoder, (int) (sequence++ % state.size()), intendedMicros);
+        elapsed += 1.0 / rate;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.error("Load test aborted: {}", e.getMessage(), e);
+    } finally {
+      currentRate = 0;
+      logger.info(
+          "Load test finished after {} s: {} sent, {} failed",
+          TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startedAtMillis),
+          sent.get(),
+          failed.get());
+    }
+  }
+
+  private void send(
+      DeviceFleet state, ReadingPayloadEncoder encoder, int device, long intendedMicros)
+      throws InterruptedException {
+    encoder.encode(device, state.nextValue(device), intendedMicros / 1000);
+    ProducerRecord<byte[], byte[]> record = encoder.toRecord(kafkaTopic);
+    record
+        .headers()
+        .add(
+            ReadingHeaders.INTENDED_SEND_TIME,
+            Long.toString(intendedMicros).getBytes(StandardCharsets.US_ASCII));
+    try {
+      sendPipeline
+          .send(record)
+          .whenComplete(
+              (result, failure) -> {
+                if (failure != null) {
+                  failed.incrementAndGet();
+                } else {
+                  sent.incrementAndGet();
+                }
+              });
+    } catch (InterruptedException e) {
+      throw e;
+    } catch (Exception e) {
+      failed.incrementAndGet();
+      logger.error("Error sending load test reading to Kafka: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,322 @@
+package com.iot.simulator.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.config.ReplayProperties;
+import com.iot.simulator.replay.ReadingLogReader;
+import com.iot.simulator.replay.ReadingLogWriter;
+import com.iot.simulator.schedule.CoarseClock;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records reading streams to {@link ReadingLogWriter binary logs} and replays them. A recording is
+ * taken either from live simulation, capturing exactly what was sent after any traffic scenario, or
+ * from a Kafka topic read from its beginning up to its current end. Replays publish the logged
+ * readings with their original timestamps, either at the recorded pace (optionally sped up) or as
+ * fast as the producer accepts them.
+ */
+@Service
+public class ReadingReplayService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReadingReplayService.class);
+
+  private static final Pattern RECORDING_NAME = Pattern.compile("[A-Za-z0-9._-]{1,128}");
+
+  private static final Duration CAPTURE_POLL_TIMEOUT = Duration.ofMillis(500);
+
+  @Value("${iot.kafka.topic-name}")
+  private String kafkaTopic;
+
+  @Autowired private KafkaTemplate<String, SensorReading> kafkaTemplate;
+
+  @Autowired private KafkaProperties kafkaProperties;
+
+  @Autowired private ReplayProperties replayProperties;
+
+  private volatile ReadingLogWriter recorder;
+  private volatile String recordingName;
+
+  private volatile Thread jobThread;
+  private volatile String jobDescription;
+  private volatile long jobStartedAtMillis;
+  // Progress in bytes of the log for replays and in records of the topic for captures
+  private volatile long jobDone;
+  private volatile long jobTotal;
+  private final AtomicLong jobReadings = new AtomicLong();
+  private final AtomicLong jobFailed = new AtomicLong();
+
+  /** Start recording everything live simulation sends to {@code name} */
+  public synchronized void startRecording(String name) throws IOException {
+    if (recorder != null) {
+      throw new IllegalStateException("Already recording to " + recordingName);
+    }
+    recorder = new ReadingLogWriter(resolve(name));
+    recordingName = name;
+    logger.info("Recording live readings to {}", resolve(name));
+  }
+
+  /** Stop the live recording, returning the number of readings recorded */
+  public synchronized long stopRecording() throws IOException {
+    ReadingLogWriter writer = recorder;
+    if (writer == null) {
+      return 0;
+    }
+    recorder = null;
+    writer.close();
+    logger.info("Recorded {} readings to {}", writer.getCount(), recordingName);
+    return writer.getCount();
+  }
+
+  /** Whether live readings are currently being recorded */
+  public boolean isRecording() {
+    return recorder != null;
+  }
+
+  /** Record a reading that live simulation has just sent; a no-op unless recording */
+  public void record(SensorReading reading) {
+    ReadingLogWriter writer = recorder;
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.append(reading, CoarseClock.currentTimeMillis());
+    } catch (IOException e) {
+      // A write racing with stopRecording() fails on the closed file and is simply dropped
+      if (recorder == writer) {
+        logger.error("Stopping recording after write failure: {}", e.getMessage());
+        recorder = null;
+      }
+    }
+  }
+
+  /** Copy {@code topic} from its beginning up to its current end into recording {@code name} */
+  public synchronized void capture(String topic, String name) throws IOException {
+    Path path = resolve(name);
+    startJob(
+        "capture " + (topic != null ? topic : kafkaTopic) + " to " + name,
+        () -> runCapture(topic != null ? topic : kafkaTopic, path));
+  }
+
+  /**
+   * Replay recording {@code name}.
+   *
+   * @param speed multiple of the recorded pace, or 0 to send as fast as possible
+   */
+  public synchronized void replay(String name, double speed) throws IOException {
+    if (speed < 0) {
+      throw new IllegalArgumentException("speed must be 0 (unthrottled) or positive");
+    }
+    Path path = resolve(name);
+    if (!Files.isRegularFile(path)) {
+      throw new IllegalArgumentException("No recording named " + name);
+    }
+    startJob(
+        "replay " + name + (speed > 0 ? " at " + speed + "x" : " unthrottled"),
+        () -> runReplay(path, speed));
+  }
+
+  @PreDestroy
+  public synchronized void stop() throws IOException {
+    Thread thread = jobThread;
+    if (thread != null) {
+      thread.interrupt();
+    }
+    stopRecording();
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    ReadingLogWriter writer = recorder;
+    Map<String, Object> recording = new LinkedHashMap<>();
+    recording.put("active", writer != null);
+    recording.put("name", recordingName);
+    recording.put("readings", writer != null ? writer.getCount() : 0);
+    status.put("recording", recording);
+
+    Thread thread = jobThread;
+    long elapsedMillis = System.currentTimeMillis() - jobStartedAtMillis;
+    Map<String, Object> job = new LinkedHashMap<>();
+    job.put("running", thread != null && thread.isAlive());
+    job.put("job", jobDescription);
+    job.put("readings", jobReadings.get());
+    job.put("failed", jobFailed.get());
+    job.put("progress", jobTotal > 0 ? Math.min(1.0, (double) jobDone / jobTotal) : 0.0);
+    job.put("rate", elapsedMillis > 0 ? jobReadings.get() * 1000.0 / elapsedMillis : 0.0);
+    status.put("job", job);
+    return status;
+  }
+
+  private void startJob(String description, Runnable body) {
+    Thread running = jobThread;
+    if (running != null && running.isAlive()) {
+      throw new IllegalStateException("Already running: " + jobDescription);
+    }
+    jobDescription = description;
+    jobStartedAtMillis = System.currentTimeMillis();
+    jobDone = 0;
+    jobTotal = 0;
+    jobReadings.set(0);
+    jobFailed.set(0);
+
+    Thread thread = new Thread(body, "reading-replay");
+    thread.setDaemon(true);
+    jobThread = thread;
+    thread.start();
+    logger.info("Started {}", description);
+  }
+
+  private void runReplay(Path path, double speed) {
+    Semaphore inFlight = new Semaphore(replayProperties.getMaxInFlight());
+    try (ReadingLogReader reader = new ReadingLogReader(path)) {
+      jobTotal = reader.size();
+      long startNanos = System.nanoTime();
+      long firstRecordedAt = Long.MIN_VALUE;
+
+      while (reader.next()) {
+        if (Thread.currentThread().isInterrupted()) {
+          break;
+        }
+        if (speed > 0) {
+          if (firstRecordedAt == Long.MIN_VALUE) {
+            firstRecordedAt = reader.getRecordedAtMillis();
+          }
+          long dueNanos =
+              startNanos + (long) ((reader.getRecordedAtMillis() - firstRecordedAt) * 1e6 / speed);
+          long aheadNanos = dueNanos - System.nanoTime();
+          while (aheadNanos > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(aheadNanos);
+            aheadNanos = dueNanos - System.nanoTime();
+          }
+        }
+
+        inFlight.acquire();
+        SensorReading reading = reader.toReading();
+        try {
+          kafkaTemplate
+              .send(kafkaTopic, reading.getDeviceId(), reading)
+              .whenComplete(
+                  (result, failure) -> {
+                    inFlight.release();
+                    if (failure != null) {
+                      jobFailed.incrementAndGet();
+                    } else {
+                      jobReadings.incrementAndGet();
+                    }
+                  });
+        } catch (Exception e) {
+          inFlight.release();
+          jobFailed.incrementAndGet();
+          logger.error("Error sending replayed reading to Kafka: {}", e.getMessage());
+        }
+        if ((reader.getCount() & 0xFFF) == 0) {
+          jobDone = reader.position();
+        }
+      }
+      jobDone = reader.position();
+      // Wait for outstanding sends so the final counts are complete
+      inFlight.acquire(replayProperties.getMaxInFlight());
+      logger.info(
+          "Replay of {} finished: {} sent, {} failed", path, jobReadings.get(), jobFailed.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.info("Replay of {} stopped after {} readings", path, jobReadings.get());
+    } catch (Exception e) {
+      logger.error("Replay of {} aborted: {}", path, e.getMessage(), e);
+    }
+  }
+
+  private void runCapture(String topic, Path path) {
+    Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+    props.put(ConsumerConfig.GROUP_ID_CONFIG, "iot-replay-capture-" + UUID.randomUUID());
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+
+    try (KafkaConsumer<String, SensorReading> consumer =
+            new KafkaConsumer<>(
+                props,
+                new StringDeserializer(),
+                // An undeserializable record comes back as a null value instead of failing poll()
+                new ErrorHandlingDeserializer<>(
+                    new JsonDeserializer<>(SensorReading.class, false)));
+        ReadingLogWriter writer = new ReadingLogWriter(path)) {
+      List<TopicPartition> partitions =
+          consumer.partitionsFor(topic).stream()
+              .map(info -> new TopicPartition(topic, info.partition()))
+              .toList();
+      consumer.assign(partitions);
+      consumer.seekToBeginning(partitions);
+      Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+      long beginning =
+          consumer.beginningOffsets(partitions).values().stream().mapToLong(o -> o).sum();
+      long end = endOffsets.values().stream().mapToLong(o -> o).sum();
+      jobTotal = end - beginning;
+
+      while (!Thread.currentThread().isInterrupted() && !reachedEnd(consumer, endOffsets)) {
+        for (ConsumerRecord<String, SensorReading> record : consumer.poll(CAPTURE_POLL_TIMEOUT)) {
+          TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+          if (record.offset() >= endOffsets.get(partition)) {
+            continue;
+          }
+          if (record.value() == null) {
+            jobFailed.incrementAndGet();
+          } else {
+            writer.append(record.value(), record.timestamp());
+            jobReadings.incrementAndGet();
+          }
+          jobDone++;
+        }
+      }
+      logger.info("Captured {} readings from {} to {}", writer.getCount(), topic, path);
+    } catch (Exception e) {
+      logger.error("Capture of {} aborted: {}", topic, e.getMessage(), e);
+    }
+  }
+
+  private static boolean reachedEnd(
+      KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+    for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+      if (consumer.position(end.getKey()) < end.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Path of recording {@code name}, rejecting anything but a plain file name */
+  Path resolve(String name) throws IOException {
+    if (name == null || !RECORDING_NAME.matcher(name).matches() || name.startsWith(".")) {
+      throw new IllegalArgumentException(
+          "Recording names may only contain letters, digits, '.', '_' and '-'");
+    }
+    Path directory = Paths.get(replayProperties.getDirectory());
+    Files.createDirectories(directory);
+    return directory.resolve(name);
+  }
+}
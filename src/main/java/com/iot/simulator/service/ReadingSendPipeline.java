@@ -0,0 +1,177 @@
+package com.iot.simulator.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.config.SendProperties;
+import com.iot.simulator.encode.ReadingPayloadEncoder;
+import com.iot.simulator.send.InFlightLimit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+/**
+ * Send path shared by live simulation and load tests. Records, whether encoded by {@link
+ * ReadingPayloadEncoder} or sent as reading objects, pass one {@link InFlightLimit}, so a slow
+ * broker throttles generation instead of filling the producer buffer. Sent, acknowledged and failed
+ * records are counted, and the rate of acknowledged readings, which differs from records when
+ * readings are sent in batch envelopes, is sampled every second as the rate the simulator really
+ * achieves.
+ */
+@Service
+public class ReadingSendPipeline {
+
+  @Value("${iot.kafka.topic-name}")
+  private String kafkaTopic;
+
+  @Autowired private KafkaProperties kafkaProperties;
+
+  @Autowired private KafkaTemplate<String, SensorReading> kafkaTemplate;
+
+  @Autowired private SendProperties sendProperties;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private DefaultKafkaProducerFactory<byte[], byte[]> payloadProducerFactory;
+  private KafkaTemplate<byte[], byte[]> payloadKafkaTemplate;
+  private InFlightLimit inFlightLimit;
+  private final ScheduledExecutorService rateSampler = Executors.newSingleThreadScheduledExecutor();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder acked = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder ackNanos = new LongAdder();
+  private final LongAdder ackedReadings = new LongAdder();
+  private long lastAckedReadings;
+  private volatile double achievedRate;
+  private volatile double peakRate;
+
+  @PostConstruct
+  public void initializePipeline() {
+    payloadProducerFactory =
+        new DefaultKafkaProducerFactory<>(
+            kafkaProperties.buildProducerProperties(null),
+            new ByteArraySerializer(),
+            new ByteArraySerializer());
+    payloadKafkaTemplate = new KafkaTemplate<>(payloadProducerFactory);
+    inFlightLimit =
+        new InFlightLimit(
+            Math.min(sendProperties.getMinInFlight(), sendProperties.getMaxInFlight()),
+            sendProperties.getMaxInFlight(),
+            TimeUnit.MILLISECONDS.toNanos(sendProperties.getAckLatencyTargetMs()),
+            sendProperties.isAdaptive());
+
+    registerCounter("sent", sent);
+    registerCounter("acked", acked);
+    registerCounter("failed", failed);
+    Gauge.builder("iot.simulator.send.in.flight", inFlightLimit, InFlightLimit::getInFlight)
+        .register(meterRegistry);
+    Gauge.builder("iot.simulator.send.in.flight.limit", inFlightLimit, InFlightLimit::getLimit)
+        .register(meterRegistry);
+    Gauge.builder("iot.simulator.send.rate", this, ReadingSendPipeline::getAchievedRate)
+        .description("Acknowledged readings per second over the last second")
+        .register(meterRegistry);
+    rateSampler.scheduleAtFixedRate(this::sampleRate, 1, 1, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void closePipeline() {
+    rateSampler.shutdownNow();
+    payloadProducerFactory.destroy();
+  }
+
+  /** Send a payload record, waiting while the in-flight limit is reached */
+  public CompletableFuture<SendResult<byte[], byte[]>> send(ProducerRecord<byte[], byte[]> record)
+      throws InterruptedException {
+    return send(record, 1);
+  }
+
+  /** Send a payload record carrying {@code readings} readings, e.g. a batch envelope */
+  public CompletableFuture<SendResult<byte[], byte[]>> send(
+      ProducerRecord<byte[], byte[]> record, int readings) throws InterruptedException {
+    return track(() -> payloadKafkaTemplate.send(record), readings);
+  }
+
+  /** Send a reading through the JSON template, waiting while the in-flight limit is reached */
+  public CompletableFuture<SendResult<String, SensorReading>> send(SensorReading reading)
+      throws InterruptedException {
+    return track(() -> kafkaTemplate.send(kafkaTopic, reading.getDeviceId(), reading), 1);
+  }
+
+  public double getAchievedRate() {
+    return achievedRate;
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    long ackedCount = acked.sum();
+    long failedCount = failed.sum();
+    long completed = ackedCount + failedCount;
+    status.put("sent", sent.sum());
+    status.put("acked", ackedCount);
+    status.put("failed", failedCount);
+    status.put("ackedReadings", ackedReadings.sum());
+    status.put("achievedRate", achievedRate);
+    status.put("peakRate", peakRate);
+    status.put("averageAckMs", completed > 0 ? ackNanos.sum() / 1e6 / completed : 0.0);
+    status.putAll(inFlightLimit.snapshot());
+    return status;
+  }
+
+  private <T> CompletableFuture<T> track(Supplier<CompletableFuture<T>> send, int readings)
+      throws InterruptedException {
+    inFlightLimit.acquire();
+    sent.increment();
+    long startNanos = System.nanoTime();
+    CompletableFuture<T> future;
+    try {
+      future = send.get();
+    } catch (RuntimeException e) {
+      complete(false, startNanos, readings);
+      throw e;
+    }
+    return future.whenComplete(
+        (result, failure) -> complete(failure == null, startNanos, readings));
+  }
+
+  private void complete(boolean success, long startNanos, int readings) {
+    long latencyNanos = System.nanoTime() - startNanos;
+    ackNanos.add(latencyNanos);
+    if (success) {
+      acked.increment();
+      ackedReadings.add(readings);
+    } else {
+      failed.increment();
+    }
+    inFlightLimit.release(success, latencyNanos);
+  }
+
+  private void sampleRate() {
+    long readings = ackedReadings.sum();
+    achievedRate = readings - lastAckedReadings;
+    peakRate = Math.max(peakRate, achievedRate);
+    lastAckedReadings = readings;
+  }
+
+  private void registerCounter(String result, LongAdder count) {
+    FunctionCounter.builder("iot.simulator.send.records", count, LongAdder::sum)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,249 @@
+package com.iot.simulator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.simulator.config.ShardProperties;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coordinates simulator processes that each own one shard of the fleet. With start coordination on,
+ * every shard announces itself on the control topic and waits until all shards of the run have done
+ * so; all of them then start at the same instant, a fixed delay after the last announcement.
+ * Afterwards each shard publishes its achieved send rate every second and collects the others', so
+ * any shard can report the rate of the whole run.
+ */
+@Service
+public class ShardCoordinator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+  private static final long STATUS_INTERVAL_MS = 1000;
+
+  /** Shards whose last status is older than this are left out of the run's total rate */
+  private static final long STATUS_STALE_MS = 10_000;
+
+  private static final String READY = "ready";
+
+  private static final String STATUS = "status";
+
+  @Autowired private ShardProperties shardProperties;
+
+  @Autowired private KafkaProperties kafkaProperties;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private ReadingSendPipeline sendPipeline;
+
+  private final Map<Integer, Map<String, Object>> shardStatus = new ConcurrentHashMap<>();
+  private volatile Long startMillis;
+  private volatile Thread controlThread;
+
+  @PreDestroy
+  public void shutdown() {
+    Thread thread = controlThread;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /**
+   * Start time of live simulation in epoch milliseconds: {@code earliestMillis} unless start
+   * coordination is on, in which case this blocks until every shard has announced itself or the
+   * coordination timeout has passed.
+   */
+  public long awaitStartTime(long earliestMillis) throws InterruptedException {
+    if (!shardProperties.isCoordinateStart()) {
+      startMillis = earliestMillis;
+      return earliestMillis;
+    }
+
+    KafkaConsumer<String, String> consumer = createConsumer();
+    KafkaProducer<String, String> producer = createProducer();
+    try {
+      long announcedAt = System.currentTimeMillis();
+      publish(producer, READY, Map.of("announcedAtMs", announcedAt));
+
+      // Announcements from before the timeout window belong to an earlier attempt of the run
+      long oldest = announcedAt - shardProperties.getCoordinationTimeoutMs();
+      long deadline = announcedAt + shardProperties.getCoordinationTimeoutMs();
+      Map<Integer, Long> ready = new TreeMap<>();
+      while (ready.size() < shardProperties.getCount() && System.currentTimeMillis() < deadline) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw new InterruptedException();
+        }
+        for (Map<String, Object> message : poll(consumer)) {
+          long at = ((Number) message.get("announcedAtMs")).longValue();
+          if (READY.equals(message.get("type")) && at >= oldest) {
+            ready.merge(((Number) message.get("shard")).intValue(), at, Math::max);
+          }
+        }
+      }
+      if (ready.size() < shardProperties.getCount()) {
+        logger.warn(
+            "Only shards {} of {} announced themselves within {} ms; starting without the rest",
+            ready.keySet(),
+            shardProperties.getCount(),
+            shardProperties.getCoordinationTimeoutMs());
+      }
+
+      long lastAnnouncement = ready.values().stream().mapToLong(at -> at).max().orElse(announcedAt);
+      long start = Math.max(earliestMillis, lastAnnouncement + shardProperties.getStartDelayMs());
+      logger.info("Shards {} agreed to start at {}", ready.keySet(), start);
+      startMillis = start;
+      startStatusExchange(producer, consumer);
+      return start;
+    } catch (InterruptedException | RuntimeException e) {
+      consumer.close();
+      producer.close();
+      throw e;
+    }
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("shard", shardProperties.getIndex());
+    status.put("shardCount", shardProperties.getCount());
+    status.put("runId", shardProperties.getRunId());
+    status.put("coordinated", shardProperties.isCoordinateStart());
+    status.put("startMillis", startMillis);
+    status.put("achievedRate", sendPipeline.getAchievedRate());
+    if (shardProperties.isCoordinateStart()) {
+      long now = System.currentTimeMillis();
+      double totalRate = 0;
+      Map<Integer, Map<String, Object>> shards = new TreeMap<>(shardStatus);
+      for (Map<String, Object> shard : shards.values()) {
+        if (now - ((Number) shard.get("announcedAtMs")).longValue() <= STATUS_STALE_MS) {
+          totalRate += ((Number) shard.get("achievedRate")).doubleValue();
+        }
+      }
+      status.put("shards", shards);
+      status.put("reportingShards", shards.size());
+      status.put("totalAchievedRate", totalRate);
+    }
+    return status;
+  }
+
+  private void startStatusExchange(
+      KafkaProducer<String, String> producer, KafkaConsumer<String, String> consumer) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try (producer;
+                  consumer) {
+                long nextStatus = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                  long now = System.currentTimeMillis();
+                  if (now >= nextStatus) {
+                    publish(
+                        producer,
+                        STATUS,
+                        Map.of(
+                            "announcedAtMs", now, "achievedRate", sendPipeline.getAchievedRate()));
+                    nextStatus = now + STATUS_INTERVAL_MS;
+                  }
+                  for (Map<String, Object> message : poll(consumer)) {
+                    if (STATUS.equals(message.get("type"))) {
+                      shardStatus.put(((Number) message.get("shard")).intValue(), message);
+                    }
+                  }
+                }
+              } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted()) {
+                  logger.error("Shard status exchange stopped: {}", e.getMessage(), e);
+                }
+              }
+            },
+            "shard-control");
+    thread.setDaemon(true);
+    controlThread = thread;
+    thread.start();
+  }
+
+  private void publish(
+      KafkaProducer<String, String> producer, String type, Map<String, Object> body) {
+    Map<String, Object> message = new HashMap<>(body);
+    message.put("type", type);
+    message.put("runId", shardProperties.getRunId());
+    message.put("shard", shardProperties.getIndex());
+    message.put("shardCount", shardProperties.getCount());
+    try {
+      producer.send(
+          new ProducerRecord<>(
+              shardProperties.getControlTopic(),
+              shardProperties.getRunId(),
+              objectMapper.writeValueAsString(message)));
+    } catch (Exception e) {
+      logger.error("Failed to publish shard {} message: {}", type, e.getMessage());
+    }
+  }
+
+  /** Messages of this run that arrived since the last poll; malformed ones are skipped */
+  private List<Map<String, Object>> poll(KafkaConsumer<String, String> consumer) {
+    List<Map<String, Object>> messages = new ArrayList<>();
+    for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+      try {
+        Map<String, Object> message =
+            objectMapper.readValue(record.value(), new TypeReference<Map<String, Object>>() {});
+        if (shardProperties.getRunId().equals(message.get("runId"))
+            && message.get("shard") instanceof Number
+            && message.get("announcedAtMs") instanceof Number) {
+          messages.add(message);
+        }
+      } catch (Exception e) {
+        logger.debug("Ignoring malformed control message: {}", e.getMessage());
+      }
+    }
+    return messages;
+  }
+
+  private KafkaProducer<String, String> createProducer() {
+    return new KafkaProducer<>(
+        kafkaProperties.buildProducerProperties(null),
+        new StringSerializer(),
+        new StringSerializer());
+  }
+
+  /** Consumer reading the whole control topic from the start, without a consumer group */
+  private KafkaConsumer<String, String> createConsumer() {
+    Map<String, Object> props = new HashMap<>(kafkaProperties.buildConsumerProperties(null));
+    props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    KafkaConsumer<String, String> consumer =
+        new KafkaConsumer<>(props, new StringDeserializer(), new StringDeserializer());
+    String topic = shardProperties.getControlTopic();
+    List<TopicPartition> partitions =
+        consumer.partitionsFor(topic).stream()
+            .map(info -> new TopicPartition(topic, info.partition()))
+            .toList();
+    if (partitions.isEmpty()) {
+      consumer.close();
+      throw new IllegalStateException("Control topic " + topic + " has no partitions");
+    }
+    consumer.assign(partitions);
+    consumer.seekToBeginning(partitions);
+    return consumer;
+  }
+}
@@ -1,85 +1,429 @@
 package com.iot.simulator.service;
 
-import com.iot.common.factory.DeviceSimulatorFactory;
 import com.iot.common.model.SensorReading;
-import com.iot.simulator.device.DeviceSimulator;
+import com.iot.simulator.config.BatchProperties;
+import com.iot.simulator.config.DeterminismProperties;
+import com.iot.simulator.config.ScenarioProperties;
+import com.iot.simulator.config.SchedulerProperties;
+import com.iot.simulator.encode.BatchEnvelopeEncoder;
+import com.iot.simulator.encode.DeviceSeriesBuffer;
+import com.iot.simulator.encode.ReadingPayloadEncoder;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import com.iot.simulator.scenario.TrafficScenario;
+import com.iot.simulator.schedule.DeviceTimingWheel;
+import com.iot.simulator.schedule.TickStats;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+/**
+ * Drives live simulation from a single tick thread. All devices sit in one {@link
+ * DeviceTimingWheel}; every tick the devices due in it are generated and sent as one batch, split
+ * across worker threads, and rescheduled once the whole batch is done so that no device is ever
+ * advanced by two threads at once.
+ *
+ * <p>Unless a traffic scenario, a recording or debug logging needs the reading objects, readings
+ * are encoded straight into producer payloads by a per-worker {@link ReadingPayloadEncoder}. All
+ * sends go through the {@link ReadingSendPipeline}: when the broker falls behind, workers block on
+ * its in-flight limit, ticks lag, and the stats show the achieved rather than the intended rate.
+ * With batching on, the fast path holds each device's readings in a {@link DeviceSeriesBuffer} and
+ * sends them as one envelope on the batch topic once the device's series is due. Series still held
+ * are sent when the simulation leaves the fast path and on shutdown.
+ */
 @Component
 public class SimulatorOrchestrator {
 
   private static final Logger logger = LoggerFactory.getLogger(SimulatorOrchestrator.class);
 
+  private static final long LAG_WARNING_INTERVAL_MS = 10_000;
+
+  private static final long SHUTDOWN_WAIT_MS = 5_000;
+
   @Value("${iot.kafka.topic-name}")
   private String kafkaTopic;
 
-  @Autowired private KafkaTemplate<String, SensorReading> kafkaTemplate;
+  @Value("${iot.kafka.batch-topic-name}")
+  private String batchTopic;
+
+  @Autowired private DeviceFleet fleet;
+
+  @Autowired private SchedulerProperties schedulerProperties;
+
+  @Autowired private DeterminismProperties determinismProperties;
+
+  @Autowired private ScenarioProperties scenarioProperties;
+
+  @Autowired private ReadingReplayService replayService;
+
+  @Autowired private ReadingSendPipeline sendPipeline;
 
-  private final List<DeviceSimulator> simulators;
-  private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(10);
+  @Autowired private ShardCoordinator shardCoordinator;
+
+  @Autowired private BatchProperties batchProperties;
+
+  private final ThreadLocal<ReadingPayloadEncoder> encoders =
+      ThreadLocal.withInitial(() -> new ReadingPayloadEncoder(fleet));
+
+  private final ThreadLocal<BatchEnvelopeEncoder> batchEncoders =
+      ThreadLocal.withInitial(
+          () -> BatchEnvelopeEncoder.forEncoding(batchProperties.getEncoding(), fleet));
+
+  private DeviceSeriesBuffer seriesBuffer;
+
+  private final ScheduledExecutorService tickExecutor =
+      Executors.newSingleThreadScheduledExecutor();
+  private ExecutorService workers;
+  private DeviceTimingWheel wheel;
+  private TickStats tickStats;
+  private long tickMs;
+  private long firstTick;
+  private long nextTick;
+  private long lastLagWarning;
+  private double intendedRate;
+  private boolean batching;
+  private volatile TrafficScenario scenario;
 
   @PostConstruct
   public void initializeSimulators() {
     logger.info("Initializing IoT device simulators...");
 
-    for (DeviceSimulator simulator : simulators) {
-      scheduleSimulator(simulator, 1000);
+    tickMs = schedulerProperties.getTickMs();
+    scenario = TrafficScenario.parse(scenarioProperties.getDefinition());
+    if (!scenario.isEmpty()) {
+      logger.info("Applying traffic scenario: {}", scenario.getDefinition());
+    }
+    wheel = new DeviceTimingWheel(fleet.size(), schedulerProperties.getWheelSize());
+    tickStats = new TickStats(tickMs);
+    int workerThreads =
+        schedulerProperties.getWorkerThreads() > 0
+            ? schedulerProperties.getWorkerThreads()
+            : Runtime.getRuntime().availableProcessors();
+    workers = Executors.newFixedThreadPool(workerThreads);
+    if (batchProperties.isEnabled()) {
+      // Fail on an unknown encoding at startup rather than on every worker thread
+      BatchEnvelopeEncoder.forEncoding(batchProperties.getEncoding(), fleet);
+      seriesBuffer =
+          new DeviceSeriesBuffer(
+              fleet.size(), batchProperties.getMaxReadings(), batchProperties.getWindowMs());
+      logger.info(
+          "Batching up to {} readings per device over {} ms as {} on topic {}",
+          batchProperties.getMaxReadings(),
+          batchProperties.getWindowMs(),
+          batchProperties.getEncoding(),
+          batchTopic);
+    }
+
+    for (FleetGroup group : fleet.getGroups()) {
+      long intervalTicks = Math.max(1, (group.getIntervalMillis() + tickMs - 1) / tickMs);
+      intendedRate += group.getCount() * 1000.0 / (intervalTicks * tickMs);
     }
+    tickExecutor.execute(this::start);
 
-    logger.info("Created {} total device simulators", simulators.size());
-    logger.info("Starting IoT device simulation with {} devices", simulators.size());
+    logger.info("Created {} total device simulators", fleet.size());
+    logger.info(
+        "Starting IoT device simulation with {} devices, {} ms ticks, {} workers",
+        fleet.size(),
+        tickMs,
+        workerThreads);
   }
 
-  public SimulatorOrchestrator() {
-    this.simulators = DeviceSimulatorFactory.createStandardDeviceSet();
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    tickExecutor.shutdownNow();
+    workers.shutdown();
+    // Let the last tick finish with the buffered series before sending them
+    if (seriesBuffer != null
+        && tickExecutor.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)
+        && workers.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)) {
+      flushAll();
+    }
+    workers.shutdownNow();
+  }
+
+  /**
+   * Start one second from now, or when the other shards are ready if starts are coordinated,
+   * spreading each device's first reading over its interval
+   */
+  private void start() {
+    try {
+      long startMillis = shardCoordinator.awaitStartTime(System.currentTimeMillis() + 1000);
+      firstTick = startMillis / tickMs;
+      for (int device = 0; device < fleet.size(); device++) {
+        wheel.schedule(device, firstTick + device % intervalTicks(device));
+      }
+      nextTick = firstTick;
+      long delayMs = Math.max(0, startMillis - System.currentTimeMillis());
+      tickExecutor.scheduleAtFixedRate(this::tick, delayMs, tickMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      logger.error("Could not start live simulation: {}", e.getMessage(), e);
+    }
+  }
+
+  public Map<String, Object> getTickStats() {
+    Map<String, Object> stats = tickStats.snapshot();
+    stats.put("devices", fleet.size());
+    stats.put("intendedRate", intendedRate);
+    stats.put("achievedRate", sendPipeline.getAchievedRate());
+    stats.put("send", sendPipeline.getStatus());
+    stats.put("shard", shardCoordinator.getStatus());
+    return stats;
   }
 
-  private void scheduleSimulator(DeviceSimulator simulator, long intervalMs) {
-    executorService.scheduleAtFixedRate(
+  public TrafficScenario getScenario() {
+    return scenario;
+  }
+
+  /**
+   * Switch to another traffic scenario between ticks. Readings the current one is still holding
+   * back are released immediately rather than lost.
+   */
+  public void setScenario(TrafficScenario replacement) {
+    tickExecutor.execute(
         () -> {
-          try {
-            SensorReading reading = simulator.generateReading();
-            sendToKafka(reading);
-
-            logger.debug(
-                "Generated reading: {} from device: {} in zone: {} with value: {}",
-                reading.getDeviceType(),
-                reading.getDeviceId(),
-                reading.getZone(),
-                reading.getValue());
-
-          } catch (Exception e) {
-            logger.error(
-                "Error generating reading for device {}: {}",
-                simulator.getDeviceId(),
-                e.getMessage());
-          }
-        },
-        1000,
-        intervalMs,
-        TimeUnit.MILLISECONDS);
+          TrafficScenario previous = scenario;
+          scenario = replacement;
+          previous.drain(this::sendToKafka);
+          logger.info("Traffic scenario changed to: {}", replacement.getDefinition());
+        });
+  }
+
+  /** Process every tick that has come due, catching up in order if the previous run overran */
+  private void tick() {
+    try {
+      long currentTick = System.currentTimeMillis() / tickMs;
+      while (nextTick <= currentTick) {
+        processTick(nextTick++);
+      }
+    } catch (Exception e) {
+      logger.error("Error processing simulator tick {}: {}", nextTick, e.getMessage(), e);
+    }
+  }
+
+  private void processTick(long tick) throws Exception {
+    long tickTimeMs = tick * tickMs;
+    int count = wheel.drain(tick);
+    int[] due = wheel.due();
+    LocalDateTime timestamp =
+        determinismProperties.usesVirtualClock()
+            ? determinismProperties
+                .getStartTime()
+                .plus((tick - firstTick) * tickMs, ChronoUnit.MILLIS)
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(tickTimeMs), ZoneOffset.UTC);
+    long timestampMillis = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    TrafficScenario active = scenario;
+    boolean encoded = active.isEmpty() && !replayService.isRecording() && !logger.isDebugEnabled();
+    if (batching && !encoded) {
+      // Held series would otherwise wait until the fast path resumes, with stale timestamps
+      flushAll();
+    }
+    batching = encoded && seriesBuffer != null;
+
+    int chunkSize = schedulerProperties.getChunkSize();
+    if (count <= chunkSize) {
+      generate(due, 0, count, active, encoded, timestamp, timestampMillis, tickTimeMs);
+    } else {
+      List<Future<?>> chunks = new ArrayList<>();
+      for (int from = 0; from < count; from += chunkSize) {
+        int start = from;
+        int end = Math.min(count, from + chunkSize);
+        chunks.add(
+            workers.submit(
+                () ->
+                    generate(
+                        due, start, end, active, encoded, timestamp, timestampMillis, tickTimeMs)));
+      }
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    }
+
+    if (!active.isEmpty()) {
+      active.flush(tickTimeMs, this::sendToKafka);
+    }
+
+    for (int i = 0; i < count; i++) {
+      wheel.schedule(due[i], tick + intervalTicks(due[i]));
+    }
+
+    long lagMs = Math.max(0, System.currentTimeMillis() - tickTimeMs);
+    tickStats.record(count, lagMs);
+    if (lagMs > tickMs && tickTimeMs - lastLagWarning > LAG_WARNING_INTERVAL_MS) {
+      lastLagWarning = tickTimeMs;
+      logger.warn(
+          "Simulator is falling behind: tick of {} readings finished {} ms after its start",
+          count,
+          lagMs);
+    }
+  }
+
+  private void generate(
+      int[] devices,
+      int from,
+      int to,
+      TrafficScenario active,
+      boolean encoded,
+      LocalDateTime timestamp,
+      long timestampMillis,
+      long tickTimeMs) {
+    if (encoded) {
+      if (seriesBuffer != null) {
+        sendBatched(devices, from, to, timestampMillis);
+      } else {
+        sendEncoded(devices, from, to, timestampMillis);
+      }
+      return;
+    }
+    for (int i = from; i < to; i++) {
+      int device = devices[i];
+      try {
+        SensorReading reading = fleet.nextReading(device, timestamp);
+        if (active.isEmpty()) {
+          sendToKafka(reading);
+        } else {
+          active.offer(reading, tickTimeMs, this::sendToKafka);
+        }
+
+        logger.debug(
+            "Generated reading: {} from device: {} in zone: {} with value: {}",
+            reading.getDeviceType(),
+            reading.getDeviceId(),
+            reading.getZone(),
+            reading.getValue());
+
+      } catch (Exception e) {
+        logger.error(
+            "Error generating reading for device {}: {}", fleet.deviceId(device), e.getMessage());
+      }
+    }
+  }
+
+  private void sendEncoded(int[] devices, int from, int to, long timestampMillis) {
+    ReadingPayloadEncoder encoder = encoders.get();
+    for (int i = from; i < to; i++) {
+      int device = devices[i];
+      try {
+        encoder.encode(device, fleet.nextValue(device), timestampMillis);
+        sendPipeline
+            .send(encoder.toRecord(kafkaTopic))
+            .whenComplete(
+                (result, failure) -> {
+                  if (failure != null) {
+                    logger.error("Failed to send reading to Kafka: {}", failure.getMessage());
+                  }
+                });
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        logger.error(
+            "Error sending reading for device {}: {}", fleet.deviceId(device), e.getMessage());
+      }
+    }
+  }
+
+  private void sendBatched(int[] devices, int from, int to, long timestampMillis) {
+    BatchEnvelopeEncoder encoder = batchEncoders.get();
+    for (int i = from; i < to; i++) {
+      int device = devices[i];
+      try {
+        if (seriesBuffer.add(device, timestampMillis, fleet.nextValue(device))) {
+          sendSeries(encoder, device);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        logger.error(
+            "Error sending batch for device {}: {}", fleet.deviceId(device), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Send every series still held in the buffer, whether due or not. Must not run alongside a tick,
+   * as the buffer is not synchronized.
+   */
+  private void flushAll() {
+    BatchEnvelopeEncoder encoder = batchEncoders.get();
+    int flushed = 0;
+    for (int device = 0; device < fleet.size(); device++) {
+      if (seriesBuffer.count(device) == 0) {
+        continue;
+      }
+      try {
+        sendSeries(encoder, device);
+        flushed++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        logger.error(
+            "Error sending batch for device {}: {}", fleet.deviceId(device), e.getMessage());
+      }
+    }
+    if (flushed > 0) {
+      logger.info("Sent {} partially filled device series", flushed);
+    }
+  }
+
+  /** Encode the buffered series of {@code device} as one envelope, clear it and send it */
+  private void sendSeries(BatchEnvelopeEncoder encoder, int device) throws InterruptedException {
+    encoder.begin();
+    encoder.addSeries(
+        device,
+        seriesBuffer.timestamps(),
+        seriesBuffer.values(),
+        seriesBuffer.offset(device),
+        seriesBuffer.count(device));
+    encoder.finish();
+    seriesBuffer.clear(device);
+    sendPipeline
+        .send(encoder.toRecord(batchTopic), encoder.readings())
+        .whenComplete(
+            (result, failure) -> {
+              if (failure != null) {
+                logger.error("Failed to send batch to Kafka: {}", failure.getMessage());
+              }
+            });
+  }
+
+  private long intervalTicks(int device) {
+    return Math.max(1, (fleet.intervalMillis(device) + tickMs - 1) / tickMs);
   }
 
   private void sendToKafka(SensorReading reading) {
     try {
-      kafkaTemplate
-          .send(kafkaTopic, reading.getDeviceId(), reading)
+      sendPipeline
+          .send(reading)
           .whenComplete(
               (result, failure) -> {
                 if (failure != null) {
                   logger.error("Failed to send reading to Kafka: {}", failure.getMessage());
                 }
               });
+      replayService.record(reading);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     } catch (Exception e) {
       logger.error("Error sending to Kafka: {}", e.getMessage());
     }
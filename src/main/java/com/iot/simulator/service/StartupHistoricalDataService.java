@@ -1,5 +1,7 @@
 package com.iot.simulator.service;
 
+import com.iot.simulator.job.BackfillJob;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +15,7 @@ public class StartupHistoricalDataService {
 
   private static final Logger logger = LoggerFactory.getLogger(StartupHistoricalDataService.class);
 
-  @Autowired private HistoricalDataGenerator historicalDataGenerator;
+  @Autowired private BackfillJobService backfillJobService;
 
   @EventListener(ApplicationReadyEvent.class)
   public void handleApplicationReady() {
@@ -34,7 +36,10 @@ public class StartupHistoricalDataService {
           intervalMinutes);
 
       CompletableFuture<Void> future =
-          historicalDataGenerator.generateLastDaysData(1, intervalMinutes);
+          backfillJobService
+              .submitGenerated(
+                  BackfillJob.Kind.KAFKA, 1, Duration.ofMinutes(intervalMinutes), null)
+              .getCompletion();
 
       if ("true".equals(historicalOnly)) {
         // Wait for completion and then exit
@@ -0,0 +1,119 @@
+package com.iot.system.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Threshold alert rules evaluated in-stream, bound from {@code iot.alerts} */
+@Component
+@ConfigurationProperties(prefix = "iot.alerts")
+public class AlertProperties {
+
+  private boolean enabled = true;
+
+  private String topicName = "iot-alerts";
+
+  private List<Rule> rules = new ArrayList<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getTopicName() {
+    return topicName;
+  }
+
+  public void setTopicName(String topicName) {
+    this.topicName = topicName;
+  }
+
+  public List<Rule> getRules() {
+    return rules;
+  }
+
+  public void setRules(List<Rule> rules) {
+    this.rules = rules;
+  }
+
+  public static class Rule {
+
+    private String id;
+
+    private String deviceType;
+
+    /** Zone the rule applies to; null or "*" matches every zone */
+    private String zone;
+
+    /** ABOVE, AT_OR_ABOVE, BELOW or AT_OR_BELOW */
+    private String operator;
+
+    /** Required: a missing threshold is rejected rather than taken as 0 */
+    private Double threshold;
+
+    /** How long the condition must hold before the alert is raised */
+    private long durationSeconds;
+
+    private String severity = "WARNING";
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getDeviceType() {
+      return deviceType;
+    }
+
+    public void setDeviceType(String deviceType) {
+      this.deviceType = deviceType;
+    }
+
+    public String getZone() {
+      return zone;
+    }
+
+    public void setZone(String zone) {
+      this.zone = zone;
+    }
+
+    public String getOperator() {
+      return operator;
+    }
+
+    public void setOperator(String operator) {
+      this.operator = operator;
+    }
+
+    public Double getThreshold() {
+      return threshold;
+    }
+
+    public void setThreshold(Double threshold) {
+      this.threshold = threshold;
+    }
+
+    public long getDurationSeconds() {
+      return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+      this.durationSeconds = durationSeconds;
+    }
+
+    public String getSeverity() {
+      return severity;
+    }
+
+    public void setSeverity(String severity) {
+      this.severity = severity;
+    }
+  }
+}
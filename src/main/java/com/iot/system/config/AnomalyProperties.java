@@ -0,0 +1,98 @@
+package com.iot.system.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** EWMA anomaly detection settings, bound from {@code iot.anomaly} */
+@Component
+@ConfigurationProperties(prefix = "iot.anomaly")
+public class AnomalyProperties {
+
+  private boolean enabled = true;
+
+  private String topicName = "iot-anomalies";
+
+  /** Smoothing factor of the EWMA mean and variance */
+  private double alpha = 0.05;
+
+  /** Absolute z-score above which a reading is flagged */
+  private double scoreThreshold = 4.0;
+
+  /** Readings used to settle a new baseline before anything is flagged */
+  private int warmupReadings = 30;
+
+  /** Subtract an hour-of-day baseline before scoring */
+  private boolean seasonal = false;
+
+  /** Number of recent anomalies kept in memory for the API */
+  private int recentCapacity = 1000;
+
+  /** Signal scored per device type: VALUE (raw reading) or DELTA (change since last reading) */
+  private Map<String, String> signals = new HashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getTopicName() {
+    return topicName;
+  }
+
+  public void setTopicName(String topicName) {
+    this.topicName = topicName;
+  }
+
+  public double getAlpha() {
+    return alpha;
+  }
+
+  public void setAlpha(double alpha) {
+    this.alpha = alpha;
+  }
+
+  public double getScoreThreshold() {
+    return scoreThreshold;
+  }
+
+  public void setScoreThreshold(double scoreThreshold) {
+    this.scoreThreshold = scoreThreshold;
+  }
+
+  public int getWarmupReadings() {
+    return warmupReadings;
+  }
+
+  public void setWarmupReadings(int warmupReadings) {
+    this.warmupReadings = warmupReadings;
+  }
+
+  public boolean isSeasonal() {
+    return seasonal;
+  }
+
+  public void setSeasonal(boolean seasonal) {
+    this.seasonal = seasonal;
+  }
+
+  public int getRecentCapacity() {
+    return recentCapacity;
+  }
+
+  public void setRecentCapacity(int recentCapacity) {
+    this.recentCapacity = recentCapacity;
+  }
+
+  public Map<String, String> getSignals() {
+    return signals;
+  }
+
+  public void setSignals(Map<String, String> signals) {
+    this.signals = signals;
+  }
+}
@@ -0,0 +1,43 @@
+package com.iot.system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** HTTP bulk ingest settings, bound from {@code iot.ingest.http} */
+@Component
+@ConfigurationProperties(prefix = "iot.ingest.http")
+public class IngestProperties {
+
+  /** Requests ingested at once; further requests are refused with 429 until one finishes */
+  private int maxConcurrentRequests = 4;
+
+  /** Readings handed to the ingest pipeline per bulk write */
+  private int chunkSize = 1000;
+
+  /** Largest batch envelope body accepted, as envelopes are decoded whole */
+  private int maxBatchBytes = 16 * 1024 * 1024;
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public int getMaxBatchBytes() {
+    return maxBatchBytes;
+  }
+
+  public void setMaxBatchBytes(int maxBatchBytes) {
+    this.maxBatchBytes = maxBatchBytes;
+  }
+}
@@ -0,0 +1,35 @@
+package com.iot.system.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+@Configuration
+@Profile("system")
+public class KafkaConfig {
+
+  /**
+   * Byte-array values are sent as they are and everything else as JSON. Batch envelopes are read as
+   * raw bytes, so their retry topics and DLT must receive the same bytes rather than a JSON string
+   * holding them.
+   */
+  @Bean
+  @SuppressWarnings("unchecked")
+  public DefaultKafkaProducerFactoryCustomizer rawBytesPassThroughCustomizer() {
+    return producerFactory -> {
+      Map<Class<?>, Serializer<?>> delegates = new LinkedHashMap<>();
+      delegates.put(byte[].class, new ByteArraySerializer());
+      delegates.put(Object.class, new JsonSerializer<>());
+      ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+          .setValueSerializerSupplier(() -> new DelegatingByTypeSerializer(delegates, true));
+    };
+  }
+}
@@ -0,0 +1,140 @@
+package com.iot.system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Line protocol listener settings, bound from {@code iot.ingest.line} */
+@Component
+@ConfigurationProperties(prefix = "iot.ingest.line")
+public class LineProtocolProperties {
+
+  /** The listener is unauthenticated, so it only starts when enabled */
+  private boolean enabled = false;
+
+  private String bindAddress = "0.0.0.0";
+
+  /** TCP port, 0 for any free port or -1 for no TCP listener */
+  private int tcpPort = 8094;
+
+  /** UDP port, 0 for any free port or -1 for no UDP listener */
+  private int udpPort = 8094;
+
+  /** Open TCP connections; further connections are closed as soon as they are accepted */
+  private int maxConnections = 1000;
+
+  /** Longest line accepted; longer lines are dropped as malformed */
+  private int maxLineBytes = 4096;
+
+  /** Readings handed to the ingest pipeline per bulk write */
+  private int batchSize = 5000;
+
+  /** Longest a partial batch waits for more readings before it is written */
+  private long lingerMs = 100;
+
+  /** Threads writing batches; when all are busy and the queue is full, reading pauses */
+  private int writerThreads = 2;
+
+  private int writerQueueCapacity = 4;
+
+  /** Tries per batch before it is dropped and counted as failed, e.g. during a database outage */
+  private int writeAttempts = 3;
+
+  /** Wait before the second try of a batch, doubling for every further try */
+  private long writeBackoffMs = 1000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getBindAddress() {
+    return bindAddress;
+  }
+
+  public void setBindAddress(String bindAddress) {
+    this.bindAddress = bindAddress;
+  }
+
+  public int getTcpPort() {
+    return tcpPort;
+  }
+
+  public void setTcpPort(int tcpPort) {
+    this.tcpPort = tcpPort;
+  }
+
+  public int getUdpPort() {
+    return udpPort;
+  }
+
+  public void setUdpPort(int udpPort) {
+    this.udpPort = udpPort;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getMaxLineBytes() {
+    return maxLineBytes;
+  }
+
+  public void setMaxLineBytes(int maxLineBytes) {
+    this.maxLineBytes = maxLineBytes;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getLingerMs() {
+    return lingerMs;
+  }
+
+  public void setLingerMs(long lingerMs) {
+    this.lingerMs = lingerMs;
+  }
+
+  public int getWriterThreads() {
+    return writerThreads;
+  }
+
+  public void setWriterThreads(int writerThreads) {
+    this.writerThreads = writerThreads;
+  }
+
+  public int getWriterQueueCapacity() {
+    return writerQueueCapacity;
+  }
+
+  public void setWriterQueueCapacity(int writerQueueCapacity) {
+    this.writerQueueCapacity = writerQueueCapacity;
+  }
+
+  public int getWriteAttempts() {
+    return writeAttempts;
+  }
+
+  public void setWriteAttempts(int writeAttempts) {
+    this.writeAttempts = writeAttempts;
+  }
+
+  public long getWriteBackoffMs() {
+    return writeBackoffMs;
+  }
+
+  public void setWriteBackoffMs(long writeBackoffMs) {
+    this.writeBackoffMs = writeBackoffMs;
+  }
+}
@@ -0,0 +1,96 @@
+package com.iot.system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Device liveness tracking settings, bound from {@code iot.liveness} */
+@Component
+@ConfigurationProperties(prefix = "iot.liveness")
+public class LivenessProperties {
+
+  private boolean enabled = true;
+
+  private String topicName = "iot-device-status";
+
+  /** Resolution of the timing wheel; offline detection lags the deadline by at most one tick */
+  private long tickMs = 1000;
+
+  /** Number of wheel buckets, a power of two; deadlines beyond one rotation are re-bucketed */
+  private int wheelSize = 1024;
+
+  /** Expected heartbeats a device may miss before it is reported offline */
+  private int missedHeartbeats = 3;
+
+  /** Reporting interval assumed until a device's own cadence has been observed */
+  private long defaultIntervalMs = 60000;
+
+  /** Lower bound of the offline timeout, so fast reporters are not flagged on jitter */
+  private long minTimeoutMs = 5000;
+
+  /** Smoothing factor of the learned reporting interval */
+  private double intervalAlpha = 0.2;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getTopicName() {
+    return topicName;
+  }
+
+  public void setTopicName(String topicName) {
+    this.topicName = topicName;
+  }
+
+  public long getTickMs() {
+    return tickMs;
+  }
+
+  public void setTickMs(long tickMs) {
+    this.tickMs = tickMs;
+  }
+
+  public int getWheelSize() {
+    return wheelSize;
+  }
+
+  public void setWheelSize(int wheelSize) {
+    this.wheelSize = wheelSize;
+  }
+
+  public int getMissedHeartbeats() {
+    return missedHeartbeats;
+  }
+
+  public void setMissedHeartbeats(int missedHeartbeats) {
+    this.missedHeartbeats = missedHeartbeats;
+  }
+
+  public long getDefaultIntervalMs() {
+    return defaultIntervalMs;
+  }
+
+  public void setDefaultIntervalMs(long defaultIntervalMs) {
+    this.defaultIntervalMs = defaultIntervalMs;
+  }
+
+  public long getMinTimeoutMs() {
+    return minTimeoutMs;
+  }
+
+  public void setMinTimeoutMs(long minTimeoutMs) {
+    this.minTimeoutMs = minTimeoutMs;
+  }
+
+  public double getIntervalAlpha() {
+    return intervalAlpha;
+  }
+
+  public void setIntervalAlpha(double intervalAlpha) {
+    this.intervalAlpha = intervalAlpha;
+  }
+}
@@ -0,0 +1,56 @@
+package com.iot.system.config;
+
+import com.iot.system.service.QueryTimingService;
+import com.iot.system.timing.EndpointTimingInterceptor;
+import com.iot.system.timing.RepositoryTimingInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Wires {@link QueryTimingService} into the sensor API endpoints and the repositories */
+@Configuration
+@Profile("system")
+public class QueryTimingConfig implements WebMvcConfigurer {
+
+  @Autowired private QueryTimingService queryTimingService;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(new EndpointTimingInterceptor(queryTimingService))
+        .addPathPatterns("/api/sensors/**");
+  }
+
+  /**
+   * Adds {@link RepositoryTimingInterceptor} to the query methods of each repository proxy as it is
+   * created. Static and with a lazy provider, so the timing service and its dependencies are not
+   * created early.
+   */
+  @Bean
+  static BeanPostProcessor repositoryTimingPostProcessor(
+      ObjectProvider<QueryTimingService> queryTimingService) {
+    RepositoryTimingInterceptor interceptor = new RepositoryTimingInterceptor(queryTimingService);
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+          factoryBean.addRepositoryFactoryCustomizer(
+              factory ->
+                  factory.addRepositoryProxyPostProcessor(
+                      (proxyFactory, information) ->
+                          proxyFactory.addAdvisor(
+                              new DefaultPointcutAdvisor(
+                                  RepositoryTimingInterceptor.QUERY_METHODS, interceptor))));
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,89 @@
+package com.iot.system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Query timing and slow-query log settings, bound from {@code iot.query.timing} */
+@Component
+@ConfigurationProperties(prefix = "iot.query.timing")
+public class QueryTimingProperties {
+
+  private boolean enabled = true;
+
+  /** Calls at least this slow are logged with their parameters and counted as over the SLO */
+  private long slowThresholdMs = 1000;
+
+  /** Most recent slow calls kept for the slow-query endpoint */
+  private int slowLogCapacity = 100;
+
+  /** Publish histogram buckets, so percentiles can be aggregated across instances */
+  private boolean percentileHistogram = true;
+
+  /**
+   * Run EXPLAIN (ANALYZE, BUFFERS) again for sampled slow SQL queries. This executes the query a
+   * second time, in the background, so it is off by default.
+   */
+  private boolean explainEnabled = false;
+
+  /** Fraction of slow SQL queries explained while explaining is enabled */
+  private double explainSampleRate = 0.1;
+
+  /** Explains waiting to run; slow queries sampled while it is full are logged without a plan */
+  private int explainQueueCapacity = 4;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getSlowThresholdMs() {
+    return slowThresholdMs;
+  }
+
+  public void setSlowThresholdMs(long slowThresholdMs) {
+    this.slowThresholdMs = slowThresholdMs;
+  }
+
+  public int getSlowLogCapacity() {
+    return slowLogCapacity;
+  }
+
+  public void setSlowLogCapacity(int slowLogCapacity) {
+    this.slowLogCapacity = slowLogCapacity;
+  }
+
+  public boolean isPercentileHistogram() {
+    return percentileHistogram;
+  }
+
+  public void setPercentileHistogram(boolean percentileHistogram) {
+    this.percentileHistogram = percentileHistogram;
+  }
+
+  public boolean isExplainEnabled() {
+    return explainEnabled;
+  }
+
+  public void setExplainEnabled(boolean explainEnabled) {
+    this.explainEnabled = explainEnabled;
+  }
+
+  public double getExplainSampleRate() {
+    return explainSampleRate;
+  }
+
+  public void setExplainSampleRate(double explainSampleRate) {
+    this.explainSampleRate = explainSampleRate;
+  }
+
+  public int getExplainQueueCapacity() {
+    return explainQueueCapacity;
+  }
+
+  public void setExplainQueueCapacity(int explainQueueCapacity) {
+    this.explainQueueCapacity = explainQueueCapacity;
+  }
+}
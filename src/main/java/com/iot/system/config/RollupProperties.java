@@ -0,0 +1,74 @@
+package com.iot.system.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Minute rollup ingest stage settings, bound from {@code iot.rollup} */
+@Component
+@ConfigurationProperties(prefix = "iot.rollup")
+public class RollupProperties {
+
+  private boolean enabled = false;
+
+  /** How long past the end of a minute readings are still folded into it */
+  private long allowedLatenessSeconds = 10;
+
+  /** How often closed minutes are written to device_minute_rollups */
+  private long flushIntervalMs = 5000;
+
+  /** Relative accuracy of the per-minute quantile sketch */
+  private double sketchAccuracy = 0.01;
+
+  private int batchSize = 1000;
+
+  /** Most minutes kept for the next flush after a failed one; the oldest beyond it are dropped */
+  private int maxPending = 100_000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getAllowedLatenessSeconds() {
+    return allowedLatenessSeconds;
+  }
+
+  public void setAllowedLatenessSeconds(long allowedLatenessSeconds) {
+    this.allowedLatenessSeconds = allowedLatenessSeconds;
+  }
+
+  public long getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public void setFlushIntervalMs(long flushIntervalMs) {
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  public double getSketchAccuracy() {
+    return sketchAccuracy;
+  }
+
+  public void setSketchAccuracy(double sketchAccuracy) {
+    this.sketchAccuracy = sketchAccuracy;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getMaxPending() {
+    return maxPending;
+  }
+
+  public void setMaxPending(int maxPending) {
+    this.maxPending = maxPending;
+  }
+}
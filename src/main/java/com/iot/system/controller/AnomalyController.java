@@ -0,0 +1,67 @@
+package com.iot.system.controller;
+
+import com.iot.common.model.SensorAnomaly;
+import com.iot.system.dto.DeviceBaselineData;
+import com.iot.system.service.AnomalyDetectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Anomalies",
+    description = "Statistical anomalies flagged in-stream from per-device EWMA baselines")
+@RestController
+@RequestMapping("/api/anomalies")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class AnomalyController {
+
+  @Autowired private AnomalyDetectionService anomalyDetectionService;
+
+  @Operation(
+      summary = "Get recent anomalies",
+      description = "Most recent anomalies held in memory, newest first")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved anomalies"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/recent")
+  public ResponseEntity<List<SensorAnomaly>> getRecentAnomalies(
+      @Parameter(description = "Restrict to one device", example = "THERMO_001")
+          @RequestParam(required = false)
+          String deviceId,
+      @Parameter(description = "Maximum number of anomalies (1-1000)", example = "100")
+          @RequestParam(defaultValue = "100")
+          int limit) {
+
+    int boundedLimit = Math.max(1, Math.min(limit, 1000));
+    return ResponseEntity.ok(anomalyDetectionService.getRecentAnomalies(deviceId, boundedLimit));
+  }
+
+  @Operation(
+      summary = "Get device baseline",
+      description = "Current EWMA mean, standard deviation and last z-score of a device")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved baseline"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+        @ApiResponse(responseCode = "404", description = "Device has not reported since startup")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/devices/{deviceId}/baseline")
+  public ResponseEntity<DeviceBaselineData> getDeviceBaseline(@PathVariable String deviceId) {
+    DeviceBaselineData baseline = anomalyDetectionService.getDeviceBaseline(deviceId);
+    return baseline != null ? ResponseEntity.ok(baseline) : ResponseEntity.notFound().build();
+  }
+}
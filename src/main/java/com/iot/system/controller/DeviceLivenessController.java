@@ -0,0 +1,67 @@
+package com.iot.system.controller;
+
+import com.iot.system.dto.DeviceLivenessData;
+import com.iot.system.service.DeviceLivenessService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Device Liveness",
+    description = "Online/offline status of devices based on their learned reporting cadence")
+@RestController
+@RequestMapping("/api/sensors")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class DeviceLivenessController {
+
+  @Autowired private DeviceLivenessService deviceLivenessService;
+
+  @Operation(
+      summary = "Get device liveness",
+      description = "Last time a device was seen, its expected reporting interval and status")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved liveness"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+        @ApiResponse(responseCode = "404", description = "Device not found")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/{deviceId}/liveness")
+  public ResponseEntity<DeviceLivenessData> getDeviceLiveness(
+      @Parameter(description = "Device identifier", example = "THERMO_001") @PathVariable
+          String deviceId) {
+    DeviceLivenessData liveness = deviceLivenessService.getLiveness(deviceId);
+    return liveness != null ? ResponseEntity.ok(liveness) : ResponseEntity.notFound().build();
+  }
+
+  @Operation(
+      summary = "List stale devices",
+      description = "Devices that missed their expected heartbeats, most recently lost first")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/liveness/stale")
+  public ResponseEntity<List<DeviceLivenessData>> getStaleDevices(
+      @Parameter(description = "Maximum number of devices (1-10000)", example = "100")
+          @RequestParam(defaultValue = "100")
+          int limit) {
+    int boundedLimit = Math.max(1, Math.min(limit, 10_000));
+    return ResponseEntity.ok(deviceLivenessService.getStaleDevices(boundedLimit));
+  }
+
+  @Operation(summary = "Get liveness summary", description = "Known, online and offline devices")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/liveness/summary")
+  public ResponseEntity<Map<String, Object>> getLivenessSummary() {
+    return ResponseEntity.ok(deviceLivenessService.getSummary());
+  }
+}
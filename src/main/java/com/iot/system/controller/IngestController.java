@@ -0,0 +1,95 @@
+package com.iot.system.controller;
+
+import com.iot.common.model.ReadingBatch;
+import com.iot.system.ingest.HttpIngestService;
+import com.iot.system.ingest.IngestSaturatedException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Ingest", description = "Bulk reading ingest for gateways that cannot reach Kafka")
+@RestController
+@RequestMapping("/api/ingest/readings")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class IngestController {
+
+  private static final Logger logger = LoggerFactory.getLogger(IngestController.class);
+
+  public static final String NDJSON = "application/x-ndjson";
+  public static final String BATCH_JSON = "application/vnd.iot.batch+json";
+  public static final String BATCH_GORILLA = "application/vnd.iot.batch+gorilla";
+
+  @Autowired private HttpIngestService httpIngestService;
+
+  @Operation(
+      summary = "Ingest readings in bulk",
+      description =
+          "Body is NDJSON (one reading object per line, "
+              + NDJSON
+              + "), or a batch envelope as JSON ("
+              + BATCH_JSON
+              + ") or in the columnar encoding ("
+              + BATCH_GORILLA
+              + "). Readings are validated and written like Kafka ingest, in chunks as the body"
+              + " is read; on a malformed body the chunks before the error stay written")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Readings ingested"),
+        @ApiResponse(responseCode = "400", description = "Malformed or oversized body"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+        @ApiResponse(responseCode = "415", description = "Unsupported content type"),
+        @ApiResponse(responseCode = "429", description = "Ingest saturated - retry later")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @PostMapping(consumes = {NDJSON, BATCH_JSON, BATCH_GORILLA})
+  public ResponseEntity<Map<String, Object>> ingest(HttpServletRequest request) throws IOException {
+    String format = format(request.getContentType());
+    try {
+      long readings = httpIngestService.ingest(request.getInputStream(), format);
+      return ResponseEntity.ok(Map.of("status", "success", "readings", readings));
+    } catch (IngestSaturatedException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, "1")
+          .body(Map.of("status", "error", "message", e.getMessage()));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Rejected ingest request: {}", e.getMessage());
+      return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+    }
+  }
+
+  @Operation(
+      summary = "Get ingest status",
+      description = "Requests in progress, requests refused as saturated and readings ingested")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/status")
+  public ResponseEntity<Map<String, Object>> getStatus() {
+    return ResponseEntity.ok(httpIngestService.getStatus());
+  }
+
+  private static String format(String contentType) {
+    MediaType type = MediaType.parseMediaType(contentType);
+    if (type.isCompatibleWith(MediaType.parseMediaType(BATCH_JSON))) {
+      return ReadingBatch.JSON_ENCODING;
+    }
+    if (type.isCompatibleWith(MediaType.parseMediaType(BATCH_GORILLA))) {
+      return ReadingBatch.GORILLA_ENCODING;
+    }
+    return HttpIngestService.NDJSON;
+  }
+}
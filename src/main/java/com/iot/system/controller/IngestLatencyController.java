@@ -0,0 +1,51 @@
+package com.iot.system.controller;
+
+import com.iot.system.service.IngestLatencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Ingest Latency",
+    description = "Intended-send-to-persisted latency of load-test readings")
+@RestController
+@RequestMapping("/api/ingest/latency")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class IngestLatencyController {
+
+  @Autowired private IngestLatencyService ingestLatencyService;
+
+  @Operation(
+      summary = "Get ingest latency percentiles",
+      description =
+          "HDR histogram percentiles in milliseconds. 'corrected' is measured from the intended"
+              + " send time and is free of coordinated omission; 'uncorrected' from the actual"
+              + " send time")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved latency"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getLatency() {
+    return ResponseEntity.ok(ingestLatencyService.getSnapshot());
+  }
+
+  @Operation(summary = "Reset ingest latency", description = "Clears both histograms")
+  @SecurityRequirement(name = "bearer-jwt")
+  @DeleteMapping
+  public ResponseEntity<Map<String, Object>> resetLatency() {
+    ingestLatencyService.reset();
+    return ResponseEntity.ok(Map.of("status", "reset"));
+  }
+}
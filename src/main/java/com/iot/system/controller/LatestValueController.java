@@ -0,0 +1,84 @@
+package com.iot.system.controller;
+
+import com.iot.system.dto.DeviceCatalog;
+import com.iot.system.dto.LatestReadingData;
+import com.iot.system.service.LatestValueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Latest Values",
+    description = "Last-known value of every device, served from memory for fleet overviews")
+@RestController
+@RequestMapping("/api/sensors")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class LatestValueController {
+
+  @Autowired private LatestValueService latestValueService;
+
+  @Operation(
+      summary = "Get latest device reading",
+      description = "Last-known value of a device without querying a time range")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved latest reading"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+        @ApiResponse(responseCode = "404", description = "Device not found")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/{deviceId}/latest")
+  public ResponseEntity<LatestReadingData> getLatestReading(
+      @Parameter(description = "Device identifier", example = "THERMO_001") @PathVariable
+          String deviceId) {
+    LatestReadingData latest = latestValueService.getLatest(deviceId);
+    return latest != null ? ResponseEntity.ok(latest) : ResponseEntity.notFound().build();
+  }
+
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/group/{zone}/latest")
+  public ResponseEntity<List<LatestReadingData>> getZoneLatestReadings(@PathVariable String zone) {
+    return ResponseEntity.ok(latestValueService.getLatestByZone(zone));
+  }
+
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/type/{deviceType}/latest")
+  public ResponseEntity<List<LatestReadingData>> getDeviceTypeLatestReadings(
+      @PathVariable String deviceType) {
+    return ResponseEntity.ok(latestValueService.getLatestByType(deviceType));
+  }
+
+  @Operation(
+      summary = "Get device catalog",
+      description = "Number of known devices with device counts per zone and per device type")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/catalog")
+  public ResponseEntity<DeviceCatalog> getCatalog() {
+    return ResponseEntity.ok(latestValueService.getCatalog());
+  }
+
+  @Operation(
+      summary = "List known devices",
+      description = "Known devices ordered by ID, optionally filtered by zone and device type")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/catalog/devices")
+  public ResponseEntity<List<LatestReadingData>> getKnownDevices(
+      @RequestParam(required = false) String zone,
+      @RequestParam(required = false) String deviceType,
+      @Parameter(description = "Maximum number of devices (1-10000)", example = "1000")
+          @RequestParam(defaultValue = "1000")
+          int limit) {
+    int boundedLimit = Math.max(1, Math.min(limit, 10_000));
+    return ResponseEntity.ok(latestValueService.getDevices(zone, deviceType, boundedLimit));
+  }
+}
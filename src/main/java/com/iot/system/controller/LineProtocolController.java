@@ -0,0 +1,40 @@
+package com.iot.system.controller;
+
+import com.iot.system.ingest.LineProtocolServer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Line Protocol", description = "TCP/UDP line protocol listener for constrained devices")
+@RestController
+@RequestMapping("/api/ingest/line")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class LineProtocolController {
+
+  @Autowired private LineProtocolServer lineProtocolServer;
+
+  @Operation(
+      summary = "Get line protocol listener status",
+      description =
+          "Ports, connection counts, readings parsed and written, malformed lines, and per"
+              + " connection bytes, readings and malformed lines for the busiest connections")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved status"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/status")
+  public ResponseEntity<Map<String, Object>> getStatus() {
+    return ResponseEntity.ok(lineProtocolServer.getStatus());
+  }
+}
@@ -0,0 +1,78 @@
+package com.iot.system.controller;
+
+import com.iot.system.dto.LiveWindowStats;
+import com.iot.system.service.SlidingWindowStatsService;
+import com.iot.system.stream.StatsWindow;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Live Statistics",
+    description = "Near-real-time sliding window statistics computed in-stream from ingest")
+@RestController
+@RequestMapping("/api/sensors")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class LiveStatsController {
+
+  @Autowired private SlidingWindowStatsService slidingWindowStatsService;
+
+  @Operation(
+      summary = "Get live device statistics",
+      description =
+          "Count/min/max/mean/variance over the last 1m, 5m or 1h, served from memory without a"
+              + " database query")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved live statistics"),
+        @ApiResponse(responseCode = "400", description = "Unknown window (expected 1m, 5m or 1h)"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required"),
+        @ApiResponse(responseCode = "404", description = "Device has not reported since startup")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/{deviceId}/live")
+  public ResponseEntity<LiveWindowStats> getDeviceLiveStats(
+      @Parameter(description = "Device identifier", example = "THERMO_001") @PathVariable
+          String deviceId,
+      @Parameter(description = "Window length: 1m, 5m or 1h", example = "5m")
+          @RequestParam(defaultValue = "5m")
+          String window) {
+
+    StatsWindow statsWindow;
+    try {
+      statsWindow = StatsWindow.fromLabel(window);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    LiveWindowStats stats =
+        slidingWindowStatsService.getDeviceStats(deviceId, statsWindow, System.currentTimeMillis());
+    return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+  }
+
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/group/{zone}/live")
+  public ResponseEntity<LiveWindowStats> getZoneLiveStats(
+      @PathVariable String zone, @RequestParam(defaultValue = "5m") String window) {
+
+    StatsWindow statsWindow;
+    try {
+      statsWindow = StatsWindow.fromLabel(window);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    LiveWindowStats stats =
+        slidingWindowStatsService.getZoneStats(zone, statsWindow, System.currentTimeMillis());
+    return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+  }
+}
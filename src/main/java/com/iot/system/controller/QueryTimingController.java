@@ -0,0 +1,62 @@
+package com.iot.system.controller;
+
+import com.iot.system.service.QueryTimingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(
+    name = "Query Timing",
+    description = "Latency of query endpoints, repository methods and partition queries")
+@RestController
+@RequestMapping("/api/query-timing")
+@PreAuthorize("hasRole('USER')")
+@Profile("system")
+public class QueryTimingController {
+
+  @Autowired private QueryTimingService queryTimingService;
+
+  @Operation(
+      summary = "Get query latency percentiles",
+      description =
+          "p50/p99/p999 in milliseconds per layer, operation, dimension and range-length bucket,"
+              + " slowest p99 first, with the number of calls over the slow threshold")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved latency"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getSummary() {
+    return ResponseEntity.ok(queryTimingService.getSummary());
+  }
+
+  @Operation(
+      summary = "Get recent slow queries",
+      description =
+          "Calls over the slow threshold, newest first, with their parameters, row counts and, for"
+              + " sampled SQL queries with explaining enabled, the EXPLAIN ANALYZE plan")
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/slow")
+  public ResponseEntity<List<Map<String, Object>>> getSlowQueries() {
+    return ResponseEntity.ok(queryTimingService.getSlowQueries());
+  }
+
+  @Operation(summary = "Clear slow queries", description = "Empties the slow-query log")
+  @SecurityRequirement(name = "bearer-jwt")
+  @DeleteMapping("/slow")
+  public ResponseEntity<Map<String, Object>> clearSlowQueries() {
+    queryTimingService.clearSlowQueries();
+    return ResponseEntity.ok(Map.of("status", "cleared"));
+  }
+}
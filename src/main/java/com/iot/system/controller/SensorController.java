@@ -1,7 +1,9 @@
 package com.iot.system.controller;
 
 import com.iot.common.model.SensorReading;
+import com.iot.system.dto.MinuteRollupData;
 import com.iot.system.dto.SensorAggregateData;
+import com.iot.system.service.MinuteRollupService;
 import com.iot.system.service.SensorQueryService;
 import com.iot.system.service.SmartPartitionQueryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,6 +34,8 @@ public class SensorController {
 
   @Autowired private SmartPartitionQueryService smartPartitionQueryService;
 
+  @Autowired private MinuteRollupService minuteRollupService;
+
   @Operation(
       summary = "Get device sensor readings",
       description = "Retrieve raw sensor readings for a specific device within a time range")
@@ -171,4 +175,32 @@ public class SensorController {
         smartPartitionQueryService.getPartitionedZoneAggregates(zone, startTime, endTime);
     return ResponseEntity.ok(aggregates);
   }
+
+  @Operation(
+      summary = "Get device minute rollups",
+      description =
+          "Per-minute count/avg/min/max/stddev and sketch percentiles pre-aggregated at ingest")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved minute rollups"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
+      })
+  @SecurityRequirement(name = "bearer-jwt")
+  @GetMapping("/{deviceId}/rollups/minute")
+  public ResponseEntity<List<MinuteRollupData>> getDeviceMinuteRollups(
+      @Parameter(description = "Device identifier", example = "THERMO_001") @PathVariable
+          String deviceId,
+      @Parameter(description = "Start time in ISO format", example = "2025-07-18T10:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime startTime,
+      @Parameter(description = "End time in ISO format", example = "2025-07-18T11:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime endTime) {
+
+    List<MinuteRollupData> rollups =
+        minuteRollupService.getDeviceMinuteRollups(deviceId, startTime, endTime);
+    return ResponseEntity.ok(rollups);
+  }
 }
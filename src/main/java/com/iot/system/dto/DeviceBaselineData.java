@@ -0,0 +1,91 @@
+package com.iot.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class DeviceBaselineData {
+  private String deviceId;
+  private String signal;
+  private Double expected;
+  private Double stdDev;
+  private Double lastScore;
+  private long readingCount;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime lastReadingTime;
+
+  public DeviceBaselineData() {}
+
+  public DeviceBaselineData(
+      String deviceId,
+      String signal,
+      Double expected,
+      Double stdDev,
+      Double lastScore,
+      long readingCount,
+      LocalDateTime lastReadingTime) {
+    this.deviceId = deviceId;
+    this.signal = signal;
+    this.expected = expected;
+    this.stdDev = stdDev;
+    this.lastScore = lastScore;
+    this.readingCount = readingCount;
+    this.lastReadingTime = lastReadingTime;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getSignal() {
+    return signal;
+  }
+
+  public void setSignal(String signal) {
+    this.signal = signal;
+  }
+
+  public Double getExpected() {
+    return expected;
+  }
+
+  public void setExpected(Double expected) {
+    this.expected = expected;
+  }
+
+  public Double getStdDev() {
+    return stdDev;
+  }
+
+  public void setStdDev(Double stdDev) {
+    this.stdDev = stdDev;
+  }
+
+  public Double getLastScore() {
+    return lastScore;
+  }
+
+  public void setLastScore(Double lastScore) {
+    this.lastScore = lastScore;
+  }
+
+  public long getReadingCount() {
+    return readingCount;
+  }
+
+  public void setReadingCount(long readingCount) {
+    this.readingCount = readingCount;
+  }
+
+  public LocalDateTime getLastReadingTime() {
+    return lastReadingTime;
+  }
+
+  public void setLastReadingTime(LocalDateTime lastReadingTime) {
+    this.lastReadingTime = lastReadingTime;
+  }
+}
@@ -0,0 +1,42 @@
+package com.iot.system.dto;
+
+import java.util.Map;
+
+public class DeviceCatalog {
+  private int deviceCount;
+  private Map<String, Integer> zones;
+  private Map<String, Integer> deviceTypes;
+
+  public DeviceCatalog() {}
+
+  public DeviceCatalog(
+      int deviceCount, Map<String, Integer> zones, Map<String, Integer> deviceTypes) {
+    this.deviceCount = deviceCount;
+    this.zones = zones;
+    this.deviceTypes = deviceTypes;
+  }
+
+  public int getDeviceCount() {
+    return deviceCount;
+  }
+
+  public void setDeviceCount(int deviceCount) {
+    this.deviceCount = deviceCount;
+  }
+
+  public Map<String, Integer> getZones() {
+    return zones;
+  }
+
+  public void setZones(Map<String, Integer> zones) {
+    this.zones = zones;
+  }
+
+  public Map<String, Integer> getDeviceTypes() {
+    return deviceTypes;
+  }
+
+  public void setDeviceTypes(Map<String, Integer> deviceTypes) {
+    this.deviceTypes = deviceTypes;
+  }
+}
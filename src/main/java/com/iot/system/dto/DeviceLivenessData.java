@@ -0,0 +1,69 @@
+package com.iot.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class DeviceLivenessData {
+  private String deviceId;
+  private String status;
+  private long expectedIntervalMs;
+  private long silentForMs;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime lastSeen;
+
+  public DeviceLivenessData() {}
+
+  public DeviceLivenessData(
+      String deviceId,
+      String status,
+      long expectedIntervalMs,
+      long silentForMs,
+      LocalDateTime lastSeen) {
+    this.deviceId = deviceId;
+    this.status = status;
+    this.expectedIntervalMs = expectedIntervalMs;
+    this.silentForMs = silentForMs;
+    this.lastSeen = lastSeen;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public long getExpectedIntervalMs() {
+    return expectedIntervalMs;
+  }
+
+  public void setExpectedIntervalMs(long expectedIntervalMs) {
+    this.expectedIntervalMs = expectedIntervalMs;
+  }
+
+  public long getSilentForMs() {
+    return silentForMs;
+  }
+
+  public void setSilentForMs(long silentForMs) {
+    this.silentForMs = silentForMs;
+  }
+
+  public LocalDateTime getLastSeen() {
+    return lastSeen;
+  }
+
+  public void setLastSeen(LocalDateTime lastSeen) {
+    this.lastSeen = lastSeen;
+  }
+}
@@ -0,0 +1,65 @@
+package com.iot.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class LatestReadingData {
+  private String deviceId;
+  private String deviceType;
+  private String zone;
+  private Double value;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+  private LocalDateTime timestamp;
+
+  public LatestReadingData() {}
+
+  public LatestReadingData(
+      String deviceId, String deviceType, String zone, Double value, LocalDateTime timestamp) {
+    this.deviceId = deviceId;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.value = value;
+    this.timestamp = timestamp;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public void setDeviceType(String deviceType) {
+    this.deviceType = deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public void setZone(String zone) {
+    this.zone = zone;
+  }
+
+  public Double getValue() {
+    return value;
+  }
+
+  public void setValue(Double value) {
+    this.value = value;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public void setTimestamp(LocalDateTime timestamp) {
+    this.timestamp = timestamp;
+  }
+}
@@ -0,0 +1,139 @@
+package com.iot.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class LiveWindowStats {
+  private String deviceId;
+  private String zone;
+  private String window;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowStart;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime windowEnd;
+
+  private Double average;
+  private Double minimum;
+  private Double maximum;
+  private Double variance;
+  private Double stdDev;
+
+  private long dataPointCount;
+
+  public LiveWindowStats() {}
+
+  public LiveWindowStats(
+      String deviceId,
+      String zone,
+      String window,
+      LocalDateTime windowStart,
+      LocalDateTime windowEnd,
+      Double average,
+      Double minimum,
+      Double maximum,
+      Double variance,
+      Double stdDev,
+      long dataPointCount) {
+    this.deviceId = deviceId;
+    this.zone = zone;
+    this.window = window;
+    this.windowStart = windowStart;
+    this.windowEnd = windowEnd;
+    this.average = average;
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.variance = variance;
+    this.stdDev = stdDev;
+    this.dataPointCount = dataPointCount;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public void setZone(String zone) {
+    this.zone = zone;
+  }
+
+  public String getWindow() {
+    return window;
+  }
+
+  public void setWindow(String window) {
+    this.window = window;
+  }
+
+  public LocalDateTime getWindowStart() {
+    return windowStart;
+  }
+
+  public void setWindowStart(LocalDateTime windowStart) {
+    this.windowStart = windowStart;
+  }
+
+  public LocalDateTime getWindowEnd() {
+    return windowEnd;
+  }
+
+  public void setWindowEnd(LocalDateTime windowEnd) {
+    this.windowEnd = windowEnd;
+  }
+
+  public Double getAverage() {
+    return average;
+  }
+
+  public void setAverage(Double average) {
+    this.average = average;
+  }
+
+  public Double getMinimum() {
+    return minimum;
+  }
+
+  public void setMinimum(Double minimum) {
+    this.minimum = minimum;
+  }
+
+  public Double getMaximum() {
+    return maximum;
+  }
+
+  public void setMaximum(Double maximum) {
+    this.maximum = maximum;
+  }
+
+  public Double getVariance() {
+    return variance;
+  }
+
+  public void setVariance(Double variance) {
+    this.variance = variance;
+  }
+
+  public Double getStdDev() {
+    return stdDev;
+  }
+
+  public void setStdDev(Double stdDev) {
+    this.stdDev = stdDev;
+  }
+
+  public long getDataPointCount() {
+    return dataPointCount;
+  }
+
+  public void setDataPointCount(long dataPointCount) {
+    this.dataPointCount = dataPointCount;
+  }
+}
@@ -0,0 +1,114 @@
+package com.iot.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDateTime;
+
+public class MinuteRollupData {
+  private String deviceId;
+
+  @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+  private LocalDateTime bucket;
+
+  private Double average;
+  private Double minimum;
+  private Double maximum;
+  private Double stdDev;
+  private Double median;
+  private Double p95;
+  private Integer dataPointCount;
+
+  public MinuteRollupData() {}
+
+  public MinuteRollupData(
+      String deviceId,
+      LocalDateTime bucket,
+      Double average,
+      Double minimum,
+      Double maximum,
+      Double stdDev,
+      Double median,
+      Double p95,
+      Integer dataPointCount) {
+    this.deviceId = deviceId;
+    this.bucket = bucket;
+    this.average = average;
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.stdDev = stdDev;
+    this.median = median;
+    this.p95 = p95;
+    this.dataPointCount = dataPointCount;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public void setDeviceId(String deviceId) {
+    this.deviceId = deviceId;
+  }
+
+  public LocalDateTime getBucket() {
+    return bucket;
+  }
+
+  public void setBucket(LocalDateTime bucket) {
+    this.bucket = bucket;
+  }
+
+  public Double getAverage() {
+    return average;
+  }
+
+  public void setAverage(Double average) {
+    this.average = average;
+  }
+
+  public Double getMinimum() {
+    return minimum;
+  }
+
+  public void setMinimum(Double minimum) {
+    this.minimum = minimum;
+  }
+
+  public Double getMaximum() {
+    return maximum;
+  }
+
+  public void setMaximum(Double maximum) {
+    this.maximum = maximum;
+  }
+
+  public Double getStdDev() {
+    return stdDev;
+  }
+
+  public void setStdDev(Double stdDev) {
+    this.stdDev = stdDev;
+  }
+
+  public Double getMedian() {
+    return median;
+  }
+
+  public void setMedian(Double median) {
+    this.median = median;
+  }
+
+  public Double getP95() {
+    return p95;
+  }
+
+  public void setP95(Double p95) {
+    this.p95 = p95;
+  }
+
+  public Integer getDataPointCount() {
+    return dataPointCount;
+  }
+
+  public void setDataPointCount(Integer dataPointCount) {
+    this.dataPointCount = dataPointCount;
+  }
+}
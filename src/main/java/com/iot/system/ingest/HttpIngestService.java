@@ -0,0 +1,143 @@
+package com.iot.system.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.IngestProperties;
+import com.iot.system.service.SensorDataProcessingService;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk ingest for gateways that cannot reach Kafka. Request bodies are parsed as a stream and
+ * handed to {@link SensorDataProcessingService} in chunks of {@code chunk-size} readings, so they
+ * go through the same validation, bulk write and in-stream stages as Kafka ingest and an NDJSON
+ * body of any length needs only one chunk of memory. At most {@code max-concurrent-requests}
+ * requests are ingested at once; beyond that requests are refused immediately rather than queued,
+ * so a flood of gateways cannot pile up threads and connections behind the database.
+ */
+@Service
+public class HttpIngestService {
+
+  /** One {@link SensorReading} JSON object per line */
+  public static final String NDJSON = "ndjson";
+
+  @Autowired private SensorDataProcessingService processingService;
+
+  @Autowired private ReadingBatchDecoder readingBatchDecoder;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private IngestProperties ingestProperties;
+
+  private Semaphore permits;
+  private ObjectReader readingReader;
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong refused = new AtomicLong();
+  private final AtomicLong readings = new AtomicLong();
+
+  @PostConstruct
+  public void initialize() {
+    permits = new Semaphore(ingestProperties.getMaxConcurrentRequests());
+    readingReader = objectMapper.readerFor(SensorReading.class);
+  }
+
+  /**
+   * Ingest a request body in the given format: {@link #NDJSON} or a batch encoding of {@link
+   * ReadingBatchDecoder}. Chunks already written stay written if the body turns out malformed
+   * part-way.
+   *
+   * @return the number of readings handed to the pipeline
+   * @throws IngestSaturatedException if every ingest slot is taken
+   * @throws IllegalArgumentException if the format is unknown or the body malformed or too large
+   */
+  public long ingest(InputStream body, String format) throws IOException {
+    if (!permits.tryAcquire()) {
+      refused.incrementAndGet();
+      throw new IngestSaturatedException(ingestProperties.getMaxConcurrentRequests());
+    }
+    try {
+      requests.incrementAndGet();
+      long count = NDJSON.equals(format) ? ingestLines(body) : ingestBatch(body, format);
+      readings.addAndGet(count);
+      return count;
+    } finally {
+      permits.release();
+    }
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("maxConcurrentRequests", ingestProperties.getMaxConcurrentRequests());
+    status.put(
+        "inProgress", ingestProperties.getMaxConcurrentRequests() - permits.availablePermits());
+    status.put("requests", requests.get());
+    status.put("refused", refused.get());
+    status.put("readings", readings.get());
+    return status;
+  }
+
+  private long ingestLines(InputStream body) throws IOException {
+    int chunkSize = ingestProperties.getChunkSize();
+    List<SensorReading> chunk = new ArrayList<>(chunkSize);
+    long count = 0;
+    try (MappingIterator<SensorReading> lines = readingReader.readValues(body)) {
+      while (lines.hasNextValue()) {
+        chunk.add(lines.nextValue());
+        if (chunk.size() == chunkSize) {
+          count += flush(chunk);
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(
+          "Malformed NDJSON after "
+              + (count + chunk.size())
+              + " readings: "
+              + e.getOriginalMessage(),
+          e);
+    }
+    return count + flush(chunk);
+  }
+
+  private long ingestBatch(InputStream body, String encoding) throws IOException {
+    byte[] envelope = body.readNBytes(ingestProperties.getMaxBatchBytes() + 1);
+    if (envelope.length > ingestProperties.getMaxBatchBytes()) {
+      throw new IllegalArgumentException(
+          "Batch exceeds "
+              + ingestProperties.getMaxBatchBytes()
+              + " bytes; split it or use NDJSON");
+    }
+    List<SensorReading> batch;
+    try {
+      batch = readingBatchDecoder.decode(envelope, encoding);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed " + encoding + " batch: " + e.getMessage(), e);
+    }
+    int chunkSize = ingestProperties.getChunkSize();
+    for (int from = 0; from < batch.size(); from += chunkSize) {
+      processingService.processSensorReadingBatch(
+          batch.subList(from, Math.min(batch.size(), from + chunkSize)));
+    }
+    return batch.size();
+  }
+
+  private int flush(List<SensorReading> chunk) {
+    int size = chunk.size();
+    if (size > 0) {
+      processingService.processSensorReadingBatch(chunk);
+      chunk.clear();
+    }
+    return size;
+  }
+}
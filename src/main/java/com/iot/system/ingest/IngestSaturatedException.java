@@ -0,0 +1,9 @@
+package com.iot.system.ingest;
+
+/** Thrown when every HTTP ingest slot is taken; the client should retry later */
+public class IngestSaturatedException extends RuntimeException {
+
+  public IngestSaturatedException(int maxConcurrentRequests) {
+    super("Ingest is saturated: " + maxConcurrentRequests + " requests already in progress");
+  }
+}
@@ -0,0 +1,253 @@
+package com.iot.system.ingest;
+
+import com.iot.common.model.SensorReading;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+/**
+ * Parses the line protocol straight out of a {@link ByteBuffer}, one reading per line:
+ *
+ * <pre>
+ * deviceId,zone,deviceType value [timestamp]
+ * THERMO-0001,kitchen,THERMOSTAT 21.5 1704067200000
+ * </pre>
+ *
+ * with the timestamp in epoch milliseconds UTC, or the time of arrival if omitted. Blank lines and
+ * lines starting with {@code #} are skipped; {@code \r\n} line ends are accepted.
+ *
+ * <p>Fields are read in place with absolute gets, without copying lines out of the buffer. Plain
+ * decimals are converted without going through a string, and device IDs, zones and types are looked
+ * up in a small cache by their bytes, so a device reporting again reuses the same strings and a
+ * reading costs little more than the entity itself.
+ *
+ * <p>Not thread-safe: each I/O thread keeps its own parser.
+ */
+public final class LineProtocolParser {
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private static final int CACHE_SIZE = 8192;
+
+  private final int maxLineBytes;
+  private final byte[][] cachedBytes = new byte[CACHE_SIZE][];
+  private final String[] cachedStrings = new String[CACHE_SIZE];
+
+  public LineProtocolParser(int maxLineBytes) {
+    this.maxLineBytes = maxLineBytes;
+  }
+
+  /** Outcome of one {@link #parse} call */
+  public static final class Result {
+    private int readings;
+    private int malformed;
+    private boolean discarding;
+
+    public int readings() {
+      return readings;
+    }
+
+    public int malformed() {
+      return malformed;
+    }
+
+    /** Whether the input ended inside a dropped over-long line; pass it to the next call */
+    public boolean discarding() {
+      return discarding;
+    }
+  }
+
+  /**
+   * Parse the complete lines between the buffer's position and limit, leaving the position at the
+   * start of a trailing partial line. With {@code endOfInput}, as for a datagram, a trailing line
+   * without a line end is parsed too. A partial line longer than the maximum line length is dropped
+   * as malformed, so a peer that never sends a line end cannot fill the buffer.
+   */
+  public Result parse(ByteBuffer buffer, boolean endOfInput, Consumer<SensorReading> sink) {
+    return parse(buffer, endOfInput, false, sink);
+  }
+
+  /**
+   * Parse a stream continuing from an earlier call, skipping everything up to the first line end if
+   * {@code discarding}: the rest of an over-long line that call dropped is neither a reading nor
+   * another malformed line.
+   */
+  public Result parse(
+      ByteBuffer buffer, boolean endOfInput, boolean discarding, Consumer<SensorReading> sink) {
+    Result result = new Result();
+    int limit = buffer.limit();
+    int start = buffer.position();
+    for (int i = start; i < limit; i++) {
+      if (buffer.get(i) == '\n') {
+        if (discarding) {
+          discarding = false;
+        } else {
+          parseLine(buffer, start, i, sink, result);
+        }
+        start = i + 1;
+      }
+    }
+    if (start < limit && (discarding || endOfInput || limit - start > maxLineBytes)) {
+      if (!discarding && endOfInput) {
+        parseLine(buffer, start, limit, sink, result);
+      } else if (!discarding) {
+        result.malformed++;
+        discarding = true;
+      }
+      start = limit;
+    }
+    buffer.position(start);
+    result.discarding = discarding && !endOfInput;
+    return result;
+  }
+
+  private void parseLine(
+      ByteBuffer buffer, int start, int end, Consumer<SensorReading> sink, Result result) {
+    if (end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+    if (end == start || buffer.get(start) == '#') {
+      return;
+    }
+    if (end - start > maxLineBytes) {
+      result.malformed++;
+      return;
+    }
+    int firstComma = indexOf(buffer, start, end, (byte) ',');
+    int secondComma = firstComma < 0 ? -1 : indexOf(buffer, firstComma + 1, end, (byte) ',');
+    int firstSpace = secondComma < 0 ? -1 : indexOf(buffer, secondComma + 1, end, (byte) ' ');
+    // Device ID, zone and type must all be non-empty
+    if (firstComma <= start || secondComma <= firstComma + 1 || firstSpace <= secondComma + 1) {
+      result.malformed++;
+      return;
+    }
+    int secondSpace = indexOf(buffer, firstSpace + 1, end, (byte) ' ');
+    try {
+      double value = parseDouble(buffer, firstSpace + 1, secondSpace < 0 ? end : secondSpace);
+      long timestampMillis =
+          secondSpace < 0 ? System.currentTimeMillis() : parseLong(buffer, secondSpace + 1, end);
+      sink.accept(
+          new SensorReading(
+              string(buffer, start, firstComma),
+              string(buffer, secondComma + 1, firstSpace),
+              string(buffer, firstComma + 1, secondComma),
+              value,
+              LocalDateTime.ofEpochSecond(
+                  Math.floorDiv(timestampMillis, 1000),
+                  (int) Math.floorMod(timestampMillis, 1000) * 1_000_000,
+                  ZoneOffset.UTC)));
+      result.readings++;
+    } catch (RuntimeException e) {
+      result.malformed++;
+    }
+  }
+
+  private static int indexOf(ByteBuffer buffer, int from, int to, byte b) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Cached string of the bytes, replacing the cache entry on a miss */
+  private String string(ByteBuffer buffer, int from, int to) {
+    int hash = 0x811C9DC5;
+    for (int i = from; i < to; i++) {
+      hash = (hash ^ buffer.get(i)) * 0x01000193;
+    }
+    int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    byte[] cached = cachedBytes[slot];
+    if (cached != null && cached.length == to - from) {
+      boolean same = true;
+      for (int i = 0; i < cached.length && same; i++) {
+        same = cached[i] == buffer.get(from + i);
+      }
+      if (same) {
+        return cachedStrings[slot];
+      }
+    }
+    byte[] bytes = new byte[to - from];
+    buffer.get(from, bytes);
+    String text = new String(bytes, StandardCharsets.UTF_8);
+    cachedBytes[slot] = bytes;
+    cachedStrings[slot] = text;
+    return text;
+  }
+
+  /**
+   * Plain decimals of up to 15 significant digits are exact as a quotient of two exactly
+   * representable doubles; anything else (exponents, NaN, long mantissas) goes through {@link
+   * Double#parseDouble}
+   */
+  static double parseDouble(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int significant = 0;
+    int scale = 0;
+    boolean point = false;
+    boolean digits = false;
+    for (; i < to; i++) {
+      byte c = buffer.get(i);
+      if (c >= '0' && c <= '9') {
+        digits = true;
+        mantissa = mantissa * 10 + (c - '0');
+        if (mantissa != 0) {
+          significant++;
+        }
+        if (point) {
+          scale++;
+        }
+        if (significant > 15 || scale >= POWERS_OF_TEN.length) {
+          return slowParseDouble(buffer, from, to);
+        }
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        return slowParseDouble(buffer, from, to);
+      }
+    }
+    if (!digits) {
+      throw new NumberFormatException("No digits in value");
+    }
+    double value = mantissa / POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+  private static double slowParseDouble(ByteBuffer buffer, int from, int to) {
+    byte[] bytes = new byte[to - from];
+    buffer.get(from, bytes);
+    return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+  }
+
+  static long parseLong(ByteBuffer buffer, int from, int to) {
+    int i = from;
+    boolean negative = i < to && buffer.get(i) == '-';
+    if (negative) {
+      i++;
+    }
+    if (i == to || to - i > 18) {
+      throw new NumberFormatException("Timestamp must have 1 to 18 digits");
+    }
+    long value = 0;
+    for (; i < to; i++) {
+      byte c = buffer.get(i);
+      if (c < '0' || c > '9') {
+        throw new NumberFormatException("Invalid timestamp digit");
+      }
+      value = value * 10 + (c - '0');
+    }
+    return negative ? -value : value;
+  }
+}
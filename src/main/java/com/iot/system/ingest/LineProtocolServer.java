@@ -0,0 +1,409 @@
+package com.iot.system.ingest;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.LineProtocolProperties;
+import com.iot.system.service.SensorDataProcessingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Non-blocking TCP and UDP listener for the {@link LineProtocolParser line protocol}, for devices
+ * too constrained for Kafka or HTTP. One I/O thread multiplexes every connection and the datagram
+ * socket on a selector, reads into a direct buffer per connection and parses lines in place.
+ * Readings are collected into batches of {@code batch-size}, or whatever arrived within {@code
+ * linger-ms}, and handed to writer threads that feed {@link SensorDataProcessingService}, the same
+ * validation and bulk write as Kafka ingest. A batch that fails to write is tried up to {@code
+ * write-attempts} times with a doubling backoff, like the Kafka retry topics, before it is dropped
+ * and counted as failed.
+ *
+ * <p>When every writer is busy and the queue is full the I/O thread writes the batch itself, which
+ * stops it reading: TCP senders are slowed down by their socket buffers filling up, and datagrams
+ * beyond the socket's receive buffer are dropped, as UDP allows. Connections beyond {@code
+ * max-connections} are closed on accept. Bytes, readings and malformed lines are counted per
+ * connection.
+ */
+@Service
+public class LineProtocolServer {
+
+  private static final Logger logger = LoggerFactory.getLogger(LineProtocolServer.class);
+
+  /** Reads per connection per wakeup, so one busy connection cannot starve the others */
+  private static final int READS_PER_WAKEUP = 16;
+
+  private static final int MAX_DATAGRAM_BYTES = 65_507;
+
+  /** Connections listed in the status, busiest first */
+  private static final int STATUS_CONNECTIONS = 100;
+
+  @Autowired private SensorDataProcessingService processingService;
+
+  @Autowired private LineProtocolProperties properties;
+
+  private final Map<Long, Connection> connections = new ConcurrentHashMap<>();
+  private final AtomicLong acceptedConnections = new AtomicLong();
+  private final AtomicLong refusedConnections = new AtomicLong();
+  private final AtomicLong parsed = new AtomicLong();
+  private final AtomicLong malformed = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private final AtomicLong failedBatches = new AtomicLong();
+
+  private Selector selector;
+  private ServerSocketChannel tcpChannel;
+  private DatagramChannel udpChannel;
+  private Connection datagrams;
+  private ByteBuffer datagramBuffer;
+  private ThreadPoolExecutor writers;
+  private Thread ioThread;
+  private LineProtocolParser parser;
+  private List<SensorReading> batch;
+  private long batchStartMillis;
+  private long nextConnectionId;
+  private volatile boolean running;
+
+  @PostConstruct
+  public void initialize() throws IOException {
+    if (properties.isEnabled()) {
+      start();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    stop();
+  }
+
+  public synchronized void start() throws IOException {
+    if (running) {
+      return;
+    }
+    parser = new LineProtocolParser(properties.getMaxLineBytes());
+    batch = new ArrayList<>(properties.getBatchSize());
+    writers =
+        new ThreadPoolExecutor(
+            properties.getWriterThreads(),
+            properties.getWriterThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getWriterQueueCapacity()),
+            runnable -> new Thread(runnable, "line-protocol-writer"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    selector = Selector.open();
+    if (properties.getTcpPort() >= 0) {
+      tcpChannel = ServerSocketChannel.open();
+      tcpChannel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getTcpPort()));
+      tcpChannel.configureBlocking(false);
+      tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+    if (properties.getUdpPort() >= 0) {
+      udpChannel = DatagramChannel.open();
+      udpChannel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getUdpPort()));
+      udpChannel.configureBlocking(false);
+      udpChannel.register(selector, SelectionKey.OP_READ);
+      datagramBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES);
+      datagrams = new Connection(0, "udp", 0);
+    }
+
+    running = true;
+    ioThread = new Thread(this::run, "line-protocol-io");
+    ioThread.setDaemon(true);
+    ioThread.start();
+    logger.info("Line protocol listening on TCP port {}, UDP port {}", getTcpPort(), getUdpPort());
+  }
+
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    selector.wakeup();
+    try {
+      ioThread.join(TimeUnit.SECONDS.toMillis(10));
+      writers.shutdown();
+      writers.awaitTermination(30, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    logger.info("Line protocol listener stopped after {} readings", parsed.get());
+  }
+
+  /** Bound TCP port, or -1 if not listening */
+  public int getTcpPort() {
+    return tcpChannel == null ? -1 : tcpChannel.socket().getLocalPort();
+  }
+
+  /** Bound UDP port, or -1 if not listening */
+  public int getUdpPort() {
+    return udpChannel == null ? -1 : udpChannel.socket().getLocalPort();
+  }
+
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("running", running);
+    status.put("tcpPort", getTcpPort());
+    status.put("udpPort", getUdpPort());
+    status.put("openConnections", connections.size());
+    status.put("maxConnections", properties.getMaxConnections());
+    status.put("acceptedConnections", acceptedConnections.get());
+    status.put("refusedConnections", refusedConnections.get());
+    status.put("readings", parsed.get());
+    status.put("malformed", malformed.get());
+    status.put("written", written.get());
+    status.put("failedBatches", failedBatches.get());
+    status.put("queuedBatches", writers == null ? 0 : writers.getQueue().size());
+    if (datagrams != null) {
+      status.put("udp", datagrams.snapshot());
+    }
+    status.put(
+        "connections",
+        connections.values().stream()
+            .sorted(Comparator.comparingLong((Connection c) -> c.readings).reversed())
+            .limit(STATUS_CONNECTIONS)
+            .map(Connection::snapshot)
+            .toList());
+    return status;
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        selector.select(Math.max(1, properties.getLingerMs()));
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          handle(key);
+        }
+        if (!batch.isEmpty()
+            && System.currentTimeMillis() - batchStartMillis >= properties.getLingerMs()) {
+          flush();
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      logger.error("Line protocol listener failed: {}", e.getMessage(), e);
+    } finally {
+      flush();
+      for (SelectionKey key : new ArrayList<>(selector.keys())) {
+        close(key);
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        logger.debug("Error closing selector: {}", e.getMessage());
+      }
+      running = false;
+    }
+  }
+
+  private void handle(SelectionKey key) {
+    try {
+      if (!key.isValid()) {
+        return;
+      }
+      if (key.isAcceptable()) {
+        accept();
+      } else if (key.isReadable() && key.channel() == udpChannel) {
+        receive();
+      } else if (key.isReadable()) {
+        read(key);
+      }
+    } catch (IOException e) {
+      logger.debug("Closing line protocol connection: {}", e.getMessage());
+      close(key);
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel;
+    while ((channel = tcpChannel.accept()) != null) {
+      if (connections.size() >= properties.getMaxConnections()) {
+        refusedConnections.incrementAndGet();
+        channel.close();
+        continue;
+      }
+      acceptedConnections.incrementAndGet();
+      channel.configureBlocking(false);
+      Connection connection =
+          new Connection(
+              ++nextConnectionId,
+              String.valueOf(channel.getRemoteAddress()),
+              Math.max(64 * 1024, properties.getMaxLineBytes() * 2));
+      connections.put(connection.id, connection);
+      channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+  }
+
+  private void read(SelectionKey key) throws IOException {
+    SocketChannel channel = (SocketChannel) key.channel();
+    Connection connection = (Connection) key.attachment();
+    for (int i = 0; i < READS_PER_WAKEUP; i++) {
+      int bytes = channel.read(connection.buffer);
+      if (bytes == 0) {
+        return;
+      }
+      boolean endOfInput = bytes < 0;
+      if (!endOfInput) {
+        connection.bytes += bytes;
+      }
+      connection.buffer.flip();
+      LineProtocolParser.Result result =
+          parser.parse(connection.buffer, endOfInput, connection.discarding, this::add);
+      connection.discarding = result.discarding();
+      count(connection, result);
+      connection.buffer.compact();
+      if (endOfInput) {
+        close(key);
+        return;
+      }
+    }
+  }
+
+  private void receive() throws IOException {
+    for (int i = 0; i < READS_PER_WAKEUP; i++) {
+      datagramBuffer.clear();
+      SocketAddress sender = udpChannel.receive(datagramBuffer);
+      if (sender == null) {
+        return;
+      }
+      datagramBuffer.flip();
+      datagrams.bytes += datagramBuffer.remaining();
+      count(datagrams, parser.parse(datagramBuffer, true, this::add));
+    }
+  }
+
+  private void count(Connection connection, LineProtocolParser.Result result) {
+    if (result.readings() > 0) {
+      connection.readings += result.readings();
+      connection.lastReadingMillis = System.currentTimeMillis();
+      parsed.addAndGet(result.readings());
+    }
+    if (result.malformed() > 0) {
+      connection.malformed += result.malformed();
+      malformed.addAndGet(result.malformed());
+    }
+  }
+
+  private void add(SensorReading reading) {
+    if (batch.isEmpty()) {
+      batchStartMillis = System.currentTimeMillis();
+    }
+    batch.add(reading);
+    if (batch.size() >= properties.getBatchSize()) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    List<SensorReading> readings = batch;
+    batch = new ArrayList<>(properties.getBatchSize());
+    writers.execute(() -> write(readings));
+  }
+
+  private void write(List<SensorReading> readings) {
+    int attempts = Math.max(1, properties.getWriteAttempts());
+    for (int attempt = 1; ; attempt++) {
+      try {
+        processingService.processSensorReadingBatch(readings);
+        written.addAndGet(readings.size());
+        return;
+      } catch (Exception e) {
+        if (attempt >= attempts) {
+          failedBatches.incrementAndGet();
+          logger.error(
+              "Failed to write {} line protocol readings after {} attempts: {}",
+              readings.size(),
+              attempts,
+              e.getMessage());
+          return;
+        }
+        logger.warn(
+            "Failed to write {} line protocol readings, attempt {} of {}: {}",
+            readings.size(),
+            attempt,
+            attempts,
+            e.getMessage());
+      }
+      try {
+        Thread.sleep(properties.getWriteBackoffMs() << (attempt - 1));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failedBatches.incrementAndGet();
+        logger.error("Interrupted retrying {} line protocol readings", readings.size());
+        return;
+      }
+    }
+  }
+
+  private void close(SelectionKey key) {
+    if (key.attachment() instanceof Connection connection) {
+      connections.remove(connection.id);
+    }
+    key.cancel();
+    try {
+      key.channel().close();
+    } catch (IOException e) {
+      logger.debug("Error closing channel: {}", e.getMessage());
+    }
+  }
+
+  /** A TCP connection, or all datagrams; counters are written by the I/O thread only */
+  private static final class Connection {
+    private final long id;
+    private final String remote;
+    private final long connectedAtMillis = System.currentTimeMillis();
+    private final ByteBuffer buffer;
+
+    /** Inside an over-long line that was dropped, until its line end */
+    private boolean discarding;
+
+    private volatile long bytes;
+    private volatile long readings;
+    private volatile long malformed;
+    private volatile long lastReadingMillis;
+
+    private Connection(long id, String remote, int bufferBytes) {
+      this.id = id;
+      this.remote = remote;
+      this.buffer = bufferBytes > 0 ? ByteBuffer.allocateDirect(bufferBytes) : null;
+    }
+
+    private Map<String, Object> snapshot() {
+      Map<String, Object> snapshot = new LinkedHashMap<>();
+      snapshot.put("id", id);
+      snapshot.put("remote", remote);
+      snapshot.put("connectedAtMillis", connectedAtMillis);
+      snapshot.put("bytes", bytes);
+      snapshot.put("readings", readings);
+      snapshot.put("malformed", malformed);
+      snapshot.put("lastReadingMillis", lastReadingMillis);
+      return snapshot;
+    }
+  }
+}
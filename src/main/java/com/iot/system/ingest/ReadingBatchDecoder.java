@@ -0,0 +1,32 @@
+package com.iot.system.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.codec.GorillaBatchReader;
+import com.iot.common.model.ReadingBatch;
+import com.iot.common.model.ReadingHeaders;
+import com.iot.common.model.SensorReading;
+import java.io.IOException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Unpacks batch envelopes into individual readings for the ingest pipeline, by the encoding named
+ * in their {@link ReadingHeaders#BATCH_ENCODING} header: JSON, or the columnar encoding read by
+ * {@link GorillaBatchReader}. Envelopes without the header are taken to be JSON.
+ */
+@Component
+public class ReadingBatchDecoder {
+
+  @Autowired private ObjectMapper objectMapper;
+
+  public List<SensorReading> decode(byte[] envelope, String encoding) throws IOException {
+    if (encoding == null || ReadingBatch.JSON_ENCODING.equals(encoding)) {
+      return objectMapper.readValue(envelope, ReadingBatch.class).toReadings();
+    }
+    if (ReadingBatch.GORILLA_ENCODING.equals(encoding)) {
+      return GorillaBatchReader.decode(envelope).toReadings();
+    }
+    throw new IllegalArgumentException("Unsupported batch encoding: " + encoding);
+  }
+}
@@ -0,0 +1,112 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorAlert;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.AlertProperties;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.alert.AlertOperator;
+import com.iot.system.stream.alert.AlertRule;
+import com.iot.system.stream.alert.AlertRuleEngine;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/** Ingest stage evaluating threshold rules on live readings and publishing alerts to Kafka */
+@Service
+public class AlertingService implements ReadingStage {
+
+  private static final Logger log = LoggerFactory.getLogger(AlertingService.class);
+
+  @Autowired private AlertProperties alertProperties;
+
+  @Autowired private KafkaTemplate<String, Object> kafkaTemplate;
+
+  private AlertRuleEngine engine;
+
+  @PostConstruct
+  public void compileRules() {
+    List<AlertRule> rules = new ArrayList<>();
+    for (AlertProperties.Rule rule : alertProperties.getRules()) {
+      rules.add(compile(rules.size(), rule));
+    }
+    engine = new AlertRuleEngine(rules);
+    log.info(
+        "Compiled {} alert rules, publishing to {}", rules.size(), alertProperties.getTopicName());
+  }
+
+  /** Validate a configured rule, failing startup with the rule's ID rather than a bare NPE */
+  private static AlertRule compile(int index, AlertProperties.Rule rule) {
+    String id = rule.getId();
+    if (id == null || id.isBlank()) {
+      throw new IllegalArgumentException("Alert rule " + (index + 1) + " has no id");
+    }
+    if (rule.getDeviceType() == null || rule.getDeviceType().isBlank()) {
+      throw new IllegalArgumentException("Alert rule " + id + " has no device-type");
+    }
+    if (rule.getOperator() == null) {
+      throw new IllegalArgumentException("Alert rule " + id + " has no operator");
+    }
+    AlertOperator operator;
+    try {
+      operator = AlertOperator.valueOf(rule.getOperator().trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Alert rule "
+              + id
+              + " has unknown operator "
+              + rule.getOperator()
+              + "; expected one of "
+              + Arrays.toString(AlertOperator.values()));
+    }
+    if (rule.getThreshold() == null || rule.getThreshold().isNaN()) {
+      throw new IllegalArgumentException("Alert rule " + id + " has no threshold");
+    }
+    String zone = rule.getZone();
+    return new AlertRule(
+        index,
+        id,
+        rule.getDeviceType(),
+        zone == null || zone.isBlank() || "*".equals(zone) ? null : zone,
+        operator,
+        rule.getThreshold(),
+        rule.getDurationSeconds() * 1000L,
+        rule.getSeverity());
+  }
+
+  @Override
+  public void accept(SensorReading reading) {
+    if (!alertProperties.isEnabled()) {
+      return;
+    }
+    engine.evaluate(reading, ReadingTimes.toEpochMillis(reading.getTimestamp()), this::publish);
+  }
+
+  private void publish(SensorAlert alert) {
+    log.info(
+        "Alert {} {} for device {}: {}",
+        alert.getRuleId(),
+        alert.getState(),
+        alert.getDeviceId(),
+        alert.getValue());
+    try {
+      kafkaTemplate
+          .send(alertProperties.getTopicName(), alert.getDeviceId(), alert)
+          .whenComplete(
+              (result, failure) -> {
+                if (failure != null) {
+                  log.error("Failed to publish alert to Kafka: {}", failure.getMessage());
+                }
+              });
+    } catch (Exception e) {
+      log.error("Error publishing alert to Kafka: {}", e.getMessage());
+    }
+  }
+}
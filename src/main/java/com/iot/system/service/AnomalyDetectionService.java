@@ -0,0 +1,138 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorAnomaly;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.AnomalyProperties;
+import com.iot.system.dto.DeviceBaselineData;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.anomaly.AnomalyDetector;
+import com.iot.system.stream.anomaly.AnomalySignal;
+import com.iot.system.stream.anomaly.DeviceBaseline;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ingest stage scoring every reading against its device's EWMA baseline. Anomalies are published to
+ * Kafka and the most recent ones are kept in memory for the API.
+ */
+@Service
+public class AnomalyDetectionService implements ReadingStage {
+
+  private static final Logger log = LoggerFactory.getLogger(AnomalyDetectionService.class);
+
+  @Autowired private AnomalyProperties anomalyProperties;
+
+  @Autowired private KafkaTemplate<String, Object> kafkaTemplate;
+
+  private AnomalyDetector detector;
+
+  private final Deque<SensorAnomaly> recentAnomalies = new ArrayDeque<>();
+
+  @PostConstruct
+  public void initializeDetector() {
+    Map<String, AnomalySignal> signals = new HashMap<>();
+    anomalyProperties
+        .getSignals()
+        .forEach(
+            (deviceType, signal) ->
+                signals.put(deviceType, AnomalySignal.valueOf(signal.toUpperCase(Locale.ROOT))));
+
+    detector =
+        new AnomalyDetector(
+            anomalyProperties.getAlpha(),
+            anomalyProperties.getScoreThreshold(),
+            anomalyProperties.getWarmupReadings(),
+            anomalyProperties.isSeasonal(),
+            signals);
+    log.info(
+        "Anomaly detection enabled={} alpha={} threshold={} seasonal={}",
+        anomalyProperties.isEnabled(),
+        anomalyProperties.getAlpha(),
+        anomalyProperties.getScoreThreshold(),
+        anomalyProperties.isSeasonal());
+  }
+
+  @Override
+  public void accept(SensorReading reading) {
+    if (!anomalyProperties.isEnabled()) {
+      return;
+    }
+    SensorAnomaly anomaly =
+        detector.evaluate(reading, ReadingTimes.toEpochMillis(reading.getTimestamp()));
+    if (anomaly != null) {
+      remember(anomaly);
+      publish(anomaly);
+    }
+  }
+
+  /** Most recent anomalies, newest first, optionally restricted to one device */
+  public List<SensorAnomaly> getRecentAnomalies(String deviceId, int limit) {
+    List<SensorAnomaly> result = new ArrayList<>();
+    synchronized (recentAnomalies) {
+      Iterator<SensorAnomaly> newestFirst = recentAnomalies.descendingIterator();
+      while (newestFirst.hasNext() && result.size() < limit) {
+        SensorAnomaly anomaly = newestFirst.next();
+        if (deviceId == null || deviceId.equals(anomaly.getDeviceId())) {
+          result.add(anomaly);
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Current baseline of a device, or null if it has not reported since startup */
+  public DeviceBaselineData getDeviceBaseline(String deviceId) {
+    DeviceBaseline baseline = detector.getBaseline(deviceId);
+    if (baseline == null) {
+      return null;
+    }
+    synchronized (baseline) {
+      return new DeviceBaselineData(
+          deviceId,
+          baseline.getSignal().name(),
+          baseline.getMean(),
+          baseline.getStdDev(),
+          baseline.getLastScore(),
+          baseline.getCount(),
+          ReadingTimes.fromEpochMillis(baseline.getLastTimestampMillis()));
+    }
+  }
+
+  private void remember(SensorAnomaly anomaly) {
+    synchronized (recentAnomalies) {
+      if (recentAnomalies.size() >= anomalyProperties.getRecentCapacity()) {
+        recentAnomalies.pollFirst();
+      }
+      recentAnomalies.addLast(anomaly);
+    }
+  }
+
+  private void publish(SensorAnomaly anomaly) {
+    log.debug("Anomaly detected: {}", anomaly);
+    try {
+      kafkaTemplate
+          .send(anomalyProperties.getTopicName(), anomaly.getDeviceId(), anomaly)
+          .whenComplete(
+              (result, failure) -> {
+                if (failure != null) {
+                  log.error("Failed to publish anomaly to Kafka: {}", failure.getMessage());
+                }
+              });
+    } catch (Exception e) {
+      log.error("Error publishing anomaly to Kafka: {}", e.getMessage());
+    }
+  }
+}
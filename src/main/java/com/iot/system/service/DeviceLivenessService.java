@@ -0,0 +1,120 @@
+package com.iot.system.service;
+
+import com.iot.common.model.DeviceStatusEvent;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.LivenessProperties;
+import com.iot.system.dto.DeviceLivenessData;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.liveness.DeviceLiveness;
+import com.iot.system.stream.liveness.LivenessTracker;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ingest stage tracking when each device last reported. A scheduled tick advances the timing wheel
+ * and publishes online/offline transitions to Kafka.
+ */
+@Service
+public class DeviceLivenessService implements ReadingStage {
+
+  private static final Logger log = LoggerFactory.getLogger(DeviceLivenessService.class);
+
+  @Autowired private LivenessProperties livenessProperties;
+
+  @Autowired private KafkaTemplate<String, Object> kafkaTemplate;
+
+  private LivenessTracker tracker;
+
+  private final Consumer<DeviceStatusEvent> publisher = this::publish;
+
+  @PostConstruct
+  public void initializeTracker() {
+    tracker =
+        new LivenessTracker(
+            livenessProperties.getTickMs(),
+            livenessProperties.getWheelSize(),
+            livenessProperties.getMissedHeartbeats(),
+            livenessProperties.getDefaultIntervalMs(),
+            livenessProperties.getMinTimeoutMs(),
+            livenessProperties.getIntervalAlpha());
+    log.info(
+        "Device liveness enabled={} tick={}ms wheel={} missedHeartbeats={}",
+        livenessProperties.isEnabled(),
+        livenessProperties.getTickMs(),
+        livenessProperties.getWheelSize(),
+        livenessProperties.getMissedHeartbeats());
+  }
+
+  @Override
+  public void accept(SensorReading reading) {
+    if (!livenessProperties.isEnabled()) {
+      return;
+    }
+    tracker.recordReading(
+        reading.getDeviceId(),
+        ReadingTimes.toEpochMillis(reading.getTimestamp()),
+        System.currentTimeMillis(),
+        publisher);
+  }
+
+  @Scheduled(fixedRateString = "${iot.liveness.tick-ms:1000}")
+  public void tick() {
+    if (livenessProperties.isEnabled()) {
+      tracker.advance(System.currentTimeMillis(), publisher);
+    }
+  }
+
+  /** Liveness of a device, or null if it has not reported since startup */
+  public DeviceLivenessData getLiveness(String deviceId) {
+    DeviceLiveness liveness = tracker.get(deviceId, System.currentTimeMillis());
+    return liveness != null ? toData(liveness) : null;
+  }
+
+  /** Devices currently considered offline, most recently lost first */
+  public List<DeviceLivenessData> getStaleDevices(int limit) {
+    return tracker.getOffline(limit, System.currentTimeMillis()).stream()
+        .map(this::toData)
+        .toList();
+  }
+
+  public Map<String, Object> getSummary() {
+    return Map.of(
+        "devices", tracker.getDeviceCount(),
+        "online", tracker.getOnlineCount(),
+        "offline", tracker.getOfflineCount());
+  }
+
+  private DeviceLivenessData toData(DeviceLiveness liveness) {
+    return new DeviceLivenessData(
+        liveness.getDeviceId(),
+        liveness.isOnline() ? "ONLINE" : "OFFLINE",
+        liveness.getExpectedIntervalMillis(),
+        liveness.getSilentForMillis(),
+        ReadingTimes.fromEpochMillis(liveness.getLastSeenMillis()));
+  }
+
+  private void publish(DeviceStatusEvent event) {
+    log.debug("Device status changed: {}", event);
+    try {
+      kafkaTemplate
+          .send(livenessProperties.getTopicName(), event.getDeviceId(), event)
+          .whenComplete(
+              (result, failure) -> {
+                if (failure != null) {
+                  log.error("Failed to publish device status to Kafka: {}", failure.getMessage());
+                }
+              });
+    } catch (Exception e) {
+      log.error("Error publishing device status to Kafka: {}", e.getMessage());
+    }
+  }
+}
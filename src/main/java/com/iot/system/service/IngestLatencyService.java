@@ -0,0 +1,86 @@
+package com.iot.system.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Service;
+
+/**
+ * HDR histograms of ingest latency for load-test readings, recorded once a batch is persisted.
+ *
+ * <p>The corrected histogram measures from the intended send time stamped by the open-loop load
+ * generator, so time a reading spent queued behind a stalled producer, broker or consumer is
+ * counted instead of omitted. The uncorrected histogram measures from the Kafka record timestamp,
+ * i.e. the actual send time; the gap between the two shows how much coordinated omission a
+ * closed-loop measurement would have hidden.
+ */
+@Service
+public class IngestLatencyService {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Recorder correctedRecorder =
+      new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final Recorder uncorrectedRecorder =
+      new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final Histogram corrected = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+  private final Histogram uncorrected = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+  /**
+   * Record a persisted reading
+   *
+   * @param intendedSendMicros Intended send time in epoch microseconds
+   * @param sentAtMillis Kafka record timestamp in epoch milliseconds, or null if unknown
+   * @param persistedMicros Time the reading's batch was persisted in epoch microseconds
+   */
+  public void record(long intendedSendMicros, Long sentAtMillis, long persistedMicros) {
+    correctedRecorder.recordValue(clamp(persistedMicros - intendedSendMicros));
+    if (sentAtMillis != null) {
+      uncorrectedRecorder.recordValue(clamp(persistedMicros - sentAtMillis * 1000));
+    }
+  }
+
+  /** Current time in epoch microseconds */
+  public long nowMicros() {
+    return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+  }
+
+  /** Percentiles in milliseconds of everything recorded since startup or the last reset */
+  public synchronized Map<String, Object> getSnapshot() {
+    corrected.add(correctedRecorder.getIntervalHistogram());
+    uncorrected.add(uncorrectedRecorder.getIntervalHistogram());
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("corrected", summarize(corrected));
+    snapshot.put("uncorrected", summarize(uncorrected));
+    return snapshot;
+  }
+
+  public synchronized void reset() {
+    correctedRecorder.reset();
+    uncorrectedRecorder.reset();
+    corrected.reset();
+    uncorrected.reset();
+  }
+
+  private static long clamp(long micros) {
+    return Math.max(0, Math.min(HIGHEST_TRACKABLE_MICROS, micros));
+  }
+
+  private static Map<String, Object> summarize(Histogram histogram) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("count", histogram.getTotalCount());
+    summary.put("meanMs", histogram.getMean() / 1000.0);
+    summary.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+    summary.put("p90Ms", histogram.getValueAtPercentile(90) / 1000.0);
+    summary.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+    summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+    summary.put("p9999Ms", histogram.getValueAtPercentile(99.99) / 1000.0);
+    summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+    return summary;
+  }
+}
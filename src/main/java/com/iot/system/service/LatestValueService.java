@@ -0,0 +1,156 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.dto.DeviceCatalog;
+import com.iot.system.dto.LatestReadingData;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.latest.LatestReading;
+import com.iot.system.stream.latest.LatestValueRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ingest stage maintaining the last-known value of every device in memory. Changed devices are
+ * bulk-upserted into {@code device_latest} on a schedule, and the registry is reloaded from that
+ * table on startup so "latest reading" queries never scan {@code sensor_readings}.
+ */
+@Service
+@Profile("system")
+public class LatestValueService implements ReadingStage {
+
+  private static final Logger log = LoggerFactory.getLogger(LatestValueService.class);
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO device_latest (device_id, device_type, zone, value, timestamp, updated_at) "
+          + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP) "
+          + "ON CONFLICT (device_id) DO UPDATE SET "
+          + "device_type = EXCLUDED.device_type, zone = EXCLUDED.zone, value = EXCLUDED.value, "
+          + "timestamp = EXCLUDED.timestamp, updated_at = EXCLUDED.updated_at "
+          + "WHERE device_latest.timestamp <= EXCLUDED.timestamp";
+
+  private static final String LOAD_SQL =
+      "SELECT device_id, device_type, zone, value, timestamp FROM device_latest";
+
+  @Value("${iot.latest.batch-size:1000}")
+  private int batchSize = 1000;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final LatestValueRegistry registry = new LatestValueRegistry();
+
+  @Override
+  public void accept(SensorReading reading) {
+    registry.update(
+        new LatestReading(
+            reading.getDeviceId(),
+            reading.getDeviceType(),
+            reading.getZone(),
+            reading.getValue(),
+            ReadingTimes.toEpochMillis(reading.getTimestamp())));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void restoreFromDatabase() {
+    long start = System.currentTimeMillis();
+    try {
+      jdbcTemplate.query(
+          LOAD_SQL,
+          rs -> {
+            registry.restore(
+                new LatestReading(
+                    rs.getString("device_id"),
+                    rs.getString("device_type"),
+                    rs.getString("zone"),
+                    rs.getDouble("value"),
+                    ReadingTimes.toEpochMillis(rs.getTimestamp("timestamp").toLocalDateTime())));
+          });
+      log.info(
+          "Restored last-known values of {} devices in {} ms",
+          registry.size(),
+          System.currentTimeMillis() - start);
+    } catch (Exception e) {
+      log.error("Failed to restore last-known values: {}", e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${iot.latest.flush-interval-ms:2000}")
+  public void flushChangedDevices() {
+    List<LatestReading> changed = registry.drainDirty();
+    if (changed.isEmpty()) {
+      return;
+    }
+    try {
+      jdbcTemplate.batchUpdate(
+          UPSERT_SQL,
+          changed,
+          batchSize,
+          (ps, latest) -> {
+            ps.setString(1, latest.getDeviceId());
+            ps.setString(2, latest.getDeviceType());
+            ps.setString(3, latest.getZone());
+            ps.setDouble(4, latest.getValue());
+            ps.setObject(5, ReadingTimes.fromEpochMillis(latest.getTimestampMillis()));
+          });
+      log.debug("Upserted last-known values of {} devices", changed.size());
+    } catch (Exception e) {
+      // Re-mark so the next flush retries; newer readings win in the registry anyway
+      changed.forEach(registry::update);
+      log.error("Failed to upsert {} last-known values: {}", changed.size(), e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flushChangedDevices();
+  }
+
+  public LatestReadingData getLatest(String deviceId) {
+    LatestReading latest = registry.get(deviceId);
+    return latest != null ? toData(latest) : null;
+  }
+
+  public List<LatestReadingData> getLatestByZone(String zone) {
+    return toData(registry.getByZone(zone));
+  }
+
+  public List<LatestReadingData> getLatestByType(String deviceType) {
+    return toData(registry.getByType(deviceType));
+  }
+
+  public List<LatestReadingData> getDevices(String zone, String deviceType, int limit) {
+    return toData(registry.getDevices(zone, deviceType, limit));
+  }
+
+  public DeviceCatalog getCatalog() {
+    return new DeviceCatalog(registry.size(), registry.getZoneCounts(), registry.getTypeCounts());
+  }
+
+  private List<LatestReadingData> toData(List<LatestReading> readings) {
+    List<LatestReadingData> result = new ArrayList<>(readings.size());
+    for (LatestReading reading : readings) {
+      result.add(toData(reading));
+    }
+    return result;
+  }
+
+  private LatestReadingData toData(LatestReading latest) {
+    return new LatestReadingData(
+        latest.getDeviceId(),
+        latest.getDeviceType(),
+        latest.getZone(),
+        latest.getValue(),
+        ReadingTimes.fromEpochMillis(latest.getTimestampMillis()));
+  }
+}
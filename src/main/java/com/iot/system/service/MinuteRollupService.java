@@ -0,0 +1,245 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.RollupProperties;
+import com.iot.system.dto.MinuteRollupData;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.rollup.MinuteRollup;
+import com.iot.system.stream.rollup.MinuteRollupAggregator;
+import com.iot.system.stream.rollup.QuantileSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional ingest stage that pre-aggregates readings into per-device minute rollups in memory and
+ * bulk-upserts closed minutes into {@code device_minute_rollups}. This gives a medium-resolution
+ * tier without a continuous aggregate refresh scanning raw readings.
+ *
+ * <p>A minute can be written more than once, e.g. when readings for it arrive again after a restart
+ * reset the aggregator, so writes merge into the stored row rather than replace it. Failed flushes
+ * roll back and are retried on the next flush, keeping at most {@code max-pending} minutes; older
+ * ones are dropped and counted in {@code iot.rollup.dropped}.
+ */
+@Service
+@Profile("system")
+public class MinuteRollupService implements ReadingStage {
+
+  private static final Logger log = LoggerFactory.getLogger(MinuteRollupService.class);
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO device_minute_rollups AS r "
+          + "(device_id, device_type, zone, bucket, data_point_count, sum_value, sum_squares, "
+          + "min_value, max_value, sketch) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+          + "ON CONFLICT (device_id, bucket) DO UPDATE SET "
+          + "device_type = EXCLUDED.device_type, zone = EXCLUDED.zone, "
+          + "data_point_count = r.data_point_count + EXCLUDED.data_point_count, "
+          + "sum_value = r.sum_value + EXCLUDED.sum_value, "
+          + "sum_squares = r.sum_squares + EXCLUDED.sum_squares, "
+          + "min_value = LEAST(r.min_value, EXCLUDED.min_value), "
+          + "max_value = GREATEST(r.max_value, EXCLUDED.max_value), sketch = EXCLUDED.sketch";
+
+  private static final String SELECT_SKETCHES_SQL =
+      "SELECT device_id, bucket, sketch FROM device_minute_rollups "
+          + "WHERE device_id IN (:deviceIds) AND bucket IN (:buckets)";
+
+  private static final String SELECT_SQL =
+      "SELECT bucket, data_point_count, sum_value, sum_squares, min_value, max_value, sketch "
+          + "FROM device_minute_rollups "
+          + "WHERE device_id = ? AND bucket >= ? AND bucket < ? ORDER BY bucket";
+
+  @Autowired private RollupProperties rollupProperties;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private MinuteRollupAggregator aggregator;
+  private Counter droppedCounter;
+
+  @PostConstruct
+  public void initializeAggregator() {
+    aggregator =
+        new MinuteRollupAggregator(
+            rollupProperties.getAllowedLatenessSeconds() * 1000L,
+            rollupProperties.getSketchAccuracy());
+    droppedCounter =
+        Counter.builder("iot.rollup.dropped")
+            .description("Minute rollups dropped after failed flushes exceeded max-pending")
+            .register(meterRegistry);
+    log.info(
+        "Minute rollups enabled={} allowedLateness={}s",
+        rollupProperties.isEnabled(),
+        rollupProperties.getAllowedLatenessSeconds());
+  }
+
+  @Override
+  public void accept(SensorReading reading) {
+    if (!rollupProperties.isEnabled()) {
+      return;
+    }
+    aggregator.add(
+        reading, ReadingTimes.toEpochMillis(reading.getTimestamp()), System.currentTimeMillis());
+  }
+
+  @Scheduled(fixedDelayString = "${iot.rollup.flush-interval-ms:5000}")
+  public void flushClosedRollups() {
+    if (!rollupProperties.isEnabled()) {
+      return;
+    }
+    write(aggregator.drainClosed(System.currentTimeMillis()));
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    if (rollupProperties.isEnabled()) {
+      write(aggregator.drainAll());
+    }
+  }
+
+  public List<MinuteRollupData> getDeviceMinuteRollups(
+      String deviceId, LocalDateTime startTime, LocalDateTime endTime) {
+    return jdbcTemplate.query(
+        SELECT_SQL,
+        (rs, rowNum) -> {
+          int count = rs.getInt("data_point_count");
+          double sum = rs.getDouble("sum_value");
+          double mean = sum / count;
+          double variance =
+              count > 1
+                  ? Math.max(0.0, (rs.getDouble("sum_squares") - sum * mean) / (count - 1))
+                  : 0.0;
+          byte[] sketchBytes = rs.getBytes("sketch");
+          QuantileSketch sketch =
+              sketchBytes != null ? QuantileSketch.fromBytes(sketchBytes) : null;
+
+          return new MinuteRollupData(
+              deviceId,
+              rs.getTimestamp("bucket").toLocalDateTime(),
+              mean,
+              rs.getDouble("min_value"),
+              rs.getDouble("max_value"),
+              Math.sqrt(variance),
+              sketch != null ? sketch.quantile(0.5) : null,
+              sketch != null ? sketch.quantile(0.95) : null,
+              count);
+        },
+        deviceId,
+        startTime,
+        endTime);
+  }
+
+  public long getLateReadingCount() {
+    return aggregator.getLateReadingCount();
+  }
+
+  private synchronized void write(List<MinuteRollup> rollups) {
+    if (rollups.isEmpty()) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    try {
+      transactionTemplate.executeWithoutResult(status -> upsert(rollups));
+      log.debug(
+          "Flushed {} minute rollups in {} ms", rollups.size(), System.currentTimeMillis() - start);
+    } catch (Exception e) {
+      // The whole flush rolled back. Retried minutes drain first, so the oldest are dropped
+      int dropped = Math.max(0, rollups.size() - Math.max(0, rollupProperties.getMaxPending()));
+      aggregator.requeue(rollups.subList(dropped, rollups.size()));
+      log.error(
+          "Failed to flush {} minute rollups, retrying on the next flush: {}",
+          rollups.size(),
+          e.getMessage());
+      if (dropped > 0) {
+        droppedCounter.increment(dropped);
+        log.error("Dropped the {} oldest minute rollups over max-pending", dropped);
+      }
+    }
+  }
+
+  private void upsert(List<MinuteRollup> rollups) {
+    int batchSize = Math.max(1, rollupProperties.getBatchSize());
+    for (int from = 0; from < rollups.size(); from += batchSize) {
+      List<MinuteRollup> batch = rollups.subList(from, Math.min(rollups.size(), from + batchSize));
+      Map<String, QuantileSketch> stored = storedSketches(batch);
+      jdbcTemplate.batchUpdate(
+          UPSERT_SQL,
+          batch,
+          batch.size(),
+          (ps, rollup) -> {
+            LocalDateTime bucket = ReadingTimes.fromEpochMillis(rollup.getBucketStartMillis());
+            ps.setString(1, rollup.getDeviceId());
+            ps.setString(2, rollup.getDeviceType());
+            ps.setString(3, rollup.getZone());
+            ps.setObject(4, bucket);
+            ps.setLong(5, rollup.getCount());
+            ps.setDouble(6, rollup.getSum());
+            ps.setDouble(7, rollup.getSumOfSquares());
+            ps.setDouble(8, rollup.getMin());
+            ps.setDouble(9, rollup.getMax());
+            ps.setBytes(
+                10, mergedSketch(stored.get(key(rollup.getDeviceId(), bucket)), rollup).toBytes());
+          });
+    }
+  }
+
+  /** Sketches already stored for the batch's minutes, by device and bucket */
+  private Map<String, QuantileSketch> storedSketches(List<MinuteRollup> batch) {
+    Set<String> deviceIds = new HashSet<>();
+    Set<LocalDateTime> buckets = new HashSet<>();
+    for (MinuteRollup rollup : batch) {
+      deviceIds.add(rollup.getDeviceId());
+      buckets.add(ReadingTimes.fromEpochMillis(rollup.getBucketStartMillis()));
+    }
+    Map<String, QuantileSketch> stored = new HashMap<>();
+    new NamedParameterJdbcTemplate(jdbcTemplate)
+        .query(
+            SELECT_SKETCHES_SQL,
+            Map.of("deviceIds", deviceIds, "buckets", buckets),
+            rs -> {
+              byte[] sketchBytes = rs.getBytes("sketch");
+              if (sketchBytes != null) {
+                stored.put(
+                    key(rs.getString("device_id"), rs.getTimestamp("bucket").toLocalDateTime()),
+                    QuantileSketch.fromBytes(sketchBytes));
+              }
+            });
+    return stored;
+  }
+
+  /**
+   * The stored sketch with the new readings merged in; a sketch written with a different accuracy
+   * cannot be merged and is replaced
+   */
+  private static QuantileSketch mergedSketch(QuantileSketch stored, MinuteRollup rollup) {
+    if (stored == null
+        || stored.getRelativeAccuracy() != rollup.getSketch().getRelativeAccuracy()) {
+      return rollup.getSketch();
+    }
+    stored.merge(rollup.getSketch());
+    return stored;
+  }
+
+  private static String key(String deviceId, LocalDateTime bucket) {
+    return deviceId + '|' + bucket;
+  }
+}
@@ -0,0 +1,272 @@
+package com.iot.system.service;
+
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.timing.QueryCall;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Latency of the query API per endpoint, repository method and partition query, as the {@code
+ * iot.query.latency} timer tagged with layer, operation, dimension (device, zone or device type),
+ * range-length bucket and outcome. Device IDs are left out of the tags to keep the number of series
+ * bounded; calls over the slow threshold are logged and kept with all their parameters and row
+ * counts instead. A sample of slow SQL queries can be run again under EXPLAIN ANALYZE in the
+ * background, with the plan attached to the slow-query entry.
+ */
+@Service
+@Profile("system")
+public class QueryTimingService {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryTimingService.class);
+
+  public static final String METRIC = "iot.query.latency";
+
+  public static final String ENDPOINT = "endpoint";
+
+  public static final String REPOSITORY = "repository";
+
+  public static final String PARTITION = "partition";
+
+  private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS) ";
+
+  private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+  private static final String[] PERCENTILE_NAMES = {"p50Ms", "p99Ms", "p999Ms"};
+
+  /** Upper bounds of the range-length buckets, with their tag values */
+  private static final Duration[] RANGE_BOUNDS = {
+    Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(7), Duration.ofDays(31)
+  };
+
+  private static final String[] RANGE_TAGS = {"1h", "1d", "7d", "31d", "over31d"};
+
+  @Autowired private QueryTimingProperties properties;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  /** Registered timers by their tag values, so recording a call does not look the meter up */
+  private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+  private final Deque<Map<String, Object>> slowQueries = new ArrayDeque<>();
+  private ThreadPoolExecutor explainExecutor;
+
+  @PostConstruct
+  public void initialize() {
+    explainExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getExplainQueueCapacity())),
+            runnable -> {
+              Thread thread = new Thread(runnable, "query-explain");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    explainExecutor.shutdownNow();
+  }
+
+  /** Record a finished call; slow calls also go to the slow-query log */
+  public void record(QueryCall call, long elapsedNanos) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    String range = rangeBucket(call.getStartTime(), call.getEndTime());
+    String outcome = call.isFailed() ? "error" : "success";
+    String key =
+        String.join("|", call.getLayer(), call.getOperation(), call.getDimension(), range, outcome);
+    Timer timer = timers.get(key);
+    if (timer == null) {
+      timer =
+          timers.computeIfAbsent(
+              key,
+              k ->
+                  buildTimer(
+                      call.getLayer(), call.getOperation(), call.getDimension(), range, outcome));
+    }
+    timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+    if (elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs())) {
+      logSlow(call, range, elapsedNanos);
+    }
+  }
+
+  private Timer buildTimer(
+      String layer, String operation, String dimension, String range, String outcome) {
+    long thresholdMs = properties.getSlowThresholdMs();
+    return Timer.builder(METRIC)
+        .description("Latency of query API endpoints, repository methods and partition queries")
+        .tag("layer", layer)
+        .tag("operation", operation)
+        .tag("dimension", dimension)
+        .tag("range", range)
+        .tag("outcome", outcome)
+        .publishPercentiles(PERCENTILES)
+        .publishPercentileHistogram(properties.isPercentileHistogram())
+        // A zero threshold logs every call but is no valid bucket boundary
+        .serviceLevelObjectives(
+            thresholdMs > 0 ? new Duration[] {Duration.ofMillis(thresholdMs)} : new Duration[0])
+        .register(meterRegistry);
+  }
+
+  /**
+   * Percentiles of every timed series, slowest p99 first, with how many calls were over the slow
+   * threshold
+   */
+  public Map<String, Object> getSummary() {
+    double thresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs());
+    List<Map<String, Object>> series = new ArrayList<>();
+    for (Timer timer : meterRegistry.find(METRIC).timers()) {
+      HistogramSnapshot snapshot = timer.takeSnapshot();
+      Map<String, Object> entry = new LinkedHashMap<>();
+      for (String tag : List.of("layer", "operation", "dimension", "range", "outcome")) {
+        entry.put(tag, timer.getId().getTag(tag));
+      }
+      entry.put("count", snapshot.count());
+      entry.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+      entry.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+      ValueAtPercentile[] percentiles = snapshot.percentileValues();
+      for (int i = 0; i < percentiles.length && i < PERCENTILE_NAMES.length; i++) {
+        entry.put(PERCENTILE_NAMES[i], percentiles[i].value(TimeUnit.MILLISECONDS));
+      }
+      long withinThreshold = 0;
+      for (CountAtBucket bucket : snapshot.histogramCounts()) {
+        if (bucket.bucket() == thresholdNanos) {
+          withinThreshold = (long) bucket.count();
+        }
+      }
+      entry.put("overThreshold", snapshot.count() - withinThreshold);
+      series.add(entry);
+    }
+    series.sort(
+        Comparator.comparingDouble(
+            entry -> -((Number) entry.getOrDefault("p99Ms", 0.0)).doubleValue()));
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("slowThresholdMs", properties.getSlowThresholdMs());
+    summary.put("series", series);
+    return summary;
+  }
+
+  /** Most recent slow calls, newest first */
+  public synchronized List<Map<String, Object>> getSlowQueries() {
+    return new ArrayList<>(slowQueries);
+  }
+
+  public synchronized void clearSlowQueries() {
+    slowQueries.clear();
+  }
+
+  /** Range-length bucket of a query: {@code 1h}, {@code 1d}, {@code 7d}, {@code 31d} or longer */
+  public static String rangeBucket(LocalDateTime startTime, LocalDateTime endTime) {
+    if (startTime == null || endTime == null) {
+      return QueryCall.NO_DIMENSION;
+    }
+    Duration length = Duration.between(startTime, endTime);
+    for (int i = 0; i < RANGE_BOUNDS.length; i++) {
+      if (length.compareTo(RANGE_BOUNDS[i]) <= 0) {
+        return RANGE_TAGS[i];
+      }
+    }
+    return RANGE_TAGS[RANGE_BOUNDS.length];
+  }
+
+  private void logSlow(QueryCall call, String range, long elapsedNanos) {
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("at", Instant.now().toString());
+    entry.put("layer", call.getLayer());
+    entry.put("operation", call.getOperation());
+    entry.put("dimension", call.getDimension());
+    entry.put("subject", call.getSubject());
+    entry.put("range", range);
+    entry.put("elapsedMs", elapsedNanos / 1e6);
+    // Endpoints do not see the rows their queries return; those are on the repository entries
+    Long rows = call.getRows() >= 0 ? call.getRows() : null;
+    entry.put("rows", rows);
+    entry.put("failed", call.isFailed());
+    entry.put("parameters", call.getParameters());
+    log.warn(
+        "Slow {} {} took {} ms: {} rows, parameters {}",
+        call.getLayer(),
+        call.getOperation(),
+        String.format("%.1f", elapsedNanos / 1e6),
+        rows != null ? rows : "unknown",
+        call.getParameters());
+
+    if (call.getSql() != null
+        && properties.isExplainEnabled()
+        && ThreadLocalRandom.current().nextDouble() < properties.getExplainSampleRate()) {
+      try {
+        explainExecutor.execute(() -> addSlowQuery(explain(call, entry)));
+        return;
+      } catch (RejectedExecutionException e) {
+        log.debug(
+            "Explain queue full; {} {} logged without a plan",
+            call.getLayer(),
+            call.getOperation());
+      }
+    }
+    addSlowQuery(entry);
+  }
+
+  /** Run the call's SQL again under EXPLAIN ANALYZE and attach the plan, or why there is none */
+  private Map<String, Object> explain(QueryCall call, Map<String, Object> entry) {
+    try {
+      List<String> lines =
+          call.getSqlNamedArgs() != null
+              ? new NamedParameterJdbcTemplate(jdbcTemplate)
+                  .queryForList(EXPLAIN + call.getSql(), call.getSqlNamedArgs(), String.class)
+              : jdbcTemplate.queryForList(EXPLAIN + call.getSql(), String.class, call.getSqlArgs());
+      String plan = String.join("\n", lines);
+      entry.put("plan", plan);
+      log.warn("Plan of slow {} {}:\n{}", call.getLayer(), call.getOperation(), plan);
+    } catch (RuntimeException e) {
+      entry.put("planError", e.getMessage());
+      log.debug(
+          "Could not explain {} {}: {}", call.getLayer(), call.getOperation(), e.getMessage());
+    }
+    return entry;
+  }
+
+  private synchronized void addSlowQuery(Map<String, Object> entry) {
+    slowQueries.addFirst(entry);
+    while (slowQueries.size() > Math.max(0, properties.getSlowLogCapacity())) {
+      slowQueries.removeLast();
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package com.iot.system.service;
 
+import com.iot.common.model.ReadingHeaders;
 import com.iot.common.model.SensorReading;
+import com.iot.system.ingest.ReadingBatchDecoder;
 import com.iot.system.repository.SensorReadingRepository;
+import com.iot.system.stream.ReadingStage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,7 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Service
@@ -21,6 +26,17 @@ public class SensorDataProcessingService {
 
   @Autowired private SensorReadingRepository sensorReadingRepository;
 
+  @Autowired(required = false)
+  private List<ReadingStage> readingStages = List.of();
+
+  @Autowired private IngestLatencyService ingestLatencyService;
+
+  @Autowired private ReadingBatchDecoder readingBatchDecoder;
+
+  public void processSensorReadingBatch(List<SensorReading> readings) {
+    processSensorReadingBatch(readings, null, null);
+  }
+
   @RetryableTopic(
       attempts = "3",
       backoff = @Backoff(delay = 1000, multiplier = 2.0),
@@ -29,7 +45,10 @@ public class SensorDataProcessingService {
       retryTopicSuffix = "-retry",
       dltTopicSuffix = "-dlt")
   @KafkaListener(topics = "${iot.kafka.topic-name}", groupId = "iot-processing-group-v2")
-  public void processSensorReadingBatch(List<SensorReading> readings) {
+  public void processSensorReadingBatch(
+      List<SensorReading> readings,
+      @Header(name = ReadingHeaders.INTENDED_SEND_TIME, required = false) byte[] intendedSendTime,
+      @Header(name = KafkaHeaders.RECEIVED_TIMESTAMP, required = false) Long sentAtMillis) {
     if (readings.isEmpty()) {
       return;
     }
@@ -48,23 +67,95 @@ public class SensorDataProcessingService {
       // Bulk insert all valid readings
       sensorReadingRepository.saveAll(validReadings);
       log.debug("Processed batch of {} sensor readings", validReadings.size());
+
+      if (intendedSendTime != null) {
+        recordIngestLatency(intendedSendTime, sentAtMillis, validReadings.size());
+      }
+
+      // Feed in-stream stages only once the batch is persisted
+      publishToStages(validReadings);
     }
     
     // Offset automatically committed after method completes successfully
   }
 
+  /**
+   * Batch envelopes carry many readings per record, so they are read as raw bytes and unpacked
+   * here rather than by the JSON deserializer. An envelope that cannot be decoded would fail the
+   * same way on every retry and is logged and skipped; a failure to persist its readings goes
+   * through the same retry topics and DLT as single readings.
+   */
+  @RetryableTopic(
+      attempts = "3",
+      backoff = @Backoff(delay = 1000, multiplier = 2.0),
+      autoCreateTopics = "true",
+      dltStrategy = org.springframework.kafka.retrytopic.DltStrategy.FAIL_ON_ERROR,
+      retryTopicSuffix = "-retry",
+      dltTopicSuffix = "-dlt")
+  @KafkaListener(
+      topics = "${iot.kafka.batch-topic-name}",
+      groupId = "iot-processing-group-v2",
+      properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer")
+  public void processReadingEnvelope(
+      byte[] envelope,
+      @Header(name = ReadingHeaders.BATCH_ENCODING, required = false) byte[] encoding,
+      @Header(name = ReadingHeaders.INTENDED_SEND_TIME, required = false) byte[] intendedSendTime,
+      @Header(name = KafkaHeaders.RECEIVED_TIMESTAMP, required = false) Long sentAtMillis) {
+    List<SensorReading> readings;
+    try {
+      readings =
+          readingBatchDecoder.decode(
+              envelope, encoding == null ? null : new String(encoding, StandardCharsets.UTF_8));
+    } catch (Exception e) {
+      log.error("Discarding undecodable batch envelope: {}", e.getMessage());
+      return;
+    }
+    processSensorReadingBatch(readings, intendedSendTime, sentAtMillis);
+  }
+
+  /** Handles both DLTs: single readings arrive deserialized, batch envelopes as raw bytes */
   @DltHandler
   public void handleDltReading(
-      SensorReading reading,
+      ConsumerRecord<?, ?> record,
       @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
       @Header(KafkaHeaders.EXCEPTION_MESSAGE) String exceptionMessage) {
+    Object payload =
+        record.value() instanceof byte[] envelope
+            ? "batch envelope of " + envelope.length + " bytes"
+            : record.value();
     log.error(
-        "Message sent to DLT - Topic: {}, Reading: {}, Error: {}",
+        "Message sent to DLT - Topic: {}, Payload: {}, Error: {}",
         topic,
-        reading,
+        payload,
         exceptionMessage);
   }
 
+  private void recordIngestLatency(byte[] intendedSendTime, Long sentAtMillis, int count) {
+    try {
+      long intendedMicros =
+          Long.parseLong(new String(intendedSendTime, StandardCharsets.US_ASCII));
+      long persistedMicros = ingestLatencyService.nowMicros();
+      for (int i = 0; i < count; i++) {
+        ingestLatencyService.record(intendedMicros, sentAtMillis, persistedMicros);
+      }
+    } catch (NumberFormatException e) {
+      log.warn("Ignoring malformed {} header", ReadingHeaders.INTENDED_SEND_TIME);
+    }
+  }
+
+  private void publishToStages(List<SensorReading> readings) {
+    for (ReadingStage stage : readingStages) {
+      try {
+        for (SensorReading reading : readings) {
+          stage.accept(reading);
+        }
+      } catch (Exception e) {
+        // A failing stage must never fail ingest or trigger a redelivery of a persisted batch
+        log.error("Reading stage {} failed: {}", stage.getClass().getSimpleName(), e.getMessage());
+      }
+    }
+  }
+
   private boolean isValidReading(SensorReading reading) {
     return reading != null
         && reading.getDeviceId() != null
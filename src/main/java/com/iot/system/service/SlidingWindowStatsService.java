@@ -0,0 +1,91 @@
+package com.iot.system.service;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.dto.LiveWindowStats;
+import com.iot.system.stream.PaneWindow;
+import com.iot.system.stream.ReadingStage;
+import com.iot.system.stream.ReadingTimes;
+import com.iot.system.stream.StatsWindow;
+import com.iot.system.stream.WindowAggregate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps 1m/5m/1h sliding windows per device and per zone, updated from the ingest path. Reads are
+ * served from memory and never touch the database.
+ */
+@Service
+public class SlidingWindowStatsService implements ReadingStage {
+
+  private static final StatsWindow[] WINDOWS = StatsWindow.values();
+
+  @Value("${iot.stream.window.panes-per-window:12}")
+  private int panesPerWindow = 12;
+
+  private final Map<String, PaneWindow[]> deviceWindows = new ConcurrentHashMap<>();
+  private final Map<String, PaneWindow[]> zoneWindows = new ConcurrentHashMap<>();
+
+  @Override
+  public void accept(SensorReading reading) {
+    long timestampMillis = ReadingTimes.toEpochMillis(reading.getTimestamp());
+    double value = reading.getValue();
+
+    add(deviceWindows, reading.getDeviceId(), timestampMillis, value);
+    if (reading.getZone() != null) {
+      add(zoneWindows, reading.getZone(), timestampMillis, value);
+    }
+  }
+
+  /** Live statistics for a device, or null if the device has not reported since startup */
+  public LiveWindowStats getDeviceStats(String deviceId, StatsWindow window, long nowMillis) {
+    return toStats(deviceWindows.get(deviceId), deviceId, null, window, nowMillis);
+  }
+
+  /** Live statistics for a zone, or null if the zone has not reported since startup */
+  public LiveWindowStats getZoneStats(String zone, StatsWindow window, long nowMillis) {
+    return toStats(zoneWindows.get(zone), null, zone, window, nowMillis);
+  }
+
+  private void add(
+      Map<String, PaneWindow[]> windows, String key, long timestampMillis, double value) {
+    PaneWindow[] keyWindows = windows.get(key);
+    if (keyWindows == null) {
+      keyWindows = windows.computeIfAbsent(key, k -> newWindows());
+    }
+    for (PaneWindow window : keyWindows) {
+      window.add(timestampMillis, value);
+    }
+  }
+
+  private PaneWindow[] newWindows() {
+    PaneWindow[] windows = new PaneWindow[WINDOWS.length];
+    for (int i = 0; i < WINDOWS.length; i++) {
+      windows[i] = new PaneWindow(WINDOWS[i].getSpanMillis(), panesPerWindow);
+    }
+    return windows;
+  }
+
+  private LiveWindowStats toStats(
+      PaneWindow[] keyWindows, String deviceId, String zone, StatsWindow window, long nowMillis) {
+    if (keyWindows == null) {
+      return null;
+    }
+    PaneWindow paneWindow = keyWindows[window.ordinal()];
+    WindowAggregate aggregate = paneWindow.snapshot(nowMillis);
+
+    return new LiveWindowStats(
+        deviceId,
+        zone,
+        window.getLabel(),
+        ReadingTimes.fromEpochMillis(paneWindow.windowStartMillis(nowMillis)),
+        ReadingTimes.fromEpochMillis(nowMillis),
+        aggregate.getMean(),
+        aggregate.getMin(),
+        aggregate.getMax(),
+        aggregate.getVariance(),
+        aggregate.getStdDev(),
+        aggregate.getCount());
+  }
+}
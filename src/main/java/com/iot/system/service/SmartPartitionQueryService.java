@@ -1,6 +1,7 @@
 package com.iot.system.service;
 
 import com.iot.system.dto.SensorAggregateData;
+import com.iot.system.timing.QueryCall;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -19,6 +20,8 @@ public class SmartPartitionQueryService {
 
   @Autowired private JdbcTemplate jdbcTemplate;
 
+  @Autowired private QueryTimingService queryTimingService;
+
   private static final DateTimeFormatter TIMESTAMP_FORMAT =
       DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -28,20 +31,24 @@ public class SmartPartitionQueryService {
     log.debug("Using partitioned query for device {}", deviceId);
 
     String sql = buildPartitionQuery("device_id", "device_hourly_aggregates");
-
-    Map<String, Object> result =
-        jdbcTemplate.queryForMap(
-            sql,
-            startTime.format(TIMESTAMP_FORMAT),
-            endTime.format(TIMESTAMP_FORMAT),
-            startTime.format(TIMESTAMP_FORMAT),
-            endTime.format(TIMESTAMP_FORMAT),
-            deviceId,
-            deviceId,
-            deviceId,
-            deviceId);
-
-    return mapResultToSensorAggregateData(result, deviceId, null, startTime, endTime);
+    Object[] args = {
+      startTime.format(TIMESTAMP_FORMAT),
+      endTime.format(TIMESTAMP_FORMAT),
+      startTime.format(TIMESTAMP_FORMAT),
+      endTime.format(TIMESTAMP_FORMAT),
+      deviceId,
+      deviceId,
+      deviceId,
+      deviceId
+    };
+    QueryCall call =
+        new QueryCall(QueryTimingService.PARTITION, "deviceAggregates")
+            .parameter("deviceId", deviceId)
+            .parameter("startTime", startTime)
+            .parameter("endTime", endTime)
+            .statement(sql, args);
+
+    return timedQuery(call, deviceId, null, startTime, endTime);
   }
 
   /** Get partitioned aggregates for zone using advanced TimescaleDB functions */
@@ -50,20 +57,46 @@ public class SmartPartitionQueryService {
     log.debug("Using partitioned query for zone {}", zone);
 
     String sql = buildPartitionQuery("zone", "zone_hourly_aggregates");
+    Object[] args = {
+      startTime.format(TIMESTAMP_FORMAT),
+      endTime.format(TIMESTAMP_FORMAT),
+      startTime.format(TIMESTAMP_FORMAT),
+      endTime.format(TIMESTAMP_FORMAT),
+      zone,
+      zone,
+      zone,
+      zone
+    };
+    QueryCall call =
+        new QueryCall(QueryTimingService.PARTITION, "zoneAggregates")
+            .parameter("zone", zone)
+            .parameter("startTime", startTime)
+            .parameter("endTime", endTime)
+            .statement(sql, args);
+
+    return timedQuery(call, null, zone, startTime, endTime);
+  }
 
-    Map<String, Object> result =
-        jdbcTemplate.queryForMap(
-            sql,
-            startTime.format(TIMESTAMP_FORMAT),
-            endTime.format(TIMESTAMP_FORMAT),
-            startTime.format(TIMESTAMP_FORMAT),
-            endTime.format(TIMESTAMP_FORMAT),
-            zone,
-            zone,
-            zone,
-            zone);
-
-    return mapResultToSensorAggregateData(result, null, zone, startTime, endTime);
+  /** Run a partition query, recording its latency and the readings it covered */
+  private SensorAggregateData timedQuery(
+      QueryCall call,
+      String deviceId,
+      String zone,
+      LocalDateTime startTime,
+      LocalDateTime endTime) {
+    long startNanos = System.nanoTime();
+    try {
+      Map<String, Object> result = jdbcTemplate.queryForMap(call.getSql(), call.getSqlArgs());
+      SensorAggregateData data =
+          mapResultToSensorAggregateData(result, deviceId, zone, startTime, endTime);
+      call.rows(data.getDataPointCount());
+      return data;
+    } catch (RuntimeException e) {
+      call.failed();
+      throw e;
+    } finally {
+      queryTimingService.record(call, System.nanoTime() - startNanos);
+    }
   }
 
   /** Build parametrized partition query for both device and zone aggregates */
@@ -0,0 +1,112 @@
+package com.iot.system.stream;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of count/mean/variance/min/max split into equal sub-window panes. An update
+ * touches exactly one pane (Welford update), so ingest cost is O(1); a read merges at most {@code
+ * paneCount} panes with Chan's parallel formula. The window slides with pane granularity.
+ *
+ * <p>Panes live in a ring indexed by {@code paneId % paneCount}; a slot holding an older pane id is
+ * recycled on write, and readings older than the ring are dropped.
+ */
+public class PaneWindow {
+
+  private final long paneMillis;
+  private final int paneCount;
+
+  private final long[] paneIds;
+  private final long[] counts;
+  private final double[] means;
+  private final double[] m2s;
+  private final double[] mins;
+  private final double[] maxs;
+
+  public PaneWindow(long spanMillis, int paneCount) {
+    if (paneCount < 1 || spanMillis < paneCount) {
+      throw new IllegalArgumentException(
+          "Window span " + spanMillis + "ms cannot be split into " + paneCount + " panes");
+    }
+    this.paneMillis = spanMillis / paneCount;
+    this.paneCount = paneCount;
+    this.paneIds = new long[paneCount];
+    this.counts = new long[paneCount];
+    this.means = new double[paneCount];
+    this.m2s = new double[paneCount];
+    this.mins = new double[paneCount];
+    this.maxs = new double[paneCount];
+    Arrays.fill(paneIds, Long.MIN_VALUE);
+  }
+
+  /**
+   * Add a reading to the pane covering its timestamp
+   *
+   * @return false if the reading is older than every pane still held by the window
+   */
+  public synchronized boolean add(long timestampMillis, double value) {
+    long paneId = Math.floorDiv(timestampMillis, paneMillis);
+    int slot = (int) Math.floorMod(paneId, (long) paneCount);
+    long current = paneIds[slot];
+    if (current > paneId) {
+      return false;
+    }
+    if (current < paneId) {
+      paneIds[slot] = paneId;
+      counts[slot] = 0;
+      means[slot] = 0.0;
+      m2s[slot] = 0.0;
+      mins[slot] = value;
+      maxs[slot] = value;
+    }
+
+    long n = ++counts[slot];
+    double delta = value - means[slot];
+    means[slot] += delta / n;
+    m2s[slot] += delta * (value - means[slot]);
+    if (value < mins[slot]) {
+      mins[slot] = value;
+    }
+    if (value > maxs[slot]) {
+      maxs[slot] = value;
+    }
+    return true;
+  }
+
+  /** Merge the panes that fall inside the window ending at {@code nowMillis} */
+  public synchronized WindowAggregate snapshot(long nowMillis) {
+    long newest = Math.floorDiv(nowMillis, paneMillis);
+    long oldest = newest - paneCount + 1;
+
+    long count = 0;
+    double mean = 0.0;
+    double m2 = 0.0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+
+    for (int slot = 0; slot < paneCount; slot++) {
+      long paneId = paneIds[slot];
+      if (paneId < oldest || paneId > newest || counts[slot] == 0) {
+        continue;
+      }
+      long paneCountValue = counts[slot];
+      long merged = count + paneCountValue;
+      double delta = means[slot] - mean;
+      mean += delta * paneCountValue / merged;
+      m2 += m2s[slot] + delta * delta * ((double) count * paneCountValue / merged);
+      count = merged;
+      min = Math.min(min, mins[slot]);
+      max = Math.max(max, maxs[slot]);
+    }
+
+    return count == 0 ? WindowAggregate.EMPTY : new WindowAggregate(count, mean, m2, min, max);
+  }
+
+  /** Start of the window ending at {@code nowMillis}, aligned to pane boundaries */
+  public long windowStartMillis(long nowMillis) {
+    return (Math.floorDiv(nowMillis, paneMillis) - paneCount + 1) * paneMillis;
+  }
+
+  public long getPaneMillis() {
+    return paneMillis;
+  }
+}
@@ -0,0 +1,12 @@
+package com.iot.system.stream;
+
+import com.iot.common.model.SensorReading;
+
+/**
+ * In-stream computation fed by the ingest path with every validated reading. Implementations run on
+ * the consumer thread, so they must keep per-reading work constant and must not touch the database.
+ */
+public interface ReadingStage {
+
+  void accept(SensorReading reading);
+}
@@ -0,0 +1,21 @@
+package com.iot.system.stream;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/** Conversions between reading timestamps (UTC {@link LocalDateTime}) and epoch millis */
+public final class ReadingTimes {
+
+  private ReadingTimes() {}
+
+  public static long toEpochMillis(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * 1000L + timestamp.getNano() / 1_000_000;
+  }
+
+  public static LocalDateTime fromEpochMillis(long epochMillis) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(epochMillis, 1000L),
+        (int) Math.floorMod(epochMillis, 1000L) * 1_000_000,
+        ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,33 @@
+package com.iot.system.stream;
+
+/** Sliding window lengths maintained by the streaming statistics stage */
+public enum StatsWindow {
+  ONE_MINUTE("1m", 60_000L),
+  FIVE_MINUTES("5m", 300_000L),
+  ONE_HOUR("1h", 3_600_000L);
+
+  private final String label;
+  private final long spanMillis;
+
+  StatsWindow(String label, long spanMillis) {
+    this.label = label;
+    this.spanMillis = spanMillis;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public long getSpanMillis() {
+    return spanMillis;
+  }
+
+  public static StatsWindow fromLabel(String label) {
+    for (StatsWindow window : values()) {
+      if (window.label.equalsIgnoreCase(label)) {
+        return window;
+      }
+    }
+    throw new IllegalArgumentException("Unknown window: " + label + " (expected 1m, 5m or 1h)");
+  }
+}
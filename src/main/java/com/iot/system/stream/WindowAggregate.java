@@ -0,0 +1,48 @@
+package com.iot.system.stream;
+
+/** Immutable merge of the live panes of a {@link PaneWindow} */
+public class WindowAggregate {
+
+  public static final WindowAggregate EMPTY =
+      new WindowAggregate(0, 0.0, 0.0, Double.NaN, Double.NaN);
+
+  private final long count;
+  private final double mean;
+  private final double m2;
+  private final double min;
+  private final double max;
+
+  public WindowAggregate(long count, double mean, double m2, double min, double max) {
+    this.count = count;
+    this.mean = mean;
+    this.m2 = m2;
+    this.min = min;
+    this.max = max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public Double getMean() {
+    return count > 0 ? mean : null;
+  }
+
+  public Double getMin() {
+    return count > 0 ? min : null;
+  }
+
+  public Double getMax() {
+    return count > 0 ? max : null;
+  }
+
+  /** Sample variance, or null when fewer than two readings are in the window */
+  public Double getVariance() {
+    return count > 1 ? m2 / (count - 1) : null;
+  }
+
+  public Double getStdDev() {
+    Double variance = getVariance();
+    return variance != null ? Math.sqrt(variance) : null;
+  }
+}
@@ -0,0 +1,32 @@
+package com.iot.system.stream.alert;
+
+/** Comparison applied by a threshold rule to each reading value */
+public enum AlertOperator {
+  ABOVE(">"),
+  AT_OR_ABOVE(">="),
+  BELOW("<"),
+  AT_OR_BELOW("<=");
+
+  private final String symbol;
+
+  AlertOperator(String symbol) {
+    this.symbol = symbol;
+  }
+
+  public boolean test(double value, double threshold) {
+    switch (this) {
+      case ABOVE:
+        return value > threshold;
+      case AT_OR_ABOVE:
+        return value >= threshold;
+      case BELOW:
+        return value < threshold;
+      default:
+        return value <= threshold;
+    }
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+}
@@ -0,0 +1,73 @@
+package com.iot.system.stream.alert;
+
+/** Compiled threshold rule; {@code index} addresses the rule's slot in per-device state */
+public final class AlertRule {
+
+  private final int index;
+  private final String id;
+  private final String deviceType;
+  private final String zone;
+  private final AlertOperator operator;
+  private final double threshold;
+  private final long durationMillis;
+  private final String severity;
+  private final String condition;
+
+  public AlertRule(
+      int index,
+      String id,
+      String deviceType,
+      String zone,
+      AlertOperator operator,
+      double threshold,
+      long durationMillis,
+      String severity) {
+    this.index = index;
+    this.id = id;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.operator = operator;
+    this.threshold = threshold;
+    this.durationMillis = durationMillis;
+    this.severity = severity;
+    this.condition =
+        "value "
+            + operator.getSymbol()
+            + " "
+            + threshold
+            + (durationMillis > 0 ? " for " + durationMillis / 1000 + "s" : "");
+  }
+
+  public boolean matches(double value) {
+    return operator.test(value, threshold);
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  /** Zone the rule is restricted to, or null for every zone */
+  public String getZone() {
+    return zone;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  public String getSeverity() {
+    return severity;
+  }
+
+  public String getCondition() {
+    return condition;
+  }
+}
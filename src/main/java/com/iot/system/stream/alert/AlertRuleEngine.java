@@ -0,0 +1,98 @@
+package com.iot.system.stream.alert;
+
+import com.iot.common.model.SensorAlert;
+import com.iot.common.model.SensorReading;
+import com.iot.system.stream.ReadingTimes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates compiled threshold rules against each reading. Per-device state holds, for every rule,
+ * the time the condition started holding and whether the alert is currently raised, so duration
+ * conditions ("above 160 for 30s") cost O(1) per reading. Alerts are only allocated on state
+ * transitions.
+ */
+public class AlertRuleEngine {
+
+  private static final long NOT_HOLDING = Long.MIN_VALUE;
+
+  private final AlertRuleTable table;
+  private final Map<String, DeviceState> deviceStates = new ConcurrentHashMap<>();
+
+  public AlertRuleEngine(List<AlertRule> rules) {
+    this.table = AlertRuleTable.compile(rules);
+  }
+
+  public void evaluate(SensorReading reading, long timestampMillis, Consumer<SensorAlert> sink) {
+    AlertRule[] rules = table.lookup(reading.getDeviceType(), reading.getZone());
+    if (rules.length == 0) {
+      return;
+    }
+
+    DeviceState state = deviceStates.get(reading.getDeviceId());
+    if (state == null) {
+      state =
+          deviceStates.computeIfAbsent(
+              reading.getDeviceId(), id -> new DeviceState(table.getRuleCount()));
+    }
+
+    double value = reading.getValue();
+    synchronized (state) {
+      for (AlertRule rule : rules) {
+        int i = rule.getIndex();
+        if (rule.matches(value)) {
+          if (state.since[i] == NOT_HOLDING) {
+            state.since[i] = timestampMillis;
+          }
+          if (!state.raised[i] && timestampMillis - state.since[i] >= rule.getDurationMillis()) {
+            state.raised[i] = true;
+            sink.accept(toAlert(rule, SensorAlert.State.RAISED, reading, state.since[i]));
+          }
+        } else {
+          if (state.raised[i]) {
+            state.raised[i] = false;
+            sink.accept(toAlert(rule, SensorAlert.State.RESOLVED, reading, state.since[i]));
+          }
+          state.since[i] = NOT_HOLDING;
+        }
+      }
+    }
+  }
+
+  public int getRuleCount() {
+    return table.getRuleCount();
+  }
+
+  public int getTrackedDeviceCount() {
+    return deviceStates.size();
+  }
+
+  private SensorAlert toAlert(
+      AlertRule rule, SensorAlert.State alertState, SensorReading reading, long sinceMillis) {
+    return new SensorAlert(
+        rule.getId(),
+        rule.getSeverity(),
+        alertState,
+        reading.getDeviceId(),
+        reading.getDeviceType(),
+        reading.getZone(),
+        reading.getValue(),
+        rule.getCondition(),
+        ReadingTimes.fromEpochMillis(sinceMillis),
+        reading.getTimestamp());
+  }
+
+  private static final class DeviceState {
+    private final long[] since;
+    private final boolean[] raised;
+
+    private DeviceState(int ruleCount) {
+      this.since = new long[ruleCount];
+      this.raised = new boolean[ruleCount];
+      Arrays.fill(since, NOT_HOLDING);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.iot.system.stream.alert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rules compiled into a device type → zone → rule array lookup. Wildcard-zone rules are copied into
+ * every zone-specific array at compile time, so a lookup is two hash probes and never merges lists
+ * on the hot path.
+ */
+public final class AlertRuleTable {
+
+  private static final AlertRule[] NO_RULES = new AlertRule[0];
+
+  private final Map<String, TypeRules> byType;
+  private final int ruleCount;
+
+  private AlertRuleTable(Map<String, TypeRules> byType, int ruleCount) {
+    this.byType = byType;
+    this.ruleCount = ruleCount;
+  }
+
+  public static AlertRuleTable compile(List<AlertRule> rules) {
+    Map<String, List<AlertRule>> wildcardByType = new HashMap<>();
+    Map<String, Map<String, List<AlertRule>>> zonedByType = new HashMap<>();
+
+    for (AlertRule rule : rules) {
+      if (rule.getZone() == null) {
+        wildcardByType.computeIfAbsent(rule.getDeviceType(), t -> new ArrayList<>()).add(rule);
+      } else {
+        zonedByType
+            .computeIfAbsent(rule.getDeviceType(), t -> new HashMap<>())
+            .computeIfAbsent(rule.getZone(), z -> new ArrayList<>())
+            .add(rule);
+      }
+    }
+
+    Set<String> deviceTypes = new HashSet<>(wildcardByType.keySet());
+    deviceTypes.addAll(zonedByType.keySet());
+
+    Map<String, TypeRules> byType = new HashMap<>();
+    for (String deviceType : deviceTypes) {
+      List<AlertRule> wildcard = wildcardByType.getOrDefault(deviceType, List.of());
+      Map<String, AlertRule[]> byZone = new HashMap<>();
+      zonedByType
+          .getOrDefault(deviceType, Map.of())
+          .forEach(
+              (zone, zoned) -> {
+                List<AlertRule> combined = new ArrayList<>(wildcard);
+                combined.addAll(zoned);
+                byZone.put(zone, combined.toArray(NO_RULES));
+              });
+      byType.put(deviceType, new TypeRules(wildcard.toArray(NO_RULES), byZone));
+    }
+
+    return new AlertRuleTable(byType, rules.size());
+  }
+
+  /** Rules applicable to a reading of the given device type and zone; never null */
+  public AlertRule[] lookup(String deviceType, String zone) {
+    TypeRules typeRules = byType.get(deviceType);
+    if (typeRules == null) {
+      return NO_RULES;
+    }
+    if (zone != null) {
+      AlertRule[] zoned = typeRules.byZone.get(zone);
+      if (zoned != null) {
+        return zoned;
+      }
+    }
+    return typeRules.anyZone;
+  }
+
+  public int getRuleCount() {
+    return ruleCount;
+  }
+
+  private static final class TypeRules {
+    private final AlertRule[] anyZone;
+    private final Map<String, AlertRule[]> byZone;
+
+    private TypeRules(AlertRule[] anyZone, Map<String, AlertRule[]> byZone) {
+      this.anyZone = anyZone;
+      this.byZone = byZone;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.iot.system.stream.anomaly;
+
+import com.iot.common.model.SensorAnomaly;
+import com.iot.common.model.SensorReading;
+import com.iot.system.stream.ReadingTimes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental z-score detector over an exponentially weighted mean and variance per device. Each
+ * reading is scored against the baseline before being folded into it, so a step change is flagged
+ * on arrival and then gradually absorbed. With seasonal scoring, an hour-of-day EWMA is subtracted
+ * first so daily cycles are not reported.
+ */
+public class AnomalyDetector {
+
+  private static final double MIN_STD_DEV = 1e-6;
+  private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+  private final double alpha;
+  private final double seasonalAlpha;
+  private final double scoreThreshold;
+  private final int warmupReadings;
+  private final boolean seasonal;
+  private final Map<String, AnomalySignal> signalsByType;
+
+  private final Map<String, DeviceBaseline> baselines = new ConcurrentHashMap<>();
+
+  public AnomalyDetector(
+      double alpha,
+      double scoreThreshold,
+      int warmupReadings,
+      boolean seasonal,
+      Map<String, AnomalySignal> signalsByType) {
+    if (alpha <= 0.0 || alpha >= 1.0) {
+      throw new IllegalArgumentException("EWMA alpha must be in (0, 1): " + alpha);
+    }
+    this.alpha = alpha;
+    this.seasonalAlpha = alpha / 4;
+    this.scoreThreshold = scoreThreshold;
+    this.warmupReadings = warmupReadings;
+    this.seasonal = seasonal;
+    this.signalsByType = Map.copyOf(signalsByType);
+  }
+
+  /**
+   * Score a reading and update the device's baseline
+   *
+   * @return the anomaly, or null when the reading is within the baseline
+   */
+  public SensorAnomaly evaluate(SensorReading reading, long timestampMillis) {
+    DeviceBaseline baseline = baselines.get(reading.getDeviceId());
+    if (baseline == null) {
+      baseline =
+          baselines.computeIfAbsent(
+              reading.getDeviceId(),
+              id ->
+                  new DeviceBaseline(
+                      signalsByType.getOrDefault(reading.getDeviceType(), AnomalySignal.VALUE),
+                      seasonal));
+    }
+
+    double value = reading.getValue();
+    synchronized (baseline) {
+      baseline.lastTimestampMillis = timestampMillis;
+
+      double observed;
+      if (baseline.signal == AnomalySignal.DELTA) {
+        if (!baseline.hasLastValue) {
+          baseline.hasLastValue = true;
+          baseline.lastValue = value;
+          return null;
+        }
+        observed = value - baseline.lastValue;
+        baseline.lastValue = value;
+      } else if (baseline.hourlyMean != null) {
+        int hour = (int) Math.floorMod(Math.floorDiv(timestampMillis, MILLIS_PER_HOUR), 24L);
+        int hourBit = 1 << hour;
+        if ((baseline.hoursSeen & hourBit) == 0) {
+          baseline.hoursSeen |= hourBit;
+          baseline.hourlyMean[hour] = value;
+          return null;
+        }
+        observed = value - baseline.hourlyMean[hour];
+        baseline.hourlyMean[hour] += seasonalAlpha * observed;
+      } else {
+        observed = value;
+      }
+
+      double stdDev = Math.max(Math.sqrt(baseline.variance), MIN_STD_DEV);
+      double expected = baseline.mean;
+      double score = baseline.count > 0 ? (observed - expected) / stdDev : 0.0;
+      boolean anomalous = baseline.count >= warmupReadings && Math.abs(score) > scoreThreshold;
+
+      if (baseline.count == 0) {
+        baseline.mean = observed;
+        baseline.variance = 0.0;
+      } else {
+        double diff = observed - baseline.mean;
+        double increment = alpha * diff;
+        baseline.mean += increment;
+        baseline.variance = (1.0 - alpha) * (baseline.variance + diff * increment);
+      }
+      baseline.count++;
+      baseline.lastScore = score;
+
+      if (!anomalous) {
+        return null;
+      }
+      return new SensorAnomaly(
+          reading.getDeviceId(),
+          reading.getDeviceType(),
+          reading.getZone(),
+          value,
+          baseline.signal.name(),
+          observed,
+          expected,
+          stdDev,
+          score,
+          ReadingTimes.fromEpochMillis(timestampMillis));
+    }
+  }
+
+  /** Current baseline of a device, or null if it has not reported since startup */
+  public DeviceBaseline getBaseline(String deviceId) {
+    return baselines.get(deviceId);
+  }
+
+  public int getTrackedDeviceCount() {
+    return baselines.size();
+  }
+}
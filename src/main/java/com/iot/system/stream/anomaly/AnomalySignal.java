@@ -0,0 +1,9 @@
+package com.iot.system.stream.anomaly;
+
+/** Quantity a device's EWMA baseline is fitted to */
+public enum AnomalySignal {
+  /** The raw reading value; catches levels far from normal */
+  VALUE,
+  /** The change since the previous reading; catches sudden jumps and drops */
+  DELTA
+}
@@ -0,0 +1,55 @@
+package com.iot.system.stream.anomaly;
+
+/**
+ * Constant-size EWMA state for one device. All fields are primitives updated in place, so scoring a
+ * reading allocates nothing. Guarded by its own monitor.
+ */
+public final class DeviceBaseline {
+
+  private static final int HOURS_PER_DAY = 24;
+
+  final AnomalySignal signal;
+
+  long count;
+  double mean;
+  double variance;
+  double lastScore;
+  long lastTimestampMillis;
+
+  boolean hasLastValue;
+  double lastValue;
+
+  /** Hour-of-day EWMA of the value, only allocated when seasonal scoring is enabled */
+  final double[] hourlyMean;
+
+  int hoursSeen;
+
+  DeviceBaseline(AnomalySignal signal, boolean seasonal) {
+    this.signal = signal;
+    this.hourlyMean = seasonal ? new double[HOURS_PER_DAY] : null;
+  }
+
+  public synchronized AnomalySignal getSignal() {
+    return signal;
+  }
+
+  public synchronized long getCount() {
+    return count;
+  }
+
+  public synchronized double getMean() {
+    return mean;
+  }
+
+  public synchronized double getStdDev() {
+    return Math.sqrt(variance);
+  }
+
+  public synchronized double getLastScore() {
+    return lastScore;
+  }
+
+  public synchronized long getLastTimestampMillis() {
+    return lastTimestampMillis;
+  }
+}
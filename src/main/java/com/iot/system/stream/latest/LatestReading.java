@@ -0,0 +1,40 @@
+package com.iot.system.stream.latest;
+
+/** Immutable last-known value of a device */
+public final class LatestReading {
+
+  private final String deviceId;
+  private final String deviceType;
+  private final String zone;
+  private final double value;
+  private final long timestampMillis;
+
+  public LatestReading(
+      String deviceId, String deviceType, String zone, double value, long timestampMillis) {
+    this.deviceId = deviceId;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.value = value;
+    this.timestampMillis = timestampMillis;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  public long getTimestampMillis() {
+    return timestampMillis;
+  }
+}
@@ -0,0 +1,215 @@
+package com.iot.system.stream.latest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Last-known value per device, updated from the ingest path with compare-and-set on a concurrent
+ * map so out-of-order readings never overwrite a newer value. Zone and type indexes are only
+ * touched when a device is first seen or moves, and devices updated since the last {@link
+ * #drainDirty()} are tracked for periodic persistence.
+ *
+ * <p>The indexes keep device IDs sorted, so a page of the device list walks only as far as its
+ * limit instead of sorting the whole fleet on every request.
+ */
+public class LatestValueRegistry {
+
+  private final Map<String, LatestReading> latest = new ConcurrentHashMap<>();
+  private final DeviceIndex allDevices = new DeviceIndex();
+  private final Map<String, DeviceIndex> devicesByZone = new ConcurrentHashMap<>();
+  private final Map<String, DeviceIndex> devicesByType = new ConcurrentHashMap<>();
+  private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Record a reading if it is newer than the device's current value
+   *
+   * @return true if the stored value changed
+   */
+  public boolean update(LatestReading reading) {
+    return put(reading, true);
+  }
+
+  /** Seed the registry from persisted state without marking devices dirty */
+  public void restore(LatestReading reading) {
+    put(reading, false);
+  }
+
+  public LatestReading get(String deviceId) {
+    return latest.get(deviceId);
+  }
+
+  public List<LatestReading> getByZone(String zone) {
+    return collect(devicesByZone.get(zone));
+  }
+
+  public List<LatestReading> getByType(String deviceType) {
+    return collect(devicesByType.get(deviceType));
+  }
+
+  /** Known devices, optionally filtered by zone and/or type, ordered by device ID */
+  public List<LatestReading> getDevices(String zone, String deviceType, int limit) {
+    DeviceIndex candidates = allDevices;
+    if (zone != null) {
+      candidates = devicesByZone.get(zone);
+    }
+    if (deviceType != null) {
+      DeviceIndex byType = devicesByType.get(deviceType);
+      // With both filters, walk the smaller index and check the other field on each reading
+      if (candidates == null || byType == null || byType.size() < candidates.size()) {
+        candidates = byType;
+      }
+    }
+    if (candidates == null) {
+      return List.of();
+    }
+
+    List<LatestReading> result = new ArrayList<>();
+    for (String id : candidates.deviceIds) {
+      LatestReading reading = latest.get(id);
+      if (reading != null
+          && (deviceType == null || deviceType.equals(reading.getDeviceType()))
+          && (zone == null || zone.equals(reading.getZone()))) {
+        result.add(reading);
+        if (result.size() >= limit) {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /** Device count per zone, sorted by zone */
+  public Map<String, Integer> getZoneCounts() {
+    return counts(devicesByZone);
+  }
+
+  /** Device count per device type, sorted by type */
+  public Map<String, Integer> getTypeCounts() {
+    return counts(devicesByType);
+  }
+
+  public int size() {
+    return latest.size();
+  }
+
+  /** Current values of every device updated since the previous call */
+  public List<LatestReading> drainDirty() {
+    List<LatestReading> drained = new ArrayList<>();
+    for (String deviceId : dirty) {
+      dirty.remove(deviceId);
+      LatestReading reading = latest.get(deviceId);
+      if (reading != null) {
+        drained.add(reading);
+      }
+    }
+    return drained;
+  }
+
+  private boolean put(LatestReading reading, boolean markDirty) {
+    String deviceId = reading.getDeviceId();
+    while (true) {
+      LatestReading current = latest.get(deviceId);
+      if (current == null) {
+        if (latest.putIfAbsent(deviceId, reading) == null) {
+          allDevices.add(deviceId);
+          index(null, reading);
+          break;
+        }
+      } else if (reading.getTimestampMillis() < current.getTimestampMillis()) {
+        return false;
+      } else if (latest.replace(deviceId, current, reading)) {
+        index(current, reading);
+        break;
+      }
+    }
+    if (markDirty) {
+      dirty.add(deviceId);
+    }
+    return true;
+  }
+
+  private void index(LatestReading previous, LatestReading reading) {
+    String zone = reading.getZone();
+    String deviceType = reading.getDeviceType();
+    if (previous == null || !Objects.equals(previous.getZone(), zone)) {
+      if (previous != null && previous.getZone() != null) {
+        removeFrom(devicesByZone, previous.getZone(), reading.getDeviceId());
+      }
+      if (zone != null) {
+        devicesByZone.computeIfAbsent(zone, z -> new DeviceIndex()).add(reading.getDeviceId());
+      }
+    }
+    if (previous == null || !Objects.equals(previous.getDeviceType(), deviceType)) {
+      if (previous != null && previous.getDeviceType() != null) {
+        removeFrom(devicesByType, previous.getDeviceType(), reading.getDeviceId());
+      }
+      if (deviceType != null) {
+        devicesByType
+            .computeIfAbsent(deviceType, t -> new DeviceIndex())
+            .add(reading.getDeviceId());
+      }
+    }
+  }
+
+  private static void removeFrom(Map<String, DeviceIndex> index, String key, String deviceId) {
+    DeviceIndex devices = index.get(key);
+    if (devices != null) {
+      devices.remove(deviceId);
+    }
+  }
+
+  private List<LatestReading> collect(DeviceIndex devices) {
+    if (devices == null) {
+      return List.of();
+    }
+    List<LatestReading> result = new ArrayList<>(devices.size());
+    for (String deviceId : devices.deviceIds) {
+      LatestReading reading = latest.get(deviceId);
+      if (reading != null) {
+        result.add(reading);
+      }
+    }
+    return result;
+  }
+
+  private static Map<String, Integer> counts(Map<String, DeviceIndex> index) {
+    Map<String, Integer> counts = new TreeMap<>();
+    index.forEach(
+        (key, devices) -> {
+          int size = devices.size();
+          if (size > 0) {
+            counts.put(key, size);
+          }
+        });
+    return counts;
+  }
+
+  /** Device IDs in sorted order, with a count kept alongside since skip-list sizes are O(n) */
+  private static final class DeviceIndex {
+    private final ConcurrentSkipListSet<String> deviceIds = new ConcurrentSkipListSet<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private void add(String deviceId) {
+      if (deviceIds.add(deviceId)) {
+        size.incrementAndGet();
+      }
+    }
+
+    private void remove(String deviceId) {
+      if (deviceIds.remove(deviceId)) {
+        size.decrementAndGet();
+      }
+    }
+
+    private int size() {
+      return size.get();
+    }
+  }
+}
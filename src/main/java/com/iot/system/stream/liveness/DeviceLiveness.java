@@ -0,0 +1,44 @@
+package com.iot.system.stream.liveness;
+
+/** Point-in-time liveness of one device */
+public final class DeviceLiveness {
+
+  private final String deviceId;
+  private final boolean online;
+  private final long lastSeenMillis;
+  private final long expectedIntervalMillis;
+  private final long silentForMillis;
+
+  public DeviceLiveness(
+      String deviceId,
+      boolean online,
+      long lastSeenMillis,
+      long expectedIntervalMillis,
+      long silentForMillis) {
+    this.deviceId = deviceId;
+    this.online = online;
+    this.lastSeenMillis = lastSeenMillis;
+    this.expectedIntervalMillis = expectedIntervalMillis;
+    this.silentForMillis = silentForMillis;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public boolean isOnline() {
+    return online;
+  }
+
+  public long getLastSeenMillis() {
+    return lastSeenMillis;
+  }
+
+  public long getExpectedIntervalMillis() {
+    return expectedIntervalMillis;
+  }
+
+  public long getSilentForMillis() {
+    return silentForMillis;
+  }
+}
@@ -0,0 +1,296 @@
+package com.iot.system.stream.liveness;
+
+import com.iot.common.model.DeviceStatusEvent;
+import com.iot.system.stream.ReadingTimes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Detects devices that stop reporting without scanning the fleet.
+ *
+ * <p>Per-device state lives in parallel primitive arrays addressed by a slot assigned on first
+ * sight. Online devices sit in a hashed timing wheel, linked through intrusive {@code next}/{@code
+ * prev} arrays, in the bucket of their heartbeat deadline ({@code lastSeen + missedHeartbeats *
+ * expectedInterval}). Recording a reading only updates {@code lastSeen} and the learned interval;
+ * the device is re-bucketed lazily when its old bucket comes due, so each reading costs O(1) and
+ * each tick only visits devices that might have expired. Only a shrinking deadline (a device
+ * speeding up) moves the device eagerly, so that it is never detected late.
+ *
+ * <p>Offline devices are moved to a separate intrusive list, which backs the stale-devices query.
+ *
+ * <p>Status events are collected under the tracker's lock and handed to the sink only after it is
+ * released, so a sink that blocks (e.g. on a full producer buffer during a mass outage) never holds
+ * up the ingest threads recording readings.
+ */
+public class LivenessTracker {
+
+  public static final byte ONLINE = 1;
+  public static final byte OFFLINE = 2;
+
+  private static final int NONE = -1;
+  private static final int OFFLINE_LIST = -2;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final long tickMillis;
+  private final int wheelMask;
+  private final int missedHeartbeats;
+  private final long defaultIntervalMillis;
+  private final long minTimeoutMillis;
+  private final double intervalAlpha;
+
+  private final int[] wheelHeads;
+  private int offlineHead = NONE;
+  private long nextTick = Long.MIN_VALUE;
+
+  private final Map<String, Integer> slots = new HashMap<>();
+  private String[] deviceIds = new String[INITIAL_CAPACITY];
+  private long[] lastSeen = new long[INITIAL_CAPACITY];
+  private long[] intervals = new long[INITIAL_CAPACITY];
+  private byte[] statuses = new byte[INITIAL_CAPACITY];
+  private int[] next = new int[INITIAL_CAPACITY];
+  private int[] prev = new int[INITIAL_CAPACITY];
+  private int[] buckets = new int[INITIAL_CAPACITY];
+  private long[] dueTicks = new long[INITIAL_CAPACITY];
+  private int size;
+  private int onlineCount;
+
+  public LivenessTracker(
+      long tickMillis,
+      int wheelSize,
+      int missedHeartbeats,
+      long defaultIntervalMillis,
+      long minTimeoutMillis,
+      double intervalAlpha) {
+    if (Integer.bitCount(wheelSize) != 1) {
+      throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+    }
+    this.tickMillis = tickMillis;
+    this.wheelMask = wheelSize - 1;
+    this.missedHeartbeats = missedHeartbeats;
+    this.defaultIntervalMillis = defaultIntervalMillis;
+    this.minTimeoutMillis = minTimeoutMillis;
+    this.intervalAlpha = intervalAlpha;
+    this.wheelHeads = new int[wheelSize];
+    Arrays.fill(wheelHeads, NONE);
+  }
+
+  /**
+   * Record that a device reported a reading stamped {@code eventMillis}. A first reading never
+   * produces an event; an offline device that reports again produces an ONLINE event.
+   */
+  public void recordReading(
+      String deviceId, long eventMillis, long nowMillis, Consumer<DeviceStatusEvent> sink) {
+    DeviceStatusEvent event;
+    synchronized (this) {
+      event = record(deviceId, eventMillis, nowMillis);
+    }
+    if (event != null) {
+      sink.accept(event);
+    }
+  }
+
+  private DeviceStatusEvent record(String deviceId, long eventMillis, long nowMillis) {
+    long seen = Math.min(eventMillis, nowMillis);
+    Integer existing = slots.get(deviceId);
+
+    if (existing == null) {
+      int slot = allocate(deviceId);
+      lastSeen[slot] = seen;
+      if (deadline(slot) > nowMillis) {
+        statuses[slot] = ONLINE;
+        onlineCount++;
+        linkIntoWheel(slot, deadline(slot));
+      } else {
+        statuses[slot] = OFFLINE;
+        link(slot, OFFLINE_LIST);
+      }
+      return null;
+    }
+
+    int slot = existing;
+    long gap = seen - lastSeen[slot];
+    if (gap <= 0) {
+      return null;
+    }
+    if (statuses[slot] == ONLINE) {
+      // Only learn cadence from consecutive readings; an outage is not a heartbeat interval
+      intervals[slot] =
+          intervals[slot] == 0
+              ? gap
+              : intervals[slot] + (long) (intervalAlpha * (gap - intervals[slot]));
+    }
+    lastSeen[slot] = seen;
+
+    if (statuses[slot] == ONLINE) {
+      if (Math.floorDiv(deadline(slot), tickMillis) < dueTicks[slot]) {
+        unlink(slot);
+        linkIntoWheel(slot, deadline(slot));
+      }
+    } else if (deadline(slot) > nowMillis) {
+      unlink(slot);
+      statuses[slot] = ONLINE;
+      onlineCount++;
+      linkIntoWheel(slot, deadline(slot));
+      return event(slot, DeviceStatusEvent.Status.ONLINE, nowMillis);
+    }
+    return null;
+  }
+
+  /** Process every wheel bucket due up to {@code nowMillis}, marking expired devices offline */
+  public void advance(long nowMillis, Consumer<DeviceStatusEvent> sink) {
+    List<DeviceStatusEvent> events;
+    synchronized (this) {
+      events = expire(nowMillis);
+    }
+    events.forEach(sink);
+  }
+
+  private List<DeviceStatusEvent> expire(long nowMillis) {
+    List<DeviceStatusEvent> events = new ArrayList<>();
+    long currentTick = Math.floorDiv(nowMillis, tickMillis);
+    if (nextTick == Long.MIN_VALUE || currentTick - nextTick > wheelMask) {
+      // First call or a stall longer than a rotation: one pass over every bucket covers all devices
+      nextTick = currentTick - wheelMask;
+    }
+
+    for (long tick = nextTick; tick <= currentTick; tick++) {
+      int bucket = (int) (tick & wheelMask);
+      int slot = wheelHeads[bucket];
+      wheelHeads[bucket] = NONE;
+
+      while (slot != NONE) {
+        int following = next[slot];
+        long deadline = deadline(slot);
+        if (deadline <= nowMillis) {
+          statuses[slot] = OFFLINE;
+          onlineCount--;
+          link(slot, OFFLINE_LIST);
+          events.add(event(slot, DeviceStatusEvent.Status.OFFLINE, nowMillis));
+        } else {
+          long dueTick = Math.max(Math.floorDiv(deadline, tickMillis), currentTick + 1);
+          link(slot, (int) (dueTick & wheelMask));
+          dueTicks[slot] = dueTick;
+        }
+        slot = following;
+      }
+    }
+    nextTick = currentTick + 1;
+    return events;
+  }
+
+  /** Liveness of a device, or null if it has never reported */
+  public synchronized DeviceLiveness get(String deviceId, long nowMillis) {
+    Integer slot = slots.get(deviceId);
+    return slot != null ? describe(slot, nowMillis) : null;
+  }
+
+  /** Offline devices, most recently transitioned first */
+  public synchronized List<DeviceLiveness> getOffline(int limit, long nowMillis) {
+    List<DeviceLiveness> result = new ArrayList<>();
+    for (int slot = offlineHead; slot != NONE && result.size() < limit; slot = next[slot]) {
+      result.add(describe(slot, nowMillis));
+    }
+    return result;
+  }
+
+  public synchronized int getDeviceCount() {
+    return size;
+  }
+
+  public synchronized int getOnlineCount() {
+    return onlineCount;
+  }
+
+  public synchronized int getOfflineCount() {
+    return size - onlineCount;
+  }
+
+  private long expectedInterval(int slot) {
+    return intervals[slot] > 0 ? intervals[slot] : defaultIntervalMillis;
+  }
+
+  private long deadline(int slot) {
+    return lastSeen[slot] + Math.max(minTimeoutMillis, missedHeartbeats * expectedInterval(slot));
+  }
+
+  private DeviceLiveness describe(int slot, long nowMillis) {
+    return new DeviceLiveness(
+        deviceIds[slot],
+        statuses[slot] == ONLINE,
+        lastSeen[slot],
+        expectedInterval(slot),
+        Math.max(0L, nowMillis - lastSeen[slot]));
+  }
+
+  private DeviceStatusEvent event(int slot, DeviceStatusEvent.Status status, long nowMillis) {
+    return new DeviceStatusEvent(
+        deviceIds[slot],
+        status,
+        expectedInterval(slot),
+        ReadingTimes.fromEpochMillis(lastSeen[slot]),
+        ReadingTimes.fromEpochMillis(nowMillis));
+  }
+
+  private void linkIntoWheel(int slot, long deadline) {
+    long dueTick = Math.floorDiv(deadline, tickMillis);
+    if (nextTick != Long.MIN_VALUE && dueTick < nextTick) {
+      dueTick = nextTick;
+    }
+    link(slot, (int) (dueTick & wheelMask));
+    dueTicks[slot] = dueTick;
+  }
+
+  /** Push a detached slot at the head of a wheel bucket or of the offline list */
+  private void link(int slot, int bucket) {
+    int head = bucket == OFFLINE_LIST ? offlineHead : wheelHeads[bucket];
+    next[slot] = head;
+    prev[slot] = NONE;
+    if (head != NONE) {
+      prev[head] = slot;
+    }
+    if (bucket == OFFLINE_LIST) {
+      offlineHead = slot;
+    } else {
+      wheelHeads[bucket] = slot;
+    }
+    buckets[slot] = bucket;
+  }
+
+  private void unlink(int slot) {
+    int bucket = buckets[slot];
+    if (prev[slot] != NONE) {
+      next[prev[slot]] = next[slot];
+    } else if (bucket == OFFLINE_LIST) {
+      offlineHead = next[slot];
+    } else {
+      wheelHeads[bucket] = next[slot];
+    }
+    if (next[slot] != NONE) {
+      prev[next[slot]] = prev[slot];
+    }
+    next[slot] = NONE;
+    prev[slot] = NONE;
+  }
+
+  private int allocate(String deviceId) {
+    if (size == deviceIds.length) {
+      int capacity = deviceIds.length * 2;
+      deviceIds = Arrays.copyOf(deviceIds, capacity);
+      lastSeen = Arrays.copyOf(lastSeen, capacity);
+      intervals = Arrays.copyOf(intervals, capacity);
+      statuses = Arrays.copyOf(statuses, capacity);
+      next = Arrays.copyOf(next, capacity);
+      prev = Arrays.copyOf(prev, capacity);
+      buckets = Arrays.copyOf(buckets, capacity);
+      dueTicks = Arrays.copyOf(dueTicks, capacity);
+    }
+    int slot = size++;
+    deviceIds[slot] = deviceId;
+    slots.put(deviceId, slot);
+    return slot;
+  }
+}
@@ -0,0 +1,92 @@
+package com.iot.system.stream.rollup;
+
+/** Running summary of one device's readings within one UTC minute */
+public final class MinuteRollup {
+
+  public static final long MINUTE_MILLIS = 60_000L;
+
+  private final String deviceId;
+  private final String deviceType;
+  private final String zone;
+  private final long minute;
+  private final QuantileSketch sketch;
+
+  private long count;
+  private double sum;
+  private double sumOfSquares;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+  private long lastUpdatedMillis;
+
+  MinuteRollup(
+      String deviceId, String deviceType, String zone, long minute, double sketchAccuracy) {
+    this.deviceId = deviceId;
+    this.deviceType = deviceType;
+    this.zone = zone;
+    this.minute = minute;
+    this.sketch = new QuantileSketch(sketchAccuracy);
+  }
+
+  void add(double value, long nowMillis) {
+    count++;
+    sum += value;
+    sumOfSquares += value * value;
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+    sketch.add(value);
+    lastUpdatedMillis = nowMillis;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String getDeviceType() {
+    return deviceType;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  /** Minutes since the epoch (UTC) */
+  public long getMinute() {
+    return minute;
+  }
+
+  public long getBucketStartMillis() {
+    return minute * MINUTE_MILLIS;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getSum() {
+    return sum;
+  }
+
+  public double getSumOfSquares() {
+    return sumOfSquares;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  public QuantileSketch getSketch() {
+    return sketch;
+  }
+
+  long getLastUpdatedMillis() {
+    return lastUpdatedMillis;
+  }
+}
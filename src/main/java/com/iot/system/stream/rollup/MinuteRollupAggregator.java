@@ -0,0 +1,160 @@
+package com.iot.system.stream.rollup;
+
+import com.iot.common.model.SensorReading;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups readings into per-device one-minute rollups and decides when each minute is final.
+ *
+ * <p>A device's minute closes once that device has reported a reading at least {@code
+ * allowedLateness} past the end of the minute (event time), or once the bucket has received nothing
+ * for a minute plus the allowed lateness (wall clock), which covers devices that stop reporting.
+ * Readings for an already closed minute are dropped and counted as late.
+ */
+public class MinuteRollupAggregator {
+
+  private final long allowedLatenessMillis;
+  private final double sketchAccuracy;
+
+  private final Map<String, DeviceBuckets> devices = new ConcurrentHashMap<>();
+  private final Queue<MinuteRollup> closed = new ConcurrentLinkedQueue<>();
+  private final AtomicLong lateReadings = new AtomicLong();
+
+  public MinuteRollupAggregator(long allowedLatenessMillis, double sketchAccuracy) {
+    this.allowedLatenessMillis = allowedLatenessMillis;
+    this.sketchAccuracy = sketchAccuracy;
+  }
+
+  public void add(SensorReading reading, long timestampMillis, long nowMillis) {
+    DeviceBuckets buckets = devices.get(reading.getDeviceId());
+    if (buckets == null) {
+      buckets = devices.computeIfAbsent(reading.getDeviceId(), id -> new DeviceBuckets());
+    }
+    long minute = Math.floorDiv(timestampMillis, MinuteRollup.MINUTE_MILLIS);
+
+    synchronized (buckets) {
+      if (minute <= buckets.closedThroughMinute) {
+        lateReadings.incrementAndGet();
+        return;
+      }
+
+      MinuteRollup rollup = buckets.find(minute);
+      if (rollup == null) {
+        rollup =
+            new MinuteRollup(
+                reading.getDeviceId(),
+                reading.getDeviceType(),
+                reading.getZone(),
+                minute,
+                sketchAccuracy);
+        buckets.open.add(rollup);
+      }
+      rollup.add(reading.getValue(), nowMillis);
+
+      if (timestampMillis > buckets.maxEventTimeMillis) {
+        buckets.maxEventTimeMillis = timestampMillis;
+        long watermarkMinute =
+            Math.floorDiv(timestampMillis - allowedLatenessMillis, MinuteRollup.MINUTE_MILLIS) - 1;
+        closeThrough(buckets, watermarkMinute);
+      }
+    }
+  }
+
+  /** Close idle minutes and hand over every minute closed since the last call */
+  public List<MinuteRollup> drainClosed(long nowMillis) {
+    long idleMillis = MinuteRollup.MINUTE_MILLIS + allowedLatenessMillis;
+    for (DeviceBuckets buckets : devices.values()) {
+      synchronized (buckets) {
+        Iterator<MinuteRollup> it = buckets.open.iterator();
+        while (it.hasNext()) {
+          MinuteRollup rollup = it.next();
+          if (nowMillis - rollup.getLastUpdatedMillis() >= idleMillis) {
+            it.remove();
+            buckets.closedThroughMinute = Math.max(buckets.closedThroughMinute, rollup.getMinute());
+            closed.add(rollup);
+          }
+        }
+      }
+    }
+    return drainQueue();
+  }
+
+  /** Close every open minute regardless of lateness, e.g. on shutdown */
+  public List<MinuteRollup> drainAll() {
+    for (DeviceBuckets buckets : devices.values()) {
+      synchronized (buckets) {
+        long newest = Long.MIN_VALUE;
+        for (MinuteRollup rollup : buckets.open) {
+          newest = Math.max(newest, rollup.getMinute());
+        }
+        closeThrough(buckets, newest);
+      }
+    }
+    return drainQueue();
+  }
+
+  /** Hand minutes that could not be written back, so the next drain returns them again */
+  public void requeue(List<MinuteRollup> rollups) {
+    closed.addAll(rollups);
+  }
+
+  public long getLateReadingCount() {
+    return lateReadings.get();
+  }
+
+  public int getOpenRollupCount() {
+    int open = 0;
+    for (DeviceBuckets buckets : devices.values()) {
+      synchronized (buckets) {
+        open += buckets.open.size();
+      }
+    }
+    return open;
+  }
+
+  private void closeThrough(DeviceBuckets buckets, long minute) {
+    if (minute <= buckets.closedThroughMinute) {
+      return;
+    }
+    Iterator<MinuteRollup> it = buckets.open.iterator();
+    while (it.hasNext()) {
+      MinuteRollup rollup = it.next();
+      if (rollup.getMinute() <= minute) {
+        it.remove();
+        closed.add(rollup);
+      }
+    }
+    buckets.closedThroughMinute = minute;
+  }
+
+  private List<MinuteRollup> drainQueue() {
+    List<MinuteRollup> drained = new ArrayList<>();
+    MinuteRollup rollup;
+    while ((rollup = closed.poll()) != null) {
+      drained.add(rollup);
+    }
+    return drained;
+  }
+
+  private static final class DeviceBuckets {
+    private final List<MinuteRollup> open = new ArrayList<>(2);
+    private long closedThroughMinute = Long.MIN_VALUE;
+    private long maxEventTimeMillis = Long.MIN_VALUE;
+
+    private MinuteRollup find(long minute) {
+      for (int i = 0; i < open.size(); i++) {
+        if (open.get(i).getMinute() == minute) {
+          return open.get(i);
+        }
+      }
+      return null;
+    }
+  }
+}
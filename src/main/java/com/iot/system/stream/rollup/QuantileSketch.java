@@ -0,0 +1,225 @@
+package com.iot.system.stream.rollup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable quantile sketch with a relative-accuracy guarantee (DDSketch-style logarithmic
+ * buckets). A value {@code v} is counted in bucket {@code ceil(log(|v|) / log(gamma))}, so every
+ * quantile estimate is within {@code relativeAccuracy} of a true value. Buckets are dense int
+ * arrays that grow to the observed range, which stays small for sensor readings (a few dozen bins
+ * per device-minute).
+ */
+public final class QuantileSketch {
+
+  private static final byte FORMAT_VERSION = 1;
+
+  /** Magnitudes below this are counted as zero */
+  private static final double MIN_INDEXABLE = 1e-9;
+
+  private final double relativeAccuracy;
+  private final double gamma;
+  private final double logGamma;
+
+  private final Store positive = new Store();
+  private final Store negative = new Store();
+  private long zeroCount;
+
+  public QuantileSketch(double relativeAccuracy) {
+    if (relativeAccuracy <= 0.0 || relativeAccuracy >= 1.0) {
+      throw new IllegalArgumentException(
+          "Relative accuracy must be in (0, 1): " + relativeAccuracy);
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+  }
+
+  public void add(double value) {
+    if (value > MIN_INDEXABLE) {
+      positive.increment(index(value), 1);
+    } else if (value < -MIN_INDEXABLE) {
+      negative.increment(index(-value), 1);
+    } else {
+      zeroCount++;
+    }
+  }
+
+  public void merge(QuantileSketch other) {
+    if (other.relativeAccuracy != relativeAccuracy) {
+      throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+    }
+    positive.merge(other.positive);
+    negative.merge(other.negative);
+    zeroCount += other.zeroCount;
+  }
+
+  public long getCount() {
+    return positive.total + negative.total + zeroCount;
+  }
+
+  public double getRelativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  /**
+   * Estimate the value at quantile {@code q}
+   *
+   * @return the estimate, or NaN for an empty sketch
+   */
+  public double quantile(double q) {
+    long count = getCount();
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = (long) (Math.max(0.0, Math.min(1.0, q)) * (count - 1));
+
+    // Ascending value order: negatives from largest magnitude down, zeros, then positives
+    long seen = 0;
+    for (int i = negative.counts.length - 1; i >= 0; i--) {
+      seen += negative.counts[i];
+      if (seen > rank) {
+        return -value(negative.offset + i);
+      }
+    }
+    seen += zeroCount;
+    if (seen > rank) {
+      return 0.0;
+    }
+    for (int i = 0; i < positive.counts.length; i++) {
+      seen += positive.counts[i];
+      if (seen > rank) {
+        return value(positive.offset + i);
+      }
+    }
+    return value(positive.offset + positive.counts.length - 1);
+  }
+
+  /** Compact binary form: varint-encoded bucket counts, typically a few dozen bytes */
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+    out.write(FORMAT_VERSION);
+    long bits = Double.doubleToLongBits(relativeAccuracy);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (bits >>> shift));
+    }
+    writeVarLong(out, zeroCount);
+    positive.write(out);
+    negative.write(out);
+    return out.toByteArray();
+  }
+
+  public static QuantileSketch fromBytes(byte[] bytes) {
+    ByteBuffer in = ByteBuffer.wrap(bytes);
+    byte version = in.get();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported sketch format version: " + version);
+    }
+    QuantileSketch sketch = new QuantileSketch(in.getDouble());
+    sketch.zeroCount = readVarLong(in);
+    sketch.positive.read(in);
+    sketch.negative.read(in);
+    return sketch;
+  }
+
+  private int index(double magnitude) {
+    return (int) Math.ceil(Math.log(magnitude) / logGamma);
+  }
+
+  private double value(int index) {
+    return 2.0 * Math.exp(index * logGamma) / (gamma + 1.0);
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(ByteBuffer in) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  /** Dense counts for a contiguous bucket index range starting at {@code offset} */
+  private static final class Store {
+    private static final int[] EMPTY = new int[0];
+    private static final int GROWTH_PADDING = 8;
+
+    private int[] counts = EMPTY;
+    private int offset;
+    private long total;
+
+    void increment(int index, int count) {
+      ensureCovers(index);
+      counts[index - offset] += count;
+      total += count;
+    }
+
+    void merge(Store other) {
+      for (int i = 0; i < other.counts.length; i++) {
+        if (other.counts[i] != 0) {
+          increment(other.offset + i, other.counts[i]);
+        }
+      }
+    }
+
+    private void ensureCovers(int index) {
+      if (counts.length == 0) {
+        counts = new int[GROWTH_PADDING * 2];
+        offset = index - GROWTH_PADDING;
+        return;
+      }
+      int last = offset + counts.length - 1;
+      if (index >= offset && index <= last) {
+        return;
+      }
+      int newOffset = Math.min(offset, index - GROWTH_PADDING);
+      int newLast = Math.max(last, index + GROWTH_PADDING);
+      int[] grown = new int[newLast - newOffset + 1];
+      System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+      counts = grown;
+      offset = newOffset;
+    }
+
+    void write(ByteArrayOutputStream out) {
+      int first = 0;
+      int last = counts.length - 1;
+      while (first <= last && counts[first] == 0) {
+        first++;
+      }
+      while (last >= first && counts[last] == 0) {
+        last--;
+      }
+      int length = last - first + 1;
+      int start = offset + first;
+      writeVarLong(out, Integer.toUnsignedLong((start << 1) ^ (start >> 31)));
+      writeVarLong(out, length);
+      for (int i = first; i <= last; i++) {
+        writeVarLong(out, counts[i]);
+      }
+    }
+
+    void read(ByteBuffer in) {
+      int zigzag = (int) readVarLong(in);
+      int start = (zigzag >>> 1) ^ -(zigzag & 1);
+      int length = (int) readVarLong(in);
+      counts = length == 0 ? EMPTY : new int[length];
+      offset = start;
+      total = 0;
+      for (int i = 0; i < length; i++) {
+        counts[i] = (int) readVarLong(in);
+        total += counts[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.iot.system.timing;
+
+import com.iot.system.service.QueryTimingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times query API requests from handler selection to completion, as the {@code endpoint} layer of
+ * {@link QueryTimingService}, with the path variables and request parameters of the call.
+ */
+public class EndpointTimingInterceptor implements HandlerInterceptor {
+
+  private static final String START_ATTRIBUTE =
+      EndpointTimingInterceptor.class.getName() + ".start";
+
+  private final QueryTimingService queryTimingService;
+
+  public EndpointTimingInterceptor(QueryTimingService queryTimingService) {
+    this.queryTimingService = queryTimingService;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (!(handler instanceof HandlerMethod method)
+        || !(request.getAttribute(START_ATTRIBUTE) instanceof Long startNanos)) {
+      return;
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+
+    QueryCall call = new QueryCall(QueryTimingService.ENDPOINT, method.getMethod().getName());
+    if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)
+        instanceof Map<?, ?> variables) {
+      variables.forEach((name, value) -> call.parameter(name.toString(), value));
+    }
+    request
+        .getParameterMap()
+        .forEach(
+            (name, values) -> {
+              String value = values.length > 0 ? values[0] : null;
+              call.parameter(name, isTimeParameter(name) ? parseTime(value) : value);
+            });
+    if (ex != null || response.getStatus() >= 400) {
+      call.failed();
+    }
+    queryTimingService.record(call, elapsedNanos);
+  }
+
+  private static boolean isTimeParameter(String name) {
+    return name.equals("startTime") || name.equals("endTime");
+  }
+
+  /** The time as the controller binds it, or the raw text if it is not an ISO date-time */
+  private static Object parseTime(String value) {
+    try {
+      return value != null ? LocalDateTime.parse(value) : null;
+    } catch (DateTimeParseException e) {
+      return value;
+    }
+  }
+}
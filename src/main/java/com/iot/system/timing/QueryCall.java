@@ -0,0 +1,130 @@
+package com.iot.system.timing;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed call of the query API: the layer and operation it ran in, the device, zone or device
+ * type it filtered on, its time range, and the SQL to explain it with if it turns out slow.
+ * Parameters named like the API's ({@code deviceId}, {@code zone}, {@code deviceType}, {@code
+ * startTime}, {@code endTime}) set the dimension and range as they are added.
+ */
+public class QueryCall {
+
+  public static final String NO_DIMENSION = "none";
+
+  private final String layer;
+  private final String operation;
+  private final Map<String, Object> parameters = new LinkedHashMap<>();
+  private String dimension = NO_DIMENSION;
+  private String subject;
+  private LocalDateTime startTime;
+  private LocalDateTime endTime;
+  private long rows = -1;
+  private boolean failed;
+  private String sql;
+  private Object[] sqlArgs;
+  private Map<String, ?> sqlNamedArgs;
+
+  public QueryCall(String layer, String operation) {
+    this.layer = layer;
+    this.operation = operation;
+  }
+
+  /** Add a parameter; collections are kept as their size only */
+  public QueryCall parameter(String name, Object value) {
+    switch (name) {
+      case "deviceId" -> dimension("device", value);
+      case "zone" -> dimension("zone", value);
+      case "deviceType" -> dimension("type", value);
+      case "startTime" -> startTime = value instanceof LocalDateTime time ? time : startTime;
+      case "endTime" -> endTime = value instanceof LocalDateTime time ? time : endTime;
+      default -> {}
+    }
+    parameters.put(
+        name, value instanceof Collection<?> items ? "[" + items.size() + " items]" : value);
+    return this;
+  }
+
+  /** Rows returned, or readings aggregated for an aggregate query */
+  public QueryCall rows(long rows) {
+    this.rows = rows;
+    return this;
+  }
+
+  public QueryCall failed() {
+    this.failed = true;
+    return this;
+  }
+
+  /** SQL with positional parameters, for EXPLAIN */
+  public QueryCall statement(String sql, Object... args) {
+    this.sql = sql;
+    this.sqlArgs = args;
+    return this;
+  }
+
+  /** SQL with named parameters, for EXPLAIN */
+  public QueryCall namedStatement(String sql, Map<String, ?> args) {
+    this.sql = sql;
+    this.sqlNamedArgs = args;
+    return this;
+  }
+
+  private void dimension(String dimension, Object value) {
+    this.dimension = dimension;
+    this.subject = value != null ? value.toString() : null;
+  }
+
+  public String getLayer() {
+    return layer;
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public Map<String, Object> getParameters() {
+    return parameters;
+  }
+
+  /** What the call filtered on: {@code device}, {@code zone}, {@code type} or {@code none} */
+  public String getDimension() {
+    return dimension;
+  }
+
+  /** The device ID, zone or device type filtered on */
+  public String getSubject() {
+    return subject;
+  }
+
+  public LocalDateTime getStartTime() {
+    return startTime;
+  }
+
+  public LocalDateTime getEndTime() {
+    return endTime;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public boolean isFailed() {
+    return failed;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public Object[] getSqlArgs() {
+    return sqlArgs;
+  }
+
+  public Map<String, ?> getSqlNamedArgs() {
+    return sqlNamedArgs;
+  }
+}
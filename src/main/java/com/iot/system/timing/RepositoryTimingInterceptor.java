@@ -0,0 +1,117 @@
+package com.iot.system.timing;
+
+import com.iot.system.repository.SensorAggregateResult;
+import com.iot.system.service.QueryTimingService;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Times repository queries as the {@code repository} layer of {@link QueryTimingService}, with
+ * their parameters and the rows they returned. Native queries carry their SQL, so slow ones can be
+ * explained. Added inside the repository proxy, it also times the queries that default methods
+ * call.
+ *
+ * <p>Only the methods matched by {@link #QUERY_METHODS} are timed, so ingest writes such as {@code
+ * saveAll} stay out of the query latency series and the slow-query log.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+  private static final String SPRING_DATA_PACKAGE = "org.springframework.data.";
+
+  /**
+   * Methods declared on the application's repositories, and Spring Data's find and count methods
+   */
+  public static final Pointcut QUERY_METHODS =
+      new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+          return isQueryMethod(method);
+        }
+      };
+
+  private final ObjectProvider<QueryTimingService> queryTimingService;
+
+  public RepositoryTimingInterceptor(ObjectProvider<QueryTimingService> queryTimingService) {
+    this.queryTimingService = queryTimingService;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    QueryTimingService timing = queryTimingService.getIfAvailable();
+    if (timing == null) {
+      return invocation.proceed();
+    }
+
+    Method method = invocation.getMethod();
+    QueryCall call = new QueryCall(QueryTimingService.REPOSITORY, method.getName());
+    Map<String, Object> namedArgs = new LinkedHashMap<>();
+    Parameter[] parameters = method.getParameters();
+    Object[] args = invocation.getArguments();
+    for (int i = 0; i < parameters.length && i < args.length; i++) {
+      Param param = parameters[i].getAnnotation(Param.class);
+      String name = param != null ? param.value() : parameters[i].getName();
+      call.parameter(name, args[i]);
+      namedArgs.put(name, args[i]);
+    }
+    Query query = method.getAnnotation(Query.class);
+    if (query != null && query.nativeQuery()) {
+      call.namedStatement(query.value(), namedArgs);
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      Object result = invocation.proceed();
+      call.rows(rowCount(result));
+      return result;
+    } catch (Throwable e) {
+      call.failed();
+      throw e;
+    } finally {
+      timing.record(call, System.nanoTime() - startNanos);
+    }
+  }
+
+  static boolean isQueryMethod(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (!Repository.class.isAssignableFrom(declaringClass)) {
+      return false;
+    }
+    if (!declaringClass.getName().startsWith(SPRING_DATA_PACKAGE)) {
+      return true;
+    }
+    String name = method.getName();
+    return name.startsWith("find") || name.startsWith("count");
+  }
+
+  /** Rows in a query result; for an aggregate, the readings it covers */
+  static long rowCount(Object result) {
+    if (result instanceof SensorAggregateResult aggregate) {
+      return aggregate.getCount();
+    }
+    if (result instanceof Collection<?> rows) {
+      return rows.size();
+    }
+    if (result instanceof Object[] rows) {
+      return rows.length;
+    }
+    if (result instanceof Iterable<?> rows) {
+      long count = 0;
+      for (Object ignored : rows) {
+        count++;
+      }
+      return count;
+    }
+    return result != null ? 1 : 0;
+  }
+}
@@ -0,0 +1,28 @@
+-- Per-device one-minute rollups written in bulk by the ingest pipeline
+CREATE TABLE device_minute_rollups (
+                                       device_id VARCHAR(100) NOT NULL,
+                                       device_type VARCHAR(50) NOT NULL,
+                                       zone VARCHAR(50),
+                                       bucket TIMESTAMP NOT NULL,
+                                       data_point_count INTEGER NOT NULL,
+                                       sum_value DOUBLE PRECISION NOT NULL,
+                                       sum_squares DOUBLE PRECISION NOT NULL,
+                                       min_value DOUBLE PRECISION NOT NULL,
+                                       max_value DOUBLE PRECISION NOT NULL,
+                                       sketch BYTEA,
+                                       PRIMARY KEY (device_id, bucket)
+);
+
+-- Convert to hypertable
+SELECT create_hypertable('device_minute_rollups', 'bucket', chunk_time_interval => INTERVAL '1 day');
+
+-- Zone-level scans over the minute tier
+CREATE INDEX idx_device_minute_rollups_zone_bucket ON device_minute_rollups (zone, bucket DESC);
+
+-- Compression and retention (between raw readings and the hourly aggregates)
+ALTER TABLE device_minute_rollups SET (timescaledb.compress = true, timescaledb.compress_segmentby = 'device_id');
+SELECT add_compression_policy('device_minute_rollups', INTERVAL '7 day');
+SELECT add_retention_policy('device_minute_rollups', INTERVAL '90 days');
+
+-- Permissions
+GRANT SELECT, INSERT, UPDATE ON device_minute_rollups TO PUBLIC;
@@ -0,0 +1,15 @@
+-- Last-known value per device, bulk-upserted from the ingest path
+CREATE TABLE device_latest (
+                               device_id VARCHAR(100) PRIMARY KEY,
+                               device_type VARCHAR(50) NOT NULL,
+                               zone VARCHAR(50),
+                               value DOUBLE PRECISION NOT NULL,
+                               timestamp TIMESTAMP NOT NULL,
+                               updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_device_latest_zone ON device_latest (zone);
+CREATE INDEX idx_device_latest_device_type ON device_latest (device_type);
+
+-- Permissions
+GRANT SELECT, INSERT, UPDATE ON device_latest TO PUBLIC;
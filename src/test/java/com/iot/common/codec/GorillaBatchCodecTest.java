@@ -0,0 +1,148 @@
+package com.iot.common.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.model.ReadingBatch;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GorillaBatchCodecTest {
+
+  private static ReadingBatch.Series series(String deviceId, long[] timestamps, double[] values) {
+    return new ReadingBatch.Series(deviceId, "THERMOSTAT", "kitchen", timestamps, values);
+  }
+
+  private static void assertRoundTrip(ReadingBatch batch) {
+    ReadingBatch decoded = GorillaBatchReader.decode(GorillaBatchWriter.encode(batch));
+    assertEquals(batch.getSeries().size(), decoded.getSeries().size());
+    for (int i = 0; i < batch.getSeries().size(); i++) {
+      ReadingBatch.Series expected = batch.getSeries().get(i);
+      ReadingBatch.Series actual = decoded.getSeries().get(i);
+      assertEquals(expected.getDeviceId(), actual.getDeviceId());
+      assertEquals(expected.getDeviceType(), actual.getDeviceType());
+      assertEquals(expected.getZone(), actual.getZone());
+      assertArrayEquals(expected.getTimestamps(), actual.getTimestamps());
+      // Bit-exact, so NaN payloads and negative zero survive
+      assertArrayEquals(
+          Arrays.stream(expected.getValues()).mapToLong(Double::doubleToRawLongBits).toArray(),
+          Arrays.stream(actual.getValues()).mapToLong(Double::doubleToRawLongBits).toArray());
+    }
+  }
+
+  @Test
+  void testRegularSeriesRoundTripsAndCompresses() throws Exception {
+    int count = 60;
+    long[] timestamps = new long[count];
+    double[] values = new double[count];
+    for (int i = 0; i < count; i++) {
+      timestamps[i] = 1_704_067_200_000L + i * 1000L;
+      values[i] = 20 + Math.round(Math.sin(i / 10.0) * 10) / 10.0;
+    }
+    ReadingBatch batch = new ReadingBatch(List.of(series("THERMO-0000001", timestamps, values)));
+
+    assertRoundTrip(batch);
+    int json = new ObjectMapper().writeValueAsBytes(batch).length;
+    int gorilla = GorillaBatchWriter.encode(batch).length;
+    assertTrue(gorilla * 3 < json, "gorilla " + gorilla + " bytes, json " + json + " bytes");
+  }
+
+  @Test
+  void testIrregularTimestampsAndSpecialValuesRoundTrip() {
+    long[] timestamps = {
+      -5_000, 0, 1, 1, 64, 300, 2_500, 10_000_000_000L, Long.MIN_VALUE / 2, Long.MAX_VALUE / 2
+    };
+    double[] values = {
+      0.0,
+      -0.0,
+      Double.NaN,
+      Double.POSITIVE_INFINITY,
+      Double.NEGATIVE_INFINITY,
+      Double.MIN_VALUE,
+      Double.MAX_VALUE,
+      1e-300,
+      72.5,
+      72.5
+    };
+    assertRoundTrip(new ReadingBatch(List.of(series("a", timestamps, values))));
+  }
+
+  @Test
+  void testRandomSeriesRoundTrip() {
+    Random random = new Random(45);
+    for (int run = 0; run < 50; run++) {
+      int count = random.nextInt(200);
+      long[] timestamps = new long[count];
+      double[] values = new double[count];
+      long timestamp = random.nextLong() >> 8;
+      for (int i = 0; i < count; i++) {
+        timestamp += random.nextInt(4) == 0 ? random.nextInt(100_000) : 1000;
+        timestamps[i] = timestamp;
+        values[i] = random.nextBoolean() ? random.nextGaussian() * 1000 : i % 7;
+      }
+      assertRoundTrip(new ReadingBatch(List.of(series("HR-" + run, timestamps, values))));
+    }
+  }
+
+  @Test
+  void testGatewayBatchWithEmptySeriesAndMissingFields() {
+    ReadingBatch batch =
+        new ReadingBatch(
+            List.of(
+                series("THERMO-1", new long[] {1000, 2000}, new double[] {1.5, 1.75}),
+                new ReadingBatch.Series("Zürich-7", null, null, new long[0], new double[0]),
+                series("THERMO-3", new long[] {7}, new double[] {-3})));
+    assertRoundTrip(batch);
+    assertRoundTrip(new ReadingBatch());
+  }
+
+  @Test
+  void testWriterIsReusableAcrossBatches() {
+    GorillaBatchWriter writer = new GorillaBatchWriter();
+    writer.addSeries("x", "t", "z", new long[] {1, 2, 3}, new double[] {1, 2, 3}, 0, 3);
+    writer.finish();
+
+    writer.begin();
+    writer.addSeries("y", "t", "z", new long[] {0, 5, 9}, new double[] {0, 4, 8}, 1, 2);
+    assertEquals(2, writer.readings());
+    ReadingBatch decoded = GorillaBatchReader.decode(writer.finish());
+
+    assertEquals(1, decoded.getSeries().size());
+    assertArrayEquals(new long[] {5, 9}, decoded.getSeries().get(0).getTimestamps());
+    assertArrayEquals(new double[] {4, 8}, decoded.getSeries().get(0).getValues());
+  }
+
+  @Test
+  void testTruncatedOrForeignInputIsRejected() {
+    byte[] envelope =
+        GorillaBatchWriter.encode(
+            new ReadingBatch(
+                List.of(series("THERMO-1", new long[] {1000, 2000}, new double[] {1, 2}))));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> GorillaBatchReader.decode(Arrays.copyOf(envelope, envelope.length - 3)));
+    assertThrows(IllegalArgumentException.class, () -> GorillaBatchReader.decode(new byte[0]));
+    assertThrows(IllegalArgumentException.class, () -> GorillaBatchReader.decode("{}".getBytes()));
+  }
+
+  @Test
+  void testCountBeyondTheEnvelopeIsRejectedBeforeAllocating() {
+    BitWriter bits = new BitWriter();
+    bits.writeBits(GorillaBatchWriter.VERSION, 8);
+    bits.writeBit(true);
+    bits.writeVarint(0);
+    bits.writeVarint(0);
+    bits.writeVarint(0);
+    bits.writeVarint(GorillaBatchReader.MAX_SERIES_READINGS);
+    bits.writeBits(0, 64);
+    bits.writeBits(0, 64);
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class, () -> GorillaBatchReader.decode(bits.toByteArray()));
+    assertTrue(e.getMessage().contains("claims " + GorillaBatchReader.MAX_SERIES_READINGS));
+  }
+}
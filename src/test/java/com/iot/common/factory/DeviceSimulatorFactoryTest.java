@@ -6,6 +6,7 @@ import com.iot.simulator.device.DeviceSimulator;
 import com.iot.simulator.device.FuelSensorSimulator;
 import com.iot.simulator.device.HeartRateSimulator;
 import com.iot.simulator.device.ThermostatSimulator;
+import com.iot.simulator.fleet.DeviceFleet;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -95,4 +96,17 @@ class DeviceSimulatorFactoryTest {
       }, "Should be able to generate readings without exceptions");
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void testStandardFleetKeepsTheStandardDeviceIds() {
+    List<DeviceSimulator> simulators = DeviceSimulatorFactory.createStandardDeviceSet();
+    DeviceFleet fleet = DeviceSimulatorFactory.createStandardFleet(null);
+
+    assertEquals(simulators.size(), fleet.size());
+    for (int device = 0; device < fleet.size(); device++) {
+      assertEquals(simulators.get(device).getDeviceId(), fleet.deviceId(device));
+      assertEquals(simulators.get(device).getZone(), fleet.zone(device));
+    }
+    assertEquals("THERMO-11", fleet.deviceId(1));
+  }
+}
@@ -0,0 +1,78 @@
+package com.iot.simulator.bulk;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class PgBinaryCopyEncoderTest {
+
+  private static String readText(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void testEncodesHeaderRowAndTrailer() {
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(16);
+    long timestampMillis =
+        LocalDateTime.of(2000, 1, 1, 0, 0, 1).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    encoder.header();
+    encoder.row("THERMO-1", "THERMOSTAT", "lab", 21.5, timestampMillis);
+    encoder.trailer();
+
+    ByteBuffer buffer = ByteBuffer.wrap(encoder.toByteArray());
+    byte[] signature = new byte[11];
+    buffer.get(signature);
+    assertArrayEquals(
+        new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+    assertEquals(0, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+
+    assertEquals(5, buffer.getShort());
+    assertEquals("THERMO-1", readText(buffer));
+    assertEquals("THERMOSTAT", readText(buffer));
+    assertEquals("lab", readText(buffer));
+    assertEquals(8, buffer.getInt());
+    assertEquals(21.5, buffer.getDouble());
+    assertEquals(8, buffer.getInt());
+    // Microseconds since the PostgreSQL epoch
+    assertEquals(1_000_000L, buffer.getLong());
+
+    assertEquals(-1, buffer.getShort());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void testEncodesNonAsciiDeviceIds() {
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(16);
+
+    encoder.row("capteur-é", "THERMOSTAT", "séjour", 1.0, 0);
+
+    ByteBuffer buffer = ByteBuffer.wrap(encoder.toByteArray());
+    buffer.getShort();
+    assertEquals("capteur-é", readText(buffer));
+    assertEquals("THERMOSTAT", readText(buffer));
+    assertEquals("séjour", readText(buffer));
+  }
+
+  @Test
+  void testResetReusesBuffer() {
+    PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(16);
+    for (int i = 0; i < 1000; i++) {
+      encoder.row("HR-" + i, "HEART_RATE", "gym", 70.0, i);
+    }
+    int size = encoder.size();
+
+    encoder.reset();
+    encoder.row("HR-1", "HEART_RATE", "gym", 70.0, 1);
+
+    assertTrue(size > 1000 * 40);
+    assertEquals(2 + 4 + 4 + 4 + 10 + 4 + 3 + 12 + 12, encoder.size());
+  }
+}
@@ -0,0 +1,134 @@
+package com.iot.simulator.encode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.codec.GorillaBatchReader;
+import com.iot.common.model.ReadingBatch;
+import com.iot.common.model.ReadingHeaders;
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+
+class ReadingBatchEncoderTest {
+
+  private static final String TOPIC = "iot-reading-batches";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static DeviceFleet fleet() {
+    return new DeviceFleet(
+        List.of(
+            new FleetGroup("THERMOSTAT", 3, 1000L, "THERMO-%03d", Map.of("the \"lab\"", 1)),
+            new FleetGroup("HEART_RATE", 2, 1000L, "HR-%d", Map.of("gym", 1))),
+        42L);
+  }
+
+  @Test
+  void testSeriesOfOneDeviceRoundTrip() throws Exception {
+    DeviceSeriesBuffer buffer = new DeviceSeriesBuffer(5, 3, 60_000);
+    buffer.add(1, 1_704_067_200_000L, 21.5);
+    buffer.add(1, 1_704_067_201_000L, -0.125);
+    buffer.add(1, 1_704_067_202_500L, 1e-7);
+
+    ReadingBatchEncoder encoder = new ReadingBatchEncoder(fleet());
+    encoder.begin();
+    encoder.addSeries(1, buffer.timestamps(), buffer.values(), buffer.offset(1), buffer.count(1));
+    encoder.finish();
+    ProducerRecord<byte[], byte[]> record = encoder.toRecord(TOPIC);
+
+    assertEquals("THERMO-002", new String(record.key(), StandardCharsets.UTF_8));
+    assertEquals(
+        ReadingBatch.JSON_ENCODING,
+        new String(
+            record.headers().lastHeader(ReadingHeaders.BATCH_ENCODING).value(),
+            StandardCharsets.UTF_8));
+    assertEquals(3, encoder.readings());
+
+    ReadingBatch batch = objectMapper.readValue(record.value(), ReadingBatch.class);
+    assertEquals(1, batch.getSeries().size());
+    ReadingBatch.Series series = batch.getSeries().get(0);
+    assertEquals("THERMO-002", series.getDeviceId());
+    assertEquals("THERMOSTAT", series.getDeviceType());
+    assertEquals("the \"lab\"", series.getZone());
+    assertArrayEquals(
+        new long[] {1_704_067_200_000L, 1_704_067_201_000L, 1_704_067_202_500L},
+        series.getTimestamps());
+    assertArrayEquals(new double[] {21.5, -0.125, 1e-7}, series.getValues());
+
+    List<SensorReading> readings = batch.toReadings();
+    assertEquals(
+        LocalDateTime.of(2024, 1, 1, 0, 0, 2, 500_000_000), readings.get(2).getTimestamp());
+    assertEquals(-0.125, readings.get(1).getValue());
+  }
+
+  @Test
+  void testGatewayBatchCarriesOneSeriesPerDevice() throws Exception {
+    ReadingBatchEncoder encoder = new ReadingBatchEncoder(fleet());
+    encoder.begin();
+    encoder.addSeries(0, new long[] {1000, 2000}, new double[] {1, 2}, 0, 2);
+    encoder.addSeries(4, new long[] {0, 3000}, new double[] {0, 3}, 1, 1);
+    encoder.finish();
+
+    ReadingBatch batch = objectMapper.readValue(encoder.payload(), ReadingBatch.class);
+    assertEquals(3, batch.size());
+    assertEquals("HR-2", batch.getSeries().get(1).getDeviceId());
+    assertArrayEquals(new long[] {3000}, batch.getSeries().get(1).getTimestamps());
+    assertEquals("HR-2", new String(encoder.key(), StandardCharsets.UTF_8));
+
+    encoder.begin();
+    encoder.finish();
+    assertEquals(0, objectMapper.readValue(encoder.payload(), ReadingBatch.class).size());
+  }
+
+  @Test
+  void testGorillaEnvelopeDecodesToTheSameSeries() throws Exception {
+    long[] timestamps = {1_704_067_200_000L, 1_704_067_201_000L, 1_704_067_202_000L};
+    double[] values = {21.5, 21.5, 21.625};
+    BatchEnvelopeEncoder json =
+        BatchEnvelopeEncoder.forEncoding(ReadingBatch.JSON_ENCODING, fleet());
+    BatchEnvelopeEncoder gorilla =
+        BatchEnvelopeEncoder.forEncoding(ReadingBatch.GORILLA_ENCODING, fleet());
+    for (BatchEnvelopeEncoder encoder : List.of(json, gorilla)) {
+      encoder.begin();
+      encoder.addSeries(0, timestamps, values, 0, 3);
+      encoder.addSeries(3, timestamps, values, 1, 2);
+      encoder.finish();
+    }
+
+    ProducerRecord<byte[], byte[]> record = gorilla.toRecord(TOPIC);
+    assertEquals("HR-1", new String(record.key(), StandardCharsets.UTF_8));
+    assertEquals(
+        ReadingBatch.GORILLA_ENCODING,
+        new String(
+            record.headers().lastHeader(ReadingHeaders.BATCH_ENCODING).value(),
+            StandardCharsets.UTF_8));
+    assertEquals(5, gorilla.readings());
+    assertEquals(
+        objectMapper.readValue(json.toRecord(TOPIC).value(), ReadingBatch.class).toReadings(),
+        GorillaBatchReader.decode(record.value()).toReadings());
+    assertThrows(
+        IllegalArgumentException.class, () -> BatchEnvelopeEncoder.forEncoding("zstd", fleet()));
+  }
+
+  @Test
+  void testBufferIsDueWhenFullOrWhenTheWindowHasPassed() {
+    DeviceSeriesBuffer buffer = new DeviceSeriesBuffer(2, 3, 10_000);
+    assertFalse(buffer.add(0, 0, 1));
+    assertFalse(buffer.add(0, 1000, 2));
+    assertTrue(buffer.add(0, 2000, 3));
+    buffer.clear(0);
+    assertEquals(0, buffer.count(0));
+
+    assertFalse(buffer.add(1, 0, 1));
+    assertTrue(buffer.add(1, 10_000, 2));
+    assertEquals(2, buffer.count(1));
+    assertEquals(3, buffer.offset(1));
+  }
+}
@@ -0,0 +1,143 @@
+package com.iot.simulator.encode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.model.SensorReading;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+class ReadingPayloadEncoderTest {
+
+  private static final String TOPIC = "iot-readings";
+
+  private static DeviceFleet fleet(long seed) {
+    Map<String, Integer> zones = new LinkedHashMap<>();
+    zones.put("kitchen", 1);
+    zones.put("the \"lab\"", 1);
+    return new DeviceFleet(
+        List.of(
+            new FleetGroup("THERMOSTAT", 4, 1000, "THERMO-%03d", zones),
+            new FleetGroup("HEART_RATE", 12, 5000, "HR-%d-X", Map.of("gym", 1))),
+        seed);
+  }
+
+  private static long millis(LocalDateTime timestamp) {
+    return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  @Test
+  void testPayloadDeserializesToTheSameReading() {
+    DeviceFleet encoded = fleet(7);
+    DeviceFleet expected = fleet(7);
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(encoded);
+    LocalDateTime timestamp = LocalDateTime.of(2024, 2, 29, 23, 59, 58, 120_000_000);
+
+    try (JsonDeserializer<Object> deserializer = new JsonDeserializer<>()) {
+      deserializer.configure(
+          Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.iot.common.model"), false);
+      for (int step = 0; step < 3; step++) {
+        LocalDateTime time = timestamp.plusSeconds(step);
+        for (int device = 0; device < encoded.size(); device++) {
+          encoder.encode(device, encoded.nextValue(device), millis(time));
+          ProducerRecord<byte[], byte[]> record = encoder.toRecord(TOPIC);
+          SensorReading reading = expected.nextReading(device, time);
+
+          Object decoded =
+              deserializer.deserialize(TOPIC, new RecordHeaders(record.headers()), record.value());
+          SensorReading actual = assertInstanceOf(SensorReading.class, decoded);
+          assertEquals(reading.getDeviceId(), new String(record.key(), StandardCharsets.UTF_8));
+          assertEquals(reading.getDeviceId(), actual.getDeviceId());
+          assertEquals(reading.getDeviceType(), actual.getDeviceType());
+          assertEquals(reading.getZone(), actual.getZone());
+          assertEquals(reading.getValue(), actual.getValue());
+          assertEquals(time, actual.getTimestamp());
+          assertNull(actual.getId());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testPayloadMatchesJsonSerializer() throws Exception {
+    DeviceFleet fleet = fleet(3);
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(fleet);
+    ObjectMapper mapper = JacksonUtils.enhancedObjectMapper();
+
+    try (JsonSerializer<SensorReading> serializer = new JsonSerializer<>()) {
+      for (int millis : new int[] {0, 5, 999, 7_000, 59_500}) {
+        LocalDateTime time = LocalDateTime.of(2024, 12, 31, 23, 59).plus(millis, ChronoUnit.MILLIS);
+        for (int device = 0; device < fleet.size(); device++) {
+          SensorReading reading =
+              new SensorReading(
+                  fleet.deviceId(device), fleet.deviceType(device), fleet.zone(device), 21.5, time);
+          encoder.encode(device, 21.5, millis(time));
+
+          JsonNode expected = mapper.readTree(serializer.serialize(TOPIC, reading));
+          JsonNode actual = mapper.readTree(encoder.payload());
+          assertEquals(expected, actual);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testShardKeepsDeviceIds() {
+    DeviceFleet shard = fleet(1).shard(1, 2);
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(shard);
+
+    for (int device = 0; device < shard.size(); device++) {
+      encoder.encode(device, 1.0, 0);
+      assertEquals(shard.deviceId(device), new String(encoder.key(), StandardCharsets.UTF_8));
+      assertTrue(
+          new String(encoder.payload(), StandardCharsets.UTF_8)
+              .contains("\"zone\":\"" + shard.zone(device).replace("\"", "\\\"") + "\""));
+    }
+    assertEquals("THERMO-003", shard.deviceId(0));
+  }
+
+  @Test
+  void testNonFiniteValuesAreQuotedLikeJackson() throws Exception {
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(fleet(1));
+    encoder.encode(0, Double.NaN, 0);
+
+    String json = new String(encoder.payload(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"value\":\"NaN\""), json);
+    assertTrue(json.endsWith("\"timestamp\":[1970,1,1,0,0]}"), json);
+  }
+
+  @Test
+  void testNextValueAdvancesLikeNextReading() {
+    DeviceFleet values = fleet(11);
+    DeviceFleet readings = fleet(11);
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    for (int step = 0; step < 50; step++) {
+      for (int device = 0; device < values.size(); device++) {
+        assertEquals(
+            readings.nextReading(device, timestamp).getValue(), values.nextValue(device), 0.0);
+      }
+    }
+  }
+
+  @Test
+  void testRejectsDevicesOutsideTheFleet() {
+    ReadingPayloadEncoder encoder = new ReadingPayloadEncoder(fleet(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> encoder.encode(16, 1.0, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> encoder.encode(-1, 1.0, 0));
+  }
+}
@@ -0,0 +1,253 @@
+package com.iot.simulator.fleet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class DeviceFleetTest {
+
+  private static Map<String, Integer> zones(Object... nameWeightPairs) {
+    Map<String, Integer> zones = new LinkedHashMap<>();
+    for (int i = 0; i < nameWeightPairs.length; i += 2) {
+      zones.put((String) nameWeightPairs[i], (Integer) nameWeightPairs[i + 1]);
+    }
+    return zones;
+  }
+
+  @Test
+  void testDevicesAreLaidOutByGroup() {
+    DeviceFleet fleet =
+        new DeviceFleet(
+            List.of(
+                new FleetGroup("THERMOSTAT", 3, 1000, "THERMO-%03d", zones("kitchen", 1)),
+                new FleetGroup("HEART_RATE", 2, 5000, "HR-%d-X", zones("gym", 1))));
+
+    assertEquals(5, fleet.size());
+    assertEquals("THERMO-001", fleet.deviceId(0));
+    assertEquals("THERMO-003", fleet.deviceId(2));
+    assertEquals("HR-1-X", fleet.deviceId(3));
+    assertEquals("HEART_RATE", fleet.deviceType(4));
+    assertEquals(1000, fleet.intervalMillis(2));
+    assertEquals(5000, fleet.intervalMillis(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> fleet.deviceId(5));
+  }
+
+  @Test
+  void testZonesFollowWeights() {
+    FleetGroup group =
+        new FleetGroup("THERMOSTAT", 1000, 1000, "T-%d", zones("a", 3, "empty", 0, "b", 1));
+
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < group.getCount(); i++) {
+      counts.merge(group.zone(i), 1, Integer::sum);
+    }
+
+    assertEquals(750, counts.get("a"));
+    assertEquals(250, counts.get("b"));
+    assertNull(counts.get("empty"));
+  }
+
+  @Test
+  void testReadingsAdvanceEachDeviceIndependently() {
+    DeviceFleet fleet =
+        new DeviceFleet(
+            List.of(
+                new FleetGroup("HEART_RATE", 2, 1000, "HR-%d", zones("gym", 1)),
+                new FleetGroup("FUEL_SENSOR", 1, 1000, "FUEL-%d", zones("garage", 1))));
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    for (int i = 0; i < 1000; i++) {
+      SensorReading heartRate = fleet.nextReading(0, timestamp);
+      assertTrue(heartRate.getValue() >= 60 && heartRate.getValue() <= 180);
+      SensorReading fuel = fleet.nextReading(2, timestamp);
+      assertTrue(fuel.getValue() >= 10 && fuel.getValue() <= 100);
+      assertEquals("garage", fuel.getZone());
+      assertEquals(timestamp, fuel.getTimestamp());
+    }
+
+    SensorReading untouched = fleet.nextReading(1, timestamp);
+    assertTrue(Math.abs(untouched.getValue() - 70) <= 2);
+  }
+
+  @Test
+  void testMillionDeviceFleet() {
+    DeviceFleet fleet =
+        new DeviceFleet(
+            List.of(
+                new FleetGroup("THERMOSTAT", 600_000, 1000, "THERMO-%07d", zones("a", 1, "b", 1)),
+                new FleetGroup("FUEL_SENSOR", 400_000, 60_000, "FUEL-%07d", zones("c", 1))));
+
+    assertEquals(1_000_000, fleet.size());
+    assertEquals("THERMO-0600000", fleet.deviceId(599_999));
+    assertEquals("b", fleet.zone(599_999));
+    assertEquals("FUEL-0400000", fleet.deviceId(999_999));
+  }
+
+  @Test
+  void testInvalidGroupsAreRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new FleetGroup("THERMOSTAT", 1, 1000, "THERMO", zones("a", 1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new FleetGroup("THERMOSTAT", 1, 1000, "T-%5d", zones("a", 1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new FleetGroup("TOASTER", 1, 1000, "T-%d", zones("a", 1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new FleetGroup("THERMOSTAT", 1, 1000, "T-%d", zones("a", 0)));
+  }
+
+  @Test
+  void testSeededFleetIsReproducibleAcrossThreads() throws Exception {
+    List<FleetGroup> groups =
+        List.of(
+            new FleetGroup("THERMOSTAT", 50, 1000, "THERMO-%d", zones("a", 1)),
+            new FleetGroup("HEART_RATE", 50, 1000, "HR-%d", zones("b", 1)));
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    DeviceFleet sequential = new DeviceFleet(groups, 7L);
+    double[][] expected = new double[100][200];
+    for (int step = 0; step < 200; step++) {
+      for (int device = 0; device < 100; device++) {
+        expected[device][step] = sequential.nextReading(device, timestamp).getValue();
+      }
+    }
+
+    // Same seed, devices spread over threads and generated in a different order
+    DeviceFleet parallel = new DeviceFleet(groups, 7L);
+    double[][] actual = new double[100][200];
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> shards = new ArrayList<>();
+      for (int shard = 0; shard < 4; shard++) {
+        int offset = shard;
+        shards.add(
+            executor.submit(
+                () -> {
+                  for (int device = 99 - offset; device >= 0; device -= 4) {
+                    for (int step = 0; step < 200; step++) {
+                      actual[device][step] = parallel.nextReading(device, timestamp).getValue();
+                    }
+                  }
+                }));
+      }
+      for (Future<?> shard : shards) {
+        shard.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    for (int device = 0; device < 100; device++) {
+      assertArrayEquals(expected[device], actual[device], 0.0);
+    }
+  }
+
+  @Test
+  void testSeedsAndForksProduceDifferentStreams() {
+    List<FleetGroup> groups = List.of(new FleetGroup("THERMOSTAT", 2, 1000, "T-%d", zones("a", 1)));
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+    DeviceFleet seeded = new DeviceFleet(groups, 1L);
+    DeviceFleet sameSeed = new DeviceFleet(groups, 1L);
+    DeviceFleet otherSeed = new DeviceFleet(groups, 2L);
+    DeviceFleet forked = seeded.fork(99);
+
+    double[] a = new double[20];
+    double[] b = new double[20];
+    double[] c = new double[20];
+    double[] d = new double[20];
+    double[] e = new double[20];
+    for (int i = 0; i < 20; i++) {
+      a[i] = seeded.nextReading(0, timestamp).getValue();
+      b[i] = sameSeed.nextReading(0, timestamp).getValue();
+      c[i] = otherSeed.nextReading(0, timestamp).getValue();
+      d[i] = forked.nextReading(0, timestamp).getValue();
+      e[i] = sameSeed.nextReading(1, timestamp).getValue();
+    }
+
+    assertTrue(forked.isSeeded());
+    assertArrayEquals(a, b, 0.0);
+    assertFalse(Arrays.equals(a, c));
+    assertFalse(Arrays.equals(a, d));
+    assertFalse(Arrays.equals(b, e));
+  }
+
+  @Test
+  void testRestoredStateContinuesTheSameStream() throws IOException {
+    List<FleetGroup> groups =
+        List.of(new FleetGroup("HEART_RATE", 3, 1000, "HR-%d", zones("gym", 1)));
+    DeviceFleet fleet = new DeviceFleet(groups, 7L);
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int device = 0; device < 3; device++) {
+      fleet.nextReading(device, timestamp);
+    }
+
+    ByteArrayOutputStream saved = new ByteArrayOutputStream();
+    fleet.writeState(new DataOutputStream(saved));
+    DeviceFleet restored = new DeviceFleet(groups, 7L);
+    restored.readState(new DataInputStream(new ByteArrayInputStream(saved.toByteArray())));
+
+    for (int device = 0; device < 3; device++) {
+      assertEquals(
+          fleet.nextReading(device, timestamp).getValue(),
+          restored.nextReading(device, timestamp).getValue());
+      assertEquals(fleet.nextNoise(device), restored.nextNoise(device));
+    }
+    assertThrows(
+        IOException.class,
+        () ->
+            new DeviceFleet(groups, null)
+                .readState(new DataInputStream(new ByteArrayInputStream(saved.toByteArray()))));
+  }
+
+  @Test
+  void testShardsPartitionTheFleetWithTheSameStreams() {
+    DeviceFleet fleet =
+        new DeviceFleet(
+            List.of(
+                new FleetGroup("THERMOSTAT", 10, 1000, "T-%03d", zones("a", 1, "b", 3)),
+                new FleetGroup("FUEL_SENSOR", 3, 1000, "F-%d", zones("yard", 1))),
+            5L);
+    LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 0, 0);
+    Map<String, SensorReading> expected = new HashMap<>();
+    for (int device = 0; device < fleet.size(); device++) {
+      SensorReading reading = fleet.nextReading(device, timestamp);
+      expected.put(reading.getDeviceId(), reading);
+    }
+
+    int shardCount = 4;
+    int devices = 0;
+    for (int index = 0; index < shardCount; index++) {
+      DeviceFleet shard = fleet.shard(index, shardCount);
+      devices += shard.size();
+      for (int device = 0; device < shard.size(); device++) {
+        SensorReading reading = shard.nextReading(device, timestamp);
+        SensorReading unsharded = expected.remove(reading.getDeviceId());
+        assertNotNull(unsharded, reading.getDeviceId());
+        assertEquals(unsharded.getZone(), reading.getZone());
+        assertEquals(unsharded.getValue(), reading.getValue());
+      }
+    }
+    assertEquals(fleet.size(), devices);
+    assertTrue(expected.isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> fleet.shard(4, 4));
+  }
+}
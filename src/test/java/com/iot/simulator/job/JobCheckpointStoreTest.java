@@ -0,0 +1,145 @@
+package com.iot.simulator.job;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iot.simulator.fleet.DeviceFleet;
+import com.iot.simulator.fleet.FleetGroup;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JobCheckpointStoreTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  @TempDir Path directory;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+  private BackfillJob newJob() {
+    return new BackfillJob(
+        "a1b2c3d4",
+        BackfillJob.Kind.DATABASE,
+        START,
+        START.plusDays(1),
+        60_000,
+        null,
+        1440 * 4,
+        5000,
+        START);
+  }
+
+  private DeviceFleet newFleet() {
+    return new DeviceFleet(
+        List.of(new FleetGroup("THERMOSTAT", 4, 1000, "T-%d", Map.of("lab", 1))), 42L);
+  }
+
+  private DeviceFleet newFleetAt(JobCheckpointStore store, long nextStep) throws IOException {
+    DeviceFleet restored = newFleet();
+    store.restoreFleet("a1b2c3d4", nextStep, restored);
+    return restored;
+  }
+
+  @Test
+  void testRestoresJobPositionAndFleetState() throws IOException {
+    JobCheckpointStore store = new JobCheckpointStore(directory, objectMapper);
+    BackfillJob job = newJob();
+    DeviceFleet fleet = newFleet();
+    for (int device = 0; device < 4; device++) {
+      fleet.nextReading(device, START);
+    }
+    job.completeStepsBefore(60);
+    job.getRows().set(240);
+
+    store.save(job.toCheckpoint(), fleet);
+    List<JobCheckpoint> loaded = store.loadAll();
+
+    assertEquals(1, loaded.size());
+    BackfillJob restored = BackfillJob.fromCheckpoint(loaded.get(0));
+    assertEquals("a1b2c3d4", restored.getId());
+    assertEquals(BackfillJob.Kind.DATABASE, restored.getKind());
+    assertEquals(BackfillJob.Status.INTERRUPTED, restored.getStatus());
+    assertEquals(60, restored.getNextStep());
+    assertEquals(1440, restored.getTotalSteps());
+    assertEquals(240, restored.getRows().get());
+    assertEquals(5000, restored.getRateLimiter().getRowsPerSecond());
+    assertEquals(START.plusDays(1), restored.getEndTime());
+
+    DeviceFleet restoredFleet = newFleet();
+    store.restoreFleet("a1b2c3d4", 60, restoredFleet);
+    assertEquals(
+        fleet.nextReading(2, START).getValue(), restoredFleet.nextReading(2, START).getValue());
+  }
+
+  @Test
+  void testCheckpointKeepsItsStateWhenALaterSliceIsCutShort() throws IOException {
+    JobCheckpointStore store = new JobCheckpointStore(directory, objectMapper);
+    BackfillJob job = newJob();
+    DeviceFleet fleet = newFleet();
+    job.completeStepsBefore(60);
+    store.save(job.toCheckpoint(), fleet);
+    double expected = newFleetAt(store, 60).nextReading(1, START).getValue();
+
+    // The next slice's state is written, but the process dies before its checkpoint is
+    for (int device = 0; device < 4; device++) {
+      fleet.nextReading(device, START);
+    }
+    try (var out =
+        new DataOutputStream(Files.newOutputStream(directory.resolve("a1b2c3d4.120.fleet")))) {
+      fleet.writeState(out);
+    }
+
+    JobCheckpoint loaded = store.loadAll().get(0);
+    assertEquals(60, loaded.getNextStep());
+    assertEquals(expected, newFleetAt(store, 60).nextReading(1, START).getValue());
+
+    // The next completed slice removes both the orphaned and the superseded state
+    job.completeStepsBefore(180);
+    store.save(job.toCheckpoint(), fleet);
+    try (var files = Files.list(directory)) {
+      assertEquals(
+          List.of("a1b2c3d4.180.fleet", "a1b2c3d4.json"),
+          files.map(file -> file.getFileName().toString()).sorted().toList());
+    }
+  }
+
+  @Test
+  void testDeleteRemovesBothFiles() throws IOException {
+    JobCheckpointStore store = new JobCheckpointStore(directory, objectMapper);
+    store.save(newJob().toCheckpoint(), newFleet());
+
+    store.delete("a1b2c3d4");
+
+    assertTrue(store.loadAll().isEmpty());
+    try (var files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void testMissingDirectoryHasNoCheckpoints() throws IOException {
+    assertTrue(
+        new JobCheckpointStore(directory.resolve("absent"), objectMapper).loadAll().isEmpty());
+  }
+
+  @Test
+  void testStatusReportsProgressAndCheckpointTime() {
+    BackfillJob job = newJob();
+    job.completeStepsBefore(720);
+    job.getRows().set(2880);
+
+    Map<String, Object> status = job.toStatus();
+
+    assertEquals(0.5, status.get("progress"));
+    assertEquals(START.plusHours(12), status.get("checkpoint"));
+    assertEquals(BackfillJob.Status.QUEUED, status.get("status"));
+  }
+}
@@ -0,0 +1,50 @@
+package com.iot.simulator.job;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class JobRateLimiterTest {
+
+  @Test
+  void testUnlimitedNeverWaits() throws InterruptedException {
+    JobRateLimiter limiter = new JobRateLimiter(0);
+    long started = System.nanoTime();
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.acquire(1_000_000);
+    }
+
+    assertTrue(System.nanoTime() - started < 100_000_000L);
+  }
+
+  @Test
+  void testLimitsLongRunRate() throws InterruptedException {
+    JobRateLimiter limiter = new JobRateLimiter(10_000);
+    long started = System.nanoTime();
+
+    // 3000 rows at 10,000/s take 300 ms, less the 100 ms burst allowance
+    for (int i = 0; i < 30; i++) {
+      limiter.acquire(100);
+    }
+
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+    assertTrue(elapsedMillis >= 150, "finished after " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void testRejectsNegativeRate() {
+    assertThrows(IllegalArgumentException.class, () -> new JobRateLimiter(-1));
+    assertThrows(IllegalArgumentException.class, () -> new JobRateLimiter(1).setRowsPerSecond(-5));
+  }
+
+  @Test
+  void testInterruptStopsWaiting() throws InterruptedException {
+    JobRateLimiter limiter = new JobRateLimiter(1);
+    limiter.acquire(10);
+    Thread.currentThread().interrupt();
+
+    assertThrows(InterruptedException.class, () -> limiter.acquire(10));
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+}
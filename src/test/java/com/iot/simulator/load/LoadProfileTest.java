@@ -0,0 +1,58 @@
+package com.iot.simulator.load;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.simulator.load.LoadProfile.Shape;
+import org.junit.jupiter.api.Test;
+
+class LoadProfileTest {
+
+  private static LoadProfile profile(Shape shape) {
+    // start 100, target 1000, ramp 10 s, +300 every 5 s, spike at 20 s for 5 s, 60 s run
+    return new LoadProfile(shape, 100, 1000, 10, 300, 5, 20, 5, 60);
+  }
+
+  @Test
+  void testConstantProfile() {
+    assertEquals(1000, profile(Shape.CONSTANT).rateAt(0));
+    assertEquals(1000, profile(Shape.CONSTANT).rateAt(59));
+  }
+
+  @Test
+  void testRampProfile() {
+    LoadProfile ramp = profile(Shape.RAMP);
+    assertEquals(100, ramp.rateAt(0));
+    assertEquals(550, ramp.rateAt(5), 1e-9);
+    assertEquals(1000, ramp.rateAt(10));
+    assertEquals(1000, ramp.rateAt(30));
+  }
+
+  @Test
+  void testStepProfile() {
+    LoadProfile step = profile(Shape.STEP);
+    assertEquals(100, step.rateAt(4.9));
+    assertEquals(400, step.rateAt(5));
+    assertEquals(700, step.rateAt(12));
+    assertEquals(1000, step.rateAt(15));
+    assertEquals(1000, step.rateAt(50));
+  }
+
+  @Test
+  void testSpikeProfile() {
+    LoadProfile spike = profile(Shape.SPIKE);
+    assertEquals(100, spike.rateAt(19.9));
+    assertEquals(1000, spike.rateAt(20));
+    assertEquals(1000, spike.rateAt(24.9));
+    assertEquals(100, spike.rateAt(25));
+  }
+
+  @Test
+  void testInvalidProfilesAreRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new LoadProfile(Shape.CONSTANT, 0, 0, 0, 0, 0, 0, 0, 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> new LoadProfile(Shape.STEP, 0, 10, 0, 0, 0, 0, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> LoadProfile.parseShape("sine"));
+  }
+}
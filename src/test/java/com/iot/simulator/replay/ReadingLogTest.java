@@ -0,0 +1,117 @@
+package com.iot.simulator.replay;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReadingLogTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  @TempDir Path directory;
+
+  @Test
+  void testRoundTripPreservesReadings() throws IOException {
+    Path log = directory.resolve("round-trip.rlog");
+    try (ReadingLogWriter writer = new ReadingLogWriter(log)) {
+      writer.append(new SensorReading("T-1", "THERMOSTAT", "lab", 21.5, START), 1_000);
+      writer.append(new SensorReading("T-2", "THERMOSTAT", null, null, START.minusSeconds(5)), 900);
+      writer.append(
+          new SensorReading("T-1", "THERMOSTAT", "lab", -3.25, START.plusHours(2)), 5_000);
+    }
+
+    try (ReadingLogReader reader = new ReadingLogReader(log)) {
+      assertTrue(reader.next());
+      assertEquals("T-1", reader.getDeviceId());
+      assertEquals("lab", reader.getZone());
+      assertEquals(21.5, reader.getValue());
+      assertEquals(1_000, reader.getRecordedAtMillis());
+      assertEquals(START, reader.toReading().getTimestamp());
+
+      assertTrue(reader.next());
+      assertEquals("T-2", reader.getDeviceId());
+      assertNull(reader.getZone());
+      assertNull(reader.toReading().getValue());
+      assertEquals(900, reader.getRecordedAtMillis());
+      assertEquals(START.minusSeconds(5), reader.toReading().getTimestamp());
+
+      assertTrue(reader.next());
+      assertSame(reader.getDeviceType(), reader.toReading().getDeviceType());
+      assertEquals(-3.25, reader.getValue());
+      assertEquals(START.plusHours(2), reader.toReading().getTimestamp());
+
+      assertFalse(reader.next());
+      assertEquals(3, reader.getCount());
+    }
+  }
+
+  @Test
+  void testReadingsAreCompact() throws IOException {
+    Path log = directory.resolve("compact.rlog");
+    try (ReadingLogWriter writer = new ReadingLogWriter(log)) {
+      for (int i = 0; i < 10_000; i++) {
+        SensorReading reading =
+            new SensorReading("HR-" + i % 100, "HEART_RATE", "gym", 70.0, START.plusSeconds(i));
+        writer.append(reading, i * 1000L);
+      }
+    }
+
+    assertTrue(Files.size(log) < 10_000 * 20);
+  }
+
+  @Test
+  void testReaderCrossesMappedWindows() throws IOException {
+    Path log = directory.resolve("windows.rlog");
+    int readings = 50_000;
+    try (ReadingLogWriter writer = new ReadingLogWriter(log)) {
+      for (int i = 0; i < readings; i++) {
+        writer.append(
+            new SensorReading(
+                "F-" + i % 1000, "FUEL_SENSOR", "garage", (double) i, START.plusSeconds(i)),
+            i);
+      }
+    }
+
+    try (ReadingLogReader reader = new ReadingLogReader(log, 16 * 1024)) {
+      int read = 0;
+      while (reader.next()) {
+        assertEquals(read, reader.getValue());
+        assertEquals("F-" + read % 1000, reader.getDeviceId());
+        read++;
+      }
+      assertEquals(readings, read);
+      assertEquals(reader.size(), reader.position());
+    }
+  }
+
+  @Test
+  void testTruncatedTailEndsLog() throws IOException {
+    Path log = directory.resolve("truncated.rlog");
+    try (ReadingLogWriter writer = new ReadingLogWriter(log)) {
+      writer.append(new SensorReading("T-1", "THERMOSTAT", "lab", 1.0, START), 0);
+      writer.append(new SensorReading("T-1", "THERMOSTAT", "lab", 2.0, START), 0);
+    }
+    byte[] bytes = Files.readAllBytes(log);
+    Files.write(log, Arrays.copyOf(bytes, bytes.length - 3));
+
+    try (ReadingLogReader reader = new ReadingLogReader(log)) {
+      assertTrue(reader.next());
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test
+  void testRejectsOtherFiles() throws IOException {
+    Path file = directory.resolve("not-a-log.txt");
+    Files.writeString(file, "deviceId,value\nT-1,21.5\n");
+
+    assertThrows(IOException.class, () -> new ReadingLogReader(file));
+  }
+}
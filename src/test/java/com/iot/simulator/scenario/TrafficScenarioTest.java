@@ -0,0 +1,155 @@
+package com.iot.simulator.scenario;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrafficScenarioTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  private final List<SensorReading> sent = new ArrayList<>();
+
+  private SensorReading reading(String deviceId, int second) {
+    return new SensorReading(
+        deviceId, "THERMOSTAT", "lab", 20.0 + second, START.plusSeconds(second));
+  }
+
+  @Test
+  void testEmptyScenarioPassesReadingsThrough() {
+    TrafficScenario scenario = TrafficScenario.parse("  ");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+
+    assertTrue(scenario.isEmpty());
+    assertEquals(1, sent.size());
+  }
+
+  @Test
+  void testParseRejectsInvalidDefinitions() {
+    assertThrows(IllegalArgumentException.class, () -> TrafficScenario.parse("explode rate=1"));
+    assertThrows(IllegalArgumentException.class, () -> TrafficScenario.parse("duplicate"));
+    assertThrows(IllegalArgumentException.class, () -> TrafficScenario.parse("duplicate rate=2"));
+    assertThrows(
+        IllegalArgumentException.class, () -> TrafficScenario.parse("shuffle rate=0.1 max=5x"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> TrafficScenario.parse("burst rate=0.1 size=5 hold=1s"));
+  }
+
+  @Test
+  void testParseDurations() {
+    assertEquals(250, TrafficScenario.duration("", "max", "250ms"));
+    assertEquals(5_000, TrafficScenario.duration("", "max", "5s"));
+    assertEquals(600_000, TrafficScenario.duration("", "max", "10m"));
+    assertEquals(7_200_000, TrafficScenario.duration("", "max", "2h"));
+    assertEquals(40, TrafficScenario.duration("", "max", "40"));
+  }
+
+  @Test
+  void testDuplicateSendsEveryReadingTwiceAtFullRate() {
+    TrafficScenario scenario = TrafficScenario.parse("duplicate rate=1");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+    scenario.offer(reading("T-1", 1), 0, sent::add);
+
+    assertEquals(4, sent.size());
+    assertNotSame(sent.get(0), sent.get(1));
+    assertEquals(sent.get(0).getTimestamp(), sent.get(1).getTimestamp());
+    assertEquals(2L, scenario.getStats().get("1-duplicate"));
+  }
+
+  @Test
+  void testBurstHoldsReadingsUntilSizeReached() {
+    TrafficScenario scenario = TrafficScenario.parse("burst rate=1 size=3");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+    scenario.offer(reading("T-1", 1), 1000, sent::add);
+    assertTrue(sent.isEmpty());
+
+    scenario.offer(reading("T-1", 2), 2000, sent::add);
+    assertEquals(3, sent.size());
+    assertEquals(START, sent.get(0).getTimestamp());
+  }
+
+  @Test
+  void testDelayReleasesBacklogWithOriginalTimestamps() {
+    TrafficScenario scenario = TrafficScenario.parse("delay rate=1 hold=1h");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+    scenario.offer(reading("T-1", 1), 1000, sent::add);
+    scenario.flush(3_599_999, sent::add);
+    assertTrue(sent.isEmpty());
+
+    scenario.flush(3_600_000, sent::add);
+    assertEquals(2, sent.size());
+    assertEquals(START, sent.get(0).getTimestamp());
+    assertEquals(START.plusSeconds(1), sent.get(1).getTimestamp());
+  }
+
+  @Test
+  void testDelayReleasesOldestBacklogWhenFull() {
+    TrafficScenario scenario = TrafficScenario.parse("delay rate=1 hold=1h max-held=2");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+    scenario.offer(reading("T-2", 0), 0, sent::add);
+    scenario.offer(reading("T-3", 0), 0, sent::add);
+
+    assertEquals(1, sent.size());
+    assertEquals("T-1", sent.get(0).getDeviceId());
+  }
+
+  @Test
+  void testShuffleLetsLaterReadingsOvertake() {
+    TrafficScenario scenario = TrafficScenario.parse("shuffle rate=0.5 max=10s");
+
+    for (int second = 0; second < 200; second++) {
+      scenario.offer(reading("T-1", second), second * 1000L, sent::add);
+      scenario.flush(second * 1000L, sent::add);
+    }
+    scenario.drain(sent::add);
+
+    assertEquals(200, sent.size());
+    boolean outOfOrder = false;
+    for (int i = 1; i < sent.size(); i++) {
+      outOfOrder |= sent.get(i).getTimestamp().isBefore(sent.get(i - 1).getTimestamp());
+    }
+    assertTrue(outOfOrder);
+  }
+
+  @Test
+  void testSkewAppliesFixedOffsetPerDevice() {
+    TrafficScenario scenario = TrafficScenario.parse("skew rate=1 max=30s");
+
+    scenario.offer(reading("T-1", 0), 0, sent::add);
+    scenario.offer(reading("T-1", 60), 0, sent::add);
+
+    long first = Duration.between(START, sent.get(0).getTimestamp()).toMillis();
+    long second = Duration.between(START.plusSeconds(60), sent.get(1).getTimestamp()).toMillis();
+    assertEquals(first, second);
+    assertTrue(Math.abs(first) <= 30_000);
+  }
+
+  @Test
+  void testSameInputsAffectSameReadings() {
+    List<SensorReading> other = new ArrayList<>();
+    TrafficScenario first = TrafficScenario.parse("duplicate rate=0.3");
+    TrafficScenario second = TrafficScenario.parse("duplicate rate=0.3");
+
+    for (int i = 0; i < 100; i++) {
+      first.offer(reading("T-" + i % 7, i), 0, sent::add);
+      second.offer(reading("T-" + i % 7, i), 0, other::add);
+    }
+
+    assertEquals(sent.size(), other.size());
+    assertTrue(sent.size() > 100 && sent.size() < 200);
+    for (int i = 0; i < sent.size(); i++) {
+      assertEquals(sent.get(i).getTimestamp(), other.get(i).getTimestamp());
+    }
+  }
+}
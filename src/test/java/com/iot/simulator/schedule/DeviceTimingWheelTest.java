@@ -0,0 +1,81 @@
+package com.iot.simulator.schedule;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class DeviceTimingWheelTest {
+
+  private static int[] drain(DeviceTimingWheel wheel, long tick) {
+    int count = wheel.drain(tick);
+    int[] due = Arrays.copyOf(wheel.due(), count);
+    Arrays.sort(due);
+    return due;
+  }
+
+  @Test
+  void testDevicesDueInSameTickAreBatched() {
+    DeviceTimingWheel wheel = new DeviceTimingWheel(10, 8);
+    wheel.schedule(0, 100);
+    wheel.schedule(1, 101);
+    wheel.schedule(2, 100);
+
+    assertArrayEquals(new int[] {}, drain(wheel, 99));
+    assertArrayEquals(new int[] {0, 2}, drain(wheel, 100));
+    assertArrayEquals(new int[] {1}, drain(wheel, 101));
+    assertEquals(0, wheel.getScheduledCount());
+  }
+
+  @Test
+  void testDeadlinesBeyondOneRotationWaitForTheirTick() {
+    DeviceTimingWheel wheel = new DeviceTimingWheel(2, 8);
+    wheel.schedule(0, 3);
+    wheel.schedule(1, 3 + 8 * 5);
+
+    assertArrayEquals(new int[] {0}, drain(wheel, 3));
+    for (int rotation = 1; rotation < 5; rotation++) {
+      assertArrayEquals(new int[] {}, drain(wheel, 3 + 8 * rotation));
+    }
+    assertArrayEquals(new int[] {1}, drain(wheel, 3 + 8 * 5));
+  }
+
+  @Test
+  void testRescheduledDevicesFireEveryInterval() {
+    DeviceTimingWheel wheel = new DeviceTimingWheel(3, 16);
+    long[] intervals = {1, 2, 5};
+    for (int device = 0; device < 3; device++) {
+      wheel.schedule(device, 0);
+    }
+
+    int[] fired = new int[3];
+    for (long tick = 0; tick < 100; tick++) {
+      int count = wheel.drain(tick);
+      int[] due = wheel.due();
+      for (int i = 0; i < count; i++) {
+        fired[due[i]]++;
+        wheel.schedule(due[i], tick + intervals[due[i]]);
+      }
+    }
+
+    assertArrayEquals(new int[] {100, 50, 20}, fired);
+    assertEquals(3, wheel.getScheduledCount());
+  }
+
+  @Test
+  void testLargeBatchGrowsBuffer() {
+    DeviceTimingWheel wheel = new DeviceTimingWheel(100_000, 1024);
+    for (int device = 0; device < 100_000; device++) {
+      wheel.schedule(device, device % 10);
+    }
+
+    assertEquals(10_000, wheel.drain(0));
+    assertEquals(10_000, wheel.drain(9));
+    assertEquals(80_000, wheel.getScheduledCount());
+  }
+
+  @Test
+  void testWheelSizeMustBePowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new DeviceTimingWheel(1, 100));
+  }
+}
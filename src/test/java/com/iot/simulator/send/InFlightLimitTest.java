@@ -0,0 +1,124 @@
+package com.iot.simulator.send;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class InFlightLimitTest {
+
+  private static final long TARGET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  void testAcquireBlocksAtTheLimitUntilARelease() throws Exception {
+    InFlightLimit limit = new InFlightLimit(2);
+    limit.acquire();
+    limit.acquire();
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    Thread sender =
+        new Thread(
+            () -> {
+              try {
+                limit.acquire();
+                acquired.countDown();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    sender.start();
+    assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+
+    limit.release(true, 0);
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    assertEquals(2, limit.getInFlight());
+    assertTrue((long) limit.snapshot().get("blockedMs") >= 50);
+  }
+
+  @Test
+  void testFixedLimitIgnoresFailures() throws Exception {
+    InFlightLimit limit = new InFlightLimit(10);
+    for (int i = 0; i < 5; i++) {
+      limit.acquire();
+      limit.release(false, Long.MAX_VALUE);
+    }
+    assertEquals(10, limit.getLimit());
+  }
+
+  @Test
+  void testSlowAcknowledgementsShrinkTheLimitOncePerTargetInterval() throws Exception {
+    InFlightLimit limit = new InFlightLimit(10, 1000, TARGET_NANOS, true);
+    for (int i = 0; i < 100; i++) {
+      limit.acquire();
+      limit.release(true, TARGET_NANOS * 2);
+    }
+    // A burst of slow acknowledgements from the same moment counts once
+    assertEquals((int) (1000 * InFlightLimit.DECREASE_FACTOR), limit.getLimit());
+
+    Thread.sleep(150);
+    limit.acquire();
+    limit.release(false, 0);
+    assertEquals(
+        (int) ((int) (1000 * InFlightLimit.DECREASE_FACTOR) * InFlightLimit.DECREASE_FACTOR),
+        limit.getLimit());
+  }
+
+  @Test
+  void testLimitNeverShrinksBelowTheMinimum() throws Exception {
+    InFlightLimit limit = new InFlightLimit(10, 12, 0, true);
+    for (int i = 0; i < 20; i++) {
+      limit.acquire();
+      limit.release(false, 0);
+    }
+    assertEquals(10, limit.getLimit());
+  }
+
+  @Test
+  void testFastAcknowledgementsGrowTheLimitBackByOnePerWindow() throws Exception {
+    InFlightLimit limit = new InFlightLimit(10, 1000, TARGET_NANOS, true);
+    limit.acquire();
+    limit.release(false, 0);
+    int reduced = limit.getLimit();
+
+    for (int i = 0; i < reduced; i++) {
+      limit.acquire();
+      limit.release(true, 0);
+    }
+    assertEquals(reduced + 1, limit.getLimit());
+  }
+
+  @Test
+  void testAwaitIdleWaitsForOutstandingRecords() throws Exception {
+    InFlightLimit limit = new InFlightLimit(10);
+    limit.acquire();
+    limit.acquire();
+
+    AtomicBoolean idle = new AtomicBoolean();
+    Thread waiter =
+        new Thread(
+            () -> {
+              try {
+                limit.awaitIdle();
+                idle.set(true);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    waiter.start();
+    limit.release(true, 0);
+    Thread.sleep(50);
+    assertFalse(idle.get());
+
+    limit.release(true, 0);
+    waiter.join(5000);
+    assertTrue(idle.get());
+  }
+
+  @Test
+  void testRejectsInvalidBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new InFlightLimit(0));
+    assertThrows(IllegalArgumentException.class, () -> new InFlightLimit(10, 5, 0, true));
+  }
+}
@@ -0,0 +1,421 @@
+package com.iot.system;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.model.ReadingHeaders;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.JpaConfig;
+import com.iot.system.config.QueryTimingConfig;
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.controller.SensorController;
+import com.iot.system.ingest.ReadingBatchDecoder;
+import com.iot.system.repository.SensorReadingRepository;
+import com.iot.system.security.JwtAuthenticationFilter;
+import com.iot.system.security.JwtTokenProvider;
+import com.iot.system.security.SecurityConfig;
+import com.iot.system.service.IngestLatencyService;
+import com.iot.system.service.MinuteRollupService;
+import com.iot.system.service.QueryTimingService;
+import com.iot.system.service.SensorDataProcessingService;
+import com.iot.system.service.SensorQueryService;
+import com.iot.system.service.SmartPartitionQueryService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * End-to-end throughput harness: readings go through an embedded Kafka broker into the real {@link
+ * SensorDataProcessingService} and an in-memory H2 database in PostgreSQL mode, while the real
+ * {@link SensorController} is queried over HTTP with a JWT. Both run open loop at fixed rates, so
+ * latency counts from the time each reading or query was due. The report, with readings per second
+ * and p50/p99/p999 latencies, is written as JSON.
+ *
+ * <p>Tagged {@code throughput} and left out of the normal build; run it with {@code mvn
+ * -Pthroughput test}, setting rates and durations with {@code -Diot.throughput.*} properties. H2
+ * stands in for TimescaleDB, so absolute numbers are only comparable between runs of this harness.
+ */
+@Tag("throughput")
+@SpringBootTest(
+    classes = IngestQueryThroughputTest.HarnessConfig.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:throughput;MODE=PostgreSQL;NON_KEYWORDS=VALUE",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "spring.flyway.enabled=false",
+      "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+      "spring.kafka.consumer.auto-offset-reset=earliest",
+      "logging.level.com.iot.system=WARN",
+      "logging.level.org.apache.kafka=WARN"
+    })
+@ActiveProfiles("system")
+@EmbeddedKafka(
+    partitions = 4,
+    topics = {"${iot.kafka.topic-name}", "${iot.kafka.batch-topic-name}"})
+class IngestQueryThroughputTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(IngestQueryThroughputTest.class);
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final String[] DEVICE_TYPES = {"THERMOSTAT", "HEART_RATE", "FUEL_SENSOR"};
+  private static final String[] ZONES = {"kitchen", "bedroom", "garage", "gym"};
+
+  /** The system's ingest and query path, without the stages that need TimescaleDB tables */
+  @Configuration
+  @EnableAutoConfiguration
+  @Import({
+    JpaConfig.class,
+    SensorDataProcessingService.class,
+    IngestLatencyService.class,
+    ReadingBatchDecoder.class,
+    SensorController.class,
+    SensorQueryService.class,
+    SmartPartitionQueryService.class,
+    QueryTimingService.class,
+    QueryTimingProperties.class,
+    QueryTimingConfig.class,
+    SecurityConfig.class,
+    JwtAuthenticationFilter.class,
+    JwtTokenProvider.class
+  })
+  static class HarnessConfig {}
+
+  @MockBean private MinuteRollupService minuteRollupService;
+
+  @Autowired private KafkaTemplate<String, SensorReading> kafkaTemplate;
+
+  @Autowired private SensorReadingRepository sensorReadingRepository;
+
+  @Autowired private IngestLatencyService ingestLatencyService;
+
+  @Autowired private JwtTokenProvider jwtTokenProvider;
+
+  @Autowired private QueryTimingService queryTimingService;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private KafkaListenerEndpointRegistry listenerRegistry;
+
+  @LocalServerPort private int port;
+
+  @Value("${iot.kafka.topic-name}")
+  private String kafkaTopic;
+
+  @Value("${iot.throughput.ingest-rate:2000}")
+  private double ingestRate;
+
+  @Value("${iot.throughput.query-rate:50}")
+  private double queryRate;
+
+  @Value("${iot.throughput.query-threads:4}")
+  private int queryThreads;
+
+  @Value("${iot.throughput.duration-seconds:10}")
+  private double durationSeconds;
+
+  @Value("${iot.throughput.devices:100}")
+  private int devices;
+
+  @Value("${iot.throughput.drain-timeout-seconds:120}")
+  private long drainTimeoutSeconds;
+
+  @Value("${iot.throughput.report-file:target/throughput-report.json}")
+  private String reportFile;
+
+  @Test
+  void testIngestAndQueryThroughput() throws Exception {
+    awaitAssignment();
+    // Creates the producer and fetches the topic's metadata before the schedule starts
+    kafkaTemplate.partitionsFor(kafkaTopic);
+    ingestLatencyService.reset();
+    LocalDateTime runStart = LocalDateTime.now().minusMinutes(1);
+    String token =
+        jwtTokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken("iotuser", null, List.of()));
+
+    Map<String, Function<Long, String>> queries = new LinkedHashMap<>();
+    queries.put(
+        "deviceReadings",
+        i -> "/api/sensors/" + deviceId((int) (i % devices)) + "/readings" + window(runStart));
+    queries.put(
+        "deviceAggregates",
+        i -> "/api/sensors/" + deviceId((int) (i % devices)) + "/aggregates" + window(runStart));
+    queries.put(
+        "zoneAggregates",
+        i ->
+            "/api/sensors/group/"
+                + ZONES[(int) (i % ZONES.length)]
+                + "/aggregates"
+                + window(runStart));
+    QueryLoad queryLoad = new QueryLoad(token, queries);
+
+    Thread queryThread = new Thread(queryLoad::run, "throughput-queries");
+    queryThread.start();
+    long ingestStart = System.nanoTime();
+    IngestLoad ingestLoad = new IngestLoad();
+    ingestLoad.run();
+    long sendNanos = System.nanoTime() - ingestStart;
+    queryThread.join();
+    queryLoad.awaitCompletion();
+
+    long persisted = awaitPersisted(ingestLoad.acked.get());
+    double ingestSeconds = (System.nanoTime() - ingestStart) / 1e9;
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("ingestRate", ingestRate);
+    config.put("queryRate", queryRate);
+    config.put("queryThreads", queryThreads);
+    config.put("durationSeconds", durationSeconds);
+    config.put("devices", devices);
+    report.put("config", config);
+
+    Map<String, Object> ingest = new LinkedHashMap<>();
+    ingest.put("sent", ingestLoad.acked.get());
+    ingest.put("failed", ingestLoad.failed.get());
+    ingest.put("persisted", persisted);
+    ingest.put("sendSeconds", sendNanos / 1e9);
+    ingest.put("drainedSeconds", ingestSeconds);
+    ingest.put("readingsPerSecond", persisted / ingestSeconds);
+    ingest.put("maxBehindScheduleMs", ingestLoad.maxBehindMicros / 1000.0);
+    // From the intended send time to the commit of the reading's batch
+    ingest.put("latency", ingestLatencyService.getSnapshot().get("corrected"));
+    report.put("ingest", ingest);
+    report.put("queries", queryLoad.summary());
+    // The same calls as the system times them, per endpoint and repository method
+    report.put("queryTiming", queryTimingService.getSummary());
+
+    Path path = Path.of(reportFile);
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+    logger.info("Throughput report written to {}: ingest {}", path.toAbsolutePath(), ingest);
+
+    assertEquals(0, ingestLoad.failed.get());
+    assertEquals(ingestLoad.acked.get(), persisted);
+    assertEquals(0, queryLoad.errors.get());
+  }
+
+  private static String window(LocalDateTime runStart) {
+    return "?startTime=" + runStart + "&endTime=" + runStart.plusHours(1);
+  }
+
+  private static String deviceId(int device) {
+    return String.format("%s-%07d", DEVICE_TYPES[device % DEVICE_TYPES.length], device + 1);
+  }
+
+  /** Waits until every listener has its partitions, so startup is not counted as ingest time */
+  private void awaitAssignment() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+    for (MessageListenerContainer container : listenerRegistry.getAllListenerContainers()) {
+      while (container.getAssignedPartitions() == null
+          || container.getAssignedPartitions().isEmpty()) {
+        assertTrue(System.nanoTime() < deadline, "Listener " + container.getListenerId());
+        Thread.sleep(50);
+      }
+    }
+  }
+
+  /** Waits until the database holds {@code expected} readings, or the drain timeout has passed */
+  private long awaitPersisted(long expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+    long persisted = sensorReadingRepository.count();
+    while (persisted < expected && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+      persisted = sensorReadingRepository.count();
+    }
+    return persisted;
+  }
+
+  /**
+   * Calls {@code action} at {@code rate} per second for the configured duration, each time with its
+   * sequence number and intended time in epoch microseconds. A late call never moves the schedule;
+   * the calls that follow simply start late.
+   */
+  private long runOpenLoop(double rate, OpenLoopAction action) throws Exception {
+    long startNanos = System.nanoTime();
+    long startMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    long maxBehindMicros = 0;
+    long sequence = 0;
+    for (double elapsed = 0; elapsed < durationSeconds; elapsed += 1.0 / rate) {
+      long aheadNanos = startNanos + (long) (elapsed * 1e9) - System.nanoTime();
+      while (aheadNanos > 0) {
+        LockSupport.parkNanos(aheadNanos);
+        aheadNanos = startNanos + (long) (elapsed * 1e9) - System.nanoTime();
+      }
+      maxBehindMicros = Math.max(maxBehindMicros, -aheadNanos / 1000);
+      action.run(sequence++, startMicros + (long) (elapsed * 1e6));
+    }
+    return maxBehindMicros;
+  }
+
+  @FunctionalInterface
+  private interface OpenLoopAction {
+    void run(long sequence, long intendedMicros) throws Exception;
+  }
+
+  /** Readings on the reading topic, stamped with their intended send time like the load test's */
+  private class IngestLoad {
+
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Random random = new Random(42);
+    private long maxBehindMicros;
+
+    void run() throws Exception {
+      maxBehindMicros = runOpenLoop(ingestRate, this::send);
+      kafkaTemplate.flush();
+    }
+
+    private void send(long sequence, long intendedMicros) {
+      int device = (int) (sequence % devices);
+      SensorReading reading =
+          new SensorReading(
+              deviceId(device),
+              DEVICE_TYPES[device % DEVICE_TYPES.length],
+              ZONES[device % ZONES.length],
+              20 + random.nextGaussian() * 5,
+              LocalDateTime.now());
+      ProducerRecord<String, SensorReading> record =
+          new ProducerRecord<>(kafkaTopic, reading.getDeviceId(), reading);
+      record
+          .headers()
+          .add(
+              ReadingHeaders.INTENDED_SEND_TIME,
+              Long.toString(intendedMicros).getBytes(StandardCharsets.US_ASCII));
+      kafkaTemplate
+          .send(record)
+          .whenComplete((result, failure) -> (failure == null ? acked : failed).incrementAndGet());
+    }
+  }
+
+  /** Queries spread round-robin over the named endpoints and run on a fixed pool of threads */
+  private class QueryLoad {
+
+    private final HttpClient client =
+        HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ExecutorService executor = Executors.newFixedThreadPool(queryThreads);
+    private final String token;
+    private final List<String> names;
+    private final List<Function<Long, String>> paths;
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+    private long startNanos;
+    private long endNanos;
+
+    QueryLoad(String token, Map<String, Function<Long, String>> queries) {
+      this.token = token;
+      this.names = List.copyOf(queries.keySet());
+      this.paths = List.copyOf(queries.values());
+      for (String name : names) {
+        recorders.put(name, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+      }
+    }
+
+    void run() {
+      startNanos = System.nanoTime();
+      try {
+        runOpenLoop(queryRate, (sequence, intended) -> executor.execute(() -> query(sequence)));
+      } catch (Exception e) {
+        throw new IllegalStateException("Query load stopped", e);
+      }
+    }
+
+    void awaitCompletion() throws InterruptedException {
+      executor.shutdown();
+      executor.awaitTermination(drainTimeoutSeconds, TimeUnit.SECONDS);
+      endNanos = System.nanoTime();
+    }
+
+    /** Latency counts from when the query was due, so time queued for a free thread is included */
+    private void query(long sequence) {
+      int kind = (int) (sequence % names.size());
+      long intendedNanos = startNanos + (long) (sequence / queryRate * 1e9);
+      HttpRequest request =
+          HttpRequest.newBuilder(
+                  URI.create(
+                      "http://localhost:" + port + paths.get(kind).apply(sequence / names.size())))
+              .header("Authorization", "Bearer " + token)
+              .GET()
+              .build();
+      try {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+          errors.incrementAndGet();
+          return;
+        }
+      } catch (Exception e) {
+        errors.incrementAndGet();
+        return;
+      }
+      long latencyMicros = (System.nanoTime() - intendedNanos) / 1000;
+      recorders
+          .get(names.get(kind))
+          .recordValue(Math.max(0, Math.min(HIGHEST_TRACKABLE_MICROS, latencyMicros)));
+    }
+
+    Map<String, Object> summary() {
+      double seconds = (endNanos - startNanos) / 1e9;
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("errors", errors.get());
+      for (String name : names) {
+        Histogram histogram = recorders.get(name).getIntervalHistogram();
+        Map<String, Object> endpoint = new LinkedHashMap<>();
+        endpoint.put("count", histogram.getTotalCount());
+        endpoint.put("queriesPerSecond", histogram.getTotalCount() / seconds);
+        endpoint.put("meanMs", histogram.getMean() / 1000.0);
+        endpoint.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        endpoint.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        endpoint.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        endpoint.put("maxMs", histogram.getMaxValue() / 1000.0);
+        summary.put(name, endpoint);
+      }
+      return summary;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.iot.system.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.codec.GorillaBatchWriter;
+import com.iot.common.model.ReadingBatch;
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.IngestProperties;
+import com.iot.system.service.SensorDataProcessingService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HttpIngestServiceTest {
+
+  private final SensorDataProcessingService processingService =
+      mock(SensorDataProcessingService.class);
+  private final List<List<SensorReading>> chunks = new ArrayList<>();
+  private final IngestProperties properties = new IngestProperties();
+  private HttpIngestService service;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(
+            invocation -> {
+              chunks.add(new ArrayList<>(invocation.<List<SensorReading>>getArgument(0)));
+              return null;
+            })
+        .when(processingService)
+        .processSensorReadingBatch(any());
+    properties.setChunkSize(2);
+    properties.setMaxConcurrentRequests(1);
+    properties.setMaxBatchBytes(1024);
+    service = createService();
+  }
+
+  private HttpIngestService createService() {
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    ReadingBatchDecoder decoder = new ReadingBatchDecoder();
+    ReflectionTestUtils.setField(decoder, "objectMapper", objectMapper);
+    HttpIngestService created = new HttpIngestService();
+    ReflectionTestUtils.setField(created, "processingService", processingService);
+    ReflectionTestUtils.setField(created, "readingBatchDecoder", decoder);
+    ReflectionTestUtils.setField(created, "objectMapper", objectMapper);
+    ReflectionTestUtils.setField(created, "ingestProperties", properties);
+    created.initialize();
+    return created;
+  }
+
+  private static InputStream body(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String line(String deviceId, double value) {
+    return "{\"deviceId\":\""
+        + deviceId
+        + "\",\"deviceType\":\"THERMOSTAT\",\"zone\":\"kitchen\",\"value\":"
+        + value
+        + ",\"timestamp\":\"2024-01-01T00:00:00\"}\n";
+  }
+
+  @Test
+  void testNdjsonIsIngestedInChunks() throws Exception {
+    String ndjson = line("T-1", 1) + line("T-2", 2) + "\n" + line("T-3", 3);
+
+    assertEquals(3, service.ingest(body(ndjson), HttpIngestService.NDJSON));
+
+    assertEquals(2, chunks.size());
+    assertEquals(2, chunks.get(0).size());
+    assertEquals("T-3", chunks.get(1).get(0).getDeviceId());
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), chunks.get(1).get(0).getTimestamp());
+    assertEquals(3L, service.getStatus().get("readings"));
+  }
+
+  @Test
+  void testMalformedLineKeepsEarlierChunksAndFails() {
+    String ndjson = line("T-1", 1) + line("T-2", 2) + "{\"deviceId\": oops}\n";
+
+    IllegalArgumentException error =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> service.ingest(body(ndjson), HttpIngestService.NDJSON));
+
+    assertTrue(error.getMessage().contains("after 2 readings"), error.getMessage());
+    assertEquals(1, chunks.size());
+  }
+
+  @Test
+  void testBatchEnvelopesAreIngested() throws Exception {
+    byte[] gorilla =
+        GorillaBatchWriter.encode(
+            new ReadingBatch(
+                List.of(
+                    new ReadingBatch.Series(
+                        "T-1",
+                        "THERMOSTAT",
+                        "kitchen",
+                        new long[] {0, 1000, 2000},
+                        new double[] {1, 2, 3}))));
+
+    assertEquals(
+        3, service.ingest(new ByteArrayInputStream(gorilla), ReadingBatch.GORILLA_ENCODING));
+    assertEquals(2, chunks.size());
+
+    String json =
+        "{\"series\":[{\"deviceId\":\"T-2\",\"deviceType\":\"THERMOSTAT\",\"zone\":\"z\","
+            + "\"timestamps\":[0],\"values\":[4.5]}]}";
+    assertEquals(1, service.ingest(body(json), ReadingBatch.JSON_ENCODING));
+    assertEquals(4.5, chunks.get(2).get(0).getValue());
+  }
+
+  @Test
+  void testOversizedOrUnknownBatchIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            service.ingest(
+                new ByteArrayInputStream(new byte[2048]), ReadingBatch.GORILLA_ENCODING));
+    assertThrows(IllegalArgumentException.class, () -> service.ingest(body("{}"), "zstd"));
+    verify(processingService, never()).processSensorReadingBatch(any());
+  }
+
+  @Test
+  void testRequestsBeyondTheLimitAreRefused() throws Exception {
+    AtomicReference<Exception> concurrent = new AtomicReference<>();
+    InputStream slowBody =
+        new ByteArrayInputStream(line("T-1", 1).getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public synchronized int read(byte[] buffer, int offset, int length) {
+            if (concurrent.get() == null) {
+              try {
+                service.ingest(body(line("T-2", 2)), HttpIngestService.NDJSON);
+              } catch (IngestSaturatedException | IOException e) {
+                concurrent.set(e);
+              }
+            }
+            return super.read(buffer, offset, length);
+          }
+        };
+
+    assertEquals(1, service.ingest(slowBody, HttpIngestService.NDJSON));
+
+    assertInstanceOf(IngestSaturatedException.class, concurrent.get());
+    assertEquals(1L, service.getStatus().get("refused"));
+    assertEquals(0, service.getStatus().get("inProgress"));
+    // The slot is free again
+    assertEquals(1, service.ingest(body(line("T-3", 3)), HttpIngestService.NDJSON));
+  }
+}
@@ -0,0 +1,143 @@
+package com.iot.system.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LineProtocolParserTest {
+
+  private final LineProtocolParser parser = new LineProtocolParser(64);
+  private final List<SensorReading> readings = new ArrayList<>();
+
+  private static ByteBuffer buffer(String text) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+    buffer.put(text.getBytes(StandardCharsets.UTF_8)).flip();
+    return buffer;
+  }
+
+  private static double parseDouble(String text) {
+    ByteBuffer buffer = buffer(text);
+    return LineProtocolParser.parseDouble(buffer, 0, buffer.limit());
+  }
+
+  @Test
+  void testParsesCompleteLinesAndKeepsThePartialOne() {
+    ByteBuffer buffer =
+        buffer(
+            "THERMO-1,kitchen,THERMOSTAT 21.5 1704067200000\r\n"
+                + "# comment\n"
+                + "\n"
+                + "HR-2,gym,HEART_RATE 72 1704067201250\n"
+                + "HR-3,gym,HEA");
+
+    LineProtocolParser.Result result = parser.parse(buffer, false, readings::add);
+
+    assertEquals(2, result.readings());
+    assertEquals(0, result.malformed());
+    assertEquals(
+        new SensorReading(
+            "THERMO-1", "THERMOSTAT", "kitchen", 21.5, LocalDateTime.of(2024, 1, 1, 0, 0)),
+        readings.get(0));
+    assertEquals(
+        LocalDateTime.of(2024, 1, 1, 0, 0, 1, 250_000_000), readings.get(1).getTimestamp());
+    assertEquals("HR-3,gym,HEA", StandardCharsets.UTF_8.decode(buffer).toString());
+  }
+
+  @Test
+  void testEndOfInputParsesTheLastLineAndMissingTimestampMeansNow() {
+    LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1);
+
+    parser.parse(buffer("HR-3,gym,HEART_RATE -1.25"), true, readings::add);
+
+    assertEquals(-1.25, readings.get(0).getValue());
+    assertTrue(readings.get(0).getTimestamp().isAfter(before));
+  }
+
+  @Test
+  void testMalformedLinesAreCountedAndSkipped() {
+    LineProtocolParser.Result result =
+        parser.parse(
+            buffer(
+                "no-commas 1 2\n"
+                    + ",zone,type 1 2\n"
+                    + "id,,type 1 2\n"
+                    + "id,zone, 1 2\n"
+                    + "id,zone,type abc 2\n"
+                    + "id,zone,type 1 12x\n"
+                    + "id,zone,type\n"
+                    + "id,zone,type 1 2\n"),
+            false,
+            readings::add);
+
+    assertEquals(1, result.readings());
+    assertEquals(7, result.malformed());
+  }
+
+  @Test
+  void testOverlongPartialLineIsDropped() {
+    ByteBuffer buffer = buffer("x".repeat(100));
+
+    LineProtocolParser.Result result = parser.parse(buffer, false, readings::add);
+
+    assertEquals(1, result.malformed());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void testRestOfADroppedLineIsSkippedInTheNextRead() {
+    LineProtocolParser.Result first = parser.parse(buffer("x".repeat(100)), false, readings::add);
+
+    LineProtocolParser.Result second =
+        parser.parse(
+            buffer(",kitchen,THERMOSTAT 1 0\nT-1,kitchen,THERMOSTAT 21.5 0\n"),
+            false,
+            first.discarding(),
+            readings::add);
+
+    assertTrue(first.discarding());
+    assertFalse(second.discarding());
+    assertEquals(0, second.malformed());
+    assertEquals(1, readings.size());
+    assertEquals("T-1", readings.get(0).getDeviceId());
+  }
+
+  @Test
+  void testRepeatedIdentitiesReuseStrings() {
+    parser.parse(buffer("D-1,z,t 1 0\nD-1,z,t 2 1000\n"), false, readings::add);
+
+    assertSame(readings.get(0).getDeviceId(), readings.get(1).getDeviceId());
+    assertSame(readings.get(0).getZone(), readings.get(1).getZone());
+  }
+
+  @Test
+  void testValuesMatchDoubleParsing() {
+    for (String text :
+        new String[] {
+          "0",
+          "-0",
+          "+3",
+          "21.5",
+          "0.1",
+          "123456.789012",
+          "1e3",
+          "-2.5E-4",
+          "NaN",
+          "Infinity",
+          "0.30000000000000004",
+          "98765432109876543210",
+          ".5",
+          "5."
+        }) {
+      assertEquals(Double.parseDouble(text), parseDouble(text), text);
+    }
+    assertThrows(NumberFormatException.class, () -> parseDouble("-"));
+    assertThrows(NumberFormatException.class, () -> parseDouble("1.2.3"));
+  }
+}
@@ -0,0 +1,148 @@
+package com.iot.system.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.LineProtocolProperties;
+import com.iot.system.service.SensorDataProcessingService;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LineProtocolServerTest {
+
+  private final SensorDataProcessingService processingService =
+      mock(SensorDataProcessingService.class);
+  private final List<SensorReading> written = new CopyOnWriteArrayList<>();
+  private final LineProtocolProperties properties = new LineProtocolProperties();
+  private final LineProtocolServer server = new LineProtocolServer();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    doAnswer(
+            invocation -> {
+              written.addAll(invocation.<List<SensorReading>>getArgument(0));
+              return null;
+            })
+        .when(processingService)
+        .processSensorReadingBatch(any());
+    properties.setBindAddress("127.0.0.1");
+    properties.setTcpPort(0);
+    properties.setUdpPort(0);
+    properties.setMaxConnections(1);
+    properties.setBatchSize(100);
+    properties.setLingerMs(20);
+    ReflectionTestUtils.setField(server, "processingService", processingService);
+    ReflectionTestUtils.setField(server, "properties", properties);
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop();
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  @Test
+  void testTcpReadingsAreBatchedIntoThePipeline() throws Exception {
+    try (Socket socket = new Socket("127.0.0.1", server.getTcpPort())) {
+      OutputStream out = socket.getOutputStream();
+      StringBuilder lines = new StringBuilder();
+      for (int i = 0; i < 250; i++) {
+        lines.append("T-").append(i % 5).append(",kitchen,THERMOSTAT ").append(i).append(" ");
+        lines.append(1_704_067_200_000L + i).append('\n');
+      }
+      byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+      // Split mid-line to exercise partial reads
+      out.write(bytes, 0, 1001);
+      out.flush();
+      Thread.sleep(30);
+      out.write(bytes, 1001, bytes.length - 1001);
+      out.write("broken line\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+
+      await(() -> written.size() == 250);
+      assertEquals(249.0, written.get(249).getValue());
+      verify(processingService, atLeast(3)).processSensorReadingBatch(any());
+
+      Map<String, Object> status = server.getStatus();
+      assertEquals(1, status.get("openConnections"));
+      List<?> connections = (List<?>) status.get("connections");
+      Map<?, ?> connection = (Map<?, ?>) connections.get(0);
+      assertEquals(250L, connection.get("readings"));
+      assertEquals(1L, connection.get("malformed"));
+    }
+    await(() -> (int) server.getStatus().get("openConnections") == 0);
+  }
+
+  @Test
+  void testDatagramsAreParsedWhole() throws Exception {
+    try (DatagramSocket socket = new DatagramSocket()) {
+      byte[] datagram =
+          "HR-1,gym,HEART_RATE 70 1000\nHR-2,gym,HEART_RATE 71 1000"
+              .getBytes(StandardCharsets.UTF_8);
+      socket.send(
+          new DatagramPacket(
+              datagram, datagram.length, InetAddress.getByName("127.0.0.1"), server.getUdpPort()));
+    }
+
+    await(() -> written.size() == 2);
+    assertEquals("HR-2", written.get(1).getDeviceId());
+    assertEquals(2L, ((Map<?, ?>) server.getStatus().get("udp")).get("readings"));
+  }
+
+  @Test
+  void testConnectionsBeyondTheLimitAreClosed() throws Exception {
+    try (Socket first = new Socket("127.0.0.1", server.getTcpPort())) {
+      await(() -> (int) server.getStatus().get("openConnections") == 1);
+      try (Socket second = new Socket("127.0.0.1", server.getTcpPort())) {
+        assertEquals(-1, second.getInputStream().read());
+      }
+      assertEquals(1L, server.getStatus().get("refusedConnections"));
+    }
+  }
+
+  @Test
+  void testFailedBatchIsRetriedBeforeItIsDropped() throws Exception {
+    properties.setWriteBackoffMs(10);
+    doThrow(new IllegalStateException("Connection refused"))
+        .doAnswer(
+            invocation -> {
+              written.addAll(invocation.<List<SensorReading>>getArgument(0));
+              return null;
+            })
+        .when(processingService)
+        .processSensorReadingBatch(any());
+
+    try (Socket socket = new Socket("127.0.0.1", server.getTcpPort())) {
+      socket
+          .getOutputStream()
+          .write("T-1,kitchen,THERMOSTAT 21.5 0\n".getBytes(StandardCharsets.UTF_8));
+      socket.getOutputStream().flush();
+
+      await(() -> written.size() == 1);
+      assertEquals(1L, server.getStatus().get("written"));
+      assertEquals(0L, server.getStatus().get("failedBatches"));
+    }
+  }
+}
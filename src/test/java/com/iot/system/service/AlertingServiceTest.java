@@ -0,0 +1,56 @@
+package com.iot.system.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.system.config.AlertProperties;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AlertingServiceTest {
+
+  private static AlertProperties.Rule rule(String operator, Double threshold) {
+    AlertProperties.Rule rule = new AlertProperties.Rule();
+    rule.setId("heart-rate-high");
+    rule.setDeviceType("HEART_RATE");
+    rule.setOperator(operator);
+    rule.setThreshold(threshold);
+    return rule;
+  }
+
+  private static String compileError(AlertProperties.Rule rule) {
+    AlertProperties properties = new AlertProperties();
+    properties.setRules(List.of(rule));
+    AlertingService service = new AlertingService();
+    ReflectionTestUtils.setField(service, "alertProperties", properties);
+    return assertThrows(IllegalArgumentException.class, service::compileRules).getMessage();
+  }
+
+  @Test
+  void testValidRulesCompile() {
+    AlertProperties properties = new AlertProperties();
+    properties.setRules(List.of(rule("above", 160.0)));
+    AlertingService service = new AlertingService();
+    ReflectionTestUtils.setField(service, "alertProperties", properties);
+
+    assertDoesNotThrow(service::compileRules);
+  }
+
+  @Test
+  void testRuleWithoutOperatorIsRejectedByName() {
+    assertEquals("Alert rule heart-rate-high has no operator", compileError(rule(null, 160.0)));
+  }
+
+  @Test
+  void testRuleWithUnknownOperatorIsRejectedByName() {
+    String message = compileError(rule("GREATER", 160.0));
+
+    assertTrue(message.startsWith("Alert rule heart-rate-high has unknown operator GREATER"));
+    assertTrue(message.contains("AT_OR_ABOVE"));
+  }
+
+  @Test
+  void testRuleWithoutThresholdIsRejectedByName() {
+    assertEquals("Alert rule heart-rate-high has no threshold", compileError(rule("ABOVE", null)));
+  }
+}
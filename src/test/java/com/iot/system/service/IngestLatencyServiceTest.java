@@ -0,0 +1,44 @@
+package com.iot.system.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class IngestLatencyServiceTest {
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> histogram(IngestLatencyService service, String name) {
+    return (Map<String, Object>) service.getSnapshot().get(name);
+  }
+
+  @Test
+  void testCorrectedLatencyIsMeasuredFromIntendedSendTime() {
+    IngestLatencyService service = new IngestLatencyService();
+    // Sent 40 ms behind schedule, persisted 10 ms after the actual send
+    for (int i = 0; i < 100; i++) {
+      service.record(1_000_000L, 1_040L, 1_050_000L);
+    }
+
+    Map<String, Object> corrected = histogram(service, "corrected");
+    Map<String, Object> uncorrected = histogram(service, "uncorrected");
+
+    assertEquals(100L, corrected.get("count"));
+    assertEquals(50.0, (double) corrected.get("p99Ms"), 0.1);
+    assertEquals(10.0, (double) uncorrected.get("p99Ms"), 0.1);
+  }
+
+  @Test
+  void testSnapshotsAccumulateUntilReset() {
+    IngestLatencyService service = new IngestLatencyService();
+    service.record(0, null, 1_000);
+    service.getSnapshot();
+    service.record(0, null, 2_000);
+
+    assertEquals(2L, histogram(service, "corrected").get("count"));
+    assertEquals(0L, histogram(service, "uncorrected").get("count"));
+
+    service.reset();
+    assertEquals(0L, histogram(service, "corrected").get("count"));
+  }
+}
@@ -0,0 +1,59 @@
+package com.iot.system.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import com.iot.system.config.RollupProperties;
+import com.iot.system.stream.rollup.MinuteRollup;
+import com.iot.system.stream.rollup.MinuteRollupAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class MinuteRollupServiceTest {
+
+  private final RollupProperties properties = new RollupProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private MinuteRollupService service;
+
+  @BeforeEach
+  void setUp() {
+    properties.setEnabled(true);
+    TransactionTemplate unavailable =
+        new TransactionTemplate() {
+          @Override
+          public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            throw new DataAccessResourceFailureException("Connection refused");
+          }
+        };
+    service = new MinuteRollupService();
+    ReflectionTestUtils.setField(service, "rollupProperties", properties);
+    ReflectionTestUtils.setField(service, "transactionTemplate", unavailable);
+    ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    service.initializeAggregator();
+  }
+
+  @Test
+  void testFailedFlushKeepsAtMostMaxPendingMinutes() {
+    properties.setMaxPending(2);
+    LocalDateTime minute = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int device = 1; device <= 3; device++) {
+      service.accept(new SensorReading("THERMO-" + device, "THERMOSTAT", "kitchen", 21.0, minute));
+    }
+
+    service.flushOnShutdown();
+
+    MinuteRollupAggregator aggregator =
+        (MinuteRollupAggregator) ReflectionTestUtils.getField(service, "aggregator");
+    List<MinuteRollup> pending = aggregator.drainClosed(System.currentTimeMillis());
+    assertEquals(2, pending.size());
+    assertEquals(1.0, meterRegistry.get("iot.rollup.dropped").counter().count());
+  }
+}
@@ -0,0 +1,166 @@
+package com.iot.system.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.timing.QueryCall;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class QueryTimingServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  private final QueryTimingProperties properties = new QueryTimingProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<String> explained = new ArrayList<>();
+  private QueryTimingService service;
+
+  @BeforeEach
+  void setUp() {
+    properties.setSlowThresholdMs(10);
+    JdbcTemplate jdbcTemplate =
+        new JdbcTemplate() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            explained.add(sql);
+            return (List<T>) List.of("Seq Scan on sensor_readings", "Execution Time: 12.3 ms");
+          }
+        };
+    service = new QueryTimingService();
+    ReflectionTestUtils.setField(service, "properties", properties);
+    ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+    service.initialize();
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  private static QueryCall deviceCall(LocalDateTime endTime) {
+    return new QueryCall(QueryTimingService.REPOSITORY, "findByDeviceIdAndTimestampBetween")
+        .parameter("deviceId", "THERMO-0000001")
+        .parameter("startTime", START)
+        .parameter("endTime", endTime);
+  }
+
+  @Test
+  void testRecordsTimerTaggedByDimensionAndRange() {
+    service.record(deviceCall(START.plusDays(3)).rows(42), TimeUnit.MILLISECONDS.toNanos(5));
+
+    Timer timer =
+        meterRegistry
+            .get(QueryTimingService.METRIC)
+            .tag("layer", "repository")
+            .tag("operation", "findByDeviceIdAndTimestampBetween")
+            .tag("dimension", "device")
+            .tag("range", "7d")
+            .tag("outcome", "success")
+            .timer();
+    assertEquals(1, timer.count());
+    assertTrue(service.getSlowQueries().isEmpty());
+  }
+
+  @Test
+  void testSlowCallsAreLoggedWithParametersAndRows() {
+    service.record(deviceCall(START.plusHours(2)).rows(7200), TimeUnit.MILLISECONDS.toNanos(5));
+    service.record(deviceCall(START.plusHours(2)).rows(7200), TimeUnit.MILLISECONDS.toNanos(25));
+
+    List<Map<String, Object>> slow = service.getSlowQueries();
+    assertEquals(1, slow.size());
+    assertEquals("THERMO-0000001", slow.get(0).get("subject"));
+    assertEquals("1d", slow.get(0).get("range"));
+    assertEquals(7200L, slow.get(0).get("rows"));
+    assertEquals(25.0, (double) slow.get(0).get("elapsedMs"), 0.001);
+    assertEquals(START, ((Map<?, ?>) slow.get(0).get("parameters")).get("startTime"));
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> series =
+        (List<Map<String, Object>>) service.getSummary().get("series");
+    assertEquals(1, series.size());
+    assertEquals(2L, series.get(0).get("count"));
+    assertEquals(1L, series.get(0).get("overThreshold"));
+    assertTrue((double) series.get(0).get("p99Ms") >= 20);
+  }
+
+  @Test
+  void testSlowLogKeepsTheMostRecentCalls() {
+    properties.setSlowLogCapacity(2);
+    for (int i = 1; i <= 3; i++) {
+      service.record(deviceCall(START.plusHours(1)).rows(i), TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    List<Map<String, Object>> slow = service.getSlowQueries();
+    assertEquals(List.of(3L, 2L), slow.stream().map(entry -> entry.get("rows")).toList());
+
+    service.clearSlowQueries();
+    assertTrue(service.getSlowQueries().isEmpty());
+  }
+
+  @Test
+  void testSampledSlowSqlIsExplained() throws Exception {
+    properties.setExplainEnabled(true);
+    properties.setExplainSampleRate(1.0);
+
+    service.record(
+        new QueryCall(QueryTimingService.PARTITION, "zoneAggregates")
+            .parameter("zone", "kitchen")
+            .statement("SELECT 1 WHERE ? = ?", "a", "a"),
+        TimeUnit.MILLISECONDS.toNanos(50));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (service.getSlowQueries().isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Map<String, Object> entry = service.getSlowQueries().get(0);
+    assertEquals("Seq Scan on sensor_readings\nExecution Time: 12.3 ms", entry.get("plan"));
+    assertEquals(List.of("EXPLAIN (ANALYZE, BUFFERS) SELECT 1 WHERE ? = ?"), explained);
+  }
+
+  @Test
+  void testSlowCallsWithoutSqlAreNotExplained() {
+    properties.setExplainEnabled(true);
+    properties.setExplainSampleRate(1.0);
+
+    service.record(
+        new QueryCall(QueryTimingService.ENDPOINT, "getZoneAggregates").parameter("zone", "gym"),
+        TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertEquals(1, service.getSlowQueries().size());
+    assertFalse(service.getSlowQueries().get(0).containsKey("plan"));
+    assertTrue(explained.isEmpty());
+  }
+
+  @Test
+  void testDisabledTimingRecordsNothing() {
+    properties.setEnabled(false);
+
+    service.record(deviceCall(START.plusDays(1)), TimeUnit.MILLISECONDS.toNanos(50));
+
+    assertNull(meterRegistry.find(QueryTimingService.METRIC).timer());
+    assertTrue(service.getSlowQueries().isEmpty());
+  }
+
+  @Test
+  void testRangeBuckets() {
+    assertEquals("none", QueryTimingService.rangeBucket(null, START));
+    assertEquals("1h", QueryTimingService.rangeBucket(START, START.plusMinutes(60)));
+    assertEquals("1d", QueryTimingService.rangeBucket(START, START.plusMinutes(61)));
+    assertEquals("7d", QueryTimingService.rangeBucket(START, START.plusDays(7)));
+    assertEquals("31d", QueryTimingService.rangeBucket(START, START.plusDays(30)));
+    assertEquals("over31d", QueryTimingService.rangeBucket(START, START.plusDays(90)));
+  }
+}
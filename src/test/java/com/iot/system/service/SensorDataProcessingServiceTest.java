@@ -2,10 +2,17 @@ package com.iot.system.service;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iot.common.codec.GorillaBatchWriter;
+import com.iot.common.model.ReadingBatch;
 import com.iot.common.model.SensorReading;
+import com.iot.system.ingest.ReadingBatchDecoder;
 import com.iot.system.repository.SensorReadingRepository;
+import com.iot.system.stream.ReadingStage;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -15,12 +22,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class SensorDataProcessingServiceTest {
 
   @Mock private SensorReadingRepository sensorReadingRepository;
 
+  @Mock private IngestLatencyService ingestLatencyService;
+
   @InjectMocks private SensorDataProcessingService sensorDataProcessingService;
 
   private SensorReading validReading;
@@ -76,4 +86,147 @@ class SensorDataProcessingServiceTest {
 
     verify(sensorReadingRepository, times(1)).saveAll(batch);
   }
+
+  @Test
+  void testValidReadingsAreFedToStages() {
+    ReadingStage stage = mock(ReadingStage.class);
+    ReflectionTestUtils.setField(sensorDataProcessingService, "readingStages", List.of(stage));
+
+    sensorDataProcessingService.processSensorReadingBatch(
+        Arrays.asList(validReading, invalidReading));
+
+    verify(stage, times(1)).accept(validReading);
+    verify(stage, never()).accept(invalidReading);
+  }
+
+  @Test
+  void testFailingStageDoesNotFailBatch() {
+    ReadingStage stage = mock(ReadingStage.class);
+    doThrow(new IllegalStateException("boom")).when(stage).accept(any());
+    ReflectionTestUtils.setField(sensorDataProcessingService, "readingStages", List.of(stage));
+
+    sensorDataProcessingService.processSensorReadingBatch(Arrays.asList(validReading));
+
+    verify(sensorReadingRepository, times(1)).saveAll(Arrays.asList(validReading));
+  }
+
+  @Test
+  void testIntendedSendTimeHeaderRecordsLatency() {
+    when(ingestLatencyService.nowMicros()).thenReturn(5_000_000L);
+
+    sensorDataProcessingService.processSensorReadingBatch(
+        Arrays.asList(validReading),
+        "4000000".getBytes(StandardCharsets.US_ASCII),
+        4_500L);
+
+    verify(ingestLatencyService, times(1)).record(4_000_000L, 4_500L, 5_000_000L);
+  }
+
+  @Test
+  void testReadingsWithoutHeaderAreNotTimed() {
+    sensorDataProcessingService.processSensorReadingBatch(Arrays.asList(validReading));
+
+    verify(ingestLatencyService, never()).record(anyLong(), any(), anyLong());
+  }
+
+  @Test
+  void testBatchEnvelopeIsUnpackedIntoReadings() throws Exception {
+    useBatchDecoder();
+    byte[] envelope =
+        new ObjectMapper()
+            .writeValueAsBytes(
+                new ReadingBatch(
+                    List.of(
+                        new ReadingBatch.Series(
+                            "THERMO_001",
+                            "THERMOSTAT",
+                            "ZONE_A",
+                            new long[] {1_704_067_200_000L, 1_704_067_201_000L},
+                            new double[] {21.0, 21.5}))));
+
+    sensorDataProcessingService.processReadingEnvelope(
+        envelope, ReadingBatch.JSON_ENCODING.getBytes(StandardCharsets.UTF_8), null, null);
+
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    verify(sensorReadingRepository, times(1))
+        .saveAll(
+            List.of(
+                new SensorReading("THERMO_001", "THERMOSTAT", "ZONE_A", 21.0, start),
+                new SensorReading(
+                    "THERMO_001", "THERMOSTAT", "ZONE_A", 21.5, start.plusSeconds(1))));
+  }
+
+  @Test
+  void testGorillaEnvelopeIsUnpackedIntoReadings() {
+    useBatchDecoder();
+    byte[] envelope =
+        GorillaBatchWriter.encode(
+            new ReadingBatch(
+                List.of(
+                    new ReadingBatch.Series(
+                        "THERMO_001",
+                        "THERMOSTAT",
+                        "ZONE_A",
+                        new long[] {1_704_067_200_000L},
+                        new double[] {22.5}))));
+
+    sensorDataProcessingService.processReadingEnvelope(
+        envelope, ReadingBatch.GORILLA_ENCODING.getBytes(StandardCharsets.UTF_8), null, null);
+
+    verify(sensorReadingRepository, times(1))
+        .saveAll(
+            List.of(
+                new SensorReading(
+                    "THERMO_001",
+                    "THERMOSTAT",
+                    "ZONE_A",
+                    22.5,
+                    LocalDateTime.of(2024, 1, 1, 0, 0))));
+  }
+
+  @Test
+  void testUndecodableEnvelopeIsSkipped() {
+    useBatchDecoder();
+
+    sensorDataProcessingService.processReadingEnvelope(
+        "not json".getBytes(StandardCharsets.UTF_8), null, null, null);
+    sensorDataProcessingService.processReadingEnvelope(
+        new byte[] {1, (byte) 0xFF},
+        ReadingBatch.GORILLA_ENCODING.getBytes(StandardCharsets.UTF_8),
+        null,
+        null);
+    sensorDataProcessingService.processReadingEnvelope(
+        new byte[0], "zstd".getBytes(StandardCharsets.UTF_8), null, null);
+
+    verify(sensorReadingRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void testEnvelopePersistenceFailureIsRethrownForRetry() throws Exception {
+    useBatchDecoder();
+    byte[] envelope =
+        new ObjectMapper()
+            .writeValueAsBytes(
+                new ReadingBatch(
+                    List.of(
+                        new ReadingBatch.Series(
+                            "THERMO_001",
+                            "THERMOSTAT",
+                            "ZONE_A",
+                            new long[] {1_704_067_200_000L},
+                            new double[] {21.0}))));
+    when(sensorReadingRepository.saveAll(any())).thenThrow(new RuntimeException("DB error"));
+
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            sensorDataProcessingService.processReadingEnvelope(
+                envelope, ReadingBatch.JSON_ENCODING.getBytes(StandardCharsets.UTF_8), null, null));
+  }
+
+  private void useBatchDecoder() {
+    ReadingBatchDecoder decoder = new ReadingBatchDecoder();
+    ReflectionTestUtils.setField(decoder, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(sensorDataProcessingService, "readingBatchDecoder", decoder);
+  }
 }
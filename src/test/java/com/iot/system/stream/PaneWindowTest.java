@@ -0,0 +1,80 @@
+package com.iot.system.stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PaneWindowTest {
+
+  private static final long MINUTE = 60_000L;
+
+  @Test
+  void testSnapshotMatchesBatchStatistics() {
+    PaneWindow window = new PaneWindow(MINUTE, 12);
+    double[] values = {20.0, 22.0, 24.0, 26.0, 28.0};
+    for (int i = 0; i < values.length; i++) {
+      window.add(i * 10_000L, values[i]);
+    }
+
+    WindowAggregate aggregate = window.snapshot(50_000L);
+
+    assertEquals(5, aggregate.getCount());
+    assertEquals(24.0, aggregate.getMean(), 1e-9);
+    assertEquals(20.0, aggregate.getMin());
+    assertEquals(28.0, aggregate.getMax());
+    assertEquals(10.0, aggregate.getVariance(), 1e-9);
+  }
+
+  @Test
+  void testExpiredPanesAreExcluded() {
+    PaneWindow window = new PaneWindow(MINUTE, 12);
+    window.add(0L, 100.0);
+    window.add(65_000L, 10.0);
+
+    WindowAggregate aggregate = window.snapshot(65_000L);
+
+    assertEquals(1, aggregate.getCount());
+    assertEquals(10.0, aggregate.getMean());
+    assertNull(aggregate.getVariance());
+  }
+
+  @Test
+  void testRecycledSlotIsReset() {
+    PaneWindow window = new PaneWindow(MINUTE, 12);
+    window.add(1_000L, 50.0);
+    // Same slot, one full rotation later
+    window.add(MINUTE + 1_000L, 5.0);
+
+    WindowAggregate aggregate = window.snapshot(MINUTE + 1_000L);
+
+    assertEquals(1, aggregate.getCount());
+    assertEquals(5.0, aggregate.getMax());
+  }
+
+  @Test
+  void testReadingOlderThanWindowIsDropped() {
+    PaneWindow window = new PaneWindow(MINUTE, 12);
+    window.add(MINUTE + 1_000L, 5.0);
+
+    assertFalse(window.add(1_000L, 50.0));
+    assertEquals(1, window.snapshot(MINUTE + 1_000L).getCount());
+  }
+
+  @Test
+  void testEmptyWindow() {
+    PaneWindow window = new PaneWindow(MINUTE, 12);
+
+    WindowAggregate aggregate = window.snapshot(System.currentTimeMillis());
+
+    assertEquals(0, aggregate.getCount());
+    assertNull(aggregate.getMean());
+    assertNull(aggregate.getMin());
+    assertNull(aggregate.getMax());
+  }
+
+  @Test
+  void testInvalidPaneConfiguration() {
+    assertThrows(IllegalArgumentException.class, () -> new PaneWindow(MINUTE, 0));
+    assertThrows(IllegalArgumentException.class, () -> new PaneWindow(5, 12));
+  }
+}
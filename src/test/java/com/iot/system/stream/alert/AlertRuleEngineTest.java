@@ -0,0 +1,101 @@
+package com.iot.system.stream.alert;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorAlert;
+import com.iot.common.model.SensorReading;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AlertRuleEngineTest {
+
+  private AlertRuleEngine engine;
+  private List<SensorAlert> alerts;
+
+  @BeforeEach
+  void setUp() {
+    engine =
+        new AlertRuleEngine(
+            List.of(
+                new AlertRule(
+                    0,
+                    "hr-high",
+                    "HEART_RATE",
+                    null,
+                    AlertOperator.ABOVE,
+                    160,
+                    30_000L,
+                    "CRITICAL"),
+                new AlertRule(
+                    1, "fuel-low", "FUEL_SENSOR", null, AlertOperator.BELOW, 15, 0L, "WARNING"),
+                new AlertRule(
+                    2, "gym-hr", "HEART_RATE", "gym", AlertOperator.ABOVE, 120, 0L, "INFO")));
+    alerts = new ArrayList<>();
+  }
+
+  @Test
+  void testImmediateRuleRaisesOnce() {
+    engine.evaluate(reading("FUEL-1", "FUEL_SENSOR", "garage", 12.0), 0L, alerts::add);
+    engine.evaluate(reading("FUEL-1", "FUEL_SENSOR", "garage", 11.0), 1_000L, alerts::add);
+
+    assertEquals(1, alerts.size());
+    assertEquals("fuel-low", alerts.get(0).getRuleId());
+    assertEquals(SensorAlert.State.RAISED, alerts.get(0).getState());
+  }
+
+  @Test
+  void testDurationConditionMustHold() {
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 165.0), 0L, alerts::add);
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 166.0), 20_000L, alerts::add);
+    assertTrue(alerts.isEmpty());
+
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 167.0), 30_000L, alerts::add);
+    assertEquals(1, alerts.size());
+    assertEquals("hr-high", alerts.get(0).getRuleId());
+  }
+
+  @Test
+  void testInterruptedConditionRestartsDuration() {
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 165.0), 0L, alerts::add);
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 150.0), 20_000L, alerts::add);
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 165.0), 25_000L, alerts::add);
+    engine.evaluate(reading("HR-1", "HEART_RATE", "home", 165.0), 40_000L, alerts::add);
+
+    assertTrue(alerts.isEmpty());
+  }
+
+  @Test
+  void testRaisedAlertResolves() {
+    engine.evaluate(reading("FUEL-1", "FUEL_SENSOR", "garage", 12.0), 0L, alerts::add);
+    engine.evaluate(reading("FUEL-1", "FUEL_SENSOR", "garage", 100.0), 1_000L, alerts::add);
+
+    assertEquals(2, alerts.size());
+    assertEquals(SensorAlert.State.RESOLVED, alerts.get(1).getState());
+  }
+
+  @Test
+  void testZoneSpecificRulesOnlyApplyToTheirZone() {
+    engine.evaluate(reading("HR-1", "HEART_RATE", "gym", 130.0), 0L, alerts::add);
+    engine.evaluate(reading("HR-2", "HEART_RATE", "office", 130.0), 0L, alerts::add);
+
+    assertEquals(1, alerts.size());
+    assertEquals("gym-hr", alerts.get(0).getRuleId());
+    assertEquals("HR-1", alerts.get(0).getDeviceId());
+  }
+
+  @Test
+  void testUnmatchedDeviceTypeKeepsNoState() {
+    engine.evaluate(reading("THERMO-1", "THERMOSTAT", "kitchen", 99.0), 0L, alerts::add);
+
+    assertTrue(alerts.isEmpty());
+    assertEquals(0, engine.getTrackedDeviceCount());
+  }
+
+  private SensorReading reading(String deviceId, String deviceType, String zone, double value) {
+    return new SensorReading(
+        deviceId, deviceType, zone, value, LocalDateTime.of(2024, 1, 1, 12, 0));
+  }
+}
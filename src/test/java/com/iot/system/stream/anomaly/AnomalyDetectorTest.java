@@ -0,0 +1,91 @@
+package com.iot.system.stream.anomaly;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorAnomaly;
+import com.iot.common.model.SensorReading;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AnomalyDetectorTest {
+
+  private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+  @Test
+  void testStableSeriesIsNotFlagged() {
+    AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, false, Map.of());
+    Random random = new Random(42);
+
+    for (int i = 0; i < 500; i++) {
+      assertNull(detector.evaluate(reading("HR-1", "HEART_RATE", 70 + random.nextGaussian()), i));
+    }
+  }
+
+  @Test
+  void testSuddenJumpIsFlagged() {
+    AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, false, Map.of());
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      detector.evaluate(reading("HR-1", "HEART_RATE", 70 + random.nextGaussian()), i);
+    }
+
+    SensorAnomaly anomaly = detector.evaluate(reading("HR-1", "HEART_RATE", 95.0), 200);
+
+    assertNotNull(anomaly);
+    assertEquals("HR-1", anomaly.getDeviceId());
+    assertEquals("VALUE", anomaly.getSignal());
+    assertTrue(anomaly.getScore() > 4.0);
+  }
+
+  @Test
+  void testDeltaSignalFlagsDropInconsistentWithConsumption() {
+    AnomalyDetector detector =
+        new AnomalyDetector(0.05, 4.0, 30, false, Map.of("FUEL_SENSOR", AnomalySignal.DELTA));
+    Random random = new Random(7);
+    double level = 90.0;
+    for (int i = 0; i < 200; i++) {
+      level -= random.nextDouble() * 0.1;
+      assertNull(detector.evaluate(reading("FUEL-1", "FUEL_SENSOR", level), i));
+    }
+
+    SensorAnomaly anomaly = detector.evaluate(reading("FUEL-1", "FUEL_SENSOR", level - 5.0), 200);
+
+    assertNotNull(anomaly);
+    assertEquals("DELTA", anomaly.getSignal());
+    assertTrue(anomaly.getScore() < -4.0);
+  }
+
+  @Test
+  void testNothingIsFlaggedDuringWarmup() {
+    AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, false, Map.of());
+    for (int i = 0; i < 10; i++) {
+      detector.evaluate(reading("HR-1", "HEART_RATE", 70.0 + (i % 2)), i);
+    }
+
+    assertNull(detector.evaluate(reading("HR-1", "HEART_RATE", 150.0), 10));
+  }
+
+  @Test
+  void testBaselineIsTrackedPerDevice() {
+    AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, false, Map.of());
+    detector.evaluate(reading("HR-1", "HEART_RATE", 70.0), 0);
+    detector.evaluate(reading("HR-2", "HEART_RATE", 120.0), 0);
+
+    assertEquals(2, detector.getTrackedDeviceCount());
+    assertEquals(70.0, detector.getBaseline("HR-1").getMean());
+    assertEquals(120.0, detector.getBaseline("HR-2").getMean());
+    assertNull(detector.getBaseline("HR-3"));
+  }
+
+  @Test
+  void testInvalidAlphaIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new AnomalyDetector(1.5, 4.0, 30, false, Map.of()));
+  }
+
+  private SensorReading reading(String deviceId, String deviceType, double value) {
+    return new SensorReading(deviceId, deviceType, "zone", value, TIME);
+  }
+}
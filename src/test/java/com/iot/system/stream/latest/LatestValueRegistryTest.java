@@ -0,0 +1,110 @@
+package com.iot.system.stream.latest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LatestValueRegistryTest {
+
+  private LatestValueRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new LatestValueRegistry();
+  }
+
+  @Test
+  void testNewerReadingReplacesValue() {
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 21.0, 1_000L));
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 22.0, 2_000L));
+
+    assertEquals(22.0, registry.get("THERMO-1").getValue());
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void testOutOfOrderReadingIsIgnored() {
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 22.0, 2_000L));
+
+    assertFalse(
+        registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 5.0, 1_000L)));
+    assertEquals(22.0, registry.get("THERMO-1").getValue());
+  }
+
+  @Test
+  void testZoneAndTypeIndexes() {
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 21.0, 1_000L));
+    registry.update(new LatestReading("THERMO-2", "THERMOSTAT", "bedroom", 19.0, 1_000L));
+    registry.update(new LatestReading("HR-1", "HEART_RATE", "kitchen", 72.0, 1_000L));
+
+    assertEquals(2, registry.getByZone("kitchen").size());
+    assertEquals(2, registry.getByType("THERMOSTAT").size());
+    assertTrue(registry.getByZone("garage").isEmpty());
+    assertEquals(2, registry.getZoneCounts().get("kitchen"));
+    assertEquals(1, registry.getTypeCounts().get("HEART_RATE"));
+  }
+
+  @Test
+  void testDeviceMovingZoneIsReindexed() {
+    registry.update(new LatestReading("HR-1", "HEART_RATE", "gym", 90.0, 1_000L));
+    registry.update(new LatestReading("HR-1", "HEART_RATE", "home", 70.0, 2_000L));
+
+    assertTrue(registry.getByZone("gym").isEmpty());
+    assertEquals(1, registry.getByZone("home").size());
+    assertFalse(registry.getZoneCounts().containsKey("gym"));
+  }
+
+  @Test
+  void testDrainDirtyReturnsChangedDevicesOnce() {
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 21.0, 1_000L));
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 22.0, 2_000L));
+
+    List<LatestReading> drained = registry.drainDirty();
+
+    assertEquals(1, drained.size());
+    assertEquals(22.0, drained.get(0).getValue());
+    assertTrue(registry.drainDirty().isEmpty());
+  }
+
+  @Test
+  void testRestoreDoesNotMarkDirty() {
+    registry.restore(new LatestReading("FUEL-1", "FUEL_SENSOR", "garage", 80.0, 1_000L));
+
+    assertNotNull(registry.get("FUEL-1"));
+    assertTrue(registry.drainDirty().isEmpty());
+  }
+
+  @Test
+  void testGetDevicesFiltersAndLimits() {
+    registry.update(new LatestReading("THERMO-2", "THERMOSTAT", "kitchen", 21.0, 1_000L));
+    registry.update(new LatestReading("THERMO-1", "THERMOSTAT", "kitchen", 21.0, 1_000L));
+    registry.update(new LatestReading("HR-1", "HEART_RATE", "kitchen", 72.0, 1_000L));
+
+    List<LatestReading> thermostats = registry.getDevices("kitchen", "THERMOSTAT", 10);
+    assertEquals(2, thermostats.size());
+    assertEquals("THERMO-1", thermostats.get(0).getDeviceId());
+    assertEquals(1, registry.getDevices(null, null, 1).size());
+  }
+
+  @Test
+  void testGetDevicesStaysOrderedAsDevicesArriveAndMove() {
+    for (int i = 9; i >= 0; i--) {
+      String zone = i % 2 == 0 ? "kitchen" : "gym";
+      registry.update(new LatestReading("HR-" + i, "HEART_RATE", zone, 70.0, 1_000L));
+    }
+    registry.update(new LatestReading("HR-3", "HEART_RATE", "kitchen", 70.0, 2_000L));
+
+    assertEquals(
+        List.of("HR-0", "HR-1", "HR-2"),
+        registry.getDevices(null, null, 3).stream().map(LatestReading::getDeviceId).toList());
+    assertEquals(
+        List.of("HR-0", "HR-2", "HR-3", "HR-4"),
+        registry.getDevices("kitchen", "HEART_RATE", 4).stream()
+            .map(LatestReading::getDeviceId)
+            .toList());
+    assertEquals(6, registry.getZoneCounts().get("kitchen"));
+    assertEquals(4, registry.getZoneCounts().get("gym"));
+  }
+}
@@ -0,0 +1,118 @@
+package com.iot.system.stream.liveness;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.DeviceStatusEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LivenessTrackerTest {
+
+  private static final long T0 = 1_700_000_000_000L;
+
+  private LivenessTracker tracker;
+  private List<DeviceStatusEvent> events;
+
+  @BeforeEach
+  void setUp() {
+    // 100ms ticks, 64 buckets, 3 missed heartbeats, 10s default interval, 1s minimum timeout
+    tracker = new LivenessTracker(100, 64, 3, 10_000, 1_000, 0.5);
+    events = new ArrayList<>();
+  }
+
+  @Test
+  void testDeviceGoesOfflineAfterMissedHeartbeats() {
+    for (int i = 0; i < 5; i++) {
+      tracker.recordReading("D1", T0 + i * 1_000L, T0 + i * 1_000L, events::add);
+      tracker.advance(T0 + i * 1_000L, events::add);
+    }
+    assertEquals(1_000, tracker.get("D1", T0 + 4_000).getExpectedIntervalMillis());
+
+    tracker.advance(T0 + 6_900, events::add);
+    assertTrue(events.isEmpty());
+    assertEquals(1, tracker.getOnlineCount());
+
+    tracker.advance(T0 + 7_100, events::add);
+    assertEquals(1, events.size());
+    assertEquals(DeviceStatusEvent.Status.OFFLINE, events.get(0).getStatus());
+    assertEquals(1, tracker.getOfflineCount());
+    assertEquals("D1", tracker.getOffline(10, T0 + 7_100).get(0).getDeviceId());
+  }
+
+  @Test
+  void testSinkRunsWithoutTheTrackerLock() {
+    List<Boolean> lockHeld = new ArrayList<>();
+    tracker.recordReading("D1", T0, T0, event -> lockHeld.add(Thread.holdsLock(tracker)));
+    tracker.advance(T0 + 31_000, event -> lockHeld.add(Thread.holdsLock(tracker)));
+    tracker.recordReading(
+        "D1", T0 + 40_000, T0 + 40_000, event -> lockHeld.add(Thread.holdsLock(tracker)));
+
+    assertEquals(List.of(false, false), lockHeld);
+  }
+
+  @Test
+  void testDeviceComesBackOnline() {
+    tracker.recordReading("D1", T0, T0, events::add);
+    tracker.advance(T0 + 31_000, events::add);
+    assertEquals(1, events.size());
+
+    tracker.recordReading("D1", T0 + 40_000, T0 + 40_000, events::add);
+
+    assertEquals(2, events.size());
+    assertEquals(DeviceStatusEvent.Status.ONLINE, events.get(1).getStatus());
+    assertTrue(tracker.get("D1", T0 + 40_000).isOnline());
+    assertTrue(tracker.getOffline(10, T0 + 40_000).isEmpty());
+    // The outage is not learned as a reporting interval
+    assertEquals(10_000, tracker.get("D1", T0 + 40_000).getExpectedIntervalMillis());
+  }
+
+  @Test
+  void testDeadlinesBeyondOneRotationAreRebucketed() {
+    // 64 buckets of 100ms cover 6.4s, the default timeout is 30s
+    tracker.recordReading("D1", T0, T0, events::add);
+    for (long now = T0; now < T0 + 29_900; now += 100) {
+      tracker.advance(now, events::add);
+    }
+    assertTrue(events.isEmpty());
+
+    tracker.advance(T0 + 30_100, events::add);
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  void testStalledTickerStillExpiresEveryDevice() {
+    for (int i = 0; i < 1_000; i++) {
+      tracker.recordReading("D" + i, T0 + i, T0 + i, events::add);
+    }
+    tracker.advance(T0 + 120_000, events::add);
+
+    assertEquals(1_000, events.size());
+    assertEquals(0, tracker.getOnlineCount());
+    assertEquals(1_000, tracker.getOfflineCount());
+  }
+
+  @Test
+  void testStaleFirstReadingStartsOfflineWithoutEvent() {
+    tracker.recordReading("D1", T0 - 3_600_000, T0, events::add);
+
+    assertTrue(events.isEmpty());
+    assertFalse(tracker.get("D1", T0).isOnline());
+    assertEquals(1, tracker.getOfflineCount());
+  }
+
+  @Test
+  void testOutOfOrderReadingIsIgnored() {
+    tracker.recordReading("D1", T0 + 5_000, T0 + 5_000, events::add);
+    tracker.recordReading("D1", T0, T0 + 5_100, events::add);
+
+    assertEquals(T0 + 5_000, tracker.get("D1", T0 + 5_100).getLastSeenMillis());
+    assertEquals(10_000, tracker.get("D1", T0 + 5_100).getExpectedIntervalMillis());
+  }
+
+  @Test
+  void testWheelSizeMustBePowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new LivenessTracker(100, 100, 3, 1, 1, 0.5));
+  }
+}
@@ -0,0 +1,100 @@
+package com.iot.system.stream.rollup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.common.model.SensorReading;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MinuteRollupAggregatorTest {
+
+  private static final long MINUTE = 60_000L;
+  private static final long LATENESS = 10_000L;
+
+  private MinuteRollupAggregator aggregator;
+
+  @BeforeEach
+  void setUp() {
+    aggregator = new MinuteRollupAggregator(LATENESS, 0.01);
+  }
+
+  @Test
+  void testMinuteClosesAfterAllowedLateness() {
+    aggregator.add(reading("THERMO-1", 20.0), 1_000L, 0L);
+    aggregator.add(reading("THERMO-1", 22.0), 30_000L, 0L);
+    aggregator.add(reading("THERMO-1", 24.0), MINUTE + 5_000L, 0L);
+    assertTrue(aggregator.drainClosed(0L).isEmpty());
+
+    aggregator.add(reading("THERMO-1", 25.0), MINUTE + LATENESS, 0L);
+    List<MinuteRollup> closed = aggregator.drainClosed(0L);
+
+    assertEquals(1, closed.size());
+    MinuteRollup rollup = closed.get(0);
+    assertEquals(0L, rollup.getMinute());
+    assertEquals(2, rollup.getCount());
+    assertEquals(42.0, rollup.getSum());
+    assertEquals(20.0 * 20.0 + 22.0 * 22.0, rollup.getSumOfSquares());
+    assertEquals(20.0, rollup.getMin());
+    assertEquals(22.0, rollup.getMax());
+    assertEquals(2, rollup.getSketch().getCount());
+  }
+
+  @Test
+  void testReadingsWithinLatenessStillCount() {
+    aggregator.add(reading("THERMO-1", 20.0), 50_000L, 0L);
+    aggregator.add(reading("THERMO-1", 21.0), MINUTE + 2_000L, 0L);
+    aggregator.add(reading("THERMO-1", 19.0), 55_000L, 0L);
+
+    aggregator.add(reading("THERMO-1", 21.0), MINUTE + LATENESS, 0L);
+    List<MinuteRollup> closed = aggregator.drainClosed(0L);
+
+    assertEquals(2, closed.get(0).getCount());
+    assertEquals(0, aggregator.getLateReadingCount());
+  }
+
+  @Test
+  void testReadingsForClosedMinuteAreDropped() {
+    aggregator.add(reading("THERMO-1", 20.0), 1_000L, 0L);
+    aggregator.add(reading("THERMO-1", 21.0), MINUTE + LATENESS, 0L);
+    aggregator.drainClosed(0L);
+
+    aggregator.add(reading("THERMO-1", 99.0), 2_000L, 0L);
+
+    assertEquals(1, aggregator.getLateReadingCount());
+  }
+
+  @Test
+  void testIdleMinuteIsClosedByWallClock() {
+    aggregator.add(reading("FUEL-1", 80.0), 1_000L, 100_000L);
+
+    assertTrue(aggregator.drainClosed(100_000L + MINUTE).isEmpty());
+    assertEquals(1, aggregator.drainClosed(100_000L + MINUTE + LATENESS).size());
+    assertEquals(0, aggregator.getOpenRollupCount());
+  }
+
+  @Test
+  void testDrainAllClosesEverything() {
+    aggregator.add(reading("THERMO-1", 20.0), 1_000L, 0L);
+    aggregator.add(reading("HR-1", 70.0), 1_000L, 0L);
+
+    assertEquals(2, aggregator.drainAll().size());
+    assertEquals(0, aggregator.getOpenRollupCount());
+  }
+
+  @Test
+  void testRequeuedMinutesAreDrainedAgain() {
+    aggregator.add(reading("THERMO-1", 20.0), 1_000L, 0L);
+    List<MinuteRollup> closed = aggregator.drainAll();
+
+    aggregator.requeue(closed);
+
+    assertEquals(closed, aggregator.drainClosed(0L));
+    assertTrue(aggregator.drainClosed(0L).isEmpty());
+  }
+
+  private SensorReading reading(String deviceId, double value) {
+    return new SensorReading(deviceId, "THERMOSTAT", "kitchen", value, LocalDateTime.now());
+  }
+}
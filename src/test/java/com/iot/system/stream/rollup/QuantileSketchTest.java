@@ -0,0 +1,71 @@
+package com.iot.system.stream.rollup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+  @Test
+  void testQuantilesWithinRelativeAccuracy() {
+    QuantileSketch sketch = new QuantileSketch(0.01);
+    for (int i = 1; i <= 1000; i++) {
+      sketch.add(i);
+    }
+
+    assertEquals(1000, sketch.getCount());
+    assertEquals(500.0, sketch.quantile(0.5), 500.0 * 0.01 + 1);
+    assertEquals(950.0, sketch.quantile(0.95), 950.0 * 0.01 + 1);
+    assertEquals(1.0, sketch.quantile(0.0), 0.01);
+  }
+
+  @Test
+  void testNegativeAndZeroValues() {
+    QuantileSketch sketch = new QuantileSketch(0.01);
+    sketch.add(-10.0);
+    sketch.add(0.0);
+    sketch.add(10.0);
+
+    assertEquals(-10.0, sketch.quantile(0.0), 0.1);
+    assertEquals(0.0, sketch.quantile(0.5));
+    assertEquals(10.0, sketch.quantile(1.0), 0.1);
+  }
+
+  @Test
+  void testSerializationRoundTrip() {
+    QuantileSketch sketch = new QuantileSketch(0.01);
+    for (int i = 0; i < 60; i++) {
+      sketch.add(20.0 + i * 0.1);
+    }
+    sketch.add(-3.0);
+
+    byte[] bytes = sketch.toBytes();
+    QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+
+    assertTrue(bytes.length < 120, "Sketch should stay compact: " + bytes.length);
+    assertEquals(sketch.getCount(), restored.getCount());
+    assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+    assertEquals(sketch.quantile(0.0), restored.quantile(0.0));
+  }
+
+  @Test
+  void testMerge() {
+    QuantileSketch first = new QuantileSketch(0.01);
+    QuantileSketch second = new QuantileSketch(0.01);
+    first.add(10.0);
+    second.add(1000.0);
+
+    first.merge(second);
+
+    assertEquals(2, first.getCount());
+    assertEquals(1000.0, first.quantile(1.0), 10.0);
+  }
+
+  @Test
+  void testEmptySketch() {
+    QuantileSketch sketch = new QuantileSketch(0.01);
+
+    assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    assertEquals(0, QuantileSketch.fromBytes(sketch.toBytes()).getCount());
+  }
+}
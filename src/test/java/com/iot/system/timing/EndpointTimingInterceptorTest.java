@@ -0,0 +1,108 @@
+package com.iot.system.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.service.QueryTimingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+class EndpointTimingInterceptorTest {
+
+  private final QueryTimingProperties properties = new QueryTimingProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private QueryTimingService service;
+  private EndpointTimingInterceptor interceptor;
+  private HandlerMethod handler;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    properties.setSlowThresholdMs(0);
+    service = new QueryTimingService();
+    ReflectionTestUtils.setField(service, "properties", properties);
+    ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(service, "jdbcTemplate", new JdbcTemplate());
+    service.initialize();
+    interceptor = new EndpointTimingInterceptor(service);
+    handler = new HandlerMethod(this, getClass().getDeclaredMethod("getDeviceAggregates"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  /** Stands in for the controller method being timed */
+  void getDeviceAggregates() {}
+
+  private MockHttpServletRequest request(String startTime, String endTime) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(
+        HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("deviceId", "HR-0000007"));
+    request.addParameter("startTime", startTime);
+    request.addParameter("endTime", endTime);
+    return request;
+  }
+
+  @Test
+  void testTimesRequestsByEndpointDimensionAndRange() {
+    MockHttpServletRequest request = request("2024-01-01T00:00:00", "2024-01-20T00:00:00");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(request, response, handler));
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(QueryTimingService.METRIC)
+            .tag("layer", "endpoint")
+            .tag("operation", "getDeviceAggregates")
+            .tag("dimension", "device")
+            .tag("range", "31d")
+            .tag("outcome", "success")
+            .timer()
+            .count());
+    Map<?, ?> parameters = (Map<?, ?>) service.getSlowQueries().get(0).get("parameters");
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), parameters.get("startTime"));
+    assertEquals("HR-0000007", service.getSlowQueries().get(0).get("subject"));
+  }
+
+  @Test
+  void testErrorResponsesAndUnparsableTimes() {
+    MockHttpServletRequest request = request("yesterday", "2024-01-20T00:00:00");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    response.setStatus(400);
+
+    interceptor.preHandle(request, response, handler);
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(QueryTimingService.METRIC)
+            .tag("range", "none")
+            .tag("outcome", "error")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void testRequestsWithoutAStartAreIgnored() {
+    MockHttpServletRequest request = request("2024-01-01T00:00:00", "2024-01-02T00:00:00");
+
+    interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+    assertNull(meterRegistry.find(QueryTimingService.METRIC).timer());
+  }
+}
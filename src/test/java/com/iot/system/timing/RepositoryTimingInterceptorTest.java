@@ -0,0 +1,172 @@
+package com.iot.system.timing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.iot.system.config.QueryTimingProperties;
+import com.iot.system.repository.SensorAggregateResult;
+import com.iot.system.service.QueryTimingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RepositoryTimingInterceptorTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  interface ReadingQueries extends Repository<String, Long> {
+
+    @Query(value = "SELECT value FROM sensor_readings WHERE zone = :zone", nativeQuery = true)
+    Object[][] findValues(
+        @Param("zone") String zone,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime);
+
+    SensorAggregateResult findAggregates(@Param("deviceId") String deviceId);
+
+    List<String> saveAll(List<String> entities);
+  }
+
+  private final QueryTimingProperties properties = new QueryTimingProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private QueryTimingService service;
+  private ReadingQueries queries;
+
+  @BeforeEach
+  void setUp() {
+    properties.setSlowThresholdMs(0);
+    service = new QueryTimingService();
+    ReflectionTestUtils.setField(service, "properties", properties);
+    ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(service, "jdbcTemplate", new JdbcTemplate());
+    service.initialize();
+
+    ReadingQueries target =
+        new ReadingQueries() {
+          @Override
+          public Object[][] findValues(
+              String zone, LocalDateTime startTime, LocalDateTime endTime) {
+            return new Object[][] {{1.0}, {2.0}, {3.0}};
+          }
+
+          @Override
+          public SensorAggregateResult findAggregates(String deviceId) {
+            if (deviceId == null) {
+              throw new IllegalArgumentException("deviceId");
+            }
+            return new SensorAggregateResult(1.0, 2.0, 1.5, 1.5, 1.2, 1.8, 2.0, 360);
+          }
+
+          @Override
+          public List<String> saveAll(List<String> entities) {
+            return entities;
+          }
+        };
+    ProxyFactory proxyFactory = new ProxyFactory(target);
+    proxyFactory.addInterface(ReadingQueries.class);
+    proxyFactory.addAdvisor(
+        new DefaultPointcutAdvisor(
+            RepositoryTimingInterceptor.QUERY_METHODS,
+            new RepositoryTimingInterceptor(
+                new StaticListableBeanFactory(Map.of("queryTimingService", service))
+                    .getBeanProvider(QueryTimingService.class))));
+    queries = (ReadingQueries) proxyFactory.getProxy();
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void testTimesNativeQueriesWithDimensionRangeAndRows() {
+    assertEquals(3, queries.findValues("kitchen", START, START.plusHours(6)).length);
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(QueryTimingService.METRIC)
+            .tag("layer", "repository")
+            .tag("operation", "findValues")
+            .tag("dimension", "zone")
+            .tag("range", "1d")
+            .timer()
+            .count());
+    Map<String, Object> slow = service.getSlowQueries().get(0);
+    assertEquals("kitchen", slow.get("subject"));
+    assertEquals(3L, slow.get("rows"));
+  }
+
+  @Test
+  void testAggregateRowsAreTheReadingsCovered() {
+    queries.findAggregates("THERMO-0000001");
+
+    Map<String, Object> slow = service.getSlowQueries().get(0);
+    assertEquals("device", slow.get("dimension"));
+    assertEquals(360L, slow.get("rows"));
+  }
+
+  @Test
+  void testFailuresAreTimedAsErrors() {
+    assertThrows(IllegalArgumentException.class, () -> queries.findAggregates(null));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(QueryTimingService.METRIC)
+            .tag("operation", "findAggregates")
+            .tag("outcome", "error")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void testCollectionParametersAreKeptAsTheirSize() {
+    queries.saveAll(List.of("a", "b"));
+
+    Map<?, ?> parameters = (Map<?, ?>) service.getSlowQueries().get(0).get("parameters");
+    assertEquals("[2 items]", parameters.get("entities"));
+    assertEquals("none", service.getSlowQueries().get(0).get("range"));
+  }
+
+  @Test
+  void testOnlyQueryMethodsAreTimed() throws Exception {
+    assertTrue(
+        RepositoryTimingInterceptor.isQueryMethod(
+            ReadingQueries.class.getMethod("findAggregates", String.class)));
+    assertTrue(
+        RepositoryTimingInterceptor.isQueryMethod(
+            CrudRepository.class.getMethod("findById", Object.class)));
+    assertTrue(RepositoryTimingInterceptor.isQueryMethod(CrudRepository.class.getMethod("count")));
+    assertFalse(
+        RepositoryTimingInterceptor.isQueryMethod(
+            CrudRepository.class.getMethod("saveAll", Iterable.class)));
+    assertFalse(
+        RepositoryTimingInterceptor.isQueryMethod(
+            CrudRepository.class.getMethod("deleteById", Object.class)));
+    assertFalse(RepositoryTimingInterceptor.isQueryMethod(Object.class.getMethod("toString")));
+
+    queries.toString();
+    assertTrue(service.getSlowQueries().isEmpty());
+  }
+
+  @Test
+  void testRowCounts() {
+    assertEquals(2, RepositoryTimingInterceptor.rowCount(List.of(1, 2)));
+    assertEquals(1, RepositoryTimingInterceptor.rowCount(new Object[][] {{1}}));
+    assertEquals(1, RepositoryTimingInterceptor.rowCount(42L));
+    assertEquals(0, RepositoryTimingInterceptor.rowCount(null));
+  }
+}